@@ -0,0 +1,79 @@
+package swimclub.benchmarks;
+
+import swimclub.models.Member;
+import swimclub.utilities.ClubDataGenerator;
+import swimclub.utilities.FileHandler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * BenchmarkData writes a club of a given size to a temporary directory for the benchmarks.
+ * The data is generated from a fixed seed, so every run measures the same files.
+ */
+public class BenchmarkData {
+    private final Path directory;
+    private final FileHandler fileHandler;
+    private final List<Member> members;
+
+    private BenchmarkData(Path directory) {
+        this.directory = directory;
+        this.fileHandler = new FileHandler(
+                path("members.dat"), path("payments.dat"), path("reminders.dat"), path("paymentRates.dat"),
+                path("teams.dat"), path("competitionResults.dat"), path("staff.dat"), path("trainingResults.dat")
+        );
+        this.members = fileHandler.loadMembers();
+    }
+
+    /**
+     * Generates a club with {@link ClubDataGenerator} and writes all its data files.
+     *
+     * @param memberCount The number of members.
+     * @return The written club.
+     * @throws IOException If the files cannot be written.
+     */
+    public static BenchmarkData create(int memberCount) throws IOException {
+        Path directory = Files.createTempDirectory("swimclub-bench");
+        new ClubDataGenerator(ClubDataGenerator.DEFAULT_SEED).generate(directory, memberCount);
+        return new BenchmarkData(directory);
+    }
+
+    /**
+     * @param fileName A data file name, e.g. members.dat.
+     * @return The path of the file in the benchmark directory.
+     */
+    public String path(String fileName) {
+        return directory.resolve(fileName).toString();
+    }
+
+    /**
+     * @return A file handler reading and writing the benchmark files.
+     */
+    public FileHandler getFileHandler() {
+        return fileHandler;
+    }
+
+    /**
+     * @return The generated members, in ID order.
+     */
+    public List<Member> getMembers() {
+        return members;
+    }
+
+    /**
+     * Deletes the benchmark directory and everything in it.
+     *
+     * @throws IOException If a file cannot be deleted.
+     */
+    public void delete() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
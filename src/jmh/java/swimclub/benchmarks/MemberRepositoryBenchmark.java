@@ -0,0 +1,83 @@
+package swimclub.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import swimclub.models.*;
+import swimclub.repositories.MemberRepository;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the member lookups: search by name, phone number, partial email and misspelled name, lookup by ID
+ * and a filter on the enum fields.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MemberRepositoryBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int memberCount;
+
+    private BenchmarkData data;
+    private MemberRepository memberRepository;
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        data = BenchmarkData.create(memberCount);
+        memberRepository = new MemberRepository(data.getFileHandler());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        data.delete();
+    }
+
+    private int randomMemberId() {
+        return 1 + random.nextInt(memberCount);
+    }
+
+    @Benchmark
+    public List<Member> searchByName() {
+        return memberRepository.search(memberRepository.findById(randomMemberId()).getName());
+    }
+
+    @Benchmark
+    public List<Member> searchByPhoneNumber() {
+        return memberRepository.search(String.valueOf(memberRepository.findById(randomMemberId()).getPhoneNumber()));
+    }
+
+    @Benchmark
+    public List<Member> searchByPartialEmail() {
+        String email = memberRepository.findById(randomMemberId()).getEmail();
+        return memberRepository.search(email.substring(0, email.indexOf('@')));
+    }
+
+    @Benchmark
+    public List<Member> searchByNameWithTypo() {
+        String name = memberRepository.findById(randomMemberId()).getName();
+        return memberRepository.search(name.substring(0, name.length() - 2) + name.charAt(name.length() - 1)); // Drops a letter
+    }
+
+    @Benchmark
+    public Member findById() {
+        return memberRepository.findById(randomMemberId());
+    }
+
+    @Benchmark
+    public int countActiveSeniorCompetitiveCrawlersWithPendingPayment() {
+        return memberRepository.query()
+                .withMembershipStatus(MembershipStatus.ACTIVE)
+                .withLevel(MembershipLevel.SENIOR)
+                .withCategory(MembershipCategory.COMPETITIVE)
+                .withActivityType(ActivityType.CRAWL)
+                .withPaymentStatus(PaymentStatus.PENDING)
+                .count();
+    }
+}
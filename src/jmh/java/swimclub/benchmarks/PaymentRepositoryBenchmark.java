@@ -0,0 +1,63 @@
+package swimclub.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import swimclub.models.Payment;
+import swimclub.repositories.MemberRepository;
+import swimclub.repositories.PaymentRepository;
+import swimclub.services.PaymentService;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks loading payments.dat and linking every payment to its member, looking up the payment history of a
+ * member, and the payment summary. The lookup and the summary should take the same time for any number of members.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PaymentRepositoryBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int memberCount;
+
+    private BenchmarkData data;
+    private MemberRepository memberRepository;
+    private PaymentService paymentService;
+    private PaymentRepository loadedPayments;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        data = BenchmarkData.create(memberCount);
+        memberRepository = new MemberRepository(data.getFileHandler());
+        paymentService = new PaymentService(new PaymentRepository(data.path("reminders.dat")), data.getFileHandler());
+        loadedPayments = loadPayments();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        data.delete();
+    }
+
+    @Benchmark
+    public PaymentRepository loadPayments() {
+        PaymentRepository paymentRepository = new PaymentRepository(data.path("reminders.dat"));
+        paymentRepository.loadPayments(data.path("payments.dat"), memberRepository);
+        return paymentRepository;
+    }
+
+    @Benchmark
+    public List<Payment> findPaymentsByMemberId() {
+        return loadedPayments.findPaymentsByMemberId(ThreadLocalRandom.current().nextInt(1, memberCount + 1));
+    }
+
+    @Benchmark
+    public String paymentSummary() {
+        return paymentService.getPaymentSummary(memberRepository);
+    }
+}
@@ -0,0 +1,81 @@
+package swimclub.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import swimclub.models.Member;
+import swimclub.models.Team;
+import swimclub.repositories.MemberRepository;
+import swimclub.repositories.StaffRepository;
+import swimclub.utilities.DurableFile;
+import swimclub.utilities.FileHandler;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks loading teams.dat when every member is on a team, from a single team holding the whole club to
+ * many small teams. Loading should grow linearly with the number of members and not depend on the team sizes,
+ * so the time per member stays the same across all parameters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TeamLoadingBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int memberCount;
+
+    @Param({"1", "1000"})
+    public int teamCount;
+
+    private BenchmarkData data;
+    private FileHandler fileHandler;
+    private StaffRepository staffRepository;
+    private MemberRepository memberRepository;
+    private List<Member> members;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        data = BenchmarkData.create(memberCount);
+        fileHandler = data.getFileHandler();
+        staffRepository = new StaffRepository(fileHandler);
+        memberRepository = new MemberRepository(fileHandler);
+        members = data.getMembers();
+        writeTeams();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        data.delete();
+    }
+
+    /**
+     * Replaces the generated teams with teamCount teams that split all members between them.
+     */
+    private void writeTeams() throws IOException {
+        int coachId = staffRepository.findAll().get(0).getCoachId();
+        DurableFile.writeLines(Path.of(data.path("teams.dat")), sink -> {
+            for (int team = 0; team < teamCount; team++) {
+                StringBuilder line = new StringBuilder("Team" + team + ";SENIOR_COMPETITIVE;" + coachId + ";");
+                for (int i = team; i < members.size(); i += teamCount) {
+                    line.append(members.get(i).getMemberId()).append(',');
+                }
+                sink.accept(line.toString());
+            }
+        });
+    }
+
+    @Benchmark
+    public List<Team> loadTeamsWithMemberList() {
+        return fileHandler.loadTeams(members, staffRepository);
+    }
+
+    @Benchmark
+    public List<Team> loadTeamsWithRepositoryLookup() {
+        return fileHandler.loadTeams(memberRepository::findById, staffRepository);
+    }
+}
@@ -0,0 +1,63 @@
+package swimclub.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import swimclub.models.ActivityType;
+import swimclub.models.MembershipLevel;
+import swimclub.models.TrainingResults;
+import swimclub.repositories.MemberRepository;
+import swimclub.repositories.TrainingResultsRepository;
+import swimclub.utilities.Leaderboard;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the top 5 training results per discipline and level, as shown by TrainingResultsController.
+ * filterAndSort measures the old way of copying, filtering and sorting all results as a baseline for the leaderboard.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TopResultsBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int memberCount;
+
+    private BenchmarkData data;
+    private TrainingResultsRepository trainingResultsRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        data = BenchmarkData.create(memberCount);
+        MemberRepository memberRepository = new MemberRepository(data.getFileHandler());
+        trainingResultsRepository = new TrainingResultsRepository(data.getFileHandler(), data.path("trainingResults.dat"), memberRepository);
+        trainingResultsRepository.loadResults(memberRepository);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        data.delete();
+    }
+
+    @Benchmark
+    public List<TrainingResults> leaderboard() {
+        return trainingResultsRepository.getTopResults(ActivityType.CRAWL, MembershipLevel.SENIOR, 5);
+    }
+
+    @Benchmark
+    public List<TrainingResults> filterAndSort() {
+        List<TrainingResults> crawlResults = new ArrayList<>();
+        for (TrainingResults result : trainingResultsRepository.getAllResults()) {
+            if (result.getActivityType() == ActivityType.CRAWL && result.getLevel() == MembershipLevel.SENIOR) {
+                crawlResults.add(result);
+            }
+        }
+        crawlResults.sort(Leaderboard.BEST_TIME_FIRST);
+        return crawlResults.subList(0, Math.min(5, crawlResults.size()));
+    }
+}
@@ -0,0 +1,73 @@
+package swimclub.utilities;
+
+import org.openjdk.jmh.annotations.*;
+import swimclub.benchmarks.BenchmarkData;
+import swimclub.models.Member;
+import swimclub.models.Team;
+import swimclub.repositories.StaffRepository;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks loading and saving the member and team files at different club sizes and under each fsync policy,
+ * so the cost of forcing writes to disk is visible next to the cost of the write itself.
+ * Loading includes the checksum check of the whole file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FileHandlerBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int memberCount;
+
+    @Param({"FILE_AND_DIRECTORY", "FILE", "NONE"})
+    public DurableFile.FsyncPolicy fsyncPolicy;
+
+    private BenchmarkData data;
+    private FileHandler fileHandler;
+    private MemberJournal journal;
+    private StaffRepository staffRepository;
+    private List<Member> members;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        DurableFile.setFsyncPolicy(fsyncPolicy);
+        data = BenchmarkData.create(memberCount);
+        fileHandler = data.getFileHandler();
+        journal = fileHandler.openMemberJournal();
+        staffRepository = new StaffRepository(fileHandler);
+        members = data.getMembers();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        data.delete();
+    }
+
+    @Benchmark
+    public List<Member> loadMembers() {
+        return fileHandler.loadMembers();
+    }
+
+    @Benchmark
+    public boolean saveMembers() {
+        return fileHandler.saveMembers(members);
+    }
+
+    @Benchmark
+    public List<Team> loadTeams() {
+        return fileHandler.loadTeams(members, staffRepository);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void appendJournalRecord() {
+        journal.recordSave(members.get(0));
+    }
+}
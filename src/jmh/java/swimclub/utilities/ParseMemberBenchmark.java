@@ -0,0 +1,43 @@
+package swimclub.utilities;
+
+import org.openjdk.jmh.annotations.*;
+import swimclub.benchmarks.BenchmarkData;
+import swimclub.models.Member;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks parsing and formatting a single line of members.dat.
+ * Lives in swimclub.utilities to reach the package-private parseMember and formatMember.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseMemberBenchmark {
+    private FileHandler fileHandler;
+    private Member member;
+    private String line;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkData data = BenchmarkData.create(1);
+        fileHandler = data.getFileHandler(); // Only used for parsing and formatting, its files are not read again
+        member = data.getMembers().get(0);
+        line = fileHandler.formatMember(member);
+        data.delete();
+    }
+
+    @Benchmark
+    public Member parseMember() {
+        return fileHandler.parseMember(line);
+    }
+
+    @Benchmark
+    public String formatMember() {
+        return fileHandler.formatMember(member);
+    }
+}
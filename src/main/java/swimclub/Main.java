@@ -1,11 +1,22 @@
 package swimclub;
 
+import swimclub.utilities.DurableFile;
+import swimclub.utilities.FileChangeWatcher;
 import swimclub.utilities.FileHandler;
+import swimclub.utilities.SequenceAllocator;
+import swimclub.utilities.StartupLoader;
+import swimclub.utilities.WriteBehindPersister;
 import swimclub.controllers.*;
 import swimclub.repositories.*;
+import swimclub.server.ClubHttpServer;
 import swimclub.services.*;
 import swimclub.ui.UserInterface;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
 public class Main {
     public static void main(String[] args) {
         // File paths for various data files
@@ -18,27 +29,85 @@ public class Main {
         String staffFilePath = "src/main/resources/staff.dat";
         String trainingResultsFilePath = "src/main/resources/trainingResults.dat";
         String authFilePath = "src/main/resources/users.dat";
+        String memberSnapshotPath = "src/main/resources/members.snapshot";
+
+        // Data files without a checksum trailer are only loaded after an explicit one-time migration,
+        // otherwise a missing trailer is treated as a truncated file
+        if (Boolean.getBoolean("swimclub.migrateLegacyFiles")) {
+            for (String filePath : new String[]{memberFilePath, paymentFilePath, reminderFilePath, paymentRatesFilePath,
+                    teamsFilePath, competitionResultsFilePath, staffFilePath, trainingResultsFilePath, authFilePath}) {
+                try {
+                    if (DurableFile.migrateLegacyFile(Path.of(filePath))) {
+                        System.out.println("Added a checksum trailer to " + filePath + ".");
+                    }
+                } catch (IOException e) {
+                    System.err.println("Could not migrate " + filePath + ": " + e.getMessage());
+                }
+            }
+        }
 
         // Initialize FileHandler for managing file operations
         FileHandler fileHandler = new FileHandler(
                 memberFilePath, paymentFilePath, reminderFilePath, paymentRatesFilePath,
                 teamsFilePath, competitionResultsFilePath, staffFilePath, trainingResultsFilePath
         );
+        fileHandler.setMemberSnapshotPath(memberSnapshotPath); // Binary copy of members.dat for faster startup
+
+        // Write files in the background, collecting bursts of changes into one write per file
+        long flushWindowMillis = Long.getLong("swimclub.flushWindowMillis", WriteBehindPersister.DEFAULT_FLUSH_WINDOW_MILLIS);
+        WriteBehindPersister writeBehind = new WriteBehindPersister(flushWindowMillis);
+        fileHandler.setWriteBehind(writeBehind);
+
+        // Load the data files in parallel: members and staff first, then everything that refers to them
+        StartupLoader startupLoader = new StartupLoader(StartupLoader.defaultThreads());
+        CompletableFuture<MemberRepository> membersLoaded = startupLoader.load("members",
+                () -> new MemberRepository(fileHandler, true)); // Journal mode: appends instead of rewriting members.dat
+        CompletableFuture<StaffRepository> staffLoaded = startupLoader.load("staff",
+                () -> new StaffRepository(fileHandler));
+        CompletableFuture<PaymentRepository> paymentsLoaded = startupLoader.load("payments", () -> {
+            PaymentRepository repository = new PaymentRepository(reminderFilePath);
+            repository.loadPayments(paymentFilePath, membersLoaded.join());
+            return repository;
+        }, membersLoaded);
+        CompletableFuture<CompetitionResultRepository> competitionResultsLoaded = startupLoader.load("competitionResults", () -> {
+            CompetitionResultRepository repository = new CompetitionResultRepository(fileHandler, competitionResultsFilePath);
+            repository.loadResults(membersLoaded.join());
+            return repository;
+        }, membersLoaded);
+        CompletableFuture<TrainingResultsRepository> trainingResultsLoaded = startupLoader.load("trainingResults", () -> {
+            TrainingResultsRepository repository = new TrainingResultsRepository(fileHandler, trainingResultsFilePath, membersLoaded.join());
+            repository.loadResults(membersLoaded.join());
+            return repository;
+        }, membersLoaded);
+        CompletableFuture<TeamRepository> teamsLoaded = startupLoader.load("teams", () -> {
+            TeamRepository repository = new TeamRepository(fileHandler);
+            repository.loadTeams(membersLoaded.join(), staffLoaded.join());
+            return repository;
+        }, membersLoaded, staffLoaded);
+        startupLoader.awaitAll();
+        startupLoader.printLoadTimes();
+
+        MemberRepository memberRepository = membersLoaded.join();
+        StaffRepository staffRepository = staffLoaded.join();
+        PaymentRepository paymentRepository = paymentsLoaded.join();
+        CompetitionResultRepository competitionResultRepository = competitionResultsLoaded.join();
+        TrainingResultsRepository trainingResultsRepository = trainingResultsLoaded.join();
+        TeamRepository teamRepository = teamsLoaded.join();
+
+        // IDs come from sequences stored next to the data files, so IDs of deleted records are never handed out again
+        memberRepository.setIdSequence(new SequenceAllocator(memberFilePath + ".seq", "member IDs"));
+        paymentRepository.setIdSequence(new SequenceAllocator(paymentFilePath + ".seq", "payment IDs"));
+        staffRepository.setIdSequence(new SequenceAllocator(staffFilePath + ".seq", "coach IDs"));
+
+        // Deleting or reloading members keeps the team member lists and the members' team names in line
+        memberRepository.setTeamMemberships(teamRepository.getMemberships());
 
-        // Initialize the repositories
-        MemberRepository memberRepository = new MemberRepository(fileHandler);
-        PaymentRepository paymentRepository = new PaymentRepository(reminderFilePath);
-        CompetitionResultRepository competitionResultRepository = new CompetitionResultRepository(fileHandler, competitionResultsFilePath);
-        StaffRepository staffRepository = new StaffRepository(fileHandler);
-        TrainingResultsRepository trainingResultsRepository = new TrainingResultsRepository(fileHandler, trainingResultsFilePath, memberRepository);
+        // Users are loaded after the parallel loads, AuthRepository may prompt for an admin user on the console
         UserRepository userRepository = new UserRepository(authFilePath);  // Use UserRepository for user management
         AuthRepository authRepository = new AuthRepository(authFilePath);
-
-        // Load data from the repositories
-        memberRepository.reloadMembers();
-        paymentRepository.loadPayments(paymentFilePath, memberRepository);
-        competitionResultRepository.loadResults(memberRepository);
-        trainingResultsRepository.loadResults(memberRepository);
+        paymentRepository.setWriteBehind(writeBehind);
+        userRepository.setWriteBehind(writeBehind);
+        authRepository.setWriteBehind(writeBehind);
 
         // Initialize services
         MemberService memberService = new MemberService(memberRepository);
@@ -46,9 +115,7 @@ public class Main {
         CompetitionResultService competitionResultService = new CompetitionResultService(competitionResultRepository);
         TrainingResultsService trainingResultsService = new TrainingResultsService(trainingResultsRepository);
 
-        // Initialize the necessary repositories for teams and staff
-        TeamRepository teamRepository = new TeamRepository(fileHandler);
-        teamRepository.loadTeams(memberRepository, staffRepository);
+        // Initialize services for teams
         TeamService teamService = new TeamService(teamRepository);
 
         // Initialize services for staff and authentication
@@ -63,6 +130,27 @@ public class Main {
         TrainingResultsController trainingResultsController = new TrainingResultsController(trainingResultsService, trainingResultsRepository);
         AdminController adminController = new AdminController(authService, userRepository);  // Pass AuthService and UserRepository to AdminController
         PaymentController paymentController = new PaymentController(paymentService, memberRepository, fileHandler, paymentFilePath, paymentRatesFilePath, adminController);
+        paymentController.setBillingService(new BillingService(paymentService, paymentRepository, memberRepository, fileHandler, paymentFilePath));
+
+        // Write the reminders for pending and overdue payments now and then every period, 0 turns the job off
+        ReminderService reminderService = new ReminderService(paymentService, paymentRepository, memberRepository);
+        paymentController.setReminderService(reminderService);
+        long reminderPeriodHours = Long.getLong("swimclub.reminderPeriodHours", 24);
+        if (reminderPeriodHours > 0) {
+            reminderService.start(reminderPeriodHours, TimeUnit.HOURS);
+        }
+
+        // Reload the fee rules when paymentRates.dat is edited, without a restart
+        FileChangeWatcher paymentRatesWatcher = new FileChangeWatcher(Path.of(paymentRatesFilePath), () -> {
+            if (paymentService.updatePaymentRatesFromFile()) {
+                System.out.println("Payment rates reloaded from " + paymentRatesFilePath + ".");
+            }
+        });
+        try {
+            paymentRatesWatcher.start();
+        } catch (IOException e) {
+            System.err.println("Could not watch " + paymentRatesFilePath + " for changes: " + e.getMessage());
+        }
 
         // Initialize the UserInterface and pass all controllers to it
         UserInterface userInterface = new UserInterface(memberController,
@@ -73,11 +161,42 @@ public class Main {
                 trainingResultsController,
                 adminController);
 
+        // Server mode (--server [port]) serves the controllers over HTTP instead of the console menus
+        boolean serverMode = args.length > 0 && args[0].equals("--server");
+        ClubHttpServer server = serverMode ? new ClubHttpServer(memberController, paymentController, teamController,
+                competitionResultController, trainingResultsController, memberRepository, authRepository) : null;
+
+        // Compact the member journal and drain pending writes on shutdown, the menus exit through System.exit()
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (server != null) {
+                server.stop(); // Finish running requests before the last writes
+            }
+            reminderService.stop();
+            paymentRatesWatcher.stop();
+            memberRepository.compactJournal();
+            writeBehind.shutdown();
+            if (Boolean.getBoolean("swimclub.fsyncStats")) {
+                System.out.println(DurableFile.getStatistics()); // Shows what forcing writes to disk costs
+            }
+        }));
+
+        if (serverMode) {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : ClubHttpServer.DEFAULT_PORT;
+            try {
+                server.start(port);
+                System.out.println("Server listening on port " + server.getPort() + ", stop it with Ctrl+C.");
+            } catch (IOException e) {
+                System.err.println("Could not start server on port " + port + ": " + e.getMessage());
+                System.exit(1);
+            }
+            return; // The server threads keep running, every change is written as it is made
+        }
+
         // Start the User Interface
         userInterface.start();
 
         // After user interaction, save the updated data
-        fileHandler.saveMembers(memberRepository.findAll());
+        memberRepository.saveMembers();
         fileHandler.savePayments(paymentRepository.findAll(), paymentFilePath);
         fileHandler.saveTeams(teamController.getAllTeams());
         fileHandler.saveCompetitionResults(competitionResultRepository.getAllResults(), competitionResultsFilePath);
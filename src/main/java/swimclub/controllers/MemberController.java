@@ -2,14 +2,17 @@ package swimclub.controllers;
 
 import swimclub.models.*;
 import swimclub.repositories.MemberRepository;
+import swimclub.services.MemberImportService;
 import swimclub.services.MemberService;
 import swimclub.utilities.Validator;
 
+import java.io.IOException;
 import java.util.List;
 
 public class MemberController {
     private final MemberService memberService;
     private final MemberRepository memberRepository;
+    private final MemberImportService memberImportService;
 
     // === CONSTRUCTOR ===
     /**
@@ -21,6 +24,7 @@ public class MemberController {
     public MemberController(MemberService memberService, MemberRepository memberRepository) {
         this.memberService = memberService;
         this.memberRepository = memberRepository;
+        this.memberImportService = new MemberImportService(memberRepository);
     }
 
     // === MEMBER REGISTRATION ===
@@ -61,9 +65,8 @@ public class MemberController {
             // Parse the age safely
             int age = parseAge(ageStr);
 
-            // Generate the next available member ID
-            int memberId = memberRepository.getNextMemberId();
-            String memberIdString = String.valueOf(memberId); // Convert memberId to String
+            // The member ID is allocated by the MemberService when the member is registered
+            String memberIdString = "0";
 
             // Dynamically create a JuniorMember or SeniorMember based on age
             Member newMember;
@@ -79,9 +82,6 @@ public class MemberController {
             memberService.registerMember(newMember);
             returnMember = newMember;
 
-            // Reload members to immediately reflect the changes
-            memberRepository.reloadMembers();
-
             System.out.println("Member registered successfully.");
         } catch (IllegalArgumentException e) {
             System.out.println("Error: " + e.getMessage());
@@ -89,6 +89,26 @@ public class MemberController {
         return returnMember;
     }
 
+    // === BULK IMPORT ===
+    /**
+     * Imports the members of a roster file, e.g. when another club joins, and prints a per-row error report.
+     * See {@link MemberImportService} for the file format.
+     *
+     * @param filePath The roster file to import.
+     * @return The import report, or null if the file could not be read.
+     */
+    public MemberImportService.ImportReport importMembers(String filePath) {
+        try {
+            MemberImportService.ImportReport report = memberImportService.importFile(filePath);
+            System.out.println("Imported " + report.imported().size() + " members, skipped " + report.errors().size() + " rows.");
+            report.errors().forEach(System.out::println);
+            return report;
+        } catch (IOException e) {
+            System.err.println("Error importing members from " + filePath + ": " + e.getMessage());
+            return null;
+        }
+    }
+
     // === MEMBER RETRIEVAL ===
     /**
      * Finds a member by ID.
@@ -158,9 +178,6 @@ public class MemberController {
             // Save the updated member using the MemberService
             memberService.updateMember(memberToUpdate);
 
-            // Reload members to immediately reflect the changes
-            memberRepository.reloadMembers();
-
             System.out.println("Member updated successfully.");
         } catch (IllegalArgumentException e) {
             System.out.println("Error: " + e.getMessage());
@@ -170,7 +187,7 @@ public class MemberController {
     // === MEMBER DELETION ===
     /**
      * Deletes a member by ID.
-     * This method removes the member from both the repository and the service.
+     * The member is removed from the repository through the member service.
      *
      * @param memberId The ID of the member to delete.
      * @return true if the member was deleted successfully, false if the member was not found.
@@ -181,14 +198,8 @@ public class MemberController {
             return false;
         }
 
-        // Delete the member
+        // Delete the member, the service removes it from the repository and prints the confirmation
         memberService.deleteMember(memberId);
-        memberRepository.delete(member);
-
-        // Reload members to immediately reflect the changes
-        memberRepository.reloadMembers();
-
-        System.out.println("Member deleted successfully.");
         return true;
     }
 
@@ -265,32 +276,4 @@ public class MemberController {
             throw new IllegalArgumentException("Invalid age input. Please enter a valid number.");
         }
     }
-
-    /**
-     * Associates a team with a member by setting the team name.
-     *
-     * @param member   The member to associate with a team.
-     * @param teamName The name of the team to assign to the member.
-     */
-    public void addTeamToMember(Member member, String teamName) {
-
-        // Set the team name for the given member
-        member.setTeamName(teamName);
-
-        // Save the updated member data to the repository
-        memberRepository.saveMembers();
-    }
-
-    /**
-     * Removes the association of a team from a member by setting the team name to null.
-     *
-     * @param member The member whose team association is to be removed.
-     */
-    public void removeTeamFromMember(Member member) {
-        // Remove the team association by setting the team name to null
-        member.setTeamName(null);
-
-        // Save the updated member data to the repository
-        memberRepository.saveMembers();
-    }
  }
\ No newline at end of file
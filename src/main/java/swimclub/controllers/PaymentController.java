@@ -2,11 +2,15 @@ package swimclub.controllers;
 
 import swimclub.models.Member;
 import swimclub.models.PaymentStatus;
+import swimclub.models.Reminder;
 import swimclub.repositories.MemberRepository;
+import swimclub.services.BillingService;
+import swimclub.services.ReminderService;
 import swimclub.services.PaymentService;
 import swimclub.utilities.FileHandler;
 import swimclub.utilities.Validator;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -18,6 +22,8 @@ public class PaymentController {
     private final MemberRepository memberRepository;
     private final FileHandler paymentFileHandler; // FileHandler for payments
     private final String paymentFilePath; // Path to the payment file
+    private BillingService billingService; // Optional, bills the whole club in one run
+    private ReminderService reminderService; // Optional, writes the reminders for all pending payments
 
     // === CONSTRUCTOR ===
     /**
@@ -37,6 +43,24 @@ public class PaymentController {
         this.paymentFilePath = paymentFilePath;
     }
 
+    /**
+     * Enables billing the whole club in one run.
+     *
+     * @param billingService The billing service, or null to disable billing runs.
+     */
+    public void setBillingService(BillingService billingService) {
+        this.billingService = billingService;
+    }
+
+    /**
+     * Enables generating the reminders for all pending payments in one run.
+     *
+     * @param reminderService The reminder service, or null to disable reminder runs.
+     */
+    public void setReminderService(ReminderService reminderService) {
+        this.reminderService = reminderService;
+    }
+
     // === PAYMENT CALCULATION ===
     /**
      * Calculates the membership fee for a specific member by ID.
@@ -76,12 +100,10 @@ public class PaymentController {
             return;
         }
 
-        // Register the payment through the service
+        // Register the payment through the service, which also sets the member's payment status
+        // (still PENDING while another bill is open)
         paymentService.registerPayment(memberId, amount, memberRepository, paymentFileHandler, paymentFilePath);
-
-        // Update the member's payment status to COMPLETE after payment registration
-        member.setPaymentStatus(PaymentStatus.COMPLETE);
-        memberRepository.update(member);  // Save changes to the repository
+        memberRepository.update(member);  // Save the payment status to the member file
 
         System.out.println("Payment of " + amount + " registered for Member ID: " + memberId);
     }
@@ -110,8 +132,7 @@ public class PaymentController {
      * @return A list of members with a payment status of COMPLETE.
      */
     public List<Member> getMembersPaidList() {
-        List<Member> members = memberRepository.findAll();
-        return paymentService.getMembersPaidList(members);
+        return paymentService.getMembersPaidList(memberRepository);
     }
 
     // === GET MEMBERS BY PAYMENT STATUS ===
@@ -122,11 +143,10 @@ public class PaymentController {
      * @return A list of members with the specified payment status.
      */
     public List<Member> getMembersByPaymentStatus(PaymentStatus paymentStatus) {
-        List<Member> members = memberRepository.findAll();
         if (paymentStatus == PaymentStatus.COMPLETE) {
-            return paymentService.getMembersPaidList(members);
+            return paymentService.getMembersPaidList(memberRepository);
         } else if (paymentStatus == PaymentStatus.PENDING) {
-            return paymentService.getMembersPendingList(members);
+            return paymentService.getMembersPendingList(memberRepository);
         } else {
             System.out.println("Invalid payment status.");
             return new ArrayList<>();
@@ -138,12 +158,36 @@ public class PaymentController {
      * Retrieves and displays the payment summary.
      */
     public void viewPaymentSummary() {
-        List<Member> members = memberRepository.findAll();  // Get all members
-        String summary = paymentService.getPaymentSummary(members);  // Get the summary from the service
+        String summary = getPaymentSummary();  // Get the summary from the service
         System.out.println("\n--- Payment Summary ---");
         System.out.println(summary);  // Display the summary
     }
 
+    /**
+     * Retrieves the payment summary with the number of paid and pending members and the total collected.
+     *
+     * @return The payment summary as text.
+     */
+    public String getPaymentSummary() {
+        return paymentService.getPaymentSummary(memberRepository);
+    }
+
+    // === ANNUAL BILLING ===
+    /**
+     * Bills every active and passive member for the current season and displays the run report.
+     *
+     * @return The billing report, or null if billing runs are not enabled.
+     */
+    public BillingService.BillingReport runBillingCycle() {
+        if (billingService == null) {
+            System.out.println("Billing runs are not enabled.");
+            return null;
+        }
+        BillingService.BillingReport report = billingService.runBillingCycle(LocalDate.now());
+        System.out.println(report);
+        return report;
+    }
+
     // === PAYMENT REMINDERS ===
     /**
      * Set a payment reminder for a member.
@@ -180,6 +224,21 @@ public class PaymentController {
         paymentService.removeReminder(memberId, reminderMessage);
     }
 
+    /**
+     * Creates or updates the reminders of all members with a pending payment and displays how many changed.
+     *
+     * @return The reminders that were created or updated, empty if reminder runs are not enabled.
+     */
+    public List<Reminder> generateReminders() {
+        if (reminderService == null) {
+            System.out.println("Reminder runs are not enabled.");
+            return List.of();
+        }
+        List<Reminder> reminders = reminderService.generateReminders(LocalDate.now());
+        System.out.println("Created or updated " + reminders.size() + " reminders.");
+        return reminders;
+    }
+
     /**
      * Clear all reminders.
      */
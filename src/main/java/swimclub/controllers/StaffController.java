@@ -56,8 +56,8 @@ public class StaffController {
     public Coach registerCoach(String teamName, String name, String email, String city, String street, String region,
                                int zipcode, int age, int phoneNumber, Role role) {
 
-        // Get the next coach ID before creating the new coach object
-        int coachId = staffRepository.getNextCoachId();
+        // Allocate a new coach ID before creating the new coach object
+        int coachId = staffRepository.allocateCoachId();
 
         // Create a new Coach object with the necessary details
         Coach newCoach = new Coach(coachId, teamName, name, email, city, street, region, zipcode, age, phoneNumber, role);
@@ -0,0 +1,363 @@
+package swimclub.models;
+
+import swimclub.utilities.Money;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * FeeSchedule holds the rules for the annual membership fees, compiled into a fee table per period.
+ *
+ * The rules are read from the payment rates file, one rule per line:
+ * <pre>
+ * Junior Rate: 1000.00          (active members younger than the junior age limit)
+ * Senior Rate: 1600.00          (other active members)
+ * Passive Fee: 500.00           (passive members)
+ * Junior Age Limit: 18
+ * Senior Discount Age: 60       (active members of this age or older get the senior discount)
+ * Senior Discount: 25           (percent off the senior rate)
+ * Surcharge COMPETITIVE: 200.00 (added to the fee of active members of a category)
+ * Family Discount: 10           (percent off for every further member at the same address, applied by billing runs)
+ * From 2026-01-01 Senior Rate: 1700.00
+ * </pre>
+ * A rule prefixed with "From [date]" takes effect on that date, the other rules apply from the start.
+ * Missing rules keep their defaults, which are the fees the club has always charged, so an old file with only
+ * the junior and senior rate gives the same fees as before. Blank lines and lines starting with '#' are skipped,
+ * which includes the checksum trailer the program writes, so the file can be edited by hand.
+ *
+ * Compiling turns the rules of each period into a table with the fee of every (membership status, category, age)
+ * group, so finding a fee is an array lookup and billing many members evaluates no rules. A schedule never
+ * changes; a changed file is loaded into a new schedule that replaces the old one as a whole.
+ */
+public final class FeeSchedule {
+    public static final int MAX_AGE = 120; // Older ages share the fees of this age
+
+    private static final MembershipStatus[] STATUSES = MembershipStatus.values();
+    private static final MembershipCategory[] CATEGORIES = MembershipCategory.values();
+    private static final int CATEGORY_SLOTS = CATEGORIES.length + 1; // The last slot is for members without a category
+    private static final int AGES = MAX_AGE + 1;
+    public static final int GROUPS = STATUSES.length * CATEGORY_SLOTS * AGES; // Size of a fee table
+
+    private static final String EFFECTIVE_PREFIX = "From ";
+
+    private final List<String> lines;     // The rules as read, kept so a changed rule can be written back
+    private final LocalDate[] startDates; // Start of each period, ascending; the first is LocalDate.MIN
+    private final Period[] periods;
+
+    private FeeSchedule(List<String> lines, LocalDate[] startDates, Period[] periods) {
+        this.lines = lines;
+        this.startDates = startDates;
+        this.periods = periods;
+    }
+
+    // ---------------------------
+    // Rules
+    // ---------------------------
+
+    /**
+     * The rules of one period, before they are compiled.
+     */
+    private static final class Rules implements Cloneable {
+        long juniorRateCents = 1000 * Money.CENTS_PER_KRONE;
+        long seniorRateCents = 1600 * Money.CENTS_PER_KRONE;
+        long passiveFeeCents = 500 * Money.CENTS_PER_KRONE;
+        int juniorAgeLimit = 18;
+        int seniorDiscountAge = 60;
+        int seniorDiscountPercent = 25;
+        int familyDiscountPercent = 0;
+        long[] surchargeCents = new long[CATEGORIES.length]; // Per membership category
+
+        @Override
+        protected Rules clone() {
+            try {
+                Rules copy = (Rules) super.clone();
+                copy.surchargeCents = surchargeCents.clone();
+                return copy;
+            } catch (CloneNotSupportedException e) {
+                throw new AssertionError(e);
+            }
+        }
+
+        /**
+         * Applies a rule of the form "Key: value".
+         *
+         * @throws IllegalArgumentException If the rule is unknown or its value is invalid.
+         */
+        void apply(String rule) {
+            int colon = rule.indexOf(':');
+            if (colon < 0) {
+                throw new IllegalArgumentException("missing ':'");
+            }
+            String key = rule.substring(0, colon).trim();
+            String value = rule.substring(colon + 1).trim();
+            switch (key) {
+                case "Junior Rate" -> juniorRateCents = parseAmount(value);
+                case "Senior Rate" -> seniorRateCents = parseAmount(value);
+                case "Passive Fee" -> passiveFeeCents = parseAmount(value);
+                case "Junior Age Limit" -> juniorAgeLimit = parseInt(value, 0, AGES);
+                case "Senior Discount Age" -> seniorDiscountAge = parseInt(value, 0, AGES);
+                case "Senior Discount" -> seniorDiscountPercent = parseInt(value, 0, 100);
+                case "Family Discount" -> familyDiscountPercent = parseInt(value, 0, 100);
+                default -> {
+                    if (!key.startsWith("Surcharge ")) {
+                        throw new IllegalArgumentException("unknown rule \"" + key + "\"");
+                    }
+                    MembershipCategory category = MembershipCategory.valueOf(key.substring("Surcharge ".length()).trim().toUpperCase());
+                    surchargeCents[category.ordinal()] = parseAmount(value);
+                }
+            }
+        }
+
+        private static long parseAmount(String value) {
+            long cents = Money.parse(value);
+            if (cents < 0) {
+                throw new IllegalArgumentException("negative amount");
+            }
+            return cents;
+        }
+
+        private static int parseInt(String value, int min, int max) {
+            int number = Integer.parseInt(value);
+            if (number < min || number > max) {
+                throw new IllegalArgumentException(number + " is not between " + min + " and " + max);
+            }
+            return number;
+        }
+    }
+
+    // ---------------------------
+    // Parsing and Compiling
+    // ---------------------------
+
+    /**
+     * @return The schedule with the default fees, used when the payment rates file cannot be read.
+     */
+    public static FeeSchedule defaults() {
+        return parse(List.of());
+    }
+
+    /**
+     * Parses and compiles the rules. Invalid rules are reported and skipped, so the other rules still apply.
+     *
+     * @param lines The lines of the payment rates file.
+     * @return The compiled schedule.
+     */
+    public static FeeSchedule parse(List<String> lines) {
+        return parse(lines, false);
+    }
+
+    /**
+     * Parses and compiles the rules, rejecting the whole file if a rule is invalid, e.g. after a hand edit
+     * that should not replace a schedule in use.
+     *
+     * @param lines The lines of the payment rates file.
+     * @return The compiled schedule.
+     * @throws IllegalArgumentException If a rule is invalid.
+     */
+    public static FeeSchedule parseStrict(List<String> lines) {
+        return parse(lines, true);
+    }
+
+    private static FeeSchedule parse(List<String> lines, boolean strict) {
+        Rules base = new Rules();
+        Map<LocalDate, List<String>> effectiveRules = new TreeMap<>(); // Start date -> rules starting then
+        for (String line : lines) {
+            String rule = line.trim();
+            if (rule.isEmpty() || rule.startsWith("#")) {
+                continue;
+            }
+            try {
+                if (rule.startsWith(EFFECTIVE_PREFIX)) {
+                    int space = rule.indexOf(' ', EFFECTIVE_PREFIX.length());
+                    if (space < 0) {
+                        throw new IllegalArgumentException("missing rule after the date");
+                    }
+                    LocalDate start = LocalDate.parse(rule.substring(EFFECTIVE_PREFIX.length(), space));
+                    String effectiveRule = rule.substring(space + 1).trim();
+                    new Rules().apply(effectiveRule); // Validate now, so a bad rule does not break its period
+                    effectiveRules.computeIfAbsent(start, date -> new ArrayList<>()).add(effectiveRule);
+                } else {
+                    base.apply(rule);
+                }
+            } catch (IllegalArgumentException | DateTimeParseException | ArithmeticException e) {
+                if (strict) {
+                    throw new IllegalArgumentException("Invalid payment rate rule \"" + rule + "\" (" + e.getMessage() + ")", e);
+                }
+                System.out.println("Invalid payment rate rule \"" + rule + "\" (" + e.getMessage() + "). Ignoring it.");
+            }
+        }
+
+        LocalDate[] startDates = new LocalDate[effectiveRules.size() + 1];
+        Period[] periods = new Period[startDates.length];
+        startDates[0] = LocalDate.MIN;
+        periods[0] = new Period(LocalDate.MIN, base);
+        int index = 1;
+        Rules rules = base;
+        for (Map.Entry<LocalDate, List<String>> entry : effectiveRules.entrySet()) {
+            rules = rules.clone(); // Each period starts from the rules of the period before it
+            for (String rule : entry.getValue()) {
+                rules.apply(rule);
+            }
+            startDates[index] = entry.getKey();
+            periods[index++] = new Period(entry.getKey(), rules);
+        }
+        return new FeeSchedule(List.copyOf(lines), startDates, periods);
+    }
+
+    /**
+     * Returns a schedule with a rule that applies from the start changed, e.g. after the junior rate was edited.
+     * The first rule with the key is replaced, or the rule is added if the key has none yet; dated rules stay.
+     *
+     * @param key   The rule key, e.g. "Junior Rate".
+     * @param value The new value, e.g. "1100.00".
+     * @return The new schedule.
+     */
+    public FeeSchedule withRule(String key, String value) {
+        List<String> changed = new ArrayList<>(lines);
+        String rule = key + ": " + value;
+        boolean replaced = false;
+        for (int i = 0; i < changed.size() && !replaced; i++) {
+            String line = changed.get(i).trim();
+            int colon = line.indexOf(':');
+            if (colon > 0 && !line.startsWith(EFFECTIVE_PREFIX) && line.substring(0, colon).trim().equals(key)) {
+                changed.set(i, rule);
+                replaced = true;
+            }
+        }
+        if (!replaced) {
+            changed.add(rule);
+        }
+        return parse(changed);
+    }
+
+    /**
+     * @return The rules as read from the file, to write the schedule back.
+     */
+    public List<String> getLines() {
+        return lines;
+    }
+
+    // ---------------------------
+    // Looking up Fees
+    // ---------------------------
+
+    /**
+     * Finds the fee group of a member, the index of the member's fee in a fee table.
+     *
+     * @param member The member.
+     * @return The group, or -1 if the member has no membership status and pays nothing.
+     */
+    public static int groupOf(Member member) {
+        MembershipStatus status = member.getMembershipStatus();
+        if (status == null) {
+            return -1;
+        }
+        MembershipType type = member.getMembershipType();
+        int category = type == null || type.getCategory() == null ? CATEGORIES.length : type.getCategory().ordinal();
+        int age = Math.min(Math.max(member.getAge(), 0), MAX_AGE);
+        return (status.ordinal() * CATEGORY_SLOTS + category) * AGES + age;
+    }
+
+    /**
+     * @param date The date, e.g. of a bill.
+     * @return The fees in effect on the date.
+     */
+    public Period periodAt(LocalDate date) {
+        int index = Arrays.binarySearch(startDates, date);
+        return periods[index >= 0 ? index : -index - 2]; // The last period starting on or before the date
+    }
+
+    /**
+     * @return The fees in effect today.
+     */
+    public Period current() {
+        return periodAt(LocalDate.now());
+    }
+
+    /**
+     * @return The start dates of the periods after the first, in order.
+     */
+    public List<LocalDate> getEffectiveDates() {
+        return Collections.unmodifiableList(Arrays.asList(startDates).subList(1, startDates.length));
+    }
+
+    /**
+     * The compiled fees of one period.
+     */
+    public static final class Period {
+        private final LocalDate startDate;
+        private final long[] fees = new long[GROUPS]; // Fee in cents per fee group
+        private final long juniorRateCents;
+        private final long seniorRateCents;
+        private final int familyDiscountPercent;
+
+        private Period(LocalDate startDate, Rules rules) {
+            this.startDate = startDate;
+            this.juniorRateCents = rules.juniorRateCents;
+            this.seniorRateCents = rules.seniorRateCents;
+            this.familyDiscountPercent = rules.familyDiscountPercent;
+
+            long discountedSeniorCents = Money.percentOf(rules.seniorRateCents, 100 - rules.seniorDiscountPercent);
+            for (MembershipStatus status : STATUSES) {
+                for (int category = 0; category < CATEGORY_SLOTS; category++) {
+                    long surcharge = category < CATEGORIES.length ? rules.surchargeCents[category] : 0;
+                    for (int age = 0; age < AGES; age++) {
+                        long fee = switch (status) {
+                            case PASSIVE -> rules.passiveFeeCents;
+                            case ACTIVE -> surcharge + (age < rules.juniorAgeLimit ? rules.juniorRateCents
+                                    : age >= rules.seniorDiscountAge ? discountedSeniorCents : rules.seniorRateCents);
+                        };
+                        fees[(status.ordinal() * CATEGORY_SLOTS + category) * AGES + age] = fee;
+                    }
+                }
+            }
+        }
+
+        /**
+         * @param member The member.
+         * @return The annual fee of the member in cents, without the family discount.
+         */
+        public long feeCents(Member member) {
+            int group = groupOf(member);
+            return group < 0 ? 0 : fees[group];
+        }
+
+        /**
+         * @param group A fee group, see {@link FeeSchedule#groupOf(Member)}.
+         * @return The annual fee of the group in cents.
+         */
+        public long feeCents(int group) {
+            return fees[group];
+        }
+
+        /**
+         * @param feeCents The fee of a member that shares the address of a member billed before them.
+         * @return The fee with the family discount.
+         */
+        public long withFamilyDiscount(long feeCents) {
+            return Money.percentOf(feeCents, 100 - familyDiscountPercent);
+        }
+
+        public LocalDate getStartDate() {
+            return startDate;
+        }
+
+        public long getJuniorRateCents() {
+            return juniorRateCents;
+        }
+
+        public long getSeniorRateCents() {
+            return seniorRateCents;
+        }
+
+        public int getFamilyDiscountPercent() {
+            return familyDiscountPercent;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package swimclub.models;
 
+import swimclub.utilities.Money;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -297,10 +299,13 @@ public abstract class Member {
      * @return The total amount paid.
      */
     public double calculateTotalPaid() {
-        return payments.stream()
-                .filter(payment -> payment.getPaymentStatus() == PaymentStatus.COMPLETE)
-                .mapToDouble(Payment::getAmountPerYear)
-                .sum();
+        long totalCents = 0; // Summed in cents, so the total is exact
+        for (Payment payment : payments) {
+            if (payment.getPaymentStatus() == PaymentStatus.COMPLETE) {
+                totalCents += payment.getAmountCents();
+            }
+        }
+        return Money.toDouble(totalCents);
     }
 
     /**
@@ -1,5 +1,7 @@
 package swimclub.models;
 
+import swimclub.utilities.Money;
+
 import java.time.LocalDate;
 
 public class Payment {
@@ -7,7 +9,7 @@ public class Payment {
     private PaymentStatus paymentStatus;   // COMPLETE, PENDING, FAILED
     private Member member;                 // Member associated with the payment
     private LocalDate paymentDate;         // Date of payment
-    private double amountPerYear;          // Annual membership fee
+    private long amountCents;              // Annual membership fee in cents, exact unlike a double
 
     /**
      * Constructor for Payment.
@@ -21,7 +23,11 @@ public class Payment {
      * @throws NullPointerException     If member or paymentDate is null.
      */
     public Payment(int paymentId, PaymentStatus paymentStatus, Member member, LocalDate paymentDate, double amountPerYear) {
-        if (amountPerYear <= 0) {
+        this(paymentId, paymentStatus, member, paymentDate, toPositiveCents(amountPerYear));
+    }
+
+    private Payment(int paymentId, PaymentStatus paymentStatus, Member member, LocalDate paymentDate, long amountCents) {
+        if (amountCents <= 0) {
             throw new IllegalArgumentException("Amount per year must be positive.");
         }
 
@@ -36,9 +42,36 @@ public class Payment {
         this.paymentId = paymentId;
         this.paymentStatus = paymentStatus;
         this.member = member;
-        this.amountPerYear = amountPerYear;
+        this.amountCents = amountCents;
         this.paymentDate = paymentDate;
     }
+
+    /**
+     * Creates a payment with an amount in cents, e.g. a bill or a payment read from the payment file.
+     *
+     * @param paymentId     Unique payment ID.
+     * @param paymentStatus Status of the payment (COMPLETE, PENDING, FAILED).
+     * @param member        Member associated with the payment.
+     * @param paymentDate   Date of the payment.
+     * @param amountCents   Annual membership fee in cents.
+     * @return The payment.
+     * @throws IllegalArgumentException If amount is not positive.
+     * @throws NullPointerException     If member or paymentDate is null.
+     */
+    public static Payment ofCents(int paymentId, PaymentStatus paymentStatus, Member member, LocalDate paymentDate, long amountCents) {
+        return new Payment(paymentId, paymentStatus, member, paymentDate, amountCents);
+    }
+
+    /**
+     * Converts an amount in DKK to cents, checking the rounded amount so that e.g. 0.004 is not stored as 0 cents.
+     */
+    private static long toPositiveCents(double amount) {
+        long cents = amount > 0 ? Money.ofDouble(amount) : 0;
+        if (cents <= 0) {
+            throw new IllegalArgumentException("Amount per year must be positive.");
+        }
+        return cents;
+    }
     /**
      * Gets the unique payment ID.
      *
@@ -77,7 +110,15 @@ public class Payment {
      * @return The annual fee amount.
      */
     public double getAmountPerYear() {
-        return amountPerYear;
+        return Money.toDouble(amountCents);
+    }
+    /**
+     * Gets the annual membership fee for the payment in cents.
+     *
+     * @return The annual fee amount in cents.
+     */
+    public long getAmountCents() {
+        return amountCents;
     }
     /**
      * Sets the payment ID.
@@ -124,13 +165,10 @@ public class Payment {
      * Sets the annual membership fee.
      *
      * @param amountPerYear The annual fee amount to set.
-     * @throws IllegalArgumentException If the amount is not positive.
+     * @throws IllegalArgumentException If the amount is not positive, or rounds to 0 cents.
      */
     public void setAmountPerYear(double amountPerYear) {
-        if (amountPerYear <= 0) {
-            throw new IllegalArgumentException("Amount per year must be positive");
-        }
-        this.amountPerYear = amountPerYear;
+        this.amountCents = toPositiveCents(amountPerYear);
     }
 
     /**
@@ -144,7 +182,7 @@ public class Payment {
                 "Payment ID: " + paymentId +
                 ", Member: " + member.getName() +
                 ", Payment Date: " + paymentDate +
-                ", Amount: " + amountPerYear + " DKK " +
+                ", Amount: " + Money.format(amountCents) + " DKK " +
                 ", Status: " + paymentStatus +
                 "}";
     }
@@ -0,0 +1,73 @@
+package swimclub.models;
+
+import java.time.LocalDate;
+
+public class Reminder {
+    private final int memberId;       // Member the reminder is for
+    private final LocalDate dueDate;  // Date the payment is due, a member has at most one reminder per due date
+    private final String message;     // Text shown to the treasurer
+
+    /**
+     * Constructor for Reminder.
+     *
+     * @param memberId The ID of the member the reminder is for.
+     * @param dueDate  The date the payment is due.
+     * @param message  The reminder message.
+     * @throws IllegalArgumentException If the message is empty.
+     * @throws NullPointerException     If dueDate or message is null.
+     */
+    public Reminder(int memberId, LocalDate dueDate, String message) {
+        if (dueDate == null) {
+            throw new NullPointerException("Due date cannot be null");
+        }
+
+        if (message == null) {
+            throw new NullPointerException("Message cannot be null");
+        }
+
+        if (message.isBlank()) {
+            throw new IllegalArgumentException("Reminder cannot be null or empty.");
+        }
+
+        this.memberId = memberId;
+        this.dueDate = dueDate;
+        this.message = message;
+    }
+
+    /**
+     * Gets the ID of the member the reminder is for.
+     *
+     * @return The member ID.
+     */
+    public int getMemberId() {
+        return memberId;
+    }
+
+    /**
+     * Gets the date the payment is due.
+     *
+     * @return The due date.
+     */
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+
+    /**
+     * Gets the reminder message.
+     *
+     * @return The message.
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Returns the reminder as shown in the reminder list.
+     *
+     * @return The reminder as text.
+     */
+    @Override
+    public String toString() {
+        return "Reminder for Member ID: " + memberId + ": " + message + " (due " + dueDate + ")";
+    }
+}
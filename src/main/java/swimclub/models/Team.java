@@ -1,17 +1,21 @@
 package swimclub.models;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Represents a Team in the swim club.
- * A Team contains a list of Members assigned to it.
+ * A Team contains a list of Members assigned to it. The list is kept up to date by the
+ * TeamMembershipIndex, which owns the relation between members and teams.
  */
 public class Team {
     private String teamName; // Name of the team
     private TeamType teamType; // Type of the team (Junior Competitive, Senior Competitive)
     private Coach coach;
-    private List<Member> members; // List of members in the team
+    private final Set<Member> members; // Members of the team in the order they joined, constant time lookups
 
     /**
      * Constructor for creating a team.
@@ -22,7 +26,7 @@ public class Team {
     public Team(String teamName, TeamType teamType, Coach coach) {
         this.teamName = teamName;
         this.teamType = teamType;
-        this.members = new ArrayList<>();
+        this.members = new LinkedHashSet<>();
         this.coach = coach;
     }
 
@@ -32,26 +36,56 @@ public class Team {
      * @param member The member to add.
      */
     public void addMember(Member member) {
-        if (!members.contains(member)) {
-            members.add(member);
-        } else {
+        if (!members.add(member)) {
             throw new IllegalArgumentException("Member is already part of the team.");
         }
     }
 
+    /**
+     * Adds several members to the team at once, e.g. when loading the team file.
+     * Members that are already part of the team are skipped.
+     *
+     * @param newMembers The members to add.
+     * @return The number of members that were skipped because they were already part of the team.
+     */
+    public int addMembers(Collection<Member> newMembers) {
+        int skipped = 0;
+        for (Member member : newMembers) {
+            if (!members.add(member)) {
+                skipped++;
+            }
+        }
+        return skipped;
+    }
+
     /**
      * Removes a member from the team.
      *
      * @param member The member to remove.
      */
     public void removeMember(Member member) {
-        if (members.contains(member)) {
-            members.remove(member);
-        } else {
+        if (!members.remove(member)) {
             throw new IllegalArgumentException("Member is not part of the team.");
         }
     }
 
+    /**
+     * Checks if a member is part of the team.
+     *
+     * @param member The member to look for.
+     * @return true if the member is part of the team.
+     */
+    public boolean hasMember(Member member) {
+        return members.contains(member);
+    }
+
+    /**
+     * @return The number of members in the team.
+     */
+    public int getMemberCount() {
+        return members.size();
+    }
+
     /**
      * Gets the list of members in the team.
      *
@@ -2,10 +2,14 @@ package swimclub.repositories;
 
 import swimclub.models.Role;
 import swimclub.models.User;
+import swimclub.utilities.DurableFile;
 import swimclub.utilities.PasswordUtils;
+import swimclub.utilities.WriteBehindPersister;
 
 import java.io.*;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
 
@@ -17,6 +21,7 @@ import java.util.Scanner;
 public class AuthRepository {
     private final Map<String, User> userDatabase; // In-memory storage for users
     private final String filePath; // Path to the .dat file for storing users
+    private WriteBehindPersister writeBehind; // Optional background writer, null writes synchronously
 
     /**
      * Constructor for AuthRepository.
@@ -135,7 +140,7 @@ public class AuthRepository {
      * Each line in the file is expected to contain a username, hashed password, salt, and role.
      */
     public void loadUsers() {
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+        try (BufferedReader reader = DurableFile.newVerifiedReader(filePath)) {
             String line;
             while ((line = reader.readLine()) != null) {
                 String[] parts = line.split(";");
@@ -160,14 +165,29 @@ public class AuthRepository {
      * username;hashedPassword;salt;role
      */
     public void saveUsers() {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
-            for (User user : userDatabase.values()) {
-                writer.write(user.getUsername() + ";" + user.getHashedPassword() + ";" + user.getSalt() + ";" + user.getRole());
-                writer.newLine();
-            }
-        } catch (IOException e) {
-            System.err.println("Error saving users: " + e.getMessage());
+        List<String> lines = new ArrayList<>(userDatabase.size()); // Formatted now, the write may run later
+        for (User user : userDatabase.values()) {
+            lines.add(user.getUsername() + ";" + user.getHashedPassword() + ";" + user.getSalt() + ";" + user.getRole());
         }
+        if (writeBehind != null) {
+            writeBehind.markDirty(filePath, () -> writeUsers(lines));
+        } else {
+            writeUsers(lines);
+        }
+    }
+
+    private void writeUsers(List<String> lines) {
+        DurableFile.writeLines(filePath, lines, "users");
+    }
+
+    /**
+     * Enables write-behind for the user file.
+     * UserRepository reads the same file, so it must be given the same persister.
+     *
+     * @param writeBehind The background writer, or null to write synchronously.
+     */
+    public void setWriteBehind(WriteBehindPersister writeBehind) {
+        this.writeBehind = writeBehind;
     }
 
     /**
@@ -0,0 +1,124 @@
+package swimclub.repositories;
+
+import swimclub.models.*;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * MemberQuery filters members on their enum fields using the bitmap indexes of a {@link MemberRepository}.
+ * Values given to one filter are OR-ed (e.g. CRAWL or BACKCRAWL), separate filters are AND-ed, so
+ * "active senior competitive crawl swimmers with pending payment" is five bitmap operations.
+ * Created through {@link MemberRepository#query()}.
+ *
+ * The filters are only collected until {@link #list()} or {@link #count()} is called. Those combine the bitmaps
+ * and look the members up in one step under the repository lock, since writers change the bitmaps in place,
+ * so the result always matches one version of the members.
+ */
+public class MemberQuery {
+    private final MemberRepository repository;
+    private final List<Function<MemberRepository, BitSet>> filters = new ArrayList<>(); // Each returns a fresh bitmap
+
+    MemberQuery(MemberRepository repository) {
+        this.repository = repository;
+    }
+
+    // ===========================
+    // Filters
+    // ===========================
+
+    /**
+     * @param statuses The membership statuses to match (any of them).
+     * @return This query, for chaining.
+     */
+    public MemberQuery withMembershipStatus(MembershipStatus... statuses) {
+        return and(repository -> repository.getMembershipStatusIndex().anyOf(statuses));
+    }
+
+    /**
+     * @param statuses The payment statuses to match (any of them).
+     * @return This query, for chaining.
+     */
+    public MemberQuery withPaymentStatus(PaymentStatus... statuses) {
+        return and(repository -> repository.getPaymentStatusIndex().anyOf(statuses));
+    }
+
+    /**
+     * @param activityTypes The swimming disciplines to match (any of them).
+     * @return This query, for chaining.
+     */
+    public MemberQuery withActivityType(ActivityType... activityTypes) {
+        return and(repository -> repository.getActivityTypeIndex().anyOf(activityTypes));
+    }
+
+    /**
+     * @param levels The membership levels to match (any of them).
+     * @return This query, for chaining.
+     */
+    public MemberQuery withLevel(MembershipLevel... levels) {
+        return and(repository -> repository.getLevelIndex().anyOf(levels));
+    }
+
+    /**
+     * @param categories The membership categories to match (any of them).
+     * @return This query, for chaining.
+     */
+    public MemberQuery withCategory(MembershipCategory... categories) {
+        return and(repository -> repository.getCategoryIndex().anyOf(categories));
+    }
+
+    private MemberQuery and(Function<MemberRepository, BitSet> filter) {
+        filters.add(filter);
+        return this;
+    }
+
+    // ===========================
+    // Results
+    // ===========================
+
+    /**
+     * @return The matching members, ordered by ID.
+     */
+    public List<Member> list() {
+        if (filters.isEmpty()) {
+            return new ArrayList<>(repository.findAll());
+        }
+        synchronized (repository) { // Writers hold the lock while they change the bitmaps and the snapshot
+            BitSet matches = matches();
+            MemberSnapshot snapshot = repository.getSnapshot();
+            List<Member> result = new ArrayList<>(matches.cardinality());
+            for (int id = matches.nextSetBit(0); id >= 0; id = matches.nextSetBit(id + 1)) {
+                Member member = snapshot.findById(id);
+                if (member != null) {
+                    result.add(member);
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * @return The number of matching members, without looking up the members themselves.
+     */
+    public int count() {
+        if (filters.isEmpty()) {
+            return repository.findAll().size();
+        }
+        synchronized (repository) {
+            return matches().cardinality();
+        }
+    }
+
+    /**
+     * @return The AND of all filters, must be called holding the repository lock.
+     */
+    private BitSet matches() {
+        BitSet matches = filters.get(0).apply(repository);
+        for (int i = 1; i < filters.size(); i++) {
+            matches.and(filters.get(i).apply(repository));
+        }
+        return matches;
+    }
+}
@@ -1,16 +1,51 @@
 package swimclub.repositories;
 
-import swimclub.models.Member;
-import swimclub.models.MembershipLevel;
-import swimclub.models.MembershipType;
+import swimclub.models.*;
+import swimclub.utilities.BitmapIndex;
 import swimclub.utilities.FileHandler;
+import swimclub.utilities.MemberJournal;
+import swimclub.utilities.SequenceAllocator;
+import swimclub.utilities.TrigramIndex;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * MemberRepository holds the members of the club and persists them to the member file or journal.
+ *
+ * Reads are lock-free: the set of members is published as an immutable {@link MemberSnapshot}, and every change
+ * builds the next snapshot and publishes it atomically. Readers such as findAll, findById and search always see
+ * one complete version, even while another thread is writing. Changes are serialized on the repository.
+ * The bitmap indexes behind {@link #query()} are updated in place by the writers, so a query takes the repository
+ * lock for the moment it combines the bitmaps and looks up the members. The search index locks itself.
+ */
 public class MemberRepository {
-    private List<Member> members;
+    private final AtomicReference<MemberSnapshot> snapshot = new AtomicReference<>(MemberSnapshot.EMPTY);
+
+    // Bitmap indexes on the enum fields, used by query() for filtering without scanning the list
+    private final BitmapIndex<Member, MembershipStatus> byMembershipStatus =
+            new BitmapIndex<>(MembershipStatus.class, Member::getMemberId, Member::getMembershipStatus);
+    private final BitmapIndex<Member, PaymentStatus> byPaymentStatus =
+            new BitmapIndex<>(PaymentStatus.class, Member::getMemberId, Member::getPaymentStatus);
+    private final BitmapIndex<Member, ActivityType> byActivityType =
+            new BitmapIndex<>(ActivityType.class, Member::getMemberId, Member::getActivityType);
+    private final BitmapIndex<Member, MembershipLevel> byLevel =
+            new BitmapIndex<>(MembershipLevel.class, Member::getMemberId, member -> member.getMembershipType().getLevel());
+    private final BitmapIndex<Member, MembershipCategory> byCategory =
+            new BitmapIndex<>(MembershipCategory.class, Member::getMemberId, member -> member.getMembershipType().getCategory());
+
+    // Running counts per payment status and fee category, used by the payment summary
+    private final PaymentAggregates paymentAggregates = new PaymentAggregates();
+
+    // Trigram index on the text fields, used by search() for partial and typo-tolerant lookups
+    private final TrigramIndex<Member> textIndex;
+
     private final FileHandler fileHandler;
+    private final MemberJournal journal; // Null when journal mode is off
+    private SequenceAllocator memberIds = new SequenceAllocator(); // Hands out member IDs, in memory unless replaced
+    private TeamMembershipIndex teamMemberships; // Optional, kept up to date on deletes and reloads
 
     // ===========================
     // Constructor and Initialization
@@ -22,8 +57,39 @@ public class MemberRepository {
      * @param fileHandler The file handler used to load and save members.
      */
     public MemberRepository(FileHandler fileHandler) {
+        this(fileHandler, false);
+    }
+
+    /**
+     * Constructor for MemberRepository with optional journal mode.
+     * In journal mode every mutation is appended to the member journal instead of rewriting the member file,
+     * and the journal is replayed on top of the member file at startup.
+     *
+     * @param fileHandler    The file handler used to load and save members.
+     * @param journalEnabled True to persist mutations through the member journal.
+     */
+    public MemberRepository(FileHandler fileHandler, boolean journalEnabled) {
+        AtomicReference<MemberSnapshot> published = snapshot; // A local, so the lookup does not capture this during construction
+        this.textIndex = new TrigramIndex<>(Member::getMemberId,
+                member -> Arrays.asList(member.getName(), member.getEmail(), member.getStreet(), String.valueOf(member.getPhoneNumber())),
+                id -> published.get().findById(id));
         this.fileHandler = fileHandler;
-        this.members = fileHandler.loadMembers(); // Load members from file at startup
+        this.journal = journalEnabled ? fileHandler.openMemberJournal() : null;
+        MemberSnapshot loaded = MemberSnapshot.of(1, loadMembers()); // Load members from file at startup
+        rebuildIndexes(loaded.getMembers());
+        publish(loaded);
+        memberIds.advancePast(loaded.getHighestId());
+    }
+
+    /**
+     * Replaces the sequence that hands out member IDs, e.g. with one that is persisted to a file.
+     * The sequence is advanced past the members that are already loaded.
+     *
+     * @param memberIds The sequence for member IDs.
+     */
+    public synchronized void setIdSequence(SequenceAllocator memberIds) {
+        memberIds.advancePast(snapshot.get().getHighestId());
+        this.memberIds = memberIds;
     }
 
     // ===============================
@@ -31,34 +97,97 @@ public class MemberRepository {
     // ===============================
 
     /**
-     * Get the next available member ID based on the highest existing ID.
+     * Connects the team memberships, so deleted members are taken off their team and reloaded members
+     * are put back on theirs.
+     *
+     * @param teamMemberships The team membership index, or null to disconnect it.
+     */
+    public synchronized void setTeamMemberships(TeamMembershipIndex teamMemberships) {
+        this.teamMemberships = teamMemberships;
+    }
+
+    /**
+     * Get the member ID the next call to {@link #allocateMemberId()} will hand out, without allocating it.
      * If there are no members, it starts from 1.
      *
      * @return The next available member ID as an integer.
      */
     public int getNextMemberId() {
-        if (members.isEmpty()) {
-            return 1; // If no members, start with ID 1
-        }
+        return memberIds.peek();
+    }
 
-        int maxId = members.stream()
-                .mapToInt(Member::getMemberId)
-                .max()
-                .orElse(0); // Find the highest ID, default to 0 if no members
+    /**
+     * Allocates a new member ID. Safe to call from several threads, every call gets a different ID.
+     *
+     * @return The new member ID.
+     */
+    public int allocateMemberId() {
+        return memberIds.next();
+    }
 
-        return maxId + 1; // Return the next available ID
+    /**
+     * Reserves a block of consecutive member IDs for a bulk import.
+     *
+     * @param count The number of IDs to reserve.
+     * @return The first ID of the block.
+     */
+    public int reserveMemberIds(int count) {
+        return memberIds.reserve(count);
     }
 
     /**
      * Save a new member to the repository and persist the change to the file.
+     * The member object itself is kept in memory, so references to it stay valid.
      *
      * @param member The member to be saved.
      */
-    public void save(Member member) {
+    public synchronized void save(Member member) {
         ensureCorrectMembershipLevel(member); // Ensure the member has the correct membership level
-        members.add(member); // Add the member to the list
-        fileHandler.saveMembers(members); // Save the updated list to the file
-        reloadMembers(); // Reload to keep the in-memory list updated
+        MemberSnapshot current = snapshot.get();
+        Member replaced = current.findById(member.getMemberId());
+        if (replaced != null) {
+            removeFromIndexes(replaced);
+        }
+        addToIndexes(member);
+        publish(current.withMember(member)); // Readers see the member from here on
+        memberIds.advancePast(member.getMemberId()); // Members saved with their own ID are never handed out again
+
+        if (journal != null) {
+            journal.recordSave(member); // Append the new member to the journal
+            compactJournalIfNeeded();
+            return;
+        }
+        fileHandler.saveMembers(findAll()); // Save the updated list to the file
+    }
+
+    /**
+     * Save a batch of members, e.g. from a bulk import, and persist them with one write.
+     * Readers see the whole batch at once: it is published as a single new snapshot.
+     *
+     * @param members The members to be saved, each with its own member ID.
+     */
+    public synchronized void saveAll(List<Member> members) {
+        if (members.isEmpty()) {
+            return;
+        }
+        MemberSnapshot current = snapshot.get();
+        for (Member member : members) {
+            ensureCorrectMembershipLevel(member);
+            Member replaced = current.findById(member.getMemberId());
+            if (replaced != null) {
+                removeFromIndexes(replaced);
+            }
+            addToIndexes(member);
+            memberIds.advancePast(member.getMemberId());
+        }
+        publish(current.withMembers(members)); // Readers see the whole batch from here on, the last of equal IDs wins
+
+        if (journal != null) {
+            journal.recordSaves(members); // One append for the whole batch
+            compactJournalIfNeeded();
+            return;
+        }
+        fileHandler.saveMembers(findAll()); // One rewrite for the whole batch
     }
 
     /**
@@ -67,12 +196,25 @@ public class MemberRepository {
      * @param member The member to delete.
      * @return True if the member was deleted, false otherwise.
      */
-    public boolean delete(Member member) {
-        boolean isDeleted = fileHandler.deleteMember(member); // Delete the member from file
-        if (isDeleted) {
-            members.remove(member); // Remove from in-memory list
+    public synchronized boolean delete(Member member) {
+        MemberSnapshot current = snapshot.get();
+        Member existingMember = current.findById(member.getMemberId());
+        if (existingMember == null) {
+            return false;
+        }
+        publish(current.withoutMember(existingMember.getMemberId()));
+        removeFromIndexes(existingMember);
+        if (teamMemberships != null) {
+            teamMemberships.memberRemoved(existingMember.getMemberId());
+        }
+
+        if (journal != null) {
+            journal.recordDelete(existingMember.getMemberId()); // Append the deletion to the journal
+            compactJournalIfNeeded();
+            return true;
         }
-        return isDeleted;
+        fileHandler.saveMembers(findAll()); // Write the in-memory list, no need to read the file first
+        return true;
     }
 
     // ================================
@@ -80,31 +222,39 @@ public class MemberRepository {
     // ================================
 
     /**
-     * Search for members by their ID, name, or phone number.
-     * The search is case-insensitive for name and exact for ID and phone number.
+     * Search for members by ID, or by any part of their name, email, street or phone number.
+     * Every word of the query must match: words of three letters or more anywhere in a field, shorter words at the
+     * start of a word. Whole-word matches rank above matches at the start of a word, which rank above the rest.
+     * If fewer than {@link TrigramIndex#DEFAULT_LIMIT} members match, members matching all but a typo follow.
      *
-     * @param query The search query (ID, name, or phone number).
-     * @return A list of members matching the query.
+     * @param query The search query (ID, name, email, street or phone number, in full or in part).
+     * @return The best matching members, at most {@link TrigramIndex#DEFAULT_LIMIT}.
      */
     public List<Member> search(String query) {
-        return members.stream()
-                .filter(member -> {
-                    // Match ID (converted to String for comparison)
-                    String memberId = String.valueOf(member.getMemberId());
-                    if (memberId.equalsIgnoreCase(query)) {
-                        return true;
-                    }
-
-                    // Match name (case-insensitive)
-                    if (member.getName().equalsIgnoreCase(query)) {
-                        return true;
-                    }
+        return search(query, TrigramIndex.DEFAULT_LIMIT);
+    }
 
-                    // Match phone number (converted to String for comparison)
-                    String phoneNumber = String.valueOf(member.getPhoneNumber());
-                    return phoneNumber.equalsIgnoreCase(query);
-                })
-                .toList(); // Collect matching members into a list
+    /**
+     * Search for members like {@link #search(String)}, returning up to the given number of members.
+     *
+     * @param query The search query.
+     * @param limit The maximum number of members to return.
+     * @return The best matching members.
+     */
+    public List<Member> search(String query, int limit) {
+        List<Member> results = new ArrayList<>();
+        String trimmed = query.trim();
+        Member byId = trimmed.chars().allMatch(Character::isDigit) && !trimmed.isEmpty() && trimmed.length() <= 9
+                ? findById(Integer.parseInt(trimmed)) : null;
+        if (byId != null && limit > 0) {
+            results.add(byId); // An exact ID always comes first
+        }
+        for (Member member : textIndex.search(trimmed, limit)) {
+            if (member != byId && results.size() < limit) {
+                results.add(member);
+            }
+        }
+        return results;
     }
 
     /**
@@ -114,19 +264,134 @@ public class MemberRepository {
      * @return The found member, or null if no member found.
      */
     public Member findById(int id) {
-        Optional<Member> member = members.stream()
-                .filter(m -> m.getMemberId() == id)
-                .findFirst();
-        return member.orElse(null); // Return null if the member is not found
+        return snapshot.get().findById(id); // Returns null if the member is not found
+    }
+
+    /**
+     * Start a filter on the enum fields of the members, e.g.
+     * {@code query().withMembershipStatus(ACTIVE).withLevel(SENIOR).withPaymentStatus(PENDING).list()}.
+     * Each filter is answered from the bitmap indexes, so no member is looked at until the result is listed.
+     *
+     * @return A query matching all members until filters are added.
+     */
+    public MemberQuery query() {
+        return new MemberQuery(this);
+    }
+
+    /**
+     * Find all members with the given payment status.
+     *
+     * @param paymentStatus The payment status to filter by.
+     * @return The matching members, ordered by ID.
+     */
+    public List<Member> findByPaymentStatus(PaymentStatus paymentStatus) {
+        return query().withPaymentStatus(paymentStatus).list();
     }
 
     /**
      * Retrieve all members.
+     * The list is the current snapshot: it is unmodifiable and does not change when members are added or deleted later.
      *
-     * @return List of all members.
+     * @return List of all members, ordered by ID.
      */
     public List<Member> findAll() {
-        return members;
+        return snapshot.get().getMembers();
+    }
+
+    /**
+     * Retrieve the current snapshot of the members, e.g. to build a report from one consistent version.
+     *
+     * @return The current snapshot.
+     */
+    public MemberSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Publishes the next snapshot, must be called by a writer holding the repository lock.
+     */
+    private void publish(MemberSnapshot next) {
+        snapshot.set(next);
+    }
+
+    // ================================
+    // Index Maintenance
+    // ================================
+
+    /**
+     * Re-index a member after one of its enum fields or its age was changed outside of {@link #update(Member)},
+     * e.g. when loading payments sets the payment status directly.
+     *
+     * @param member The changed member.
+     */
+    public synchronized void refreshIndexes(Member member) {
+        if (findById(member.getMemberId()) != member) {
+            return; // Not a member of this repository
+        }
+        byMembershipStatus.update(member);
+        byPaymentStatus.update(member);
+        byActivityType.update(member);
+        byLevel.update(member);
+        byCategory.update(member);
+        paymentAggregates.update(member);
+    }
+
+    private void addToIndexes(Member member) {
+        textIndex.add(member);
+        byMembershipStatus.add(member);
+        byPaymentStatus.add(member);
+        byActivityType.add(member);
+        byLevel.add(member);
+        byCategory.add(member);
+        paymentAggregates.add(member);
+    }
+
+    private void removeFromIndexes(Member member) {
+        textIndex.remove(member);
+        byMembershipStatus.remove(member);
+        byPaymentStatus.remove(member);
+        byActivityType.remove(member);
+        byLevel.remove(member);
+        byCategory.remove(member);
+        paymentAggregates.remove(member);
+    }
+
+    private void rebuildIndexes(List<Member> members) {
+        textIndex.rebuild(members);
+        byMembershipStatus.rebuild(members);
+        byPaymentStatus.rebuild(members);
+        byActivityType.rebuild(members);
+        byLevel.rebuild(members);
+        byCategory.rebuild(members);
+        paymentAggregates.rebuild(members);
+    }
+
+    /**
+     * @return The running member counts per payment status and fee category, kept up to date by the repository.
+     */
+    public PaymentAggregates getPaymentAggregates() {
+        return paymentAggregates;
+    }
+
+    // Package-private, used by MemberQuery
+    BitmapIndex<Member, MembershipStatus> getMembershipStatusIndex() {
+        return byMembershipStatus;
+    }
+
+    BitmapIndex<Member, PaymentStatus> getPaymentStatusIndex() {
+        return byPaymentStatus;
+    }
+
+    BitmapIndex<Member, ActivityType> getActivityTypeIndex() {
+        return byActivityType;
+    }
+
+    BitmapIndex<Member, MembershipLevel> getLevelIndex() {
+        return byLevel;
+    }
+
+    BitmapIndex<Member, MembershipCategory> getCategoryIndex() {
+        return byCategory;
     }
 
     // ==============================
@@ -139,8 +404,11 @@ public class MemberRepository {
      * @param member The member whose membership level is to be validated and corrected.
      */
     public void ensureCorrectMembershipLevel(Member member) {
-        MembershipLevel correctLevel = (member.getAge() > 18) ? MembershipLevel.SENIOR : MembershipLevel.JUNIOR;
-        member.getMembershipType().setLevel(correctLevel);  // Set the correct level
+        member.getMembershipType().setLevel(levelForAge(member.getAge()));  // Set the correct level
+    }
+
+    private static MembershipLevel levelForAge(int age) {
+        return (age > 18) ? MembershipLevel.SENIOR : MembershipLevel.JUNIOR;
     }
 
     // ===========================
@@ -149,9 +417,47 @@ public class MemberRepository {
 
     /**
      * Reload the list of members from the file to ensure that the in-memory list is up-to-date.
+     * The loaded members replace the current objects, so earlier snapshots keep the details they were taken with.
+     * The teams are moved over to the new objects.
+     */
+    public synchronized void reloadMembers() {
+        MemberSnapshot current = snapshot.get();
+        MemberSnapshot next = MemberSnapshot.of(current.getVersion() + 1, loadMembers());
+        rebuildIndexes(next.getMembers());
+        publish(next); // Swapped in one step, readers see either the old or the reloaded members
+        memberIds.advancePast(next.getHighestId());
+        if (teamMemberships != null) {
+            teamMemberships.reconcile(next.getMembers()); // The member file may name other teams than the team lists
+        }
+    }
+
+    /**
+     * Loads the member file and, in journal mode, replays the journal on top of it.
+     *
+     * @return The current list of members.
+     */
+    private List<Member> loadMembers() {
+        List<Member> snapshot = fileHandler.loadMembers();
+        return journal != null ? journal.replay(snapshot) : snapshot;
+    }
+
+    /**
+     * Folds the member journal into the member file once it has grown past its compaction threshold.
      */
-    public void reloadMembers() {
-        this.members = fileHandler.loadMembers(); // Reload members from the file
+    private void compactJournalIfNeeded() {
+        if (journal.needsCompaction()) {
+            journal.compact(findAll());
+        }
+    }
+
+    /**
+     * Compacts the member journal into the member file if it contains any records.
+     * Called on shutdown so the next startup only has to load the member file.
+     */
+    public synchronized void compactJournal() {
+        if (journal != null && journal.hasRecords()) {
+            journal.compact(findAll());
+        }
     }
 
     // ================================
@@ -160,35 +466,68 @@ public class MemberRepository {
 
     /**
      * Update an existing member's information in the repository and persist the change.
+     * A copy of the given member is stored, so snapshots taken before the update keep the old details and later
+     * changes to the given object do not reach the repository without another update.
      *
      * @param updatedMember The member object with updated details.
      * @throws RuntimeException If the member with the given ID is not found.
      */
-    public void update(Member updatedMember) {
-        Member existingMember = findById(updatedMember.getMemberId());
+    public synchronized void update(Member updatedMember) {
+        MemberSnapshot current = snapshot.get();
+        Member existingMember = current.findById(updatedMember.getMemberId());
 
         if (existingMember == null) {
             throw new RuntimeException("Member not found for ID " + updatedMember.getMemberId());
         }
 
-        ensureCorrectMembershipLevel(updatedMember); // Ensure the correct membership level is set
+        Member copy = copyOf(updatedMember); // Gets the correct membership level for its age
+        if (teamMemberships != null) {
+            teamMemberships.memberReplaced(copy); // The team follows the new object and decides its team name
+        }
+        removeFromIndexes(existingMember);
+        addToIndexes(copy);
+        publish(current.withMember(copy)); // Readers see the updated member from here on
 
-        // Update the member details
-        existingMember.setName(updatedMember.getName());
-        existingMember.setAge(updatedMember.getAge());
-        existingMember.setMembershipType(updatedMember.getMembershipType());
-        existingMember.setEmail(updatedMember.getEmail());
-        existingMember.setPhoneNumber(updatedMember.getPhoneNumber());
+        if (journal != null) {
+            journal.recordSave(copy); // Append the updated member to the journal
+            compactJournalIfNeeded();
+            return;
+        }
 
         // Save updated list to the file
-        fileHandler.saveMembers(members);
+        fileHandler.saveMembers(findAll());
+    }
 
-        // Reload members from the file to keep in-memory list updated
-        reloadMembers();
+    /**
+     * Copies every persisted field of a member into a new object, with its own membership type.
+     *
+     * @param source The member holding the new values.
+     * @return A junior or senior member, depending on the age of the source.
+     */
+    private static Member copyOf(Member source) {
+        MembershipType membershipType = new MembershipType(source.getMembershipType().getCategory(),
+                levelForAge(source.getAge()));
+        if (membershipType.getLevel() == MembershipLevel.JUNIOR) {
+            return new JuniorMember(String.valueOf(source.getMemberId()), source.getName(), source.getEmail(),
+                    source.getCity(), source.getStreet(), source.getRegion(), source.getZipcode(), membershipType,
+                    source.getMembershipStatus(), source.getActivityType(), source.getPaymentStatus(), source.getAge(),
+                    source.getPhoneNumber(), source.getTeamName());
+        }
+        return new SeniorMember(String.valueOf(source.getMemberId()), source.getName(), source.getEmail(),
+                source.getCity(), source.getStreet(), source.getRegion(), source.getZipcode(), membershipType,
+                source.getMembershipStatus(), source.getActivityType(), source.getPaymentStatus(), source.getAge(),
+                source.getPhoneNumber(), source.getTeamName());
     }
 
 
-    public void saveMembers() {
-        fileHandler.saveMembers(members); // Save the updated list to the file
+    /**
+     * Save all members to the file. In journal mode this compacts the journal into the member file.
+     */
+    public synchronized void saveMembers() {
+        if (journal != null) {
+            journal.compact(findAll()); // Writes the member file and empties the journal
+            return;
+        }
+        fileHandler.saveMembers(findAll()); // Save the updated list to the file
     }
 }
\ No newline at end of file
@@ -0,0 +1,274 @@
+package swimclub.repositories;
+
+import swimclub.models.Member;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * MemberSnapshot is an immutable view of the set of members at one version of the {@link MemberRepository}.
+ * The repository publishes a new snapshot for every change, so a reader holding a snapshot can iterate it or look
+ * members up without any locks, and never sees a member half added or removed.
+ *
+ * The members are kept in a radix trie keyed by member ID with 32 slots per node, like a hash index without
+ * hashing. A lookup follows one node per 5 bits of the highest ID (four nodes below a million members), and a
+ * change copies only the nodes on the path to the member, about a hundred references, instead of the whole club.
+ * All other nodes are shared with the previous version. The list of all members is built once per version,
+ * the first time it is asked for.
+ *
+ * The repository stores a new member object for every update and reload, so a snapshot keeps the details its
+ * members had when it was published. The payment status is the exception: billing and payments set it on the
+ * current member object, so it is seen by every snapshot holding that object.
+ */
+public final class MemberSnapshot {
+    private static final int BITS = 5;            // ID bits per trie level
+    private static final int WIDTH = 1 << BITS;   // Slots per node
+    private static final int MASK = WIDTH - 1;
+
+    static final MemberSnapshot EMPTY = new MemberSnapshot(0, new Object[WIDTH], 0, 0, 0);
+
+    private final long version;
+    private final Object[] root;  // Inner nodes hold Object[] children, nodes at level 0 hold members
+    private final int shift;      // Bit shift of the root level, 0 when the root holds members
+    private final int size;
+    private final int highestId;
+    private volatile List<Member> view; // All members ordered by ID, built on first use
+
+    private MemberSnapshot(long version, Object[] root, int shift, int size, int highestId) {
+        this.version = version;
+        this.root = root;
+        this.shift = shift;
+        this.size = size;
+        this.highestId = highestId;
+    }
+
+    /**
+     * Creates a snapshot of the given members. If several members share an ID, the last one wins.
+     *
+     * @param version The version of the snapshot.
+     * @param members The members, in any order.
+     * @return The snapshot.
+     */
+    static MemberSnapshot of(long version, Collection<Member> members) {
+        int highestId = 0;
+        for (Member member : members) {
+            highestId = Math.max(highestId, checkId(member.getMemberId()));
+        }
+        int shift = shiftFor(highestId);
+        Object[] root = new Object[WIDTH];
+        int size = 0;
+        for (Member member : members) {
+            if (put(root, shift, member.getMemberId(), member, false)) { // The new trie is not shared yet, fill it in place
+                size++;
+            }
+        }
+        return new MemberSnapshot(version, root, shift, size, highestId);
+    }
+
+    // ---------------------------
+    // Creating New Versions
+    // ---------------------------
+
+    /**
+     * @param member The member to add, replacing a member with the same ID.
+     * @return The next version, with the member added.
+     */
+    MemberSnapshot withMember(Member member) {
+        int memberId = checkId(member.getMemberId());
+        Object[] nextRoot = root;
+        int nextShift = shift;
+        while (nextShift < shiftFor(memberId)) {
+            Object[] grown = new Object[WIDTH];
+            grown[0] = nextRoot; // The old trie covers the lowest IDs of the taller one
+            nextRoot = grown;
+            nextShift += BITS;
+        }
+        nextRoot = nextRoot.clone();
+        boolean added = put(nextRoot, nextShift, memberId, member, true);
+        return new MemberSnapshot(version + 1, nextRoot, nextShift, added ? size + 1 : size, Math.max(highestId, memberId));
+    }
+
+    /**
+     * @param members The members to add, each replacing a member with the same ID.
+     * @return The next version, with all members added.
+     */
+    MemberSnapshot withMembers(Collection<Member> members) {
+        MemberSnapshot next = this;
+        for (Member member : members) {
+            next = next.withMember(member);
+        }
+        return new MemberSnapshot(version + 1, next.root, next.shift, next.size, next.highestId);
+    }
+
+    /**
+     * @param memberId The ID of the member to remove.
+     * @return The next version without the member, or this snapshot if no member has the ID.
+     */
+    MemberSnapshot withoutMember(int memberId) {
+        if (findById(memberId) == null) {
+            return this;
+        }
+        Object[] nextRoot = root.clone();
+        remove(nextRoot, shift, memberId);
+        int nextHighestId = memberId == highestId ? findHighestId(nextRoot, shift, 0) : highestId;
+        return new MemberSnapshot(version + 1, nextRoot, shift, size - 1, nextHighestId);
+    }
+
+    // ---------------------------
+    // Reading
+    // ---------------------------
+
+    /**
+     * @return The version of the snapshot, increased by every change to the repository.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return All members ordered by ID, as an unmodifiable list.
+     */
+    public List<Member> getMembers() {
+        List<Member> members = view;
+        if (members == null) {
+            Member[] ordered = new Member[size];
+            collect(root, shift, ordered, 0);
+            members = Collections.unmodifiableList(Arrays.asList(ordered));
+            view = members; // Several threads may build it at once, they all build the same list
+        }
+        return members;
+    }
+
+    /**
+     * @return The number of members.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds a member by ID.
+     *
+     * @param memberId The ID of the member.
+     * @return The member, or null if it is not in this snapshot.
+     */
+    public Member findById(int memberId) {
+        if (memberId < 0 || (shift + BITS < Integer.SIZE && (memberId >>> (shift + BITS)) != 0)) {
+            return null; // Higher than any ID the trie can hold
+        }
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(memberId >>> level) & MASK];
+            if (node == null) {
+                return null;
+            }
+        }
+        return (Member) node[memberId & MASK];
+    }
+
+    /**
+     * @return The highest member ID, or 0 if there are no members.
+     */
+    public int getHighestId() {
+        return highestId;
+    }
+
+    // ---------------------------
+    // Trie Helpers
+    // ---------------------------
+
+    private static int checkId(int memberId) {
+        if (memberId < 0) {
+            throw new IllegalArgumentException("Member IDs cannot be negative: " + memberId);
+        }
+        return memberId;
+    }
+
+    /**
+     * @return The root shift of the lowest trie that can hold the ID.
+     */
+    private static int shiftFor(int memberId) {
+        int shift = 0;
+        while (shift + BITS < Integer.SIZE && (memberId >>> (shift + BITS)) != 0) {
+            shift += BITS;
+        }
+        return shift;
+    }
+
+    /**
+     * Stores a member below a node. With copyPath set, every child on the way down is copied before it is changed,
+     * so nodes shared with older snapshots stay untouched; the node itself must already be a private copy.
+     *
+     * @return true if the ID was not in the trie before.
+     */
+    private static boolean put(Object[] node, int level, int memberId, Member member, boolean copyPath) {
+        while (level > 0) {
+            int slot = (memberId >>> level) & MASK;
+            Object[] child = (Object[]) node[slot];
+            if (child == null) {
+                child = new Object[WIDTH];
+            } else if (copyPath) {
+                child = child.clone();
+            }
+            node[slot] = child;
+            node = child;
+            level -= BITS;
+        }
+        boolean added = node[memberId & MASK] == null;
+        node[memberId & MASK] = member;
+        return added;
+    }
+
+    /**
+     * Removes a member below a private copy of a node, copying the path and dropping nodes that become empty.
+     *
+     * @return true if the node is empty afterwards.
+     */
+    private static boolean remove(Object[] node, int level, int memberId) {
+        int slot = (memberId >>> level) & MASK;
+        if (level == 0) {
+            node[slot] = null;
+        } else {
+            Object[] child = ((Object[]) node[slot]).clone();
+            node[slot] = remove(child, level - BITS, memberId) ? null : child;
+        }
+        for (Object entry : node) {
+            if (entry != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int findHighestId(Object[] node, int level, int prefix) {
+        for (int slot = MASK; slot >= 0; slot--) {
+            if (node[slot] == null) {
+                continue;
+            }
+            int id = prefix | (slot << level);
+            return level == 0 ? id : findHighestId((Object[]) node[slot], level - BITS, id);
+        }
+        return 0;
+    }
+
+    /**
+     * Adds the members below a node to the array in ID order.
+     *
+     * @return The next free index of the array.
+     */
+    private static int collect(Object[] node, int level, Member[] into, int index) {
+        for (Object entry : node) {
+            if (entry == null) {
+                continue;
+            }
+            if (level == 0) {
+                into[index++] = (Member) entry;
+            } else {
+                index = collect((Object[]) entry, level - BITS, into, index);
+            }
+        }
+        return index;
+    }
+}
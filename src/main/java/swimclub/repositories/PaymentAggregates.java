@@ -0,0 +1,107 @@
+package swimclub.repositories;
+
+import swimclub.models.FeeSchedule;
+import swimclub.models.Member;
+import swimclub.models.PaymentStatus;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * PaymentAggregates keeps running counts of members per payment status and fee group.
+ * The {@link MemberRepository} updates the counts whenever a member is added, removed or changed, so the payment
+ * summary is answered from a fixed number of counters instead of walking all members. The amounts are not stored:
+ * multiplying a count by the fee of its group in the current {@link FeeSchedule} gives the total, so a change of
+ * the fee rules needs no update.
+ *
+ * The group of every member is remembered by ID, because members are changed in place and their old payment
+ * status or age is gone by the time the repository is told about the change.
+ */
+public class PaymentAggregates {
+    private static final int GROUPS = FeeSchedule.GROUPS; // Fee groups per payment status
+
+    private final int[] counts = new int[PaymentStatus.values().length * GROUPS]; // Members per group
+    private int[] groupById = new int[0]; // Group + 1 of the member with each ID, 0 when not counted
+
+    // ---------------------------
+    // Updating, called by MemberRepository
+    // ---------------------------
+
+    synchronized void add(Member member) {
+        int group = groupOf(member);
+        if (group < 0) {
+            return; // Members without a payment status are not counted
+        }
+        int id = member.getMemberId();
+        if (id >= groupById.length) {
+            groupById = Arrays.copyOf(groupById, Math.max(id + 1, groupById.length * 2));
+        }
+        if (groupById[id] != 0) {
+            counts[groupById[id] - 1]--; // Counted before, e.g. replaced by a member with the same ID
+        }
+        groupById[id] = group + 1;
+        counts[group]++;
+    }
+
+    synchronized void remove(Member member) {
+        int id = member.getMemberId();
+        if (id < groupById.length && groupById[id] != 0) {
+            counts[groupById[id] - 1]--;
+            groupById[id] = 0;
+        }
+    }
+
+    synchronized void update(Member member) {
+        remove(member);
+        add(member);
+    }
+
+    synchronized void rebuild(Collection<Member> members) {
+        Arrays.fill(counts, 0);
+        groupById = new int[0];
+        for (Member member : members) {
+            add(member);
+        }
+    }
+
+    private static int groupOf(Member member) {
+        PaymentStatus status = member.getPaymentStatus();
+        int feeGroup = FeeSchedule.groupOf(member);
+        return status == null || feeGroup < 0 ? -1 : status.ordinal() * GROUPS + feeGroup;
+    }
+
+    // ---------------------------
+    // Reading
+    // ---------------------------
+
+    /**
+     * @param status The payment status.
+     * @return The number of members with the payment status that pay a fee.
+     */
+    public synchronized int count(PaymentStatus status) {
+        int total = 0;
+        int base = status.ordinal() * GROUPS;
+        for (int group = 0; group < GROUPS; group++) {
+            total += counts[base + group];
+        }
+        return total;
+    }
+
+    /**
+     * Sums the membership fees of all members with a payment status, without allocating.
+     *
+     * @param status The payment status.
+     * @param period The fees to apply.
+     * @return The total of the fees in cents.
+     */
+    public synchronized long totalCents(PaymentStatus status, FeeSchedule.Period period) {
+        long totalCents = 0;
+        int base = status.ordinal() * GROUPS;
+        for (int group = 0; group < GROUPS; group++) {
+            if (counts[base + group] != 0) {
+                totalCents = Math.addExact(totalCents, Math.multiplyExact(period.feeCents(group), counts[base + group]));
+            }
+        }
+        return totalCents;
+    }
+}
@@ -3,18 +3,34 @@ package swimclub.repositories;
 import swimclub.models.Member;
 import swimclub.models.Payment;
 import swimclub.models.PaymentStatus;
+import swimclub.models.Reminder;
+import swimclub.utilities.DurableFile;
+import swimclub.utilities.Money;
+import swimclub.utilities.SequenceAllocator;
+import swimclub.utilities.WriteBehindPersister;
 
 import java.io.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.logging.Logger;
 
 public class PaymentRepository {
     private static final Logger LOGGER = Logger.getLogger(PaymentRepository.class.getName());
+    private static final String LEGACY_REMINDER_PREFIX = "Reminder for Member ID: "; // Reminders without a due date
     private final List<Payment> payments;  // List to store payments
-    private final List<String> reminders; // List to store reminders
+    private final Map<Integer, Payment> paymentsById = new HashMap<>(); // Payment ID -> payment, for duplicate checks
+    private final Map<Integer, List<Payment>> paymentsByMemberId = new HashMap<>(); // Member ID -> payment history
+    private final ReminderStore reminders = new ReminderStore(); // Reminders by member ID and due date
     private final String reminderFilePath; // Path to the reminders file
+    private final Object reminderFileLock = new Object(); // Orders snapshots and writes of the reminders file
+    private WriteBehindPersister writeBehind; // Optional background writer, null writes synchronously
+    private SequenceAllocator paymentIds = new SequenceAllocator(); // Hands out payment IDs, in memory unless replaced
 
     // ===========================
     // Constructor and Initialization
@@ -27,48 +43,124 @@ public class PaymentRepository {
      */
     public PaymentRepository(String reminderFilePath) {
         this.payments = new ArrayList<>();
-        this.reminders = new ArrayList<>();
         this.reminderFilePath = reminderFilePath;
 
         // Load reminders at initialization
         loadReminders();
     }
 
+    /**
+     * Enables write-behind for the reminders file.
+     *
+     * @param writeBehind The background writer, or null to write synchronously.
+     */
+    public void setWriteBehind(WriteBehindPersister writeBehind) {
+        this.writeBehind = writeBehind;
+    }
+
+    /**
+     * Replaces the sequence that hands out payment IDs, e.g. with one that is persisted to a file.
+     * The sequence is advanced past the payments that are already loaded.
+     *
+     * @param paymentIds The sequence for payment IDs.
+     */
+    public synchronized void setIdSequence(SequenceAllocator paymentIds) {
+        for (Payment payment : payments) {
+            paymentIds.advancePast(payment.getPaymentId());
+        }
+        this.paymentIds = paymentIds;
+    }
+
     // ===========================
     // Reminder Management Methods
     // ===========================
 
     /**
-     * Saves a payment reminder.
+     * Saves a payment reminder, replacing the member's reminder with the same due date.
      *
-     * @param reminder The reminder string to save.
+     * @param reminder The reminder to save.
+     * @return The replaced reminder, or null if the member had no reminder with the due date.
      */
-    public void saveReminder(String reminder) {
-        if (reminder == null || reminder.isEmpty()) {
+    public Reminder saveReminder(Reminder reminder) {
+        if (reminder == null) {
             throw new IllegalArgumentException("Reminder cannot be null or empty.");
         }
-        reminders.add(reminder);
+        Reminder replaced = reminders.put(reminder);
         saveRemindersToFile();
         LOGGER.info("Reminder saved: " + reminder);
+        return replaced;
+    }
+
+    /**
+     * Saves a batch of reminders with a single write of the reminders file, e.g. the reminders of a reminder run.
+     *
+     * @param batch The reminders to save.
+     */
+    public void saveReminders(Collection<Reminder> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (Reminder reminder : batch) {
+            reminders.put(reminder);
+        }
+        saveRemindersToFile();
+        LOGGER.info(batch.size() + " reminders saved.");
+    }
+
+    /**
+     * Gets all reminders.
+     *
+     * @return List of reminders, in the order they were added.
+     */
+    public List<Reminder> getReminders() {
+        return reminders.findAll(); // A copy, to prevent external modification
+    }
+
+    /**
+     * Gets the reminders of a member.
+     *
+     * @param memberId The member ID.
+     * @return The member's reminders, in the order they were added.
+     */
+    public List<Reminder> findRemindersByMemberId(int memberId) {
+        return reminders.findByMember(memberId);
     }
 
     /**
-     * Gets all reminders as a list of strings.
+     * Gets the reminder of a member for a due date.
      *
-     * @return List of reminders.
+     * @param memberId The member ID.
+     * @param dueDate  The due date.
+     * @return The reminder, or null if there is none.
      */
-    public List<String> getReminders() {
-        return new ArrayList<>(reminders); // Return a copy to prevent external modification
+    public Reminder findReminder(int memberId, LocalDate dueDate) {
+        return reminders.find(memberId, dueDate);
     }
 
     /**
-     * Removes a specific reminder.
+     * Removes the reminder of a member for a due date.
      *
-     * @param reminder The reminder to remove.
+     * @param memberId The member ID.
+     * @param dueDate  The due date.
      * @return true if the reminder was found and removed, false otherwise.
      */
-    public boolean removeReminder(String reminder) {
-        boolean removed = reminders.remove(reminder);
+    public boolean removeReminder(int memberId, LocalDate dueDate) {
+        boolean removed = reminders.remove(memberId, dueDate) != null;
+        if (removed) {
+            saveRemindersToFile();
+        }
+        return removed;
+    }
+
+    /**
+     * Removes a reminder of a member by its message.
+     *
+     * @param memberId The member ID.
+     * @param message  The reminder message.
+     * @return true if the reminder was found and removed, false otherwise.
+     */
+    public boolean removeReminder(int memberId, String message) {
+        boolean removed = reminders.removeByMessage(memberId, message) != null;
         if (removed) {
             saveRemindersToFile();
         }
@@ -89,16 +181,29 @@ public class PaymentRepository {
     // ===========================
 
     /**
-     * Saves all reminders to the file.
+     * Saves all reminders to the file, through the background writer if write-behind is enabled.
+     * With write-behind a change only marks the file dirty, and the reminders are formatted when the write runs,
+     * so a burst of changes costs one snapshot and one write of the latest reminders.
      */
     private void saveRemindersToFile() {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(reminderFilePath))) {
-            for (String reminder : reminders) {
-                writer.write(reminder);
-                writer.newLine();
+        if (writeBehind != null) {
+            writeBehind.markDirty(reminderFilePath, this::writeReminders);
+        } else {
+            writeReminders();
+        }
+    }
+
+    /**
+     * Writes the current reminders. Taking the snapshot and writing it happen under one lock, so a write that
+     * took an older snapshot can never replace the file after a write of a newer one.
+     */
+    private void writeReminders() {
+        synchronized (reminderFileLock) {
+            List<String> snapshot = new ArrayList<>();
+            for (Reminder reminder : reminders.findAll()) {
+                snapshot.add(reminder.getMemberId() + ";" + reminder.getDueDate() + ";" + reminder.getMessage());
             }
-        } catch (IOException e) {
-            LOGGER.severe("Error saving reminders to file: " + e.getMessage());
+            DurableFile.writeLines(reminderFilePath, snapshot, "reminders"); // Temp file, fsync and atomic move
         }
     }
 
@@ -106,10 +211,13 @@ public class PaymentRepository {
      * Loads reminders from the file.
      */
     private void loadReminders() {
-        try (BufferedReader reader = new BufferedReader(new FileReader(reminderFilePath))) {
+        try (BufferedReader reader = DurableFile.newVerifiedReader(reminderFilePath)) {
             String line;
             while ((line = reader.readLine()) != null) {
-                reminders.add(line);
+                Reminder reminder = parseReminder(line);
+                if (reminder != null) {
+                    reminders.put(reminder);
+                }
             }
         } catch (FileNotFoundException e) {
             LOGGER.info("Reminder file not found, starting with an empty list.");
@@ -118,6 +226,28 @@ public class PaymentRepository {
         }
     }
 
+    /**
+     * Parses a reminder in the format memberId;dueDate;message. Reminders written before they had a due date,
+     * "Reminder for Member ID: 4: message", are due today.
+     *
+     * @param line The line from the reminders file.
+     * @return The reminder, or null if the line cannot be parsed.
+     */
+    private Reminder parseReminder(String line) {
+        try {
+            if (line.startsWith(LEGACY_REMINDER_PREFIX)) {
+                int separator = line.indexOf(": ", LEGACY_REMINDER_PREFIX.length());
+                int memberId = Integer.parseInt(line.substring(LEGACY_REMINDER_PREFIX.length(), separator));
+                return new Reminder(memberId, LocalDate.now(), line.substring(separator + 2));
+            }
+            String[] parts = line.split(";", 3);
+            return new Reminder(Integer.parseInt(parts[0]), LocalDate.parse(parts[1]), parts[2]);
+        } catch (Exception e) {
+            LOGGER.severe("Error parsing reminder: " + line + " - " + e.getMessage());
+            return null;
+        }
+    }
+
     // ===========================
     // Payment Management Methods
     // ===========================
@@ -128,19 +258,82 @@ public class PaymentRepository {
      * @param payment The payment object to save.
      * @throws IllegalArgumentException If the payment is null or a duplicate Payment ID exists.
      */
-    public void save(Payment payment) {
+    public synchronized void save(Payment payment) {
         if (payment == null) {
             throw new IllegalArgumentException("Payment cannot be null.");
         }
 
         // Check for duplicate payment ID
-        if (payments.stream().anyMatch(p -> p.getPaymentId() == payment.getPaymentId())) {
+        if (!add(payment)) {
             LOGGER.warning("Duplicate payment attempt for Payment ID: " + payment.getPaymentId());
             return;
         }
+        LOGGER.info("Payment added successfully with ID: " + payment.getPaymentId());
+    }
+
+    /**
+     * Saves a batch of payments to the repository, e.g. the bills of a billing run, with one log line for the batch.
+     * Payments with a Payment ID that is already stored are skipped.
+     *
+     * @param batch The payments to save.
+     * @return The number of payments that were saved.
+     */
+    public synchronized int saveAll(List<Payment> batch) {
+        int saved = 0;
+        for (Payment payment : batch) {
+            if (payment == null) {
+                throw new IllegalArgumentException("Payment cannot be null.");
+            }
+            if (add(payment)) {
+                saved++;
+            }
+        }
+        if (saved < batch.size()) {
+            LOGGER.warning("Skipped " + (batch.size() - saved) + " payments with a duplicate Payment ID.");
+        }
+        LOGGER.info(saved + " payments added successfully.");
+        return saved;
+    }
 
+    /**
+     * Adds a payment to the list and both indexes, unless a payment with the same ID is already stored.
+     *
+     * @param payment The payment to add.
+     * @return true if the payment was added, false if its ID is a duplicate.
+     */
+    private boolean add(Payment payment) {
+        if (paymentsById.putIfAbsent(payment.getPaymentId(), payment) != null) {
+            return false;
+        }
         payments.add(payment);
-        LOGGER.info("Payment added successfully with ID: " + payment.getPaymentId());
+        if (payment.getMember() != null) {
+            paymentsByMemberId.computeIfAbsent(payment.getMember().getMemberId(), id -> new ArrayList<>()).add(payment);
+        }
+        paymentIds.advancePast(payment.getPaymentId());
+        return true;
+    }
+
+    /**
+     * Marks the oldest pending payment of a member with the given amount as paid, e.g. a bill of a billing run.
+     * The payment keeps its date, so it still counts for the season it was billed for.
+     *
+     * @param memberId    The member ID.
+     * @param amountCents The amount paid in cents.
+     * @return The settled payment, or null if the member has no pending payment of that amount.
+     */
+    public synchronized Payment settlePendingPayment(int memberId, long amountCents) {
+        Payment oldest = null;
+        for (Payment payment : paymentsByMemberId.getOrDefault(memberId, List.of())) {
+            if (payment.getPaymentStatus() == PaymentStatus.PENDING && payment.getAmountCents() == amountCents
+                    && (oldest == null || payment.getPaymentDate().isBefore(oldest.getPaymentDate()))) {
+                oldest = payment;
+            }
+        }
+        if (oldest != null) {
+            oldest.setPaymentStatus(PaymentStatus.COMPLETE);
+            LOGGER.info("Payment settled with ID: " + oldest.getPaymentId());
+        }
+        return oldest;
     }
 
     /**
@@ -149,22 +342,30 @@ public class PaymentRepository {
      * @param filePath         The path to the payment file.
      * @param memberRepository The member repository to link payments with members.
      */
-    public void loadPayments(String filePath, MemberRepository memberRepository) {
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+    public synchronized void loadPayments(String filePath, MemberRepository memberRepository) {
+        int duplicates = 0;
+        try (BufferedReader reader = DurableFile.newVerifiedReader(filePath)) {
             String line;
             while ((line = reader.readLine()) != null) {
                 Payment payment = parsePayment(line, memberRepository);
                 if (payment != null) {
-                    payments.add(payment);
+                    if (!add(payment)) {
+                        duplicates++;
+                        continue;
+                    }
                     Member member = payment.getMember();
                     if (member != null) {
                         member.setPaymentStatus(payment.getPaymentStatus());
+                        memberRepository.refreshIndexes(member);
                     }
                 }
             }
         } catch (IOException e) {
             LOGGER.severe("Error loading payments: " + e.getMessage());
         }
+        if (duplicates > 0) {
+            LOGGER.warning("Skipped " + duplicates + " payments with a duplicate Payment ID.");
+        }
     }
 
     /**
@@ -179,7 +380,7 @@ public class PaymentRepository {
         try {
             int paymentId = Integer.parseInt(parts[0]);
             int memberId = Integer.parseInt(parts[1]);
-            double amount = Double.parseDouble(parts[2]);
+            long amountCents = Money.parse(parts[2]);
             LocalDate paymentDate = LocalDate.parse(parts[3]);
             PaymentStatus status = PaymentStatus.valueOf(parts[4].toUpperCase());
 
@@ -188,7 +389,7 @@ public class PaymentRepository {
                 throw new IllegalArgumentException("Member not found for ID: " + memberId);
             }
 
-            return new Payment(paymentId, status, member, paymentDate, amount);
+            return Payment.ofCents(paymentId, status, member, paymentDate, amountCents);
         } catch (Exception e) {
             LOGGER.severe("Error parsing payment: " + line + " - " + e.getMessage());
             return null;
@@ -200,15 +401,68 @@ public class PaymentRepository {
     // ===========================
 
     /**
-     * Fetches all payments for a specific member ID.
+     * Fetches all payments for a specific member ID, in the order they were added.
      *
      * @param memberId The member ID to fetch payments for.
      * @return List of payments for the specified member ID.
      */
-    public List<Payment> findPaymentsByMemberId(int memberId) {
-        return payments.stream()
-                .filter(payment -> payment.getMember().getMemberId() == memberId)
-                .toList();
+    public synchronized List<Payment> findPaymentsByMemberId(int memberId) {
+        return List.copyOf(paymentsByMemberId.getOrDefault(memberId, List.of()));
+    }
+
+    /**
+     * @param memberId The member ID.
+     * @return true if the member has a payment that is still pending.
+     */
+    public synchronized boolean hasPendingPayment(int memberId) {
+        for (Payment payment : paymentsByMemberId.getOrDefault(memberId, List.of())) {
+            if (payment.getPaymentStatus() == PaymentStatus.PENDING) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Collects the members that were billed or have paid in a year, in one pass over the payments.
+     *
+     * @param year The year of the payment dates.
+     * @return The IDs of the members with a pending or complete payment dated in the year.
+     */
+    public synchronized Set<Integer> findMemberIdsBilledIn(int year) {
+        Set<Integer> memberIds = new HashSet<>();
+        for (Payment payment : payments) {
+            PaymentStatus status = payment.getPaymentStatus();
+            if ((status == PaymentStatus.PENDING || status == PaymentStatus.COMPLETE)
+                    && payment.getPaymentDate().getYear() == year && payment.getMember() != null) {
+                memberIds.add(payment.getMember().getMemberId());
+            }
+        }
+        return memberIds;
+    }
+
+    /**
+     * Fetches a payment by its ID.
+     *
+     * @param paymentId The payment ID.
+     * @return The payment, or null if no payment has the ID.
+     */
+    public synchronized Payment findById(int paymentId) {
+        return paymentsById.get(paymentId);
+    }
+
+    /**
+     * Adds up all payments of a member, without copying the member's payment list.
+     *
+     * @param memberId The member ID.
+     * @return The total in cents.
+     */
+    public synchronized long getTotalCents(int memberId) {
+        long totalCents = 0;
+        for (Payment payment : paymentsByMemberId.getOrDefault(memberId, List.of())) {
+            totalCents += payment.getAmountCents();
+        }
+        return totalCents;
     }
 
     /**
@@ -216,19 +470,35 @@ public class PaymentRepository {
      *
      * @return List of all payments.
      */
-    public List<Payment> findAll() {
+    public synchronized List<Payment> findAll() {
         return new ArrayList<>(payments); // Return a copy to prevent external modification
     }
 
     /**
-     * Gets the next available payment ID.
+     * Gets the payment ID the next call to {@link #allocatePaymentId()} will hand out, without allocating it.
      *
      * @return The next available payment ID.
      */
     public int getNextPaymentId() {
-        return payments.stream()
-                .mapToInt(Payment::getPaymentId)
-                .max()
-                .orElse(0) + 1;
+        return paymentIds.peek();
+    }
+
+    /**
+     * Allocates a new payment ID. Safe to call from several threads, every call gets a different ID.
+     *
+     * @return The new payment ID.
+     */
+    public int allocatePaymentId() {
+        return paymentIds.next();
+    }
+
+    /**
+     * Reserves a block of consecutive payment IDs for a bulk insert.
+     *
+     * @param count The number of IDs to reserve.
+     * @return The first ID of the block.
+     */
+    public int reservePaymentIds(int count) {
+        return paymentIds.reserve(count);
     }
 }
\ No newline at end of file
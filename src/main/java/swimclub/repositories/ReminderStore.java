@@ -0,0 +1,125 @@
+package swimclub.repositories;
+
+import swimclub.models.Reminder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ReminderStore holds the payment reminders, keyed by member ID and due date.
+ * A member has at most one reminder per due date, so adding the reminder for a bill again replaces it instead of
+ * adding a copy. Adding, finding and removing by key take constant time; the reminders of one member are kept in
+ * a list of their own, so looking up a member's reminders costs only as much as that member has.
+ *
+ * The store only holds the reminders in memory, {@link PaymentRepository} loads and saves them.
+ */
+public class ReminderStore {
+    private final Map<Long, Reminder> byKey = new LinkedHashMap<>(); // Member ID and due date -> reminder, in order added
+    private final Map<Integer, List<Reminder>> byMemberId = new HashMap<>(); // Member ID -> the member's reminders
+
+    private static long key(int memberId, LocalDate dueDate) {
+        return ((long) memberId << 32) | (dueDate.toEpochDay() & 0xFFFFFFFFL);
+    }
+
+    // ===========================
+    // Changing Reminders
+    // ===========================
+
+    /**
+     * Adds a reminder, replacing the reminder of the member with the same due date.
+     *
+     * @param reminder The reminder.
+     * @return The replaced reminder, or null if there was none.
+     */
+    public synchronized Reminder put(Reminder reminder) {
+        Reminder previous = byKey.put(key(reminder.getMemberId(), reminder.getDueDate()), reminder);
+        List<Reminder> memberReminders = byMemberId.computeIfAbsent(reminder.getMemberId(), id -> new ArrayList<>());
+        if (previous != null) {
+            memberReminders.remove(previous);
+        }
+        memberReminders.add(reminder);
+        return previous;
+    }
+
+    /**
+     * Removes the reminder of a member with a due date.
+     *
+     * @param memberId The ID of the member.
+     * @param dueDate  The due date.
+     * @return The removed reminder, or null if there was none.
+     */
+    public synchronized Reminder remove(int memberId, LocalDate dueDate) {
+        Reminder removed = byKey.remove(key(memberId, dueDate));
+        if (removed != null) {
+            List<Reminder> memberReminders = byMemberId.get(memberId);
+            memberReminders.remove(removed);
+            if (memberReminders.isEmpty()) {
+                byMemberId.remove(memberId);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Removes the first reminder of a member with a message, e.g. when the treasurer types in the message.
+     *
+     * @param memberId The ID of the member.
+     * @param message  The reminder message.
+     * @return The removed reminder, or null if the member has no reminder with the message.
+     */
+    public synchronized Reminder removeByMessage(int memberId, String message) {
+        for (Reminder reminder : byMemberId.getOrDefault(memberId, List.of())) {
+            if (reminder.getMessage().equals(message)) {
+                return remove(memberId, reminder.getDueDate());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes all reminders.
+     */
+    public synchronized void clear() {
+        byKey.clear();
+        byMemberId.clear();
+    }
+
+    // ===========================
+    // Lookups
+    // ===========================
+
+    /**
+     * @param memberId The ID of a member.
+     * @param dueDate  A due date.
+     * @return The reminder of the member with the due date, or null if there is none.
+     */
+    public synchronized Reminder find(int memberId, LocalDate dueDate) {
+        return byKey.get(key(memberId, dueDate));
+    }
+
+    /**
+     * @param memberId The ID of a member.
+     * @return The reminders of the member, in the order they were added.
+     */
+    public synchronized List<Reminder> findByMember(int memberId) {
+        return List.copyOf(byMemberId.getOrDefault(memberId, List.of()));
+    }
+
+    /**
+     * @return All reminders, in the order they were added.
+     */
+    public synchronized List<Reminder> findAll() {
+        return new ArrayList<>(byKey.values());
+    }
+
+    /**
+     * @return The number of reminders.
+     */
+    public synchronized int size() {
+        return byKey.size();
+    }
+}
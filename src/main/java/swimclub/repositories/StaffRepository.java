@@ -2,14 +2,16 @@ package swimclub.repositories;
 
 import swimclub.models.Coach;
 import swimclub.utilities.FileHandler;
-import java.util.ArrayList;
+import swimclub.utilities.KeyedIndex;
+import swimclub.utilities.SequenceAllocator;
 
 import java.util.List;
-import java.util.Optional;
 
 public class StaffRepository {
     private final FileHandler fileHandler;
     private List<Coach> coachList;
+    private final KeyedIndex<Integer, Coach> coachesById = new KeyedIndex<>(Coach::getCoachId); // ID -> Coach
+    private SequenceAllocator coachIds = new SequenceAllocator(); // Hands out coach IDs, in memory unless replaced
 
     /**
      * Constructor for StaffRepository that initializes the list of coaches
@@ -20,6 +22,19 @@ public class StaffRepository {
     public StaffRepository(FileHandler fileHandler) {
         this.fileHandler = fileHandler;
         this.coachList = fileHandler.loadCoaches(); // Load coaches from the file
+        coachesById.rebuild(coachList);
+        coachList.forEach(coach -> coachIds.advancePast(coach.getCoachId()));
+    }
+
+    /**
+     * Replaces the sequence that hands out coach IDs, e.g. with one that is persisted to a file.
+     * The sequence is advanced past the coaches that are already loaded.
+     *
+     * @param coachIds The sequence for coach IDs.
+     */
+    public void setIdSequence(SequenceAllocator coachIds) {
+        coachList.forEach(coach -> coachIds.advancePast(coach.getCoachId()));
+        this.coachIds = coachIds;
     }
 
     /**
@@ -29,10 +44,7 @@ public class StaffRepository {
      * @return The Coach object if found, otherwise null.
      */
     public Coach findCoachById(int coachId) {
-        Optional<Coach> coach = coachList.stream()
-                .filter(c -> c.getCoachId() == coachId)
-                .findFirst();
-        return coach.orElse(null); // Return null if the coach is not found
+        return coachesById.get(coachId); // Returns null if the coach is not found
     }
 
     /**
@@ -69,31 +81,22 @@ public class StaffRepository {
     }
 
     /**
-     * Generates the next available coach ID by checking the highest ID in the current list.
-     * If the list is empty, returns 1 as the first ID.
+     * Gets the coach ID the next call to {@link #allocateCoachId()} will hand out, without allocating it.
+     * If there are no coaches, returns 1 as the first ID.
      *
      * @return The next available coach ID.
      */
     public int getNextCoachId() {
-        // Check if coachList is null or empty
-        if (coachList == null) {
-            coachList = new ArrayList<>();  // Initialize the list if it's null
-        }
-
-        if (coachList.isEmpty()) {
-            return 1; // If no coaches, return 1 as the next coach ID
-        }
-
-        // Find the maximum coach ID from the existing list
-        int maxId = 0;
-        for (Coach coach : coachList) {
-            if (coach.getCoachId() > maxId) {
-                maxId = coach.getCoachId(); // Update maxId if the current coach ID is greater
-            }
-        }
+        return coachIds.peek();
+    }
 
-        // Return the next ID, which is one more than the max ID
-        return maxId + 1;
+    /**
+     * Allocates a new coach ID. Safe to call from several threads, every call gets a different ID.
+     *
+     * @return The new coach ID.
+     */
+    public int allocateCoachId() {
+        return coachIds.next();
     }
 
     /**
@@ -105,7 +108,8 @@ public class StaffRepository {
     public boolean deleteCoach(Coach coach) {
         boolean isRemoved = coachList.remove(coach);
         if (isRemoved) {
-            fileHandler.deleteCoach(coach); // Delete the coach using the file handler
+            coachesById.remove(coach);
+            fileHandler.saveCoaches(coachList); // Save the remaining coaches, no need to read the file first
         }
         return isRemoved; // Return whether the coach was successfully removed
     }
@@ -117,6 +121,8 @@ public class StaffRepository {
      */
     public void addCoach(Coach coach) {
         coachList.add(coach); // Add the coach to the list
+        coachesById.add(coach);
+        coachIds.advancePast(coach.getCoachId());
         fileHandler.saveCoaches(coachList); // Save the updated list of coaches to the file
     }
 
@@ -0,0 +1,200 @@
+package swimclub.repositories;
+
+import swimclub.models.Member;
+import swimclub.models.Team;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TeamMembershipIndex owns the relation between members and teams.
+ * The relation is kept by member ID, so a member can be on at most one team, and both directions are looked up in
+ * constant time: the team of a member here, the members of a team through the team's own member set.
+ *
+ * The team name of a member and the member list of a team are views of this relation. The index is the only
+ * place that changes them, so they cannot drift apart. After the members were reloaded from file, updated or deleted,
+ * {@link #reconcile(Collection)}, {@link #memberReplaced(Member)} and {@link #memberRemoved(int)} bring both views
+ * back in line.
+ */
+public class TeamMembershipIndex {
+    public static final String NO_TEAM = "No team"; // Team name of members that are not on a team
+
+    private final Map<Integer, Assignment> assignments = new HashMap<>(); // Member ID -> member and team
+
+    private record Assignment(Member member, Team team) {
+    }
+
+    // ===========================
+    // Building the Index
+    // ===========================
+
+    /**
+     * Rebuilds the index from the member lists of loaded teams. The team file is the authority: a member listed on
+     * several teams stays on the first one, and every listed member gets the name of their team.
+     *
+     * @param teams The loaded teams.
+     */
+    public synchronized void rebuild(List<Team> teams) {
+        assignments.clear();
+        int duplicates = 0;
+        for (Team team : teams) {
+            for (Member member : team.getMembers()) {
+                if (assignments.putIfAbsent(member.getMemberId(), new Assignment(member, team)) == null) {
+                    member.setTeamName(team.getTeamName());
+                } else {
+                    team.removeMember(member);
+                    duplicates++;
+                }
+            }
+        }
+        if (duplicates > 0) {
+            System.err.println("Removed " + duplicates + " members that were listed on more than one team.");
+        }
+    }
+
+    /**
+     * Brings the views back in line with the index after the members were reloaded from file.
+     * Teams get the current member objects, members that no longer exist are removed from their team, and
+     * members that are not on a team lose a team name they may have read from the member file.
+     *
+     * @param members All current members.
+     */
+    public synchronized void reconcile(Collection<Member> members) {
+        Map<Integer, Assignment> previous = new HashMap<>(assignments);
+        assignments.clear();
+        for (Member member : members) {
+            Assignment assignment = previous.remove(member.getMemberId());
+            if (assignment == null) {
+                member.setTeamName(NO_TEAM);
+                continue;
+            }
+            if (assignment.member() != member) {
+                assignment.team().removeMember(assignment.member()); // Replaced by a new object with the same ID
+                assignment.team().addMember(member);
+            }
+            member.setTeamName(assignment.team().getTeamName());
+            assignments.put(member.getMemberId(), new Assignment(member, assignment.team()));
+        }
+        for (Assignment gone : previous.values()) {
+            gone.team().removeMember(gone.member()); // No longer a member of the club
+        }
+    }
+
+    // ===========================
+    // Changing Memberships
+    // ===========================
+
+    /**
+     * Puts a member on a team.
+     *
+     * @param member The member.
+     * @param team   The team.
+     * @throws IllegalArgumentException If the member is already on a team.
+     */
+    public synchronized void assign(Member member, Team team) {
+        Assignment current = assignments.get(member.getMemberId());
+        if (current != null) {
+            throw new IllegalArgumentException(current.team() == team
+                    ? "Member is already part of this team."
+                    : "Member is already part of a team.");
+        }
+        team.addMember(member);
+        member.setTeamName(team.getTeamName());
+        assignments.put(member.getMemberId(), new Assignment(member, team));
+    }
+
+    /**
+     * Takes a member off a team.
+     *
+     * @param member The member.
+     * @param team   The team the member is on.
+     * @throws IllegalArgumentException If the member is not on the team.
+     */
+    public synchronized void unassign(Member member, Team team) {
+        Assignment current = assignments.get(member.getMemberId());
+        if (current == null || current.team() != team) {
+            throw new IllegalArgumentException("Member is not part of the team.");
+        }
+        assignments.remove(member.getMemberId());
+        team.removeMember(current.member());
+        current.member().setTeamName(NO_TEAM);
+    }
+
+    /**
+     * Takes all members off a team that is being deleted.
+     *
+     * @param team The team.
+     */
+    public synchronized void removeTeam(Team team) {
+        for (Member member : team.getMembers()) {
+            Assignment assignment = assignments.get(member.getMemberId());
+            if (assignment != null && assignment.team() == team) {
+                assignments.remove(member.getMemberId());
+                team.removeMember(member);
+                member.setTeamName(NO_TEAM);
+            }
+        }
+    }
+
+    /**
+     * Takes a deleted member off their team.
+     *
+     * @param memberId The ID of the deleted member.
+     */
+    public synchronized void memberRemoved(int memberId) {
+        Assignment assignment = assignments.remove(memberId);
+        if (assignment != null) {
+            assignment.team().removeMember(assignment.member());
+        }
+    }
+
+    /**
+     * Puts an updated copy of a member on the team of the object it replaces, and gives it the team's name.
+     *
+     * @param member The new member object.
+     */
+    public synchronized void memberReplaced(Member member) {
+        Assignment assignment = assignments.get(member.getMemberId());
+        if (assignment == null) {
+            member.setTeamName(NO_TEAM);
+            return;
+        }
+        if (assignment.member() != member) {
+            assignment.team().removeMember(assignment.member());
+            assignment.team().addMember(member);
+            assignments.put(member.getMemberId(), new Assignment(member, assignment.team()));
+        }
+        member.setTeamName(assignment.team().getTeamName());
+    }
+
+    // ===========================
+    // Lookups
+    // ===========================
+
+    /**
+     * @param memberId The ID of a member.
+     * @return The team the member is on, or null if the member is not on a team.
+     */
+    public synchronized Team findTeam(int memberId) {
+        Assignment assignment = assignments.get(memberId);
+        return assignment != null ? assignment.team() : null;
+    }
+
+    /**
+     * @param member A member.
+     * @param team   A team.
+     * @return true if the member is on the team.
+     */
+    public synchronized boolean isOnTeam(Member member, Team team) {
+        return findTeam(member.getMemberId()) == team;
+    }
+
+    /**
+     * @return The number of members that are on a team.
+     */
+    public synchronized int size() {
+        return assignments.size();
+    }
+}
@@ -1,10 +1,12 @@
 package swimclub.repositories;
 
+import swimclub.models.Member;
 import swimclub.models.Team;
 import swimclub.utilities.FileHandler;
-import swimclub.models.Member;
+import swimclub.utilities.KeyedIndex;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Repository class for managing teams in the swim club.
@@ -13,6 +15,8 @@ import java.util.List;
  */
 public class TeamRepository {
     private final List<Team> teams; // List to store all teams
+    private final KeyedIndex<String, Team> teamsByName = new KeyedIndex<>(team -> nameKey(team.getTeamName())); // Lower-cased name -> Team
+    private final TeamMembershipIndex memberships = new TeamMembershipIndex(); // Owns which member is on which team
     private final FileHandler fileHandler; // FileHandler for team persistence
 
     /**
@@ -34,6 +38,7 @@ public class TeamRepository {
      */
     public void addTeam(Team team) {
         teams.add(team);  // Add the team to the list
+        teamsByName.add(team);
     }
 
     /**
@@ -44,10 +49,20 @@ public class TeamRepository {
      * @return The Team object if found, otherwise null.
      */
     public Team findTeamByName(String teamName) {
-        return teams.stream()
-                .filter(team -> team.getTeamName().equalsIgnoreCase(teamName))
-                .findFirst()
-                .orElse(null);  // Return null if no team is found with the given name
+        if (teamName == null) {
+            return null;
+        }
+        return teamsByName.get(nameKey(teamName));  // Returns null if no team is found with the given name
+    }
+
+    /**
+     * Normalizes a team name into the key used by the name index, so lookups stay case-insensitive.
+     *
+     * @param teamName The team name.
+     * @return The lower-cased team name.
+     */
+    private static String nameKey(String teamName) {
+        return teamName.toLowerCase(Locale.ROOT);
     }
 
     /**
@@ -68,8 +83,56 @@ public class TeamRepository {
      * @return true if the team was removed, false if no team was found with the given name.
      */
     public boolean removeTeam(String teamName) {
-        return teams.removeIf(team -> team.getTeamName().equalsIgnoreCase(teamName));
-        // Return true if any team was removed; false otherwise
+        Team team = findTeamByName(teamName);
+        if (team == null) {
+            return false; // No team was found with the given name
+        }
+        memberships.removeTeam(team); // The members are no longer on a team
+        teamsByName.remove(team);
+        return teams.remove(team);
+    }
+
+    // ---------------------------
+    // Team memberships
+    // ---------------------------
+
+    /**
+     * Puts a member on a team, updating both the team's member list and the member's team name.
+     *
+     * @param team   The team.
+     * @param member The member.
+     * @throws IllegalArgumentException If the member is already on a team.
+     */
+    public void addMemberToTeam(Team team, Member member) {
+        memberships.assign(member, team);
+    }
+
+    /**
+     * Takes a member off a team, updating both the team's member list and the member's team name.
+     *
+     * @param team   The team.
+     * @param member The member.
+     * @throws IllegalArgumentException If the member is not on the team.
+     */
+    public void removeMemberFromTeam(Team team, Member member) {
+        memberships.unassign(member, team);
+    }
+
+    /**
+     * Finds the team a member is on.
+     *
+     * @param memberId The ID of the member.
+     * @return The team, or null if the member is not on a team.
+     */
+    public Team findTeamOfMember(int memberId) {
+        return memberships.findTeam(memberId);
+    }
+
+    /**
+     * @return The index of team memberships, for the member repository to keep it up to date on deletes and reloads.
+     */
+    public TeamMembershipIndex getMemberships() {
+        return memberships;
     }
 
     // ---------------------------
@@ -84,12 +147,15 @@ public class TeamRepository {
      * @param staffRepository The StaffRepository to link coaches to the teams.
      */
     public void loadTeams(MemberRepository memberRepository, StaffRepository staffRepository) {
-        List<Member> allMembers = memberRepository.findAll();  // Get all members from the member repository
-        List<Team> loadedTeams = fileHandler.loadTeams(allMembers, staffRepository);  // Load teams using fileHandler
+        // The repository looks members up by ID directly, no map of all members has to be built
+        List<Team> loadedTeams = fileHandler.loadTeams(memberRepository::findById, staffRepository);
 
         if (loadedTeams != null) {
             this.teams.clear();  // Clear the current list of teams
             this.teams.addAll(loadedTeams);  // Add the loaded teams to the repository
+            teamsByName.rebuild(teams);
+            memberships.rebuild(teams);
+            memberships.reconcile(memberRepository.findAll()); // Members the team file doesn't list are on no team
         }
     }
 
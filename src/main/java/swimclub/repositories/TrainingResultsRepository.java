@@ -1,10 +1,11 @@
 package swimclub.repositories;
 
 import swimclub.models.ActivityType;
-import swimclub.models.CompetitionResults;
 import swimclub.models.Member;
+import swimclub.models.MembershipLevel;
 import swimclub.models.TrainingResults;
 import swimclub.utilities.FileHandler;
+import swimclub.utilities.Leaderboard;
 import swimclub.utilities.Validator;
 
 import java.util.ArrayList;
@@ -19,6 +20,7 @@ public class TrainingResultsRepository {
     private final FileHandler fileHandler;
     private final String trainingResultsFilePath;
     private final MemberRepository memberRepository;
+    private final Leaderboard leaderboard = new Leaderboard(Leaderboard.DEFAULT_CAPACITY); // Best times per discipline and level
 
     /**
      * Constructor to initialize the repository with file handler and file path.
@@ -54,8 +56,15 @@ public class TrainingResultsRepository {
         return null;
     }
 
+    /**
+     * Updates the time and date of an existing training result and persists the change.
+     * The result is updated in place, so the leaderboard only has to move this one result.
+     *
+     * @param updatedResults The result with the new time and date.
+     * @throws RuntimeException If the member has no result in the discipline.
+     */
     public void updateResults(TrainingResults updatedResults){
-        TrainingResults existingResults = findResultsByMemberAndActivity(updatedResults.getMember().getMemberId(),updatedResults.getMember().getActivityType());
+        TrainingResults existingResults = findResultsByMemberAndActivity(updatedResults.getMember().getMemberId(), updatedResults.getActivityType());
 
         if (existingResults == null) {
             throw new RuntimeException("Member not found for ID " + updatedResults.getMember().getMemberId());
@@ -63,10 +72,10 @@ public class TrainingResultsRepository {
         existingResults.setTime(updatedResults.getTime());
         existingResults.setDate(updatedResults.getDate());
 
+        if (!leaderboard.offer(existingResults)) {
+            leaderboard.rebuild(results); // The time got worse and the result dropped off the end of its board
+        }
         fileHandler.saveTrainingResults(results);
-
-    loadResults(memberRepository);
-
     }
 
     /**
@@ -79,6 +88,7 @@ public class TrainingResultsRepository {
     public void addResults(TrainingResults result) {
         Validator.validateTrainingResult(result);
         results.add(result);
+        leaderboard.offer(result);
         fileHandler.saveTrainingResults(results);
     }
 
@@ -116,6 +126,7 @@ public class TrainingResultsRepository {
         for (TrainingResults result : resultsToAdd) {
             Validator.validateTrainingResult(result); // Validate each result
             results.add(result);  // Add the result to the in-memory list
+            leaderboard.offer(result);
         }
 
         // Save the updated list to the file
@@ -132,6 +143,19 @@ public class TrainingResultsRepository {
         results.clear();  // Clear the existing results list
         // Load the results from the file and populate the results list
         results.addAll(fileHandler.loadTrainingResults(trainingResultsFilePath, memberRepository));
+        leaderboard.rebuild(results);
+    }
+
+    /**
+     * Retrieves the best training results of a discipline and membership level from the leaderboard.
+     *
+     * @param activityType The discipline.
+     * @param level        The membership level.
+     * @param count        How many results to return, at most {@link Leaderboard#DEFAULT_CAPACITY}.
+     * @return Up to count results, best time first.
+     */
+    public List<TrainingResults> getTopResults(ActivityType activityType, MembershipLevel level, int count) {
+        return leaderboard.getTop(activityType, level, count);
     }
 
     /**
@@ -2,6 +2,8 @@ package swimclub.repositories;
 
 import swimclub.models.Role;
 import swimclub.models.User;
+import swimclub.utilities.DurableFile;
+import swimclub.utilities.WriteBehindPersister;
 
 import java.io.*;
 import java.util.ArrayList;
@@ -13,6 +15,7 @@ import java.util.List;
  */
 public class UserRepository {
     private final String userFilePath;
+    private WriteBehindPersister writeBehind; // Optional background writer, null writes synchronously
 
     /**
      * Constructor to initialize the UserRepository.
@@ -30,8 +33,11 @@ public class UserRepository {
      * @return A list of users loaded from the file.
      */
     public List<User> loadUsers() {
+        if (writeBehind != null) {
+            writeBehind.flush(); // Pending user writes (also from AuthRepository) must be on disk before reading the file
+        }
         List<User> users = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(userFilePath))) {
+        try (BufferedReader reader = DurableFile.newVerifiedReader(userFilePath)) {
             String line;
             while ((line = reader.readLine()) != null) {
                 String[] parts = line.split(";");
@@ -56,17 +62,31 @@ public class UserRepository {
      * @param users The list of users to save.
      */
     public void saveUsers(List<User> users) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(userFilePath))) {
-            for (User user : users) {
-                // Write username, hashed password, salt, and role
-                writer.write(user.getUsername() + ";" + user.getHashedPassword() + ";" + user.getSalt() + ";" + user.getRole());
-                writer.newLine();
-            }
-        } catch (IOException e) {
-            System.err.println("Error saving users: " + e.getMessage());
+        List<String> lines = new ArrayList<>(users.size());
+        for (User user : users) {
+            // Format username, hashed password, salt, and role
+            lines.add(user.getUsername() + ";" + user.getHashedPassword() + ";" + user.getSalt() + ";" + user.getRole());
+        }
+        if (writeBehind != null) {
+            writeBehind.markDirty(userFilePath, () -> writeUsers(lines));
+        } else {
+            writeUsers(lines);
         }
     }
 
+    private void writeUsers(List<String> lines) {
+        DurableFile.writeLines(userFilePath, lines, "users");
+    }
+
+    /**
+     * Enables write-behind for the user file. Reads flush pending writes first, so they always see the latest users.
+     *
+     * @param writeBehind The background writer, or null to write synchronously.
+     */
+    public void setWriteBehind(WriteBehindPersister writeBehind) {
+        this.writeBehind = writeBehind;
+    }
+
     /**
      * Gets a user by their username.
      * Searches the list of users in memory and returns the User object if found.
@@ -0,0 +1,575 @@
+package swimclub.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import swimclub.controllers.*;
+import swimclub.models.*;
+import swimclub.repositories.AuthRepository;
+import swimclub.repositories.MemberQuery;
+import swimclub.repositories.MemberRepository;
+import swimclub.server.RepositoryLocks.Resource;
+import swimclub.utilities.Validator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * ClubHttpServer lets several users work with the club at the same time, as a headless alternative to the
+ * console menus. It serves the controller operations as JSON over the JDK's built-in HTTP server and handles
+ * every request on its own virtual thread, so hundreds of open sessions cost little more than their sockets.
+ *
+ * Requests log in with HTTP Basic authentication against users.dat and are checked against the user's role,
+ * the same roles the menus use. Every operation runs under the {@link RepositoryLocks} of the repositories it
+ * touches, so readers run in parallel and writers never see each other's half-finished changes.
+ *
+ * Endpoints:
+ * <pre>
+ * GET    /members[?membershipStatus=&amp;paymentStatus=&amp;activityType=&amp;level=&amp;category=]
+ * GET    /members/{id}
+ * POST   /members                 name, email, city, street, region, zipcode, membershipType, membershipStatus,
+ *                                 activityType, paymentStatus, age, phoneNumber
+ * DELETE /members/{id}
+ * GET    /payments/summary
+ * POST   /payments                memberId, amount
+ * GET    /teams
+ * GET    /results/training[?memberId=]
+ * GET    /results/training/top?activityType=&amp;level=[&amp;count=]
+ * POST   /results/training        memberId, activityType, time, date
+ * GET    /results/competition[?memberId=]
+ * </pre>
+ * POST parameters are sent form encoded.
+ */
+public class ClubHttpServer {
+    public static final int DEFAULT_PORT = 8080;
+    private static final int DEFAULT_TOP_COUNT = 5;
+
+    // Roles allowed to use each area, mirroring the menus of the user interface
+    private static final Set<Role> ALL_ROLES = EnumSet.allOf(Role.class);
+    private static final Set<Role> MEMBER_EDITORS = EnumSet.of(Role.ADMIN, Role.CHAIRMAN);
+    private static final Set<Role> PAYMENT_ROLES = EnumSet.of(Role.ADMIN, Role.CHAIRMAN, Role.TREASURER);
+    private static final Set<Role> PAYMENT_EDITORS = EnumSet.of(Role.ADMIN, Role.TREASURER);
+    private static final Set<Role> RESULT_EDITORS = EnumSet.of(Role.ADMIN, Role.CHAIRMAN, Role.COACH);
+
+    private final MemberController memberController;
+    private final PaymentController paymentController;
+    private final TeamController teamController;
+    private final CompetitionResultController competitionResultController;
+    private final TrainingResultsController trainingResultsController;
+    private final MemberRepository memberRepository;
+    private final AuthRepository authRepository;
+    private final RepositoryLocks locks = new RepositoryLocks();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * Constructor for ClubHttpServer.
+     *
+     * @param memberController            The controller for members.
+     * @param paymentController           The controller for payments.
+     * @param teamController              The controller for teams.
+     * @param competitionResultController The controller for competition results.
+     * @param trainingResultsController   The controller for training results.
+     * @param memberRepository            The member repository, used for filtered member lists.
+     * @param authRepository              The users that may log in.
+     */
+    public ClubHttpServer(MemberController memberController, PaymentController paymentController,
+                          TeamController teamController, CompetitionResultController competitionResultController,
+                          TrainingResultsController trainingResultsController, MemberRepository memberRepository,
+                          AuthRepository authRepository) {
+        this.memberController = memberController;
+        this.paymentController = paymentController;
+        this.teamController = teamController;
+        this.competitionResultController = competitionResultController;
+        this.trainingResultsController = trainingResultsController;
+        this.memberRepository = memberRepository;
+        this.authRepository = authRepository;
+    }
+
+    // ---------------------------
+    // Lifecycle
+    // ---------------------------
+
+    /**
+     * Starts the server.
+     *
+     * @param port The port to listen on, or 0 for any free port.
+     * @throws IOException If the port cannot be opened.
+     */
+    public void start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        executor = Executors.newVirtualThreadPerTaskExecutor(); // One virtual thread per request
+        server.setExecutor(executor);
+        server.createContext("/members", exchange -> handle(exchange, this::members));
+        server.createContext("/payments", exchange -> handle(exchange, this::payments));
+        server.createContext("/teams", exchange -> handle(exchange, this::teams));
+        server.createContext("/results", exchange -> handle(exchange, this::results));
+        server.start();
+    }
+
+    /**
+     * @return The port the server listens on.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops the server, giving running requests up to a second to finish.
+     */
+    public void stop() {
+        if (server != null) {
+            server.stop(1);
+            executor.shutdown();
+        }
+    }
+
+    // ---------------------------
+    // Members
+    // ---------------------------
+
+    private Response members(Request request) {
+        String id = request.pathPart(1);
+        switch (request.method()) {
+            case "GET" -> {
+                request.requireRole(ALL_ROLES);
+                if (id != null) {
+                    int memberId = Integer.parseInt(id);
+                    return locks.read(() -> Response.ok(memberJson(requireMember(memberId))), Resource.MEMBERS);
+                }
+                MembershipStatus membershipStatus = parseOptionalEnum(MembershipStatus.class, request.param("membershipStatus"));
+                PaymentStatus paymentStatus = parseOptionalEnum(PaymentStatus.class, request.param("paymentStatus"));
+                ActivityType activityType = parseOptionalEnum(ActivityType.class, request.param("activityType"));
+                MembershipLevel level = parseOptionalEnum(MembershipLevel.class, request.param("level"));
+                MembershipCategory category = parseOptionalEnum(MembershipCategory.class, request.param("category"));
+                return locks.read(() -> { // The query reads the bitmap indexes, so it is built under the lock too
+                    MemberQuery query = memberRepository.query();
+                    if (membershipStatus != null) {
+                        query.withMembershipStatus(membershipStatus);
+                    }
+                    if (paymentStatus != null) {
+                        query.withPaymentStatus(paymentStatus);
+                    }
+                    if (activityType != null) {
+                        query.withActivityType(activityType);
+                    }
+                    if (level != null) {
+                        query.withLevel(level);
+                    }
+                    if (category != null) {
+                        query.withCategory(category);
+                    }
+                    return Response.ok(membersJson(query.list()));
+                }, Resource.MEMBERS);
+            }
+            case "POST" -> {
+                request.requireRole(MEMBER_EDITORS);
+                Member member = locks.write(() -> memberController.registerMember(
+                        request.requiredParam("name"), request.requiredParam("email"), request.requiredParam("city"),
+                        request.requiredParam("street"), request.requiredParam("region"),
+                        Integer.parseInt(request.requiredParam("zipcode")), request.requiredParam("membershipType"),
+                        parseEnum(MembershipStatus.class, request.requiredParam("membershipStatus")),
+                        request.requiredParam("activityType"),
+                        parseEnum(PaymentStatus.class, request.requiredParam("paymentStatus")),
+                        request.requiredParam("age"), Integer.parseInt(request.requiredParam("phoneNumber"))
+                ), Resource.MEMBERS);
+                if (member == null) {
+                    throw new IllegalArgumentException("Member could not be registered, check the member data.");
+                }
+                return new Response(201, locks.read(() -> memberJson(member), Resource.MEMBERS));
+            }
+            case "DELETE" -> {
+                request.requireRole(MEMBER_EDITORS);
+                int memberId = Integer.parseInt(requirePathPart(request, 1));
+                boolean deleted = locks.write(() -> memberController.deleteMember(memberId), Resource.MEMBERS);
+                if (!deleted) {
+                    throw new HttpError(404, "Member not found with ID: " + memberId);
+                }
+                return Response.ok(Map.of("deleted", memberId));
+            }
+            default -> throw methodNotAllowed(request);
+        }
+    }
+
+    // ---------------------------
+    // Payments
+    // ---------------------------
+
+    private Response payments(Request request) {
+        if (request.method().equals("GET") && "summary".equals(request.pathPart(1))) {
+            request.requireRole(PAYMENT_ROLES);
+            String summary = locks.read(paymentController::getPaymentSummary, Resource.MEMBERS, Resource.PAYMENTS);
+            return Response.ok(Map.of("summary", summary));
+        }
+        if (request.method().equals("POST") && request.pathPart(1) == null) {
+            request.requireRole(PAYMENT_EDITORS);
+            int memberId = Integer.parseInt(request.requiredParam("memberId"));
+            double amount = Double.parseDouble(request.requiredParam("amount"));
+            Validator.validatePayment(amount, PaymentStatus.COMPLETE); // Rejected here with a 400, the controller only prints it
+            return locks.write(() -> {
+                requireMember(memberId);
+                paymentController.registerPayment(memberId, amount);
+                Map<String, Object> body = new LinkedHashMap<>();
+                body.put("memberId", memberId);
+                body.put("amount", amount);
+                return new Response(201, body);
+            }, Resource.MEMBERS, Resource.PAYMENTS);
+        }
+        throw new HttpError(404, "Unknown payment endpoint.");
+    }
+
+    // ---------------------------
+    // Teams
+    // ---------------------------
+
+    private Response teams(Request request) {
+        if (!request.method().equals("GET")) {
+            throw methodNotAllowed(request);
+        }
+        request.requireRole(ALL_ROLES);
+        return locks.read(() -> {
+            List<Object> teams = new ArrayList<>();
+            for (Team team : teamController.getAllTeams()) {
+                Map<String, Object> json = new LinkedHashMap<>();
+                json.put("name", team.getTeamName());
+                json.put("type", team.getTeamType());
+                json.put("coach", team.getTeamCoach() != null ? team.getTeamCoach().getName() : null);
+                List<Object> memberIds = new ArrayList<>();
+                for (Member member : team.getMembers()) {
+                    memberIds.add(member.getMemberId());
+                }
+                json.put("memberIds", memberIds);
+                teams.add(json);
+            }
+            return Response.ok(teams);
+        }, Resource.MEMBERS, Resource.STAFF, Resource.TEAMS);
+    }
+
+    // ---------------------------
+    // Results
+    // ---------------------------
+
+    private Response results(Request request) {
+        String kind = request.pathPart(1);
+        if ("training".equals(kind)) {
+            return trainingResults(request);
+        }
+        if ("competition".equals(kind) && request.method().equals("GET") && request.pathPart(2) == null) {
+            request.requireRole(ALL_ROLES);
+            String memberId = request.param("memberId");
+            return locks.read(() -> {
+                List<CompetitionResults> results = memberId != null
+                        ? competitionResultController.getResultsByMember(requireMember(Integer.parseInt(memberId)))
+                        : competitionResultController.getAllResults();
+                List<Object> json = new ArrayList<>();
+                for (CompetitionResults result : results) {
+                    Map<String, Object> entry = resultJson(result.getMember(), result.getActivityType(), result.getLevel(),
+                            result.getTime(), result.getDate());
+                    entry.put("event", result.getEvent());
+                    entry.put("placement", result.getPlacement());
+                    json.add(entry);
+                }
+                return Response.ok(json);
+            }, Resource.MEMBERS, Resource.COMPETITION_RESULTS);
+        }
+        throw new HttpError(404, "Unknown results endpoint.");
+    }
+
+    private Response trainingResults(Request request) {
+        String sub = request.pathPart(2);
+        if (request.method().equals("GET") && "top".equals(sub)) {
+            request.requireRole(ALL_ROLES);
+            ActivityType activityType = parseEnum(ActivityType.class, request.requiredParam("activityType"));
+            MembershipLevel level = parseEnum(MembershipLevel.class, request.requiredParam("level"));
+            String countParam = request.param("count");
+            int count = countParam != null ? Integer.parseInt(countParam) : DEFAULT_TOP_COUNT;
+            if (count < 0) {
+                throw new HttpError(400, "count cannot be negative.");
+            }
+            return locks.read(() -> Response.ok(trainingResultsJson(
+                    trainingResultsController.getTopResults(activityType, level, count))),
+                    Resource.MEMBERS, Resource.TRAINING_RESULTS);
+        }
+        if (sub != null) {
+            throw new HttpError(404, "Unknown results endpoint.");
+        }
+        switch (request.method()) {
+            case "GET" -> {
+                request.requireRole(ALL_ROLES);
+                String memberId = request.param("memberId");
+                return locks.read(() -> Response.ok(trainingResultsJson(memberId != null
+                        ? trainingResultsController.getResultsByMember(requireMember(Integer.parseInt(memberId)))
+                        : trainingResultsController.getAllResults())), Resource.MEMBERS, Resource.TRAINING_RESULTS);
+            }
+            case "POST" -> {
+                request.requireRole(RESULT_EDITORS);
+                int memberId = Integer.parseInt(request.requiredParam("memberId"));
+                String activityType = request.requiredParam("activityType");
+                double time = Double.parseDouble(request.requiredParam("time"));
+                String date = request.requiredParam("date");
+                // Members are written too, the controller stores the latest time on the member
+                return locks.write(() -> {
+                    Member member = requireMember(memberId);
+                    trainingResultsController.addTrainingResults(member, activityType, time, date,
+                            member.getMembershipType().getLevel());
+                    return new Response(201, trainingResultsJson(trainingResultsController.getResultsByMember(member)));
+                }, Resource.MEMBERS, Resource.TRAINING_RESULTS);
+            }
+            default -> throw methodNotAllowed(request);
+        }
+    }
+
+    // ---------------------------
+    // JSON Mapping
+    // ---------------------------
+
+    private static Map<String, Object> memberJson(Member member) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", member.getMemberId());
+        json.put("name", member.getName());
+        json.put("email", member.getEmail());
+        json.put("age", member.getAge());
+        json.put("city", member.getCity());
+        json.put("street", member.getStreet());
+        json.put("region", member.getRegion());
+        json.put("zipcode", member.getZipcode());
+        json.put("phoneNumber", member.getPhoneNumber());
+        json.put("level", member.getMembershipType().getLevel());
+        json.put("category", member.getMembershipType().getCategory());
+        json.put("membershipStatus", member.getMembershipStatus());
+        json.put("activityType", member.getActivityType());
+        json.put("paymentStatus", member.getPaymentStatus());
+        json.put("teamName", member.getTeamName());
+        return json;
+    }
+
+    private static List<Object> membersJson(List<Member> members) {
+        List<Object> json = new ArrayList<>(members.size());
+        for (Member member : members) {
+            json.add(memberJson(member));
+        }
+        return json;
+    }
+
+    private static List<Object> trainingResultsJson(List<TrainingResults> results) {
+        List<Object> json = new ArrayList<>(results.size());
+        for (TrainingResults result : results) {
+            json.add(resultJson(result.getMember(), result.getActivityType(), result.getLevel(), result.getTime(), result.getDate()));
+        }
+        return json;
+    }
+
+    private static Map<String, Object> resultJson(Member member, ActivityType activityType, MembershipLevel level,
+                                                  double time, String date) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("memberId", member.getMemberId());
+        json.put("name", member.getName());
+        json.put("activityType", activityType);
+        json.put("level", level);
+        json.put("time", time);
+        json.put("date", date);
+        return json;
+    }
+
+    // ---------------------------
+    // Request Handling
+    // ---------------------------
+
+    /**
+     * An endpoint of the server.
+     */
+    private interface Handler {
+        Response handle(Request request);
+    }
+
+    /**
+     * The response of an endpoint, turned into JSON when it is sent.
+     */
+    private record Response(int status, Object body) {
+        static Response ok(Object body) {
+            return new Response(200, body);
+        }
+    }
+
+    /**
+     * Ends a request with an HTTP error status.
+     */
+    private static class HttpError extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        private final int status;
+
+        HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    /**
+     * A parsed request of a logged in user.
+     *
+     * @param user   The logged in user.
+     * @param method The HTTP method.
+     * @param path   The path segments, e.g. [members, 12].
+     * @param params The query parameters, plus the form parameters of a POST.
+     */
+    private record Request(User user, String method, List<String> path, Map<String, String> params) {
+
+        String pathPart(int index) {
+            return index < path.size() ? path.get(index) : null;
+        }
+
+        String param(String name) {
+            return params.get(name);
+        }
+
+        String requiredParam(String name) {
+            String value = params.get(name);
+            if (value == null || value.isBlank()) {
+                throw new IllegalArgumentException("Missing parameter: " + name);
+            }
+            return value;
+        }
+
+        void requireRole(Set<Role> roles) {
+            if (!roles.contains(user.getRole())) {
+                throw new HttpError(403, "Role " + user.getRole() + " may not " + method + " /" + String.join("/", path));
+            }
+        }
+    }
+
+    private void handle(HttpExchange exchange, Handler handler) {
+        try {
+            Response response;
+            try {
+                User user = authenticate(exchange);
+                if (user == null) {
+                    exchange.getResponseHeaders().set("WWW-Authenticate", "Basic realm=\"swimclub\"");
+                    response = errorResponse(401, "Login required.");
+                } else {
+                    response = handler.handle(parseRequest(exchange, user));
+                }
+            } catch (HttpError e) {
+                response = errorResponse(e.status, e.getMessage());
+            } catch (IllegalArgumentException e) { // Also covers NumberFormatException
+                response = errorResponse(400, e.getMessage());
+            } catch (RuntimeException e) {
+                System.err.println("Error handling " + exchange.getRequestMethod() + " " + exchange.getRequestURI() + ": " + e);
+                response = errorResponse(500, "Internal server error.");
+            }
+            send(exchange, response);
+        } catch (IOException e) {
+            System.err.println("Error sending response: " + e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Checks the Basic authentication header of a request.
+     *
+     * @return The logged in user, or null if the header is missing or wrong.
+     */
+    private User authenticate(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.regionMatches(true, 0, "Basic ", 0, 6)) {
+            return null;
+        }
+        String credentials;
+        try {
+            credentials = new String(Base64.getDecoder().decode(header.substring(6).trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        int colon = credentials.indexOf(':');
+        if (colon < 0) {
+            return null;
+        }
+        String username = credentials.substring(0, colon);
+        String password = credentials.substring(colon + 1);
+        return locks.read(() -> authRepository.authenticate(username, password), Resource.USERS);
+    }
+
+    private static Request parseRequest(HttpExchange exchange, User user) throws IOException {
+        List<String> path = new ArrayList<>();
+        for (String segment : exchange.getRequestURI().getPath().split("/")) {
+            if (!segment.isEmpty()) {
+                path.add(segment);
+            }
+        }
+        Map<String, String> params = new HashMap<>();
+        parseParams(exchange.getRequestURI().getRawQuery(), params);
+        if (exchange.getRequestMethod().equals("POST")) {
+            try (InputStream body = exchange.getRequestBody()) {
+                parseParams(new String(body.readAllBytes(), StandardCharsets.UTF_8), params);
+            }
+        }
+        return new Request(user, exchange.getRequestMethod(), path, params);
+    }
+
+    private static void parseParams(String encoded, Map<String, String> params) {
+        if (encoded == null || encoded.isEmpty()) {
+            return;
+        }
+        for (String pair : encoded.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        byte[] body = Json.write(response.body()).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.status(), body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Response errorResponse(int status, String message) {
+        return new Response(status, Map.of("error", message != null ? message : "Bad request."));
+    }
+
+    // ---------------------------
+    // Helpers
+    // ---------------------------
+
+    /**
+     * Finds a member, must be called while MEMBERS is locked.
+     */
+    private Member requireMember(int memberId) {
+        Member member = memberController.findMemberById(memberId);
+        if (member == null) {
+            throw new HttpError(404, "Member not found with ID: " + memberId);
+        }
+        return member;
+    }
+
+    private static String requirePathPart(Request request, int index) {
+        String part = request.pathPart(index);
+        if (part == null) {
+            throw new HttpError(404, "Missing ID in path.");
+        }
+        return part;
+    }
+
+    private static HttpError methodNotAllowed(Request request) {
+        return new HttpError(405, "Method " + request.method() + " is not supported here.");
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value) {
+        return Enum.valueOf(type, value.trim().toUpperCase()); // Throws IllegalArgumentException for unknown values
+    }
+
+    private static <E extends Enum<E>> E parseOptionalEnum(Class<E> type, String value) {
+        return value != null ? parseEnum(type, value) : null;
+    }
+}
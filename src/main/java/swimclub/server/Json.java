@@ -0,0 +1,82 @@
+package swimclub.server;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Json writes the response bodies of the server as JSON.
+ * Supports maps (objects), collections (arrays), strings, numbers, booleans, enums and null, which is all the
+ * server returns, so no JSON library is needed.
+ */
+public class Json {
+
+    private Json() {
+        // Utility class, not meant to be instantiated
+    }
+
+    /**
+     * @param value The value to write.
+     * @return The value as JSON text.
+     */
+    public static String write(Object value) {
+        StringBuilder sb = new StringBuilder();
+        append(sb, value);
+        return sb.toString();
+    }
+
+    private static void append(StringBuilder sb, Object value) {
+        if (value == null) {
+            sb.append("null");
+        } else if (value instanceof Map<?, ?> map) {
+            sb.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!first) {
+                    sb.append(',');
+                }
+                first = false;
+                appendString(sb, String.valueOf(entry.getKey()));
+                sb.append(':');
+                append(sb, entry.getValue());
+            }
+            sb.append('}');
+        } else if (value instanceof Collection<?> collection) {
+            sb.append('[');
+            boolean first = true;
+            for (Object element : collection) {
+                if (!first) {
+                    sb.append(',');
+                }
+                first = false;
+                append(sb, element);
+            }
+            sb.append(']');
+        } else if (value instanceof Number || value instanceof Boolean) {
+            sb.append(value);
+        } else {
+            appendString(sb, value instanceof Enum<?> constant ? constant.name() : value.toString());
+        }
+    }
+
+    private static void appendString(StringBuilder sb, String text) {
+        sb.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+    }
+}
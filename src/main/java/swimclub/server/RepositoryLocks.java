@@ -0,0 +1,108 @@
+package swimclub.server;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * RepositoryLocks guards the repositories when several requests use them at the same time.
+ * Every repository has its own read/write lock, so reading members and writing training results do not block
+ * each other, any number of readers share a repository, and a writer has it to itself.
+ *
+ * An operation declares all repositories it reads and writes up front. The locks are always taken in the order of
+ * {@link Resource}, so two operations can never wait for each other in a cycle.
+ * The repositories return their live lists, so a response must be built while the locks are still held.
+ */
+public class RepositoryLocks {
+
+    /**
+     * The repositories that can be locked, in the order their locks are taken.
+     */
+    public enum Resource {
+        USERS,
+        MEMBERS,
+        STAFF,
+        TEAMS,
+        PAYMENTS,
+        COMPETITION_RESULTS,
+        TRAINING_RESULTS
+    }
+
+    private final Map<Resource, ReentrantReadWriteLock> locks = new EnumMap<>(Resource.class);
+
+    /**
+     * Constructor for RepositoryLocks, creates one lock per repository.
+     */
+    public RepositoryLocks() {
+        for (Resource resource : Resource.values()) {
+            locks.put(resource, new ReentrantReadWriteLock());
+        }
+    }
+
+    /**
+     * Runs an operation that only reads the given repositories.
+     *
+     * @param action    The operation.
+     * @param resources The repositories it reads.
+     * @return The result of the operation.
+     */
+    public <T> T read(Supplier<T> action, Resource... resources) {
+        return call(asSet(resources), EnumSet.noneOf(Resource.class), action);
+    }
+
+    /**
+     * Runs an operation that changes the given repositories.
+     *
+     * @param action    The operation.
+     * @param resources The repositories it changes.
+     * @return The result of the operation.
+     */
+    public <T> T write(Supplier<T> action, Resource... resources) {
+        return call(EnumSet.noneOf(Resource.class), asSet(resources), action);
+    }
+
+    /**
+     * Runs an operation that reads some repositories and changes others.
+     * A repository in both sets is locked for writing.
+     *
+     * @param reads  The repositories it reads.
+     * @param writes The repositories it changes.
+     * @param action The operation.
+     * @return The result of the operation.
+     */
+    public <T> T call(Set<Resource> reads, Set<Resource> writes, Supplier<T> action) {
+        Lock[] acquired = new Lock[Resource.values().length];
+        int count = 0;
+        try {
+            for (Resource resource : Resource.values()) { // Fixed order, prevents deadlocks
+                Lock lock;
+                if (writes.contains(resource)) {
+                    lock = locks.get(resource).writeLock();
+                } else if (reads.contains(resource)) {
+                    lock = locks.get(resource).readLock();
+                } else {
+                    continue;
+                }
+                lock.lock();
+                acquired[count++] = lock;
+            }
+            return action.get();
+        } finally {
+            while (count > 0) {
+                acquired[--count].unlock(); // Released in reverse order
+            }
+        }
+    }
+
+    private static Set<Resource> asSet(Resource... resources) {
+        Set<Resource> set = EnumSet.noneOf(Resource.class);
+        for (Resource resource : resources) {
+            set.add(resource);
+        }
+        return set;
+    }
+}
@@ -0,0 +1,166 @@
+package swimclub.services;
+
+import swimclub.models.FeeSchedule;
+import swimclub.models.Member;
+import swimclub.models.Payment;
+import swimclub.models.PaymentStatus;
+import swimclub.repositories.MemberRepository;
+import swimclub.repositories.PaymentRepository;
+import swimclub.utilities.FileHandler;
+import swimclub.utilities.Money;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * BillingService bills the whole club for a new season in one run, instead of one payment per member.
+ *
+ * A run takes the current snapshot of the members, looks up the fee of every active and passive member in the
+ * fee table in effect on the billing date, in parallel on all cores, and creates a PENDING payment per member with a block of reserved payment IDs.
+ * The payments are added to the repository as one batch and the payment file and member file are each written
+ * once at the end. Members that already have a pending or paid bill in the year of the billing date are skipped,
+ * so running the same season twice does not bill anyone twice. A bill is paid through
+ * {@link PaymentService#registerPayment}, which marks it COMPLETE.
+ *
+ * If the fee rules give a family discount, every billed member after the first at the same street and zip code
+ * gets it, in order of member ID.
+ */
+public class BillingService {
+    private final PaymentService paymentService; // Holds the fee rules
+    private final PaymentRepository paymentRepository;
+    private final MemberRepository memberRepository;
+    private final FileHandler fileHandler; // Writes the payment file
+    private final String paymentFilePath;
+
+    /**
+     * Constructor for BillingService.
+     *
+     * @param paymentService    The service calculating the membership fees.
+     * @param paymentRepository The repository the bills are added to.
+     * @param memberRepository  The repository holding the members to bill.
+     * @param fileHandler       The file handler used to write the payment file.
+     * @param paymentFilePath   Path to the payment file.
+     */
+    public BillingService(PaymentService paymentService, PaymentRepository paymentRepository,
+                          MemberRepository memberRepository, FileHandler fileHandler, String paymentFilePath) {
+        this.paymentService = paymentService;
+        this.paymentRepository = paymentRepository;
+        this.memberRepository = memberRepository;
+        this.fileHandler = fileHandler;
+        this.paymentFilePath = paymentFilePath;
+    }
+
+    /**
+     * The outcome of a billing run.
+     *
+     * @param bills           The PENDING payments that were created, ordered by member ID.
+     * @param alreadyBilled   The number of members skipped because they already have a pending or paid bill for the season.
+     * @param notBillable     The number of members skipped because they are neither active nor passive.
+     * @param totalCents      The sum of the bills in cents.
+     * @param calculateMillis Time spent calculating the fees.
+     * @param saveMillis      Time spent adding the bills and writing the files.
+     * @param totalMillis     Time of the whole run.
+     */
+    public record BillingReport(List<Payment> bills, int alreadyBilled, int notBillable, long totalCents,
+                                long calculateMillis, long saveMillis, long totalMillis) {
+        @Override
+        public String toString() {
+            return "Billed " + bills.size() + " members for " + Money.format(totalCents) + " DKK" +
+                    " (skipped " + alreadyBilled + " already billed, " + notBillable + " not billable)" +
+                    " in " + totalMillis + " ms: " + calculateMillis + " ms calculating, " + saveMillis + " ms saving.";
+        }
+    }
+
+    // ===========================
+    // Billing
+    // ===========================
+
+    /**
+     * Bills every active and passive member for the season of the billing date.
+     *
+     * @param billingDate The date of the bills; its year is the season.
+     * @return The bills that were created, the skipped members and the timings.
+     */
+    public synchronized BillingReport runBillingCycle(LocalDate billingDate) {
+        long start = System.nanoTime();
+        List<Member> members = memberRepository.findAll(); // One consistent snapshot for the whole run
+        FeeSchedule.Period fees = paymentService.getFeeSchedule().periodAt(billingDate); // One set of rules as well
+
+        Set<Integer> billedMemberIds = paymentRepository.findMemberIdsBilledIn(billingDate.getYear()); // One pass, not one lookup per member
+
+        // Fee per member, 0 when not billable and -1 when already billed; nothing is changed here
+        long[] memberFees = new long[members.size()]; // In cents
+        IntStream.range(0, members.size()).parallel().forEach(i -> {
+            Member member = members.get(i);
+            int group = FeeSchedule.groupOf(member);
+            if (group < 0) {
+                memberFees[i] = 0;
+            } else if (billedMemberIds.contains(member.getMemberId())) {
+                memberFees[i] = -1;
+            } else {
+                memberFees[i] = fees.feeCents(group);
+            }
+        });
+        if (fees.getFamilyDiscountPercent() > 0) {
+            applyFamilyDiscount(members, memberFees, fees);
+        }
+        long calculated = System.nanoTime();
+
+        int billable = 0;
+        int alreadyBilled = 0;
+        for (long fee : memberFees) {
+            if (fee > 0) {
+                billable++;
+            } else if (fee < 0) {
+                alreadyBilled++;
+            }
+        }
+
+        List<Payment> bills = new ArrayList<>(billable);
+        long totalCents = 0;
+        int nextId = billable > 0 ? paymentRepository.reservePaymentIds(billable) : 0; // One block for the run
+        for (int i = 0; i < memberFees.length; i++) {
+            if (memberFees[i] > 0) {
+                Member member = members.get(i);
+                bills.add(Payment.ofCents(nextId++, PaymentStatus.PENDING, member, billingDate, memberFees[i]));
+                totalCents += memberFees[i];
+            }
+        }
+
+        if (!bills.isEmpty()) {
+            paymentRepository.saveAll(bills);
+            for (Payment bill : bills) {
+                paymentService.updateMemberPaymentStatus(bill.getMember(), PaymentStatus.PENDING);
+                memberRepository.refreshIndexes(bill.getMember()); // Keep the payment status index in step
+            }
+            fileHandler.savePayments(paymentRepository.findAll(), paymentFilePath); // One write for all bills
+            memberRepository.saveMembers(); // One write for all payment statuses
+        }
+        long saved = System.nanoTime();
+
+        return new BillingReport(bills, alreadyBilled, members.size() - billable - alreadyBilled, totalCents,
+                (calculated - start) / 1_000_000, (saved - calculated) / 1_000_000, (saved - start) / 1_000_000);
+    }
+
+    /**
+     * Gives every billed member after the first at the same address the family discount.
+     * Members without a street are never counted as family.
+     */
+    private static void applyFamilyDiscount(List<Member> members, long[] memberFees, FeeSchedule.Period fees) {
+        Set<String> billedAddresses = new HashSet<>();
+        for (int i = 0; i < memberFees.length; i++) {
+            String street = members.get(i).getStreet();
+            if (memberFees[i] <= 0 || street == null || street.isBlank()) {
+                continue;
+            }
+            String address = street.trim().toLowerCase() + ";" + members.get(i).getZipcode();
+            if (!billedAddresses.add(address)) {
+                memberFees[i] = fees.withFamilyDiscount(memberFees[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package swimclub.services;
+
+import swimclub.models.*;
+import swimclub.repositories.MemberRepository;
+import swimclub.repositories.TeamMembershipIndex;
+import swimclub.utilities.Validator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * MemberImportService registers the members of a roster file in bulk, e.g. when another club joins.
+ *
+ * The file is streamed in batches: each batch of rows is parsed and validated in parallel on all cores,
+ * the valid rows get a block of new member IDs, and the invalid rows are collected in a per-row error report.
+ * Each batch is saved to the repository as soon as it is validated, which updates the indexes, publishes one
+ * snapshot and appends to the member journal (or rewrites the member file) once per batch. Only the current
+ * batch of lines and parsed members is held in memory besides the saved members themselves.
+ *
+ * Row format, separated by semicolons or commas (taken from the first row), with an optional header row:
+ *   name;email;city;street;region;zipcode;age;phoneNumber;membershipType;membershipStatus;activityType;paymentStatus[;teamName]
+ * e.g. "Anna Jensen;anna@example.com;Valby;Vej 1;Hovedstaden;2500;30;20123456;Senior Competitive;ACTIVE;CRAWL;PENDING"
+ * The team name column of rosters exported by other clubs is accepted but ignored: team memberships are owned by
+ * the {@link swimclub.repositories.TeamMembershipIndex}, so imported members start without a team and are put on
+ * one through the team menu.
+ */
+public class MemberImportService {
+    public static final int DEFAULT_BATCH_SIZE = 10_000; // Rows read and validated at a time
+
+    private static final int REQUIRED_COLUMNS = 12; // A 13th team name column is ignored
+
+    private final MemberRepository repository;
+    private final int batchSize;
+
+    /**
+     * Constructor for MemberImportService using the default batch size.
+     *
+     * @param repository The repository the members are imported into.
+     */
+    public MemberImportService(MemberRepository repository) {
+        this(repository, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructor for MemberImportService.
+     *
+     * @param repository The repository the members are imported into.
+     * @param batchSize  The number of rows read and validated at a time, bounds the memory used for raw rows.
+     */
+    public MemberImportService(MemberRepository repository, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.repository = repository;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * An invalid row of the import file.
+     *
+     * @param lineNumber The line number in the file, starting at 1.
+     * @param message    Why the row was not imported.
+     */
+    public record RowError(int lineNumber, String message) {
+        @Override
+        public String toString() {
+            return "Line " + lineNumber + ": " + message;
+        }
+    }
+
+    /**
+     * The outcome of an import.
+     *
+     * @param imported The members that were imported, in file order, with their new member IDs.
+     * @param errors   The rows that were skipped, in file order.
+     */
+    public record ImportReport(List<Member> imported, List<RowError> errors) {
+        public boolean hasErrors() {
+            return !errors.isEmpty();
+        }
+    }
+
+    // ===========================
+    // Importing
+    // ===========================
+
+    /**
+     * Imports the members of a roster file.
+     *
+     * @param filePath The file to import.
+     * @return The imported members and the rows that were skipped.
+     * @throws IOException If the file cannot be read; the batches read before the failure stay imported.
+     */
+    public ImportReport importFile(String filePath) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(filePath), StandardCharsets.UTF_8)) {
+            return importMembers(reader);
+        }
+    }
+
+    /**
+     * Imports the members of a roster read from a reader.
+     *
+     * @param input The rows to import.
+     * @return The imported members and the rows that were skipped.
+     * @throws IOException If the input cannot be read; the batches read before the failure stay imported.
+     */
+    public ImportReport importMembers(Reader input) throws IOException {
+        BufferedReader reader = input instanceof BufferedReader buffered ? buffered : new BufferedReader(input);
+        List<Member> imported = new ArrayList<>();
+        List<RowError> errors = new ArrayList<>();
+        List<String> batch = new ArrayList<>(batchSize);
+        String delimiter = null; // Taken from the first row
+        int firstLineNumber = 1; // Line number of the first row in the batch
+        int lineNumber = 0;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (delimiter == null) {
+                delimiter = line.indexOf(';') >= 0 ? ";" : ",";
+                if (line.split(delimiter, -1)[0].trim().equalsIgnoreCase("name")) {
+                    firstLineNumber = lineNumber + 1;
+                    continue; // Header row
+                }
+            }
+            batch.add(line);
+            if (batch.size() == batchSize) {
+                importBatch(batch, firstLineNumber, delimiter, imported, errors);
+                batch.clear();
+                firstLineNumber = lineNumber + 1;
+            }
+        }
+        if (!batch.isEmpty()) {
+            importBatch(batch, firstLineNumber, delimiter, imported, errors);
+        }
+        return new ImportReport(imported, errors);
+    }
+
+    /**
+     * Validates a batch of rows in parallel, gives the valid ones new member IDs in file order and saves them.
+     */
+    private void importBatch(List<String> batch, int firstLineNumber, String delimiter,
+                             List<Member> imported, List<RowError> errors) {
+        Object[] results = new Object[batch.size()]; // A Member or a RowError per row
+        IntStream.range(0, batch.size()).parallel().forEach(i -> {
+            try {
+                results[i] = parseRow(batch.get(i), delimiter);
+            } catch (RuntimeException e) {
+                results[i] = new RowError(firstLineNumber + i, e.getMessage());
+            }
+        });
+
+        int validRows = 0;
+        for (Object result : results) {
+            if (result instanceof Member) {
+                validRows++;
+            }
+        }
+        int nextId = validRows > 0 ? repository.reserveMemberIds(validRows) : 0; // One block for the batch
+        List<Member> batchMembers = new ArrayList<>(validRows);
+        for (Object result : results) {
+            if (result instanceof Member member) {
+                member.setMemberId(nextId++);
+                batchMembers.add(member);
+            } else if (result != null) {
+                errors.add((RowError) result);
+            }
+        }
+        repository.saveAll(batchMembers); // One index update, one snapshot and one write for the batch
+        imported.addAll(batchMembers);
+    }
+
+    /**
+     * Parses and validates one row. Blank rows are skipped.
+     *
+     * @return The member without an ID yet, or null for a blank row.
+     * @throws IllegalArgumentException If the row is invalid.
+     */
+    private Member parseRow(String line, String delimiter) {
+        if (line.isBlank()) {
+            return null;
+        }
+        String[] fields = line.split(delimiter, -1);
+        if (fields.length < REQUIRED_COLUMNS) {
+            throw new IllegalArgumentException("Expected at least " + REQUIRED_COLUMNS + " fields, found " + fields.length + ".");
+        }
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = fields[i].trim();
+        }
+
+        String name = fields[0];
+        String email = fields[1];
+        String city = fields[2];
+        String street = fields[3];
+        String region = fields[4];
+        int zipcode = parseNumber(fields[5], "zipcode");
+        int age = parseNumber(fields[6], "age");
+        int phoneNumber = parseNumber(fields[7], "phone number");
+        String membershipType = fields[8];
+        MembershipStatus membershipStatus = parseEnum(MembershipStatus.class, fields[9], "membership status");
+        String activityType = fields[10];
+        PaymentStatus paymentStatus = parseEnum(PaymentStatus.class, fields[11], "payment status");
+
+        Validator.validateMemberData(name, age, membershipType, email, city, street, region, zipcode, phoneNumber,
+                membershipStatus, activityType, paymentStatus);
+        MembershipType type = MembershipType.fromString(membershipType);
+        ActivityType activity = ActivityTypeData.fromString(activityType).toActivityType();
+
+        // Junior or Senior by age, like a member registered through the menus
+        if (age > 18) {
+            type.setLevel(MembershipLevel.SENIOR);
+            return new SeniorMember("0", name, email, city, street, region, zipcode, type,
+                    membershipStatus, activity, paymentStatus, age, phoneNumber, TeamMembershipIndex.NO_TEAM);
+        }
+        type.setLevel(MembershipLevel.JUNIOR);
+        return new JuniorMember("0", name, email, city, street, region, zipcode, type,
+                membershipStatus, activity, paymentStatus, age, phoneNumber, TeamMembershipIndex.NO_TEAM);
+    }
+
+    private static int parseNumber(String value, String field) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + value);
+        }
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String field) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + value);
+        }
+    }
+}
@@ -25,17 +25,13 @@ public class MemberService {
 
     /**
      * Registers a new member after validation.
-     * This method assigns the next available member ID automatically, validates the data,
-     * determines the membership level based on age, and then saves the member to the repository.
+     * This method validates the data, determines the membership level based on age,
+     * assigns a new member ID automatically, and then saves the member to the repository.
      *
      * @param member The member to register.
      * @throws IllegalArgumentException If the member data is invalid during validation.
      */
     public void registerMember(Member member) {
-        // Assign the next available member ID automatically
-        int nextMemberId = repository.getNextMemberId();
-        member.setMemberId(nextMemberId);  // Set the next available member ID
-
         // Debug: Print out the age to track registration process
         System.out.println("Registering member with Age: " + member.getAge());
 
@@ -66,6 +62,9 @@ public class MemberService {
         setMembershipLevelBasedOnAge(member);
         System.out.println("Membership level set to: " + member.getMembershipType().getLevel());
 
+        // Assign a new member ID only now, so members that fail validation don't use one up
+        member.setMemberId(repository.allocateMemberId());
+
         // Save validated member to the repository
         repository.save(member);  // Save the validated member to the repository
     }
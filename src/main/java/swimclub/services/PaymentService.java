@@ -1,15 +1,18 @@
 package swimclub.services;
 
+import swimclub.models.FeeSchedule;
 import swimclub.models.Member;
-import swimclub.models.MembershipStatus;
 import swimclub.models.Payment;
 import swimclub.models.PaymentStatus;
+import swimclub.models.Reminder;
 import swimclub.repositories.MemberRepository;
+import swimclub.repositories.PaymentAggregates;
 import swimclub.repositories.PaymentRepository;
 import swimclub.utilities.FileHandler;
+import swimclub.utilities.Money;
 
+import java.io.IOException;
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -17,8 +20,7 @@ import java.util.List;
  */
 public class PaymentService {
     private final PaymentRepository paymentRepository; // Repository for payment data
-    private double juniorRate; // Rate for junior members
-    private double seniorRate; // Rate for senior members
+    private volatile FeeSchedule feeSchedule; // Compiled fee rules, replaced as a whole when the rules change
     private final FileHandler fileHandler; // File handler to read/write payment rates
 
     /**
@@ -35,33 +37,39 @@ public class PaymentService {
     }
 
     /**
-     * Calculates the annual membership fee based on the member's status and age.
-     * The fee is determined by the member's status (Active or Passive) and their age.
+     * Calculates the annual membership fee based on the member's status, category and age.
+     * The fee is looked up in the fee rules in effect today, see {@link FeeSchedule}.
      *
      * @param member The member whose membership fee is being calculated
      * @return The calculated membership fee
      */
     public double calculateMembershipFee(Member member) {
-        if (member.getMembershipStatus() == MembershipStatus.PASSIVE) {
-            return 500; // Passive members pay a fixed fee of 500
-        }
+        return Money.toDouble(calculateMembershipFeeCents(member));
+    }
 
-        if (member.getMembershipStatus() == MembershipStatus.ACTIVE) {
-            if (member.getAge() < 18) {
-                return juniorRate; // Active members under 18 pay the junior rate
-            } else if (member.getAge() < 60) {
-                return seniorRate; // Active members aged 18-59 pay the senior rate
-            } else {
-                return seniorRate * 0.75; // Active members 60+ receive a 25% discount on senior rate
-            }
-        }
+    /**
+     * Calculates the annual membership fee of a member at the current rates, exact to the cent.
+     * The family discount is not included, it depends on the other members billed in the same run.
+     *
+     * @param member The member whose membership fee is being calculated
+     * @return The membership fee of the member in cents
+     */
+    public long calculateMembershipFeeCents(Member member) {
+        return feeSchedule.current().feeCents(member);
+    }
 
-        return 0; // Default case (unlikely to occur if member status is valid)
+    /**
+     * @return The fee rules currently in use.
+     */
+    public FeeSchedule getFeeSchedule() {
+        return feeSchedule;
     }
 
     /**
      * Registers a payment for a member.
      * This includes verifying the payment amount, creating a payment object, updating the member's payment status, and saving to the file.
+     * If the member has a pending bill of the same amount, the oldest such bill is marked COMPLETE instead of
+     * creating a new payment.
      *
      * @param memberId           The ID of the member making the payment
      * @param amount             The payment amount
@@ -82,20 +90,23 @@ public class PaymentService {
             return;
         }
 
-        // Create the payment
-        Payment newPayment = new Payment(
-                paymentRepository.getNextPaymentId(),
-                PaymentStatus.COMPLETE,
-                member,
-                LocalDate.now(),
-                amount
-        );
-
-        // Save the payment to the repository (in-memory storage)
-        paymentRepository.save(newPayment);
+        // Settle a pending bill of the same amount, or record a new payment
+        if (paymentRepository.settlePendingPayment(memberId, Money.ofDouble(amount)) == null) {
+            Payment newPayment = new Payment(
+                    paymentRepository.allocatePaymentId(),
+                    PaymentStatus.COMPLETE,
+                    member,
+                    LocalDate.now(),
+                    amount
+            );
+
+            // Save the payment to the repository (in-memory storage)
+            paymentRepository.save(newPayment);
+        }
 
-        // Update the member's payment status
-        updateMemberPaymentStatus(member, PaymentStatus.COMPLETE);
+        // Update the member's payment status, still pending while another bill is open
+        updateMemberPaymentStatus(member, paymentRepository.hasPendingPayment(memberId) ? PaymentStatus.PENDING : PaymentStatus.COMPLETE);
+        memberRepository.refreshIndexes(member); // Keep the payment status index in step
 
         // Save payments to file
         savePaymentsToFile(paymentFileHandler, filePath);
@@ -149,79 +160,74 @@ public class PaymentService {
      * @return The total payment amount for the member
      */
     public double getTotalPaymentsForMember(int memberId) {
-        List<Payment> memberPayments = paymentRepository.findPaymentsByMemberId(memberId);
-        double total = 0;
-        for (Payment payment : memberPayments) {
-            total += payment.getAmountPerYear();
-        }
-        return total;
+        return Money.toDouble(paymentRepository.getTotalCents(memberId)); // Summed in cents, so the total is exact
     }
 
     /**
      * Retrieves a summary of payments for all members.
      * This includes the count of paid and pending members and the total amount of payments collected.
+     * The summary is computed from the running counts of the repository, so it takes the same time for any
+     * number of members, and always uses the current rates.
      *
-     * @param memberList The list of all members
+     * @param memberRepository The repository holding all members
      * @return A string representing the payment summary
      */
-    public String getPaymentSummary(List<Member> memberList) {
-        int paidCount = getMembersPaidList(memberList).size();
-        int pendingCount = getMembersPendingList(memberList).size();
-        double totalAmount = 0;
-
-        for (Member member : memberList) {
-            if (member.getPaymentStatus() == PaymentStatus.COMPLETE) {
-                totalAmount += calculateMembershipFee(member);
-            }
-        }
+    public String getPaymentSummary(MemberRepository memberRepository) {
+        PaymentAggregates aggregates = memberRepository.getPaymentAggregates();
+        return "Total Members Paid: " + aggregates.count(PaymentStatus.COMPLETE) +
+                "\nTotal Members Pending: " + aggregates.count(PaymentStatus.PENDING) +
+                "\nTotal Payments Collected: " + Money.format(getTotalCents(aggregates, PaymentStatus.COMPLETE)) + " DKK";
+    }
 
-        return "Total Members Paid: " + paidCount +
-                "\nTotal Members Pending: " + pendingCount +
-                "\nTotal Payments Collected: " + totalAmount + " DKK";
+    /**
+     * Calculates the membership fees of all members with a payment status at the current rates,
+     * e.g. the amount collected (COMPLETE) or still outstanding (PENDING).
+     *
+     * The total is summed in cents without allocating, so it is exact for any number of members.
+     *
+     * @param aggregates The running counts of the member repository
+     * @param status     The payment status
+     * @return The total of the membership fees in cents
+     */
+    public long getTotalCents(PaymentAggregates aggregates, PaymentStatus status) {
+        return aggregates.totalCents(status, feeSchedule.current());
     }
 
     /**
      * Retrieves a list of members who have completed their payment.
      *
-     * @param memberList The list of all members
+     * @param memberRepository The repository holding all members
      * @return A list of members with a payment status of COMPLETE
      */
-    public List<Member> getMembersPaidList(List<Member> memberList) {
-        List<Member> paidMembers = new ArrayList<>();
-        for (Member member : memberList) {
-            if (member.getPaymentStatus() == PaymentStatus.COMPLETE) {
-                paidMembers.add(member);
-            }
-        }
-        return paidMembers;
+    public List<Member> getMembersPaidList(MemberRepository memberRepository) {
+        return memberRepository.findByPaymentStatus(PaymentStatus.COMPLETE);
     }
 
     /**
      * Retrieves a list of members whose payment status is pending.
      *
-     * @param memberList The list of all members
+     * @param memberRepository The repository holding all members
      * @return A list of members with a payment status of PENDING
      */
-    public List<Member> getMembersPendingList(List<Member> memberList) {
-        List<Member> pendingMembers = new ArrayList<>();
-        for (Member member : memberList) {
-            if (member.getPaymentStatus() == PaymentStatus.PENDING) {
-                pendingMembers.add(member);
-            }
-        }
-        return pendingMembers;
+    public List<Member> getMembersPendingList(MemberRepository memberRepository) {
+        return memberRepository.findByPaymentStatus(PaymentStatus.PENDING);
     }
 
     /**
-     * Sets a payment reminder for a member.
+     * Sets a payment reminder for a member, due today.
+     * A member has one reminder per due date, so a reminder set earlier today is replaced, and this is reported.
      *
      * @param memberId        The ID of the member to set the reminder for
      * @param reminderMessage The reminder message
+     * @return true if a reminder set earlier today was replaced
      */
-    public void setPaymentReminder(int memberId, String reminderMessage) {
-        String reminder = "Reminder for Member ID: " + memberId + ": " + reminderMessage;
-        paymentRepository.saveReminder(reminder);
+    public boolean setPaymentReminder(int memberId, String reminderMessage) {
+        Reminder replaced = paymentRepository.saveReminder(new Reminder(memberId, LocalDate.now(), reminderMessage));
+        if (replaced != null) {
+            System.out.println("Replaced today's earlier reminder for Member ID: " + memberId + " (" + replaced.getMessage() + ")");
+        }
         System.out.println("Payment reminder set for Member ID: " + memberId);
+        return replaced != null;
     }
 
     /**
@@ -230,7 +236,7 @@ public class PaymentService {
      * @return A list of payment reminders
      */
     public List<String> getAllReminders() {
-        return paymentRepository.getReminders();
+        return paymentRepository.getReminders().stream().map(Reminder::toString).toList();
     }
 
     /**
@@ -240,8 +246,7 @@ public class PaymentService {
      * @param message  The message of the reminder to remove
      */
     public void removeReminder(int memberId, String message) {
-        String reminder = "Reminder for Member ID: " + memberId + ": " + message;
-        if (paymentRepository.removeReminder(reminder)) {
+        if (paymentRepository.removeReminder(memberId, message)) {
             System.out.println("Reminder removed for Member ID: " + memberId);
         } else {
             System.out.println("No such reminder found for Member ID: " + memberId);
@@ -261,8 +266,8 @@ public class PaymentService {
      *
      * @param juniorRate The new junior rate
      */
-    public void setJuniorRate(double juniorRate) {
-        this.juniorRate = juniorRate;
+    public synchronized void setJuniorRate(double juniorRate) {
+        this.feeSchedule = feeSchedule.withRule("Junior Rate", Money.format(Money.ofDouble(juniorRate)));
         saveRatestoFile(); // Save the updated rates to file
     }
 
@@ -271,25 +276,38 @@ public class PaymentService {
      *
      * @param seniorRate The new senior rate
      */
-    public void setSeniorRate(double seniorRate) {
-        this.seniorRate = seniorRate;
+    public synchronized void setSeniorRate(double seniorRate) {
+        this.feeSchedule = feeSchedule.withRule("Senior Rate", Money.format(Money.ofDouble(seniorRate)));
         saveRatestoFile(); // Save the updated rates to file
     }
 
     /**
-     * Saves the junior and senior rates to the paymentRates.dat file.
+     * Saves all fee rules, including the junior and senior rates, to the paymentRates.dat file.
      */
     private void saveRatestoFile() {
-        fileHandler.savePaymentRates(juniorRate, seniorRate);
+        fileHandler.saveFeeSchedule(feeSchedule);
     }
 
     /**
-     * Updates the payment rates by loading them from the paymentRates.dat file.
+     * Updates the payment rates by loading the fee rules from the paymentRates.dat file.
+     * Also called when the file changes while the program runs; callers that are calculating fees keep
+     * the schedule they started with, new calculations use the new one. A changed file that cannot be read
+     * or has an invalid rule is reported and the current rates stay in use.
+     *
+     * @return true if the rates were loaded, false if the current rates were kept
      */
-    public void updatePaymentRatesFromFile() {
-        double[] rates = fileHandler.loadPaymentRates();
-        this.juniorRate = rates[0];
-        this.seniorRate = rates[1];
+    public synchronized boolean updatePaymentRatesFromFile() {
+        if (feeSchedule == null) {
+            this.feeSchedule = fileHandler.loadFeeSchedule(); // First load, falls back to the default fees
+            return true;
+        }
+        try {
+            this.feeSchedule = fileHandler.reloadFeeSchedule();
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error reloading payment rates, keeping the current rates: " + e.getMessage());
+            return false;
+        }
     }
 
     /**
@@ -298,9 +316,10 @@ public class PaymentService {
      * @return An array containing the junior and senior rates
      */
     public double[] getPaymentRates() {
+        FeeSchedule.Period current = feeSchedule.current();
         double[] paymentRates = new double[2];
-        paymentRates[0] = this.juniorRate;
-        paymentRates[1] = this.seniorRate;
+        paymentRates[0] = Money.toDouble(current.getJuniorRateCents());
+        paymentRates[1] = Money.toDouble(current.getSeniorRateCents());
         return paymentRates;
     }
 }
\ No newline at end of file
@@ -0,0 +1,146 @@
+package swimclub.services;
+
+import swimclub.models.Member;
+import swimclub.models.Payment;
+import swimclub.models.PaymentStatus;
+import swimclub.models.Reminder;
+import swimclub.repositories.MemberRepository;
+import swimclub.repositories.PaymentRepository;
+import swimclub.utilities.Money;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ReminderService writes the payment reminders for all members with a pending payment in one pass.
+ *
+ * The pending members come from the payment status index of the member repository and their bills from the
+ * per-member payment index, so a run looks at the pending members only. A bill is due {@link #PAYMENT_TERM_DAYS}
+ * days after it was issued and gets one reminder for that due date; once the due date has passed the reminder
+ * is replaced by an overdue one. Running again on the same day changes nothing, and all new reminders of a run
+ * are saved with a single write of the reminders file.
+ *
+ * The run can be scheduled to repeat on a background thread, e.g. once a day while the program is running.
+ */
+public class ReminderService {
+    public static final int PAYMENT_TERM_DAYS = 30; // Days between a bill and its due date
+
+    private final PaymentService paymentService; // Calculates the fee of pending members without a bill
+    private final PaymentRepository paymentRepository;
+    private final MemberRepository memberRepository;
+    private ScheduledExecutorService scheduler; // Null until the job is started
+
+    /**
+     * Constructor for ReminderService.
+     *
+     * @param paymentService    The service calculating the membership fees.
+     * @param paymentRepository The repository holding the bills and the reminders.
+     * @param memberRepository  The repository holding the members.
+     */
+    public ReminderService(PaymentService paymentService, PaymentRepository paymentRepository,
+                           MemberRepository memberRepository) {
+        this.paymentService = paymentService;
+        this.paymentRepository = paymentRepository;
+        this.memberRepository = memberRepository;
+    }
+
+    // ===========================
+    // Generating Reminders
+    // ===========================
+
+    /**
+     * Creates or updates the reminders of all members with a pending payment.
+     * A member whose latest pending bill has no reminder for its due date gets one; a member that is pending
+     * without a bill gets a reminder for the membership fee, due today, unless they already have a reminder.
+     *
+     * @param today The date of the run, decides which bills are overdue.
+     * @return The reminders that were created or updated.
+     */
+    public synchronized List<Reminder> generateReminders(LocalDate today) {
+        List<Member> pendingMembers = memberRepository.findByPaymentStatus(PaymentStatus.PENDING);
+
+        List<Reminder> changed = new ArrayList<>();
+        for (Member member : pendingMembers) {
+            int memberId = member.getMemberId();
+            Payment bill = findLatestPendingBill(memberId);
+            if (bill == null) {
+                if (paymentRepository.findRemindersByMemberId(memberId).isEmpty()) {
+                    long feeCents = paymentService.calculateMembershipFeeCents(member);
+                    changed.add(new Reminder(memberId, today, "Membership fee of " + Money.format(feeCents) + " DKK is pending"));
+                }
+                continue;
+            }
+
+            LocalDate dueDate = bill.getPaymentDate().plusDays(PAYMENT_TERM_DAYS);
+            String message = dueDate.isBefore(today)
+                    ? "Overdue: payment of " + Money.format(bill.getAmountCents()) + " DKK was due " + dueDate
+                    : "Payment of " + Money.format(bill.getAmountCents()) + " DKK is due " + dueDate;
+            Reminder existing = paymentRepository.findReminder(memberId, dueDate);
+            if (existing == null || !existing.getMessage().equals(message)) {
+                changed.add(new Reminder(memberId, dueDate, message));
+            }
+        }
+
+        paymentRepository.saveReminders(changed); // One write for the whole run
+        return changed;
+    }
+
+    /**
+     * @return The most recent pending payment of a member, or null if the member has none.
+     */
+    private Payment findLatestPendingBill(int memberId) {
+        Payment latest = null;
+        for (Payment payment : paymentRepository.findPaymentsByMemberId(memberId)) {
+            if (payment.getPaymentStatus() == PaymentStatus.PENDING
+                    && (latest == null || !payment.getPaymentDate().isBefore(latest.getPaymentDate()))) {
+                latest = payment;
+            }
+        }
+        return latest;
+    }
+
+    // ===========================
+    // Scheduling
+    // ===========================
+
+    /**
+     * Starts generating reminders on a background thread, first right away and then once every period.
+     *
+     * @param period The time between two runs.
+     * @param unit   The unit of the period.
+     * @throws IllegalStateException If the job is already running.
+     */
+    public synchronized void start(long period, TimeUnit unit) {
+        if (scheduler != null) {
+            throw new IllegalStateException("Reminder job is already running.");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reminders");
+            thread.setDaemon(true); // A run only reads and adds reminders, it must not keep the program alive
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::runScheduled, 0, period, unit);
+    }
+
+    private void runScheduled() {
+        try {
+            generateReminders(LocalDate.now());
+        } catch (RuntimeException e) {
+            System.err.println("Error generating payment reminders: " + e.getMessage()); // Try again next period
+        }
+    }
+
+    /**
+     * Stops the background job. A run in progress finishes first.
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler = null;
+        }
+    }
+}
@@ -19,16 +19,16 @@ public class StaffService {
     }
 
     /**
-     * Registers a new coach by assigning them the next available coach ID.
+     * Registers a new coach by assigning them a new coach ID.
      *
      * @param coach The coach object to be registered.
-     * This method automatically assigns the next available coach ID
+     * This method automatically assigns a new coach ID
      * and sets it in the coach object.
      */
     public void registerCoach(Coach coach) {
-        // Get the next available coach ID from the repository
-        int nextCoachId = staffRepository.getNextCoachId();
-        coach.setCoachId(nextCoachId); // Set the next available coach ID
+        // Allocate a new coach ID from the repository
+        int nextCoachId = staffRepository.allocateCoachId();
+        coach.setCoachId(nextCoachId); // Set the new coach ID
         // Note: The coach is not saved in the repository here (could add a save call if necessary)
     }
 
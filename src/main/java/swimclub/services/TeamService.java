@@ -60,7 +60,7 @@ public class TeamService {
      *
      * @param teamName The name of the team.
      * @param member   The member to add to the team.
-     * @throws IllegalArgumentException if the team does not exist.
+     * @throws IllegalArgumentException if the team does not exist or the member is already on a team.
      */
     public void addMemberToTeam(String teamName, Member member) {
         // Find the team by name
@@ -71,19 +71,8 @@ public class TeamService {
             throw new IllegalArgumentException("Team not found.");
         }
 
-        // Check if the member is already in a team
-        if (member.getTeamName() != null && !member.getTeamName().equalsIgnoreCase("No team")) {
-            throw new IllegalArgumentException("Member is already part of a team.");
-        }
-
-        // Check if the member is already in the specified team
-        if (team.getMembers().contains(member)) {
-            throw new IllegalArgumentException("Member is already part of this team.");
-        }
-
-        // Add the member to the team and set the team for the member
-        team.addMember(member);
-        member.setTeamName(team.getTeamName()); // Update the member's team name
+        // Add the member to the team and set the team for the member, fails if the member is already on a team
+        teamRepository.addMemberToTeam(team, member);
 
         // Save the changes to the repository (for both team and member)
         teamRepository.saveTeams();
@@ -101,13 +90,8 @@ public class TeamService {
 
         // If the team is found, attempt to remove the member
         if (team != null) {
-            // If the member is not part of the team, throw an exception
-            if (!team.getMembers().contains(member)) {
-                throw new IllegalArgumentException("Member is not part of the team.");
-            }
-            // Remove the member from the team and set their team to null
-            team.removeMember(member);
-            member.setTeamName(null);
+            // Remove the member from the team and clear their team, fails if the member is not part of the team
+            teamRepository.removeMemberFromTeam(team, member);
 
             // Save the changes to the repository
             teamRepository.saveTeams();
@@ -135,7 +119,7 @@ public class TeamService {
                 System.out.println("Team Name: " + team.getTeamName() +
                         ", Team Type: " + team.getTeamType().getDisplayName() +
                         ", Coach: " + (team.getTeamCoach() != null ? team.getTeamCoach().getName() : "None") +
-                        ", Members Count: " + team.getMembers().size());
+                        ", Members Count: " + team.getMemberCount());
             }
         }
         return true;
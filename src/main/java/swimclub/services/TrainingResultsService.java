@@ -72,4 +72,20 @@ public class TrainingResultsService {
     public List<TrainingResults> getAllResults(){
         return resultsRepository.getAllResults();
     }
+
+    /**
+     * Retrieves the best training results of a discipline and membership level.
+     *
+     * @param activityType The discipline.
+     * @param level        The membership level.
+     * @param count        How many results to return.
+     * @return Up to count results, best time first.
+     * @throws IllegalArgumentException If the discipline or level is missing.
+     */
+    public List<TrainingResults> getTopResults(ActivityType activityType, MembershipLevel level, int count){
+        if (activityType == null || level == null){
+            throw new IllegalArgumentException("Discipline and level must not be null.");
+        }
+        return resultsRepository.getTopResults(activityType, level, count);
+    }
 }
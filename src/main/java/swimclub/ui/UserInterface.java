@@ -418,8 +418,9 @@ public class UserInterface {
             System.out.println("3. Update Member");
             System.out.println("4. View All Members");
             System.out.println("5. Delete Member");
-            System.out.println("6. Back to Main Menu");
-            System.out.print("Please choose an option (1-6): ");
+            System.out.println("6. Import Members from File");
+            System.out.println("7. Back to Main Menu");
+            System.out.print("Please choose an option (1-7): ");
 
             try {
                 option = Integer.parseInt(scanner.nextLine());
@@ -429,17 +430,18 @@ public class UserInterface {
                     case 3 -> updateMember();  // Update member details
                     case 4 -> memberController.viewAllMembers();  // View all members
                     case 5 -> deleteMember();  // Delete a member
-                    case 6 -> System.out.println("Returning to Main Menu..."); // Exit submenu
-                    default -> System.out.println("Invalid option. Please choose a number between 1 and 6.");
+                    case 6 -> importMembers();  // Import a roster file
+                    case 7 -> System.out.println("Returning to Main Menu..."); // Exit submenu
+                    default -> System.out.println("Invalid option. Please choose a number between 1 and 7.");
                 }
             } catch (NumberFormatException e) {
-                System.out.println("Invalid input. Please enter a number between 1 and 6.");
+                System.out.println("Invalid input. Please enter a number between 1 and 7.");
                 option = -1; // Ensure loop continues on invalid input
             } catch (Exception e) {
                 System.err.println("An error occurred: " + e.getMessage());
                 option = -1; // Ensure loop continues if an exception is caught
             }
-        } while (option != 6); // Exit loop when the user selects option 6
+        } while (option != 7); // Exit loop when the user selects option 7
     }
 
     /**
@@ -772,8 +774,7 @@ public class UserInterface {
 
             try {
                 // Add member to the team
-                teamController.addMemberToTeam(teamName, member); // Team logic
-                memberController.addTeamToMember(member, teamName); // Member logic
+                teamController.addMemberToTeam(teamName, member); // Also sets the member's team name
 
                 // Debugging output: Check if the team was updated for the member
                 System.out.println("Member '" + member.getName() + "' has been assigned to team '" + teamName + "'.");
@@ -809,8 +810,7 @@ public class UserInterface {
         }
 
         try {
-            teamController.removeMemberFromTeam(teamName, member);
-            memberController.removeTeamFromMember(member);
+            teamController.removeMemberFromTeam(teamName, member); // Also clears the member's team name
             System.out.println("Member '" + member.getName() + "' removed from team '" + teamName + "'.");
         } catch (IllegalArgumentException e) {
             System.out.println("Error removing member from team: " + e.getMessage());
@@ -930,6 +930,15 @@ public class UserInterface {
         }
     }
 
+    /**
+     * Imports the members of a roster file, e.g. from another club, through the controller.
+     */
+    private void importMembers() {
+        System.out.print("Enter the path of the roster file (semicolon or comma separated): ");
+        String filePath = scanner.nextLine().trim();
+        memberController.importMembers(filePath); // Prints the number of imported members and the skipped rows
+    }
+
     /**
      * Searches for members by ID, name, or phone number.
      */
@@ -965,7 +974,8 @@ public class UserInterface {
             System.out.println("4. View Payment Summary");
             System.out.println("5. Payment Reminder Manager");
             System.out.println("6. Update Payment Rates");
-            System.out.println("7. log out");
+            System.out.println("7. Run Annual Billing");
+            System.out.println("8. log out");
 
             System.out.print("Please choose an option (1-8): ");
 
@@ -979,20 +989,21 @@ public class UserInterface {
                     case 4 -> paymentController.viewPaymentSummary();  // Show payment summary
                     case 5 -> managePaymentReminders();  // Manage payment reminders
                     case 6 -> managePaymentRates();  // Update payment rates
-                    case 7 -> {
+                    case 7 -> paymentController.runBillingCycle();  // Bill all members for the season
+                    case 8 -> {
                         System.out.println("Returning to Main Menu...");  // Exit to main menu
                         return;  // Exit the method and return to the main menu
                     }
                     default -> System.out.println("Invalid option. Please choose a valid number.");
                 }
             } catch (NumberFormatException e) {
-                System.out.println("Invalid input. Please enter a number between 1 and 7.");
+                System.out.println("Invalid input. Please enter a number between 1 and 8.");
                 paymentOption = -1;  // Ensure loop continues on invalid input
             } catch (Exception e) {
                 System.err.println("An error occurred: " + e.getMessage());
                 paymentOption = -1;  // Ensure loop continues if an exception is caught
             }
-        } while (paymentOption != 7);  // Exit loop when option 7 is selected
+        } while (paymentOption != 8);  // Exit loop when option 8 is selected
     }
 
     /**
@@ -1111,9 +1122,10 @@ public class UserInterface {
         System.out.println("2. View All Reminders");
         System.out.println("3. Remove Specific Reminder");
         System.out.println("4. Clear All Reminders");
-        System.out.println("5. Exit to Payment Management");
+        System.out.println("5. Generate Reminders for Pending Payments");
+        System.out.println("6. Exit to Payment Management");
 
-        System.out.print("Please choose an option (1-5): ");
+        System.out.print("Please choose an option (1-6): ");
         int reminderOption = Integer.parseInt(scanner.nextLine());
 
         switch (reminderOption) {
@@ -1121,7 +1133,8 @@ public class UserInterface {
             case 2 -> viewAllReminders();
             case 3 -> removePaymentReminder();
             case 4 -> clearAllReminders();
-            case 5 -> {
+            case 5 -> paymentController.generateReminders();
+            case 6 -> {
                 return;  // Exit to Payment Management
             }
             default -> System.out.println("Invalid option. Please choose a valid number.");
@@ -1514,39 +1527,17 @@ public class UserInterface {
         }
 
         // Handle the selection and display the top 5 results for the chosen discipline
-        switch (inputOptions) {
-            case 1:
-                System.out.println("\n---TOP PERFORMANCES IN CRAWL---");
-                System.out.println("SENIOR:");
-                trainingResultsController.top5Crawl();
-                System.out.println("\nJUNIOR:");
-                trainingResultsController.top5CrawlJunior();
-                break;
-            case 2:
-                System.out.println("\n---TOP PERFORMANCES IN BACKCRAWL---");
-                System.out.println("SENIOR:");
-                trainingResultsController.top5BackCrawl();
-                System.out.println("\nJUNIOR:");
-                trainingResultsController.top5BackcrawlJunior();
-                break;
-            case 3:
-                System.out.println("\n---TOP PERFORMANCES IN BREASTSTROKE---");
-                System.out.println("SENIOR:");
-                trainingResultsController.top5Breaststroke();
-                System.out.println("\nJUNIOR:");
-                trainingResultsController.top5BreaststrokeJunior();
-                break;
-            case 4:
-                System.out.println("\n---TOP PERFORMANCES IN BUTTERFLY---");
-                System.out.println("SENIOR:");
-                trainingResultsController.top5Butterfly();
-                System.out.println("\nJUNIOR:");
-                trainingResultsController.top5ButterflyJunior();
-                break;
-            default:
-                break;
-        }
-
+        ActivityType activityType = switch (inputOptions) {
+            case 1 -> ActivityType.CRAWL;
+            case 2 -> ActivityType.BACKCRAWL;
+            case 3 -> ActivityType.BREASTSTROKE;
+            default -> ActivityType.BUTTERFLY;
+        };
+        System.out.println("\n---TOP PERFORMANCES IN " + activityType + "---");
+        System.out.println("SENIOR:");
+        trainingResultsController.printTopResults(activityType, MembershipLevel.SENIOR, 5);
+        System.out.println("\nJUNIOR:");
+        trainingResultsController.printTopResults(activityType, MembershipLevel.JUNIOR, 5);
     }
 
     /**
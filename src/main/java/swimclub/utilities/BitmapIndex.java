@@ -0,0 +1,114 @@
+package swimclub.utilities;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * BitmapIndex keeps one bitmap per value of an enum field (e.g. the payment status of members).
+ * Bit n of a value's bitmap is set when the object with ID n has that value, so filters on several fields
+ * are answered by AND-ing and OR-ing bitmaps instead of scanning the whole list.
+ * Like {@link KeyedIndex}, the owning repository is responsible for calling add, remove, update and rebuild
+ * whenever its list or the indexed field of an object changes. IDs must not be negative.
+ * The index is not thread-safe: reads must hold the same lock as the owner's writes.
+ *
+ * @param <V> The type of the indexed objects.
+ * @param <E> The enum type of the indexed field.
+ */
+public class BitmapIndex<V, E extends Enum<E>> {
+    private final Map<E, BitSet> bitmaps;
+    private final ToIntFunction<V> idExtractor;  // Computes the bit of an indexed object
+    private final Function<V, E> valueExtractor; // Computes the indexed field, null values are not indexed
+
+    /**
+     * Constructor for BitmapIndex.
+     *
+     * @param enumType       The enum type of the indexed field.
+     * @param idExtractor    Function that returns the ID of an object, e.g. Member::getMemberId.
+     * @param valueExtractor Function that returns the indexed field of an object, e.g. Member::getPaymentStatus.
+     */
+    public BitmapIndex(Class<E> enumType, ToIntFunction<V> idExtractor, Function<V, E> valueExtractor) {
+        this.idExtractor = idExtractor;
+        this.valueExtractor = valueExtractor;
+        this.bitmaps = new EnumMap<>(enumType);
+        for (E value : enumType.getEnumConstants()) {
+            bitmaps.put(value, new BitSet());
+        }
+    }
+
+    /**
+     * Adds an object to the bitmap of its current value.
+     *
+     * @param object The object to index.
+     */
+    public void add(V object) {
+        E value = valueExtractor.apply(object);
+        if (value != null) {
+            bitmaps.get(value).set(idExtractor.applyAsInt(object));
+        }
+    }
+
+    /**
+     * Removes an object's ID from every bitmap.
+     *
+     * @param object The object to remove.
+     */
+    public void remove(V object) {
+        int id = idExtractor.applyAsInt(object);
+        for (BitSet bitmap : bitmaps.values()) {
+            bitmap.clear(id);
+        }
+    }
+
+    /**
+     * Moves an object to the bitmap of its value after the indexed field has changed.
+     * The enums are small, so clearing the bit in every bitmap is cheaper than remembering the old value.
+     *
+     * @param object The object, already carrying its new value.
+     */
+    public void update(V object) {
+        remove(object);
+        add(object);
+    }
+
+    /**
+     * Clears the index and indexes all given objects.
+     *
+     * @param objects The objects to index.
+     */
+    public void rebuild(Collection<? extends V> objects) {
+        for (BitSet bitmap : bitmaps.values()) {
+            bitmap.clear();
+        }
+        for (V object : objects) {
+            add(object);
+        }
+    }
+
+    /**
+     * Returns the IDs of all objects having any of the given values (the OR of their bitmaps).
+     * The result is a copy and may be changed by the caller, e.g. AND-ed with the result of another index.
+     *
+     * @param values The values to match.
+     * @return A bitmap of the matching IDs.
+     */
+    @SafeVarargs
+    public final BitSet anyOf(E... values) {
+        BitSet result = new BitSet();
+        for (E value : values) {
+            result.or(bitmaps.get(value));
+        }
+        return result;
+    }
+
+    /**
+     * @param value The value to count.
+     * @return The number of objects having the value.
+     */
+    public int count(E value) {
+        return bitmaps.get(value).cardinality();
+    }
+}
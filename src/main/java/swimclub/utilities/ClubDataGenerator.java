@@ -0,0 +1,281 @@
+package swimclub.utilities;
+
+import swimclub.models.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * ClubDataGenerator writes a synthetic club of any size for load and scale tests.
+ * It writes members.dat, payments.dat, teams.dat, staff.dat, trainingResults.dat and competitionResults.dat
+ * (plus paymentRates.dat and an empty reminders.dat) in the formats FileHandler reads, with IDs that line up
+ * across the files.
+ *
+ * Every member is derived from the seed and its ID alone, so the same seed always gives the same files and each
+ * file is written in one pass without holding the club in memory. That allows clubs of 10 million members and more.
+ *
+ * Usage: java swimclub.utilities.ClubDataGenerator [directory] [memberCount] [seed]
+ */
+public class ClubDataGenerator {
+    public static final long DEFAULT_SEED = 42;
+    public static final int TEAM_BLOCK_SIZE = 250; // Competitive members in each block of 250 IDs share a junior and a senior team
+
+    private static final String[] FIRST_NAMES = {"Anna", "Emil", "Freja", "Oliver", "Ida", "Noah", "Clara", "William",
+            "Sofia", "Lucas", "Ella", "Victor", "Alma", "Oscar", "Karla", "Magnus", "Esben", "Laura", "Rasmus", "Maja"};
+    private static final String[] LAST_NAMES = {"Jensen", "Nielsen", "Hansen", "Pedersen", "Andersen", "Christensen",
+            "Larsen", "Sørensen", "Rasmussen", "Jørgensen", "Petersen", "Madsen", "Kristensen", "Olsen", "Thomsen"};
+    private static final String[] CITIES = {"København", "Aarhus", "Odense", "Aalborg", "Esbjerg", "Valby", "Amager", "Roskilde"};
+    private static final String[] STREETS = {"Bartholinsgade", "Vesterbrogade", "Nørrebrogade", "Amagerbrogade", "Strandvejen"};
+    private static final String[] REGIONS = {"Hovedstaden", "Midtjylland", "Syddanmark", "Nordjylland", "Sjælland"};
+
+    private final long seed;
+    private final FileHandler formatter; // Only used for its line formats, its own files are never touched
+
+    /**
+     * Constructor for ClubDataGenerator.
+     *
+     * @param seed The seed all generated data is derived from.
+     */
+    public ClubDataGenerator(long seed) {
+        this.seed = seed;
+        this.formatter = new FileHandler("members.dat", "payments.dat", "reminders.dat", "paymentRates.dat",
+                "teams.dat", "competitionResults.dat", "staff.dat", "trainingResults.dat");
+    }
+
+    // ---------------------------
+    // Generating Files
+    // ---------------------------
+
+    /**
+     * Writes all data files of a club with the given number of members, replacing existing files.
+     *
+     * @param directory   The directory to write the files to; it is created if it does not exist.
+     * @param memberCount The number of members, with IDs 1 to memberCount.
+     * @throws IOException If a file cannot be written.
+     */
+    public void generate(Path directory, int memberCount) throws IOException {
+        Files.createDirectories(directory);
+        int blockCount = (memberCount + TEAM_BLOCK_SIZE - 1) / TEAM_BLOCK_SIZE;
+
+        DurableFile.writeLines(directory.resolve("members.dat"), sink -> {
+            for (int id = 1; id <= memberCount; id++) {
+                sink.accept(formatter.formatMember(createMember(id)));
+            }
+        });
+
+        DurableFile.writeLines(directory.resolve("payments.dat"), sink -> {
+            for (int id = 1; id <= memberCount; id++) {
+                sink.accept(formatter.formatPayment(createPayment(createMember(id))));
+            }
+        });
+
+        DurableFile.writeLines(directory.resolve("staff.dat"), sink -> {
+            for (int block = 1; block <= blockCount; block++) {
+                sink.accept(formatter.formatCoach(createCoach(block, MembershipLevel.JUNIOR)));
+                sink.accept(formatter.formatCoach(createCoach(block, MembershipLevel.SENIOR)));
+            }
+        });
+
+        DurableFile.writeLines(directory.resolve("teams.dat"), sink -> {
+            for (int block = 1; block <= blockCount; block++) {
+                Team juniorTeam = new Team(teamName(block, MembershipLevel.JUNIOR), TeamType.JUNIOR_COMPETITIVE,
+                        createCoach(block, MembershipLevel.JUNIOR));
+                Team seniorTeam = new Team(teamName(block, MembershipLevel.SENIOR), TeamType.SENIOR_COMPETITIVE,
+                        createCoach(block, MembershipLevel.SENIOR));
+                int lastId = Math.min(block * TEAM_BLOCK_SIZE, memberCount);
+                for (int id = (block - 1) * TEAM_BLOCK_SIZE + 1; id <= lastId; id++) {
+                    Member member = createMember(id);
+                    if (member.getMembershipType().getCategory() == MembershipCategory.COMPETITIVE) {
+                        boolean junior = member.getMembershipType().getLevel() == MembershipLevel.JUNIOR;
+                        (junior ? juniorTeam : seniorTeam).addMember(member);
+                    }
+                }
+                sink.accept(formatter.formatTeam(juniorTeam));
+                sink.accept(formatter.formatTeam(seniorTeam));
+            }
+        });
+
+        DurableFile.writeLines(directory.resolve("trainingResults.dat"), sink -> {
+            for (int id = 1; id <= memberCount; id++) {
+                TrainingResults result = createTrainingResult(createMember(id));
+                if (result != null) {
+                    sink.accept(formatter.formatTrainingResult(result));
+                }
+            }
+        });
+
+        DurableFile.writeLines(directory.resolve("competitionResults.dat"), sink -> {
+            for (int id = 1; id <= memberCount; id++) {
+                CompetitionResults result = createCompetitionResult(createMember(id));
+                if (result != null) {
+                    sink.accept(formatter.formatCompetitionResult(result));
+                }
+            }
+        });
+
+        DurableFile.writeLines(directory.resolve("paymentRates.dat"), sink -> {
+            sink.accept("Junior Rate: 1000.0");
+            sink.accept("Senior Rate: 1600.0");
+        });
+        DurableFile.writeLines(directory.resolve("reminders.dat"), sink -> {
+            // No reminders
+        });
+    }
+
+    // ---------------------------
+    // Generating Records
+    // ---------------------------
+
+    /**
+     * Creates the member with the given ID. The same seed and ID always give the same member.
+     *
+     * @param memberId The ID of the member.
+     * @return The generated member.
+     */
+    public Member createMember(int memberId) {
+        SplittableRandom random = randomFor(memberId, 0);
+        int age = 6 + random.nextInt(75);
+        MembershipLevel level = age > 18 ? MembershipLevel.SENIOR : MembershipLevel.JUNIOR; // Same rule as MemberRepository
+        MembershipCategory category = random.nextInt(10) < 4 ? MembershipCategory.COMPETITIVE : MembershipCategory.EXERCISE;
+        MembershipStatus status = random.nextInt(10) == 0 ? MembershipStatus.PASSIVE : MembershipStatus.ACTIVE;
+        ActivityType activityType = pick(random, ActivityType.values());
+        PaymentStatus paymentStatus = random.nextInt(5) == 0 ? PaymentStatus.PENDING : PaymentStatus.COMPLETE;
+
+        String name = pick(random, FIRST_NAMES) + " " + pick(random, LAST_NAMES);
+        String email = name.toLowerCase().replace(' ', '.') + "." + memberId + "@example.com";
+        String city = pick(random, CITIES);
+        String street = pick(random, STREETS) + " " + (1 + random.nextInt(200));
+        String region = pick(random, REGIONS);
+        int zipcode = 1000 + random.nextInt(9000);
+        int phoneNumber = 20_000_000 + memberId; // Unique and always 8 digits for clubs below 80 million members
+        String teamName = category == MembershipCategory.COMPETITIVE ? teamName(blockOf(memberId), level) : "No team";
+        MembershipType membershipType = new MembershipType(category, level);
+
+        if (level == MembershipLevel.JUNIOR) {
+            return new JuniorMember(String.valueOf(memberId), name, email, city, street, region, zipcode, membershipType,
+                    status, activityType, paymentStatus, age, phoneNumber, teamName);
+        }
+        return new SeniorMember(String.valueOf(memberId), name, email, city, street, region, zipcode, membershipType,
+                status, activityType, paymentStatus, age, phoneNumber, teamName);
+    }
+
+    /**
+     * Creates the yearly payment of a member, with the same status as the member and the standard fee.
+     */
+    private Payment createPayment(Member member) {
+        double amount;
+        if (member.getMembershipStatus() == MembershipStatus.PASSIVE) {
+            amount = 500;
+        } else if (member.getAge() < 18) {
+            amount = 1000;
+        } else if (member.getAge() < 60) {
+            amount = 1600;
+        } else {
+            amount = 1200;
+        }
+        LocalDate date = LocalDate.of(2024, 1, 1).plusDays(randomFor(member.getMemberId(), 1).nextInt(365));
+        return new Payment(member.getMemberId(), member.getPaymentStatus(), member, date, amount);
+    }
+
+    /**
+     * Creates the training result of a competitive member in its own discipline.
+     *
+     * @return The result, or null for exercise members.
+     */
+    private TrainingResults createTrainingResult(Member member) {
+        if (member.getMembershipType().getCategory() != MembershipCategory.COMPETITIVE) {
+            return null;
+        }
+        SplittableRandom random = randomFor(member.getMemberId(), 2);
+        return new TrainingResults(member, member.getMembershipType().getLevel(), member.getActivityType(),
+                swimTime(random, member.getActivityType()), formatDate(random));
+    }
+
+    /**
+     * Creates a competition result for about a third of the competitive members.
+     *
+     * @return The result, or null if the member did not compete.
+     */
+    private CompetitionResults createCompetitionResult(Member member) {
+        SplittableRandom random = randomFor(member.getMemberId(), 3);
+        if (member.getMembershipType().getCategory() != MembershipCategory.COMPETITIVE || random.nextInt(3) != 0) {
+            return null;
+        }
+        String event = pick(random, CITIES) + " Open";
+        return new CompetitionResults(member, member.getMembershipType().getLevel(), event, 1 + random.nextInt(8),
+                swimTime(random, member.getActivityType()), formatDate(random), member.getActivityType());
+    }
+
+    private Coach createCoach(int block, MembershipLevel level) {
+        int coachId = level == MembershipLevel.JUNIOR ? 2 * block - 1 : 2 * block;
+        SplittableRandom random = randomFor(-coachId, 4); // Negative keys keep coaches apart from members
+        String name = pick(random, FIRST_NAMES) + " " + pick(random, LAST_NAMES);
+        return new Coach(coachId, teamName(block, level), name, "coach" + coachId + "@example.com", pick(random, CITIES),
+                pick(random, STREETS) + " " + (1 + random.nextInt(200)), pick(random, REGIONS), 1000 + random.nextInt(9000),
+                25 + random.nextInt(40), 30_000_000 + coachId, Role.COACH);
+    }
+
+    // ---------------------------
+    // Helpers
+    // ---------------------------
+
+    private static int blockOf(int memberId) {
+        return (memberId - 1) / TEAM_BLOCK_SIZE + 1;
+    }
+
+    private static String teamName(int block, MembershipLevel level) {
+        return (level == MembershipLevel.JUNIOR ? "JuniorTeam" : "SeniorTeam") + block;
+    }
+
+    /**
+     * @return A random generator for one kind of record (stream) of one member, independent of all other records.
+     */
+    private SplittableRandom randomFor(int key, int stream) {
+        return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + ((long) key << 3) + stream);
+    }
+
+    private static <T> T pick(SplittableRandom random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static double swimTime(SplittableRandom random, ActivityType activityType) {
+        int baseSeconds = switch (activityType) {
+            case CRAWL -> 50;
+            case BACKCRAWL, BUTTERFLY -> 60;
+            case BREASTSTROKE -> 70;
+        };
+        return (baseSeconds * 100 + random.nextInt(4000)) / 100.0; // Whole hundredths, printed without rounding noise
+    }
+
+    private static String formatDate(SplittableRandom random) {
+        return String.format("%02d-%02d-2024", 1 + random.nextInt(28), 1 + random.nextInt(12)); // Same dd-MM-yyyy as the UI
+    }
+
+    // ---------------------------
+    // Command Line
+    // ---------------------------
+
+    /**
+     * Generates a club from the command line.
+     *
+     * @param args [directory] [memberCount] [seed], defaulting to generated-data, 10000 and 42.
+     * @throws IOException If a file cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        Path directory = Path.of(args.length > 0 ? args[0] : "generated-data");
+        int memberCount = args.length > 1 ? Integer.parseInt(args[1].replace("_", "")) : 10_000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_SEED;
+
+        long start = System.nanoTime();
+        new ClubDataGenerator(seed).generate(directory, memberCount);
+        System.out.printf("Generated %d members in %s (seed %d) in %d ms%n",
+                memberCount, directory.toAbsolutePath(), seed, (System.nanoTime() - start) / 1_000_000);
+        for (String file : List.of("members.dat", "payments.dat", "teams.dat", "staff.dat", "trainingResults.dat", "competitionResults.dat")) {
+            System.out.printf("  %-24s %,d bytes%n", file, Files.size(directory.resolve(file)));
+        }
+    }
+}
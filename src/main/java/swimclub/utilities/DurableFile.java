@@ -0,0 +1,455 @@
+package swimclub.utilities;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * DurableFile replaces data files so that a crash never leaves a half-written file behind.
+ * The new content is written to a temporary file next to the target, forced to disk, and then moved
+ * over the target in one atomic step. Text files get a checksum trailer as their last line,
+ * which the loaders verify through {@link #newVerifiedReader(String)}.
+ *
+ * How much is forced to disk is set with the system property swimclub.fsync
+ * (FILE_AND_DIRECTORY, FILE or NONE), trading durability against write latency.
+ */
+public class DurableFile {
+    public static final String CHECKSUM_PREFIX = "#crc32="; // Trailer line: #crc32=[8 hex digits]
+
+    /**
+     * How much of a write is forced to disk before it counts as done.
+     */
+    public enum FsyncPolicy {
+        FILE_AND_DIRECTORY, // File content and the directory entry of the rename survive a power loss
+        FILE,               // File content is on disk, the rename may be lost on power loss
+        NONE                // Left to the operating system, still atomic but not durable
+    }
+
+    private static volatile FsyncPolicy fsyncPolicy = readFsyncPolicy();
+
+    // Write statistics, so the cost of forcing to disk is visible
+    private static final AtomicLong writeCount = new AtomicLong();
+    private static final AtomicLong bytesWritten = new AtomicLong();
+    private static final AtomicLong writeNanos = new AtomicLong();
+    private static final AtomicLong fsyncNanos = new AtomicLong();
+    private static final AtomicLong tempCounter = new AtomicLong(System.nanoTime());
+
+    /**
+     * Writes content to an open file channel.
+     */
+    public interface ContentWriter {
+        void write(FileChannel channel) throws IOException;
+    }
+
+    /**
+     * Receives the lines of a text file one at a time.
+     */
+    public interface LineSink {
+        void accept(String line) throws IOException;
+    }
+
+    /**
+     * Produces the lines of a text file, so large files can be written without holding all lines in memory.
+     */
+    public interface LineProducer {
+        void writeTo(LineSink sink) throws IOException;
+    }
+
+    private DurableFile() {
+        // Utility class, not meant to be instantiated
+    }
+
+    // ---------------------------
+    // Writing
+    // ---------------------------
+
+    /**
+     * Replaces a text file with the given lines followed by a checksum trailer.
+     *
+     * @param filePath    The file to replace.
+     * @param lines       The complete new content, one record per line.
+     * @param description What the file contains, used in error messages.
+     * @return true if the file was replaced, false if an error occurred (the old file is then left untouched).
+     */
+    public static boolean writeLines(String filePath, List<String> lines, String description) {
+        try {
+            writeLines(Path.of(filePath), sink -> {
+                for (String line : lines) {
+                    sink.accept(line);
+                }
+            });
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error saving " + description + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Replaces a text file with the lines of a producer followed by a checksum trailer.
+     * The lines are written as they are produced, so the file may be larger than the heap.
+     *
+     * @param target   The file to replace.
+     * @param producer Writes the complete new content, one record per line.
+     * @throws IOException If the content could not be written; the target is then left untouched.
+     */
+    public static void writeLines(Path target, LineProducer producer) throws IOException {
+        replace(target, channel -> {
+            CRC32 crc = new CRC32();
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                    new ChecksumOutputStream(Channels.newOutputStream(channel), crc), StandardCharsets.UTF_8), 1 << 16);
+            producer.writeTo(line -> {
+                writer.write(line);
+                writer.newLine();
+            });
+            writer.flush(); // Everything before the trailer is now counted in the checksum
+            writer.write(checksumLine(crc.getValue()));
+            writer.newLine();
+            writer.flush(); // Not closed, closing would close the channel before it is forced to disk
+        });
+    }
+
+    /**
+     * Replaces a file atomically with whatever the content writer writes.
+     *
+     * @param target  The file to replace.
+     * @param content Writes the complete new content.
+     * @throws IOException If the content could not be written; the target is then left untouched.
+     */
+    public static void replace(Path target, ContentWriter content) throws IOException {
+        long start = System.nanoTime();
+        Path directory = target.toAbsolutePath().getParent();
+        Path temp = directory.resolve(target.getFileName() + "." + tempCounter.incrementAndGet() + ".tmp"); // Unique per write
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                content.write(channel);
+                bytesWritten.addAndGet(channel.size());
+                if (fsyncPolicy != FsyncPolicy.NONE) {
+                    long fsyncStart = System.nanoTime();
+                    channel.force(true);
+                    fsyncNanos.addAndGet(System.nanoTime() - fsyncStart);
+                }
+            }
+            moveIntoPlace(temp, target);
+            if (fsyncPolicy == FsyncPolicy.FILE_AND_DIRECTORY) {
+                forceDirectory(directory);
+            }
+        } finally {
+            Files.deleteIfExists(temp); // Only still there if writing or moving failed
+        }
+        writeCount.incrementAndGet();
+        writeNanos.addAndGet(System.nanoTime() - start);
+    }
+
+    /**
+     * Forces a file that is appended to, rather than replaced, to disk according to the fsync policy.
+     *
+     * @param channel The open channel to force.
+     * @throws IOException If the channel could not be forced.
+     */
+    public static void force(FileChannel channel) throws IOException {
+        if (fsyncPolicy == FsyncPolicy.NONE) {
+            return;
+        }
+        long fsyncStart = System.nanoTime();
+        channel.force(true); // Appends change the file length, so metadata is forced as well
+        fsyncNanos.addAndGet(System.nanoTime() - fsyncStart);
+    }
+
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING); // File systems without atomic rename
+        }
+    }
+
+    private static void forceDirectory(Path directory) {
+        long fsyncStart = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Some platforms (e.g. Windows) cannot open directories, the rename is still atomic there
+        }
+        fsyncNanos.addAndGet(System.nanoTime() - fsyncStart);
+    }
+
+    static String checksumLine(long crc) {
+        return CHECKSUM_PREFIX + String.format(Locale.ROOT, "%08x", crc);
+    }
+
+    /**
+     * Output stream that adds every written byte to a checksum.
+     */
+    private static class ChecksumOutputStream extends FilterOutputStream {
+        private final CRC32 crc;
+
+        ChecksumOutputStream(OutputStream out, CRC32 crc) {
+            super(out);
+            this.crc = crc;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            crc.update(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+            crc.update(bytes, offset, length);
+        }
+    }
+
+    // ---------------------------
+    // Reading
+    // ---------------------------
+
+    /**
+     * Thrown when a file's checksum trailer is missing or does not match its content,
+     * e.g. because the file was truncated or damaged on disk.
+     */
+    public static class CorruptFileException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public CorruptFileException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Opens a text file written by {@link #writeLines} and verifies its checksum trailer.
+     * The file is checked in one streaming pass before any content is returned, so a damaged file is
+     * never partly loaded and the file is never held in memory as a whole. The returned reader contains
+     * the lines without the trailer. An empty file is read as having no lines.
+     *
+     * A damaged file is copied to [file].corrupt before the exception is thrown, so the loader can start
+     * without it and the next save does not destroy the only copy. Files written before checksums were
+     * added have no trailer and are rejected too; convert them once with {@link #migrateLegacyFile}.
+     *
+     * @param filePath The file to read.
+     * @return A reader over the content lines.
+     * @throws FileNotFoundException If the file does not exist.
+     * @throws CorruptFileException  If the trailer is missing or does not match the content.
+     * @throws IOException           If the file cannot be read.
+     */
+    public static BufferedReader newVerifiedReader(String filePath) throws IOException {
+        Path path = Path.of(filePath);
+        if (!Files.exists(path)) {
+            throw new FileNotFoundException(filePath + " (No such file or directory)");
+        }
+        long contentLength;
+        try {
+            contentLength = verify(path);
+        } catch (CorruptFileException e) {
+            quarantine(path);
+            throw e;
+        }
+        InputStream content = new LimitedInputStream(Files.newInputStream(path), contentLength);
+        return new BufferedReader(new InputStreamReader(content, StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    /**
+     * Copies a damaged file to [file].corrupt, replacing an earlier copy, so the next save does not destroy it.
+     * Used by every reader that rejects a file on a checksum mismatch.
+     *
+     * @param path The damaged file.
+     * @throws IOException If the copy cannot be written.
+     */
+    static void quarantine(Path path) throws IOException {
+        Files.copy(path, Path.of(path + ".corrupt"), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Checks the checksum trailer of a file without loading it.
+     *
+     * @return The number of content bytes before the trailer.
+     */
+    private static long verify(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return 0;
+            }
+            long trailerStart = findTrailer(channel, size);
+            if (trailerStart < 0) {
+                throw new CorruptFileException("No checksum trailer in " + path + ", the file may be truncated.");
+            }
+
+            CRC32 crc = new CRC32();
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+            long position = 0;
+            while (position < trailerStart) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(), trailerStart - position));
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    break;
+                }
+                buffer.flip();
+                crc.update(buffer);
+                position += read;
+            }
+
+            ByteBuffer trailer = ByteBuffer.allocate((int) (size - trailerStart));
+            channel.read(trailer, trailerStart);
+            String trailerLine = new String(trailer.array(), StandardCharsets.US_ASCII).trim();
+            if (!trailerLine.equals(checksumLine(crc.getValue()))) {
+                throw new CorruptFileException("Checksum mismatch in " + path + ", the file may be damaged.");
+            }
+            return trailerStart;
+        }
+    }
+
+    /**
+     * Looks for the checksum trailer in the last bytes of a file.
+     *
+     * @return The file position where the trailer line starts, or -1 if the last line is not a trailer.
+     */
+    private static long findTrailer(FileChannel channel, long size) throws IOException {
+        int tailLength = (int) Math.min(size, 64); // The trailer line is 15 bytes plus line breaks
+        long tailStart = size - tailLength;
+        ByteBuffer tail = ByteBuffer.allocate(tailLength);
+        while (tail.hasRemaining() && channel.read(tail, tailStart + tail.position()) >= 0) {
+            // Keep reading until the tail is filled
+        }
+        byte[] bytes = tail.array();
+
+        int end = bytes.length;
+        while (end > 0 && (bytes[end - 1] == '\n' || bytes[end - 1] == '\r')) {
+            end--;
+        }
+        int start = end;
+        while (start > 0 && bytes[start - 1] != '\n') {
+            start--;
+        }
+        if (start == 0 && tailStart > 0) {
+            return -1; // The last line is longer than any trailer
+        }
+        byte[] prefix = CHECKSUM_PREFIX.getBytes(StandardCharsets.US_ASCII);
+        if (end - start < prefix.length) {
+            return -1;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes[start + i] != prefix[i]) {
+                return -1;
+            }
+        }
+        return tailStart + start;
+    }
+
+    /**
+     * Input stream that ends after a given number of bytes, so the trailer is not returned as content.
+     */
+    private static class LimitedInputStream extends FilterInputStream {
+        private long remaining;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = in.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = in.read(bytes, offset, (int) Math.min(length, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+    }
+
+    // ---------------------------
+    // Migration
+    // ---------------------------
+
+    /**
+     * Adds a checksum trailer to a data file written before checksums were added.
+     * This is the only way a file without a trailer is accepted, since a missing trailer otherwise
+     * means the file was truncated. Files that already have a trailer, are empty or do not exist are left alone.
+     *
+     * @param path The file to migrate.
+     * @return true if a trailer was added.
+     * @throws IOException If the file could not be rewritten; it is then left untouched.
+     */
+    public static boolean migrateLegacyFile(Path path) throws IOException {
+        if (!Files.exists(path) || Files.size(path) == 0) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (findTrailer(channel, channel.size()) >= 0) {
+                return false;
+            }
+        }
+        writeLines(path, sink -> {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    sink.accept(line);
+                }
+            }
+        });
+        return true;
+    }
+
+    // ---------------------------
+    // Configuration and Statistics
+    // ---------------------------
+
+    private static FsyncPolicy readFsyncPolicy() {
+        String value = System.getProperty("swimclub.fsync", FsyncPolicy.FILE_AND_DIRECTORY.name());
+        try {
+            return FsyncPolicy.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown fsync policy '" + value + "', using " + FsyncPolicy.FILE_AND_DIRECTORY + ".");
+            return FsyncPolicy.FILE_AND_DIRECTORY;
+        }
+    }
+
+    /**
+     * @param policy How much of each write to force to disk.
+     */
+    public static void setFsyncPolicy(FsyncPolicy policy) {
+        fsyncPolicy = policy;
+    }
+
+    /**
+     * @return The current fsync policy.
+     */
+    public static FsyncPolicy getFsyncPolicy() {
+        return fsyncPolicy;
+    }
+
+    /**
+     * @return A one-line summary of the writes so far, with the share of the time spent forcing data to disk.
+     */
+    public static String getStatistics() {
+        long writes = writeCount.get();
+        double totalMillis = writeNanos.get() / 1_000_000.0;
+        double fsyncMillis = fsyncNanos.get() / 1_000_000.0;
+        return String.format(Locale.ROOT, "%d durable writes (%s), %d bytes, %.1f ms total, %.1f ms in fsync, %.2f ms/write",
+                writes, fsyncPolicy, bytesWritten.get(), totalMillis, fsyncMillis, writes > 0 ? totalMillis / writes : 0.0);
+    }
+}
@@ -0,0 +1,111 @@
+package swimclub.utilities;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FileChangeWatcher runs an action whenever a file is changed, e.g. to reload the payment rates after they
+ * were edited, without a restart.
+ *
+ * The directory of the file is watched with a {@link WatchService}, since files written through
+ * {@link DurableFile} are replaced by a rename and a watch on the file itself would be lost. Events for other
+ * files in the directory are ignored, and events arriving within {@link #SETTLE_MILLIS} of each other are
+ * collected into one run of the action, so an editor saving in several steps causes one reload.
+ */
+public class FileChangeWatcher {
+    public static final long SETTLE_MILLIS = 100;
+
+    private final Path file;
+    private final Runnable onChange;
+    private WatchService watchService; // Null until the watcher is started
+
+    /**
+     * Constructor for FileChangeWatcher.
+     *
+     * @param file     The file to watch.
+     * @param onChange The action to run after the file was created or changed.
+     */
+    public FileChangeWatcher(Path file, Runnable onChange) {
+        this.file = file.toAbsolutePath();
+        this.onChange = onChange;
+    }
+
+    /**
+     * Starts watching the file on a background thread.
+     *
+     * @throws IOException           If the directory of the file cannot be watched.
+     * @throws IllegalStateException If the watcher is already running.
+     */
+    public synchronized void start() throws IOException {
+        if (watchService != null) {
+            throw new IllegalStateException("File watcher is already running.");
+        }
+        WatchService service = FileSystems.getDefault().newWatchService();
+        try {
+            file.getParent().register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            service.close();
+            throw e;
+        }
+        watchService = service;
+        Thread thread = new Thread(() -> watch(service), "file-watcher-" + file.getFileName());
+        thread.setDaemon(true); // Only reloads, it must not keep the program alive
+        thread.start();
+    }
+
+    private void watch(WatchService service) {
+        try {
+            while (true) {
+                boolean changed = pollChanges(service.take());
+                WatchKey more;
+                while ((more = service.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) { // Wait until the writes settle
+                    changed |= pollChanges(more);
+                }
+                if (changed) {
+                    try {
+                        onChange.run();
+                    } catch (RuntimeException e) {
+                        System.err.println("Error handling change of " + file + ": " + e.getMessage()); // Keep watching
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Stopped
+        }
+    }
+
+    /**
+     * @return true if one of the events of the key concerns the watched file.
+     */
+    private boolean pollChanges(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context())) {
+                changed = true; // On overflow events were lost, so the file may have changed
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    /**
+     * Stops watching. A change that is being handled is not interrupted.
+     */
+    public synchronized void stop() {
+        if (watchService != null) {
+            try {
+                watchService.close(); // Wakes the thread up, it ends on ClosedWatchServiceException
+            } catch (IOException e) {
+                System.err.println("Error closing file watcher: " + e.getMessage());
+            }
+            watchService = null;
+        }
+    }
+}
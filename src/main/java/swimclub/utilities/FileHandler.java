@@ -7,14 +7,22 @@ import swimclub.repositories.StaffRepository;
 import swimclub.repositories.TeamRepository;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * FileHandler handles saving and loading Member, Payment, Reminder, and Team data to and from a file.
  */
 public class FileHandler {
+    private static final int MAX_REPORTED_REFERENCES = 20; // Unknown IDs listed by loadTeams, the rest are only counted
+
     private String memberFilePath;
     private String paymentFilePath;
     private String reminderFilePath;
@@ -23,6 +31,8 @@ public class FileHandler {
     private String staffFilePath;
     private String competitionResultsFilePath;
     private String trainingResultsFilePath;
+    private String memberSnapshotPath; // Optional binary copy of the member file, null when disabled
+    private WriteBehindPersister writeBehind; // Optional background writer, null writes synchronously
 
     /**
      * Constructor for FileHandler.
@@ -54,26 +64,42 @@ public class FileHandler {
      * Saves all members to the specified file.
      *
      * @param members List of Member objects to save.
+     * @return true if the file was written, false if an error occurred.
      */
-    public void saveMembers(List<Member> members) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(memberFilePath))) {
-            for (Member member : members) {
-                writer.write(formatMember(member)); // Format and save each member
-                writer.newLine();
-            }
-        } catch (IOException e) {
-            System.err.println("Error saving members: " + e.getMessage());
+    public boolean saveMembers(List<Member> members) {
+        List<String> lines = new ArrayList<>(members.size());
+        for (Member member : members) {
+            lines.add(formatMember(member)); // Format each member
+        }
+        if (!DurableFile.writeLines(memberFilePath, lines, "members")) {
+            return false;
+        }
+        if (memberSnapshotPath != null) {
+            saveMembersSnapshot(members, memberSnapshotPath); // Written after the text file, so it is the newer of the two
         }
+        return true;
     }
 
     /**
      * Loads members from the specified file.
+     * If a member snapshot is enabled and at least as new as the text file, the snapshot is loaded instead.
      *
      * @return List of Member objects loaded from the file.
      */
     public List<Member> loadMembers() {
+        if (isMemberSnapshotCurrent()) {
+            try {
+                return MemberSnapshotCodec.read(Path.of(memberSnapshotPath));
+            } catch (IOException e) {
+                System.err.println("Error loading member snapshot, falling back to " + memberFilePath + ": " + e.getMessage());
+            }
+        }
+        return loadMembersFromText();
+    }
+
+    private List<Member> loadMembersFromText() {
         List<Member> members = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(memberFilePath))) {
+        try (BufferedReader reader = DurableFile.newVerifiedReader(memberFilePath)) {
             String line;
             while ((line = reader.readLine()) != null) {
                 if (!line.trim().isEmpty()) {
@@ -94,30 +120,89 @@ public class FileHandler {
     }
 
     /**
-     * Deletes a member from the file based on provided memberID.
+     * Enables the binary member snapshot. Every saveMembers() then also writes the snapshot,
+     * and loadMembers() reads the snapshot while it is not older than the text file.
      *
-     * @param memberToDelete The member to delete.
-     * @return true if deletion was successful, false otherwise.
+     * @param memberSnapshotPath Path to the snapshot file, or null to disable it.
      */
-    public boolean deleteMember(Member memberToDelete) {
-        boolean memberDeleted = false;
-        List<Member> members = loadMembers(); // Load all members from file
+    public void setMemberSnapshotPath(String memberSnapshotPath) {
+        this.memberSnapshotPath = memberSnapshotPath;
+    }
 
-        List<Member> updatedMembers = new ArrayList<>();
-        int id = memberToDelete.getMemberId(); // Get the ID for the member to delete
+    private boolean isMemberSnapshotCurrent() {
+        if (memberSnapshotPath == null) {
+            return false;
+        }
+        File snapshot = new File(memberSnapshotPath);
+        File text = new File(memberFilePath);
+        return snapshot.exists() && (!text.exists() || snapshot.lastModified() >= text.lastModified()); // A hand-edited members.dat wins
+    }
 
-        for (Member member : members) {
-            if (member.getMemberId() == id) {
-                memberDeleted = true; // Mark the member as deleted
-            } else {
-                updatedMembers.add(member); // Keep all other members
-            }
+    /**
+     * Writes members to a binary snapshot file.
+     *
+     * @param members      List of Member objects to save.
+     * @param snapshotPath Path to the snapshot file.
+     * @return true if the file was written, false if an error occurred.
+     */
+    public boolean saveMembersSnapshot(List<Member> members, String snapshotPath) {
+        try {
+            MemberSnapshotCodec.write(members, Path.of(snapshotPath));
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error saving member snapshot: " + e.getMessage());
+            return false;
         }
+    }
 
-        if (memberDeleted) {
-            saveMembers(updatedMembers); // Save the updated list without the deleted member
+    /**
+     * Loads members from a binary snapshot file.
+     *
+     * @param snapshotPath Path to the snapshot file.
+     * @return List of Member objects, empty if the snapshot could not be read.
+     */
+    public List<Member> loadMembersSnapshot(String snapshotPath) {
+        try {
+            return MemberSnapshotCodec.read(Path.of(snapshotPath));
+        } catch (IOException e) {
+            System.err.println("Error loading member snapshot: " + e.getMessage());
+            return new ArrayList<>();
         }
-        return memberDeleted;
+    }
+
+    /**
+     * Converts the text member file into a binary snapshot.
+     *
+     * @param snapshotPath Path to the snapshot file to write.
+     * @return true if the snapshot was written.
+     */
+    public boolean convertMembersToSnapshot(String snapshotPath) {
+        return saveMembersSnapshot(loadMembersFromText(), snapshotPath);
+    }
+
+    /**
+     * Converts a binary snapshot back into the text member file.
+     *
+     * @param snapshotPath Path to the snapshot file to read.
+     * @return true if the member file was written.
+     */
+    public boolean convertSnapshotToMembers(String snapshotPath) {
+        try {
+            List<Member> members = MemberSnapshotCodec.read(Path.of(snapshotPath));
+            return saveMembers(members);
+        } catch (IOException e) {
+            System.err.println("Error converting member snapshot: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Opens the append-only journal that lives next to the member file (e.g. members.dat.journal).
+     *
+     * @return A MemberJournal bound to this file handler.
+     */
+    public MemberJournal openMemberJournal() {
+        return new MemberJournal(this, memberFilePath + ".journal");
     }
 
     // ---------------------------
@@ -131,14 +216,11 @@ public class FileHandler {
      * @param filePath Path to the payment file.
      */
     public void savePayments(List<Payment> payments, String filePath) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
-            for (Payment payment : payments) {
-                writer.write(formatPayment(payment));
-                writer.newLine();
-            }
-        } catch (IOException e) {
-            System.err.println("Error saving payments: " + e.getMessage());
+        List<String> lines = new ArrayList<>(payments.size());
+        for (Payment payment : payments) {
+            lines.add(formatPayment(payment));
         }
+        writeRecords(filePath, lines, "payments");
     }
 
     /**
@@ -150,7 +232,7 @@ public class FileHandler {
      */
     public List<Payment> loadPayments(String filePath, MemberRepository memberRepository) {
         List<Payment> payments = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+        try (BufferedReader reader = DurableFile.newVerifiedReader(filePath)) {
             String line;
             while ((line = reader.readLine()) != null) {
                 Payment payment = parsePayment(line, memberRepository);
@@ -174,14 +256,7 @@ public class FileHandler {
      * @param reminders List of reminders to save.
      */
     public void saveReminders(List<String> reminders) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(reminderFilePath))) {
-            for (String reminder : reminders) {
-                writer.write(reminder);
-                writer.newLine();
-            }
-        } catch (IOException e) {
-            System.err.println("Error saving reminders: " + e.getMessage());
-        }
+        writeRecords(reminderFilePath, new ArrayList<>(reminders), "reminders");
     }
 
     /**
@@ -191,7 +266,7 @@ public class FileHandler {
      */
     public List<String> loadReminders() {
         List<String> reminders = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(reminderFilePath))) {
+        try (BufferedReader reader = DurableFile.newVerifiedReader(reminderFilePath)) {
             String line;
             while ((line = reader.readLine()) != null) {
                 if (!line.trim().isEmpty()) {
@@ -224,7 +299,35 @@ public class FileHandler {
     // Helper Methods
     // ---------------------------
 
-    private String formatMember(Member member) {
+    /**
+     * Enables write-behind. Saves of everything but members are then handed to the background writer
+     * instead of being written on the caller's thread. Members stay synchronous, the member journal
+     * relies on knowing that members.dat was written before it truncates itself.
+     *
+     * @param writeBehind The background writer, or null to write synchronously.
+     */
+    public void setWriteBehind(WriteBehindPersister writeBehind) {
+        this.writeBehind = writeBehind;
+    }
+
+    /**
+     * Replaces the content of a file with the given lines, through the background writer if write-behind is enabled.
+     * The file is replaced atomically and gets a checksum trailer, see {@link DurableFile}.
+     * The lines are already formatted, so the write does not touch objects that may change in the meantime.
+     *
+     * @param filePath    The file to write.
+     * @param lines       The complete new content, one record per line.
+     * @param description What the file contains, used in error messages.
+     */
+    private void writeRecords(String filePath, List<String> lines, String description) {
+        if (writeBehind != null) {
+            writeBehind.markDirty(filePath, () -> DurableFile.writeLines(filePath, lines, description));
+        } else {
+            DurableFile.writeLines(filePath, lines, description); // Temp file, fsync and atomic move
+        }
+    }
+
+    String formatMember(Member member) {
         String teamName = (member.getTeamName() != null && !member.getTeamName().isEmpty())
                 ? member.getTeamName()
                 : "No team";  // If teamName is null or empty, use "No team"
@@ -252,7 +355,7 @@ public class FileHandler {
      * @param line A semicolon-separated string representing member details.
      * @return A Member object if parsing is successful; otherwise, null.
      */
-    private Member parseMember(String line) {
+    Member parseMember(String line) {
         // Split the line into parts using semicolon as a delimiter
         String[] parts = line.split(";");
 
@@ -317,10 +420,10 @@ public class FileHandler {
     }
 
 
-    private String formatPayment(Payment payment) {
+    String formatPayment(Payment payment) {
         return payment.getPaymentId() + ";" +
                 payment.getMember().getMemberId() + ";" +
-                payment.getAmountPerYear() + ";" +
+                Money.format(payment.getAmountCents()) + ";" +
                 payment.getPaymentDate() + ";" +
                 payment.getPaymentStatus();
     }
@@ -330,12 +433,12 @@ public class FileHandler {
         try {
             int paymentId = Integer.parseInt(parts[0]);
             int memberId = Integer.parseInt(parts[1]);
-            double amount = Double.parseDouble(parts[2]);
+            long amountCents = Money.parse(parts[2]);
             LocalDate paymentDate = LocalDate.parse(parts[3]);
             PaymentStatus status = PaymentStatus.valueOf(parts[4].toUpperCase());
             Member member = memberRepository.findById(memberId);
 
-            return new Payment(paymentId, status, member, paymentDate, amount);
+            return Payment.ofCents(paymentId, status, member, paymentDate, amountCents);
         } catch (Exception e) {
             System.err.println("Error parsing payment: " + line + " - " + e.getMessage());
             return null;
@@ -344,70 +447,56 @@ public class FileHandler {
 
 
     /**
-     * @return a double arrayList which can be used in paymentService to load juniorRate and seniorRate.
+     * Loads the fee rules from paymentRates.dat and compiles them, see {@link FeeSchedule} for the rules.
+     * Older files with only "Junior Rate:" and "Senior Rate:" lines load with the other fees at their defaults.
+     *
+     * @return the compiled fee schedule, or the default fees if the file cannot be read.
      */
-    public double[] loadPaymentRates() {
-        double[] rates = new double[2];
-        try (BufferedReader reader = new BufferedReader(new FileReader(paymentRatesFilePath))) {
-            String line;
-            boolean foundJuniorRate = false;
-            boolean foundSeniorRate = false;
-
-            while ((line = reader.readLine()) != null) { // proceeds until the paymentRates.dat is read to the bottom.
-                line = line.trim(); // cleans whitespaces in the document
-                if (line.startsWith("Junior Rate:")) {
-                    try {
-                        rates[0] = Double.parseDouble(line.split(":")[1].trim()); /*turns the data into double and splits it
-                        into an array before and after ":" and then takes the second element */
-                        foundJuniorRate = true;
-                    } catch (NumberFormatException e) { // in case that the string can't be converted to a double.
-                        System.out.println("Invalid format for Junior Rate. Using default value.");
-                    }
-                } else if (line.startsWith("Senior Rate:")) {
-                    try {
-                        rates[1] = Double.parseDouble(line.split(":")[1].trim()); /*turns the data into double and splits it
-                        into an array before and after ":" and then takes the second element */
-                        foundSeniorRate = true;
-                    } catch (NumberFormatException e) {  // in case that the string can't be converted to a double.
-                        System.out.println("Invalid format for Senior Rate. Using default value.");
-                    }
-                }
-            }
-
-            // Set default values if rates were not found
-            if (!foundJuniorRate) {
-                rates[0] = 1000; // Default Junior rate if no rates were found in the document.
-            }
-            if (!foundSeniorRate) {
-                rates[1] = 1600; // Default Senior rate if no rates were found in the document.
-            }
-
+    public FeeSchedule loadFeeSchedule() {
+        try {
+            return FeeSchedule.parse(readFeeRules());
         } catch (IOException e) {
             System.out.println("Error loading payment rates from file: " + e.getMessage());
-            // Default values in case of error
-            rates[0] = 1000; // default junior rate
-            rates[1] = 1600; // default senior rate
-
+            return FeeSchedule.defaults(); // Default rates in case of error
         }
-        return rates;
     }
 
     /**
-     * This method saves the juniorRate and seniorRate from paymentService class to paymentRates.dat document.
+     * Loads the fee rules again after paymentRates.dat changed, e.g. after it was edited by hand.
+     * Unlike {@link #loadFeeSchedule()} nothing falls back to the defaults: a file that cannot be read or has an
+     * invalid rule is rejected as a whole, so the caller can keep the schedule it has.
      *
-     * @param juniorRate - the price for how much a junior member has to pay.
-     * @param seniorRate - the price for how much a senior member has to pay.
+     * @return the compiled fee schedule.
+     * @throws IOException              If the file cannot be read.
+     * @throws IllegalArgumentException If a rule is invalid.
      */
-    public void savePaymentRates(double juniorRate, double seniorRate) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(paymentRatesFilePath, false))) {
-            //false means that it overwrites everything in the file every time.
-            writer.write("Junior Rate: " + juniorRate);
-            writer.newLine();
-            writer.write("Senior Rate: " + seniorRate);
-            writer.newLine();
-        } catch (IOException e) {
-            System.out.println("Error saving payment rates: " + e.getMessage());
+    public FeeSchedule reloadFeeSchedule() throws IOException {
+        return FeeSchedule.parseStrict(readFeeRules());
+    }
+
+    /**
+     * Reads paymentRates.dat without checking the checksum trailer: the rules are meant to be edited by hand,
+     * which leaves the trailer stale. The trailer is a '#' line, so the rules skip it.
+     */
+    private List<String> readFeeRules() throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(paymentRatesFilePath), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) { // proceeds until the paymentRates.dat is read to the bottom.
+                lines.add(line);
+            }
         }
+        return lines;
+    }
+
+    /**
+     * This method saves the fee rules of a schedule to paymentRates.dat, e.g. after the junior or senior rate was changed.
+     *
+     * @param feeSchedule - the schedule whose rules are written.
+     */
+    public void saveFeeSchedule(FeeSchedule feeSchedule) {
+        // The whole file is overwritten every time, with all rules of the schedule.
+        writeRecords(paymentRatesFilePath, feeSchedule.getLines(), "payment rates");
     }
 
     // ---------------------------
@@ -420,37 +509,37 @@ public class FileHandler {
      * @param teams List of Team objects to save.
      */
     public void saveTeams(List<Team> teams) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(teamsFilePath))) {
-            for (Team team : teams) {
-                StringBuilder sb = new StringBuilder();
-                sb.append(team.getTeamName()).append(";") // Team name
-                        .append(team.getTeamType().name()).append(";"); // Team type
-
-                // Append coach ID (or "null" if no coach)
-                if (team.getTeamCoach() != null) {
-                    sb.append(team.getTeamCoach().getCoachId());
-                } else {
-                    sb.append("null");
-                }
-                sb.append(";");
+        List<String> lines = new ArrayList<>(teams.size());
+        for (Team team : teams) {
+            lines.add(formatTeam(team));
+        }
+        writeRecords(teamsFilePath, lines, "teams");
+    }
 
-                // Append member IDs as a comma-separated string
-                for (Member member : team.getMembers()) {
-                    sb.append(member.getMemberId()).append(",");
-                }
+    String formatTeam(Team team) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(team.getTeamName()).append(";") // Team name
+                .append(team.getTeamType().name()).append(";"); // Team type
 
-                // Remove trailing comma after last member (if any)
-                if (team.getMembers().size() > 0) {
-                    sb.deleteCharAt(sb.length() - 1);
-                }
+        // Append coach ID (or "null" if no coach)
+        if (team.getTeamCoach() != null) {
+            sb.append(team.getTeamCoach().getCoachId());
+        } else {
+            sb.append("null");
+        }
+        sb.append(";");
 
-                // Write the team data to the file
-                writer.write(sb.toString());
-                writer.newLine();
-            }
-        } catch (IOException e) {
-            System.err.println("Error saving teams: " + e.getMessage());
+        // Append member IDs as a comma-separated string
+        for (Member member : team.getMembers()) {
+            sb.append(member.getMemberId()).append(",");
+        }
+
+        // Remove trailing comma after last member (if any)
+        if (team.getMemberCount() > 0) {
+            sb.deleteCharAt(sb.length() - 1);
         }
+
+        return sb.toString();
     }
 
     /**
@@ -460,8 +549,25 @@ public class FileHandler {
      * @return List of Team objects loaded from the file.
      */
     public List<Team> loadTeams(List<Member> allMembers, StaffRepository staffRepository) {
+        KeyedIndex<Integer, Member> membersById = new KeyedIndex<>(Member::getMemberId);
+        membersById.rebuild(allMembers); // Index the members once instead of scanning the list per team member
+        return loadTeams(membersById::get, staffRepository);
+    }
+
+    /**
+     * Loads teams from the specified file, finding members with a lookup such as MemberRepository::findById.
+     * All references are resolved in one pass over the file with one lookup per ID, so loading takes time linear
+     * in the size of the file. Member and coach IDs that match nobody are skipped and reported together at the end.
+     *
+     * @param memberLookup    Finds a member by ID, returns null for an unknown ID.
+     * @param staffRepository The repository to find the coaches in.
+     * @return List of Team objects loaded from the file.
+     */
+    public List<Team> loadTeams(IntFunction<Member> memberLookup, StaffRepository staffRepository) {
         List<Team> teams = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(teamsFilePath))) {
+        List<String> danglingReferences = new ArrayList<>(); // "team: member 12", reported together at the end
+        int danglingCount = 0;
+        try (BufferedReader reader = DurableFile.newVerifiedReader(teamsFilePath)) {
             String line;
             while ((line = reader.readLine()) != null) {
                 String[] parts = line.split(";");
@@ -477,28 +583,30 @@ public class FileHandler {
                 if (coachId != -1) {
                     // Retrieve the coach object using the parsed coachId if valid
                     coach = staffRepository.findCoachById(coachId);
-                    if (coach == null) {
-                        System.err.println("Coach with ID " + coachId + " not found for team " + teamName);
+                    if (coach == null && danglingCount++ < MAX_REPORTED_REFERENCES) {
+                        danglingReferences.add(teamName + ": coach " + coachId);
                     }
                 } else {
                     System.out.println("No valid coach ID found for team " + teamName + ", assigning null coach.");
                 }
 
-                // Parse member IDs if any exist
-                String[] memberIds = parts.length > 3 ? parts[3].split(",") : new String[0];
-
                 // Create a new Team object with or without a coach
                 Team team = new Team(teamName, teamType, coach);
 
-                // Add members to the team
+                // Resolve the member IDs, if any exist, and add the members in one step
+                String[] memberIds = parts.length > 3 ? parts[3].split(",") : new String[0];
+                List<Member> members = new ArrayList<>(memberIds.length);
                 for (String memberId : memberIds) {
                     if (!memberId.isEmpty()) {
-                        Member member = findMemberById(allMembers, Integer.parseInt(memberId));
+                        Member member = findMember(memberLookup, memberId);
                         if (member != null) {
-                            team.addMember(member);
+                            members.add(member);
+                        } else if (danglingCount++ < MAX_REPORTED_REFERENCES) {
+                            danglingReferences.add(teamName + ": member " + memberId);
                         }
                     }
                 }
+                team.addMembers(members); // Skips IDs listed twice
 
                 // Add the team to the list
                 teams.add(team);
@@ -506,9 +614,21 @@ public class FileHandler {
         } catch (IOException e) {
             System.err.println("Error loading teams: " + e.getMessage());
         }
+        if (danglingCount > 0) {
+            System.err.println("Skipped " + danglingCount + " unknown member or coach IDs in " + teamsFilePath + ": "
+                    + String.join(", ", danglingReferences) + (danglingCount > danglingReferences.size() ? ", ..." : ""));
+        }
         return teams; // Return the loaded list of teams
     }
 
+    private static Member findMember(IntFunction<Member> memberLookup, String memberId) {
+        try {
+            return memberLookup.apply(Integer.parseInt(memberId.trim()));
+        } catch (NumberFormatException e) {
+            return null; // Reported with the unknown IDs
+        }
+    }
+
     private int parseInteger(String value) {
         try {
             // If the value is "null" or empty, return -1 to signify invalid input
@@ -522,20 +642,6 @@ public class FileHandler {
         }
     }
 
-    /**
-     * Helper method to find a member by ID from a list of members.
-     *
-     * @param members List of members to search in.
-     * @param id      ID of the member to find.
-     * @return The Member object with the specified ID, or null if not found.
-     */
-    private Member findMemberById(List<Member> members, int id) {
-        return members.stream()
-                .filter(member -> member.getMemberId() == id)
-                .findFirst()
-                .orElse(null);
-    }
-
 // // ---------------------------
 //    // Staff Related Methods
 //    // ---------------------------
@@ -548,16 +654,11 @@ public class FileHandler {
      *                of a coach, which will be formatted and written to the file.
      */
     public void saveCoaches(List<Coach> coaches) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(staffFilePath))) {
-            // Iterate through the list of coaches and write their formatted details to the file
-            for (Coach coach : coaches) {
-                writer.write(formatCoach(coach)); // Format and save each coach's information
-                writer.newLine(); // Add a new line after each coach's data
-            }
-        } catch (IOException e) {
-            // Handle potential IOExceptions that could occur during the file writing process
-            System.err.println("Error saving coaches: " + e.getMessage());
+        List<String> lines = new ArrayList<>(coaches.size());
+        for (Coach coach : coaches) {
+            lines.add(formatCoach(coach)); // Format each coach's information
         }
+        writeRecords(staffFilePath, lines, "coaches");
     }
 
     /**
@@ -569,7 +670,7 @@ public class FileHandler {
      */
     public List<Coach> loadCoaches() {
         List<Coach> coaches = new ArrayList<>(); // Create an empty list to store the loaded coaches
-        try (BufferedReader reader = new BufferedReader(new FileReader(staffFilePath))) {
+        try (BufferedReader reader = DurableFile.newVerifiedReader(staffFilePath)) {
             String line;
             // Read each line from the file until the end
             while ((line = reader.readLine()) != null) {
@@ -594,7 +695,7 @@ public class FileHandler {
      * @param coach The Coach object whose details are to be formatted.
      * @return A formatted string containing the coach's details, separated by semicolons.
      */
-    private String formatCoach(Coach coach) {
+    String formatCoach(Coach coach) {
         // Save all necessary information in a single line, separated by semicolons, including the role
         return coach.getCoachId() + ";" +
                 coach.getTeamName() + ";" +
@@ -649,38 +750,6 @@ public class FileHandler {
     }
 
 
-    /**
-     * Deletes a coach from the system.
-     * This method removes a coach from the list of coaches and saves the updated list.
-     * It returns true if the coach was successfully deleted, and false if no coach with the specified ID was found.
-     *
-     * @param coachToDelete The coach to be deleted from the system.
-     * @return boolean True if the coach was deleted, false otherwise.
-     */
-    public boolean deleteCoach(Coach coachToDelete) {
-        boolean coachDeleted = false;
-        List<Coach> coachList = loadCoaches(); // Load all coaches from the file
-
-        List<Coach> updatedCoaches = new ArrayList<>(); // List to store the updated coaches after deletion
-        int id = coachToDelete.getCoachId(); // Get the ID of the coach to delete
-
-        // Iterate through the current list of coaches
-        for (Coach coach : coachList) {
-            if (coach.getCoachId() != id) {
-                updatedCoaches.add(coach); // Keep coaches that don't match the ID
-            } else {
-                coachDeleted = true; // Mark the coach as deleted
-            }
-        }
-
-        // If the coach was deleted, save the updated list
-        if (coachDeleted) {
-            saveCoaches(updatedCoaches); // Save the updated list without the deleted coach
-        }
-
-        return coachDeleted; // Return true if coach was deleted, false if not
-    }
-
     /**
      * Saves the list of competition results to a file.
      * The competition results are saved in a CSV-like format where each line represents a competition result.
@@ -689,56 +758,52 @@ public class FileHandler {
      * @param filePath The file path where the competition results should be saved.
      */
     public void saveCompetitionResults(List<CompetitionResults> results, String filePath) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
-            for (CompetitionResults result : results) {
-                writer.write(result.getMember().getMemberId() + ";" +
-                        result.getActivityType() + ";" +
-                        result.getEvent() + ";" +
-                        result.getPlacement() + ";" +
-                        result.getDate() + ";" +
-                        result.getTime());
-                writer.newLine();
-            }
-        } catch (IOException e) {
-            System.err.println("Error saving competition results: " + e.getMessage());
+        List<String> lines = new ArrayList<>(results.size());
+        for (CompetitionResults result : results) {
+            lines.add(formatCompetitionResult(result));
         }
+        writeRecords(filePath, lines, "competition results");
+    }
+
+    String formatCompetitionResult(CompetitionResults result) {
+        return result.getMember().getMemberId() + ";" +   // Same field order as loadCompetitionResults reads
+                result.getEvent() + ";" +
+                result.getActivityType() + ";" +
+                result.getPlacement() + ";" +
+                result.getTime() + ";" +
+                result.getDate() + ";" +
+                result.getLevel();
     }
 
     /**
      * Loads competition results from a file and maps them to {@link CompetitionResults} objects.
      * Each result is parsed from a semicolon-separated format and added to the list if the corresponding member is found in the repository.
+     * A damaged file is copied to [file].corrupt first, so the next save does not destroy the results that failed to load.
      *
      * @param filePath The file path from which to load the competition results.
      * @param memberRepository The member repository used to look up members by their ID.
      * @return A list of {@link CompetitionResults} objects loaded from the file.
      */
     public List<CompetitionResults> loadCompetitionResults(String filePath, MemberRepository memberRepository) {
-        List<CompetitionResults> results = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(";");
-
-                // Parse required data
-                int memberId = Integer.parseInt(parts[0]);
-                String event = parts[1];
-                ActivityType activityType = ActivityType.valueOf(parts[2].toUpperCase()); // Assuming activity type is stored as a string
-                int placement = Integer.parseInt(parts[3]);
-                double time = Double.parseDouble(parts[4]);
-                String date = parts[5];
-                MembershipLevel level = MembershipLevel.valueOf(parts[6].toUpperCase()); // Assuming level is stored as a string
-
-                // Resolve the member from MemberRepository
-                Member member = memberRepository.findById(memberId);
-                if (member != null) {
-                    // Add competition result to the list
-                    results.add(new CompetitionResults(member, level, event, placement, time, date, activityType));
-                }
-            }
-        } catch (Exception e) {
+        try (Stream<CompetitionResults> results = streamCompetitionResults(filePath, memberRepository)) {
+            return results.collect(Collectors.toCollection(ArrayList::new));
+        } catch (IOException | UncheckedIOException e) {
             System.err.println("Error loading competition results: " + e.getMessage());
+            return new ArrayList<>();
         }
-        return results;
+    }
+
+    /**
+     * Streams competition results from a memory-mapped file without loading them all into memory.
+     * The stream must be closed after use, e.g. with try-with-resources.
+     *
+     * @param filePath The file path from which to read the competition results.
+     * @param memberRepository The member repository used to look up members by their ID.
+     * @return A lazy stream of {@link CompetitionResults}, skipping results of unknown members.
+     * @throws IOException If the file cannot be opened.
+     */
+    public Stream<CompetitionResults> streamCompetitionResults(String filePath, MemberRepository memberRepository) throws IOException {
+        return MappedResultReader.streamCompetitionResults(Path.of(filePath), memberRepository::findById);
     }
 
     /**
@@ -748,53 +813,49 @@ public class FileHandler {
      * @param results The list of training results to be saved.
      */
     public void saveTrainingResults(List<TrainingResults> results) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(trainingResultsFilePath))) {
-            for (TrainingResults result : results) {
-                writer.write(result.getMember().getMemberId() + ";" +
-                        result.getLevel() + ";" +
-                        result.getActivityType() + ";" +
-                        result.getTime() + ";" +
-                        result.getDate());
-                writer.newLine();
-            }
-        } catch (IOException e) {
-            System.err.println("Error saving training results: " + e.getMessage());
+        List<String> lines = new ArrayList<>(results.size());
+        for (TrainingResults result : results) {
+            lines.add(formatTrainingResult(result));
         }
+        writeRecords(trainingResultsFilePath, lines, "training results");
+    }
+
+    String formatTrainingResult(TrainingResults result) {
+        return result.getMember().getMemberId() + ";" +
+                result.getLevel() + ";" +
+                result.getActivityType() + ";" +
+                result.getTime() + ";" +
+                result.getDate();
     }
 
     /**
      * Loads training results from a file and maps them to {@link TrainingResults} objects.
      * Each result is parsed from a semicolon-separated format and added to the list if the corresponding member is found in the repository.
+     * A damaged file is copied to [file].corrupt first, so the next save does not destroy the results that failed to load.
      *
      * @param filePath The file path from which to load the training results.
      * @param memberRepository The member repository used to look up members by their ID.
      * @return A list of {@link TrainingResults} objects loaded from the file.
      */
     public List<TrainingResults> loadTrainingResults(String filePath, MemberRepository memberRepository) {
-        List<TrainingResults> results = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(";");
-                String memberIdStr = parts[0];
-                MembershipLevel level = MembershipLevel.valueOf(parts[1]);
-                ActivityType activityType = ActivityType.valueOf(parts[2]);
-                double time = Double.parseDouble(parts[3]);
-                String date = parts[4];
-
-                // Resolve the member from MemberRepository
-                Member member = memberRepository.findById(Integer.parseInt(memberIdStr));
-                if (member != null) {
-                    results.add(new TrainingResults(member, level, activityType, time, date));
-                }
-            }
-
-        } catch (IOException e) {
-            System.err.println("Error saving training results: " + e.getMessage());
+        try (Stream<TrainingResults> results = streamTrainingResults(filePath, memberRepository)) {
+            return results.collect(Collectors.toCollection(ArrayList::new));
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Error loading training results: " + e.getMessage());
+            return new ArrayList<>();
         }
-        return results;
     }
 
-
+    /**
+     * Streams training results from a memory-mapped file without loading them all into memory.
+     * The stream must be closed after use, e.g. with try-with-resources.
+     *
+     * @param filePath The file path from which to read the training results.
+     * @param memberRepository The member repository used to look up members by their ID.
+     * @return A lazy stream of {@link TrainingResults}, skipping results of unknown members.
+     * @throws IOException If the file cannot be opened.
+     */
+    public Stream<TrainingResults> streamTrainingResults(String filePath, MemberRepository memberRepository) throws IOException {
+        return MappedResultReader.streamTrainingResults(Path.of(filePath), memberRepository::findById);
+    }
 }
-
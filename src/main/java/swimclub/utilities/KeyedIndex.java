@@ -0,0 +1,95 @@
+package swimclub.utilities;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * KeyedIndex is a hash index from a key (e.g. a member ID) to the object it identifies.
+ * Repositories keep one next to their list so lookups by key are O(1) instead of a scan of the whole list.
+ * The owning repository is responsible for calling add, remove and rebuild whenever its list changes.
+ *
+ * @param <K> The type of the key.
+ * @param <V> The type of the indexed objects.
+ */
+public class KeyedIndex<K, V> {
+    private final Map<K, V> entries = new HashMap<>();
+    private final Function<V, K> keyExtractor; // Computes the key of an indexed object
+
+    /**
+     * Constructor for KeyedIndex.
+     *
+     * @param keyExtractor Function that returns the key of an object, e.g. Member::getMemberId.
+     */
+    public KeyedIndex(Function<V, K> keyExtractor) {
+        this.keyExtractor = keyExtractor;
+    }
+
+    /**
+     * Adds an object to the index, replacing any object with the same key.
+     *
+     * @param value The object to index.
+     */
+    public void add(V value) {
+        entries.put(keyExtractor.apply(value), value);
+    }
+
+    /**
+     * Removes an object from the index.
+     * Nothing happens if another object has taken its key in the meantime.
+     *
+     * @param value The object to remove.
+     */
+    public void remove(V value) {
+        entries.remove(keyExtractor.apply(value), value);
+    }
+
+    /**
+     * Moves an object to a new key after the field it is keyed on has changed.
+     *
+     * @param oldKey The key the object was indexed under.
+     * @param value  The object, already carrying its new key.
+     */
+    public void rekey(K oldKey, V value) {
+        entries.remove(oldKey, value);
+        add(value);
+    }
+
+    /**
+     * Finds the object indexed under a key.
+     *
+     * @param key The key to look up.
+     * @return The object, or null if no object has the key.
+     */
+    public V get(K key) {
+        return entries.get(key);
+    }
+
+    /**
+     * @param key The key to check.
+     * @return true if an object is indexed under the key.
+     */
+    public boolean containsKey(K key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * Clears the index and indexes all given objects.
+     *
+     * @param values The objects to index.
+     */
+    public void rebuild(Collection<? extends V> values) {
+        entries.clear();
+        for (V value : values) {
+            add(value);
+        }
+    }
+
+    /**
+     * @return The number of indexed objects.
+     */
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,171 @@
+package swimclub.utilities;
+
+import swimclub.models.ActivityType;
+import swimclub.models.MembershipLevel;
+import swimclub.models.TrainingResults;
+
+import java.util.*;
+
+/**
+ * Leaderboard keeps the best training results per discipline and membership level.
+ * Every (ActivityType, MembershipLevel) pair has a list of at most {@code capacity} results, kept sorted by time,
+ * so a top-N query copies N entries instead of filtering and sorting all results.
+ * The owning repository calls offer when a result is added or improved, and rebuild after results were loaded
+ * or a time got worse, since a bounded list cannot know which result moves up when one of its entries drops out.
+ */
+public class Leaderboard {
+    public static final int DEFAULT_CAPACITY = 10;
+
+    /**
+     * Best time first. Equal times are ordered by member ID so the order does not depend on insertion order.
+     */
+    public static final Comparator<TrainingResults> BEST_TIME_FIRST = Comparator
+            .comparingDouble(TrainingResults::getTime)
+            .thenComparingInt(result -> result.getMember().getMemberId());
+
+    private final int capacity;
+    private final Map<ActivityType, Map<MembershipLevel, List<TrainingResults>>> boards = new EnumMap<>(ActivityType.class);
+
+    /**
+     * Constructor for Leaderboard.
+     *
+     * @param capacity How many results to keep per discipline and level, the largest N a query can ask for.
+     */
+    public Leaderboard(int capacity) {
+        this.capacity = capacity;
+        for (ActivityType activityType : ActivityType.values()) {
+            Map<MembershipLevel, List<TrainingResults>> levels = new EnumMap<>(MembershipLevel.class);
+            for (MembershipLevel level : MembershipLevel.values()) {
+                levels.put(level, new ArrayList<>(capacity + 1));
+            }
+            boards.put(activityType, levels);
+        }
+    }
+
+    // ---------------------------
+    // Updates
+    // ---------------------------
+
+    /**
+     * Adds a new result, or moves a result that is already on the board after its time improved.
+     * Runs in O(capacity).
+     *
+     * @param result The new or improved result.
+     * @return false if the result was on the board and got worse, the board must then be rebuilt.
+     */
+    public synchronized boolean offer(TrainingResults result) {
+        List<TrainingResults> board = boardFor(result);
+        if (board == null) {
+            return true; // No discipline, the result cannot be ranked
+        }
+        int oldPosition = indexOfSame(board, result);
+        if (oldPosition >= 0) {
+            board.remove(oldPosition);
+        }
+        int position = insertionPoint(board, result);
+        boolean wasFull = oldPosition >= 0 && board.size() == capacity - 1;
+        if (wasFull && position == board.size()) {
+            // It fell to the last place of a full board, a result that is not on the board may now be better
+            board.add(result);
+            return false;
+        }
+        if (position < capacity) {
+            board.add(position, result);
+            if (board.size() > capacity) {
+                board.remove(capacity); // Drop the entry pushed off the end
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Clears the board and ranks all given results again.
+     *
+     * @param results All training results.
+     */
+    public synchronized void rebuild(Collection<TrainingResults> results) {
+        for (Map<MembershipLevel, List<TrainingResults>> levels : boards.values()) {
+            for (List<TrainingResults> board : levels.values()) {
+                board.clear();
+            }
+        }
+        for (TrainingResults result : results) {
+            offer(result);
+        }
+    }
+
+    // ---------------------------
+    // Queries
+    // ---------------------------
+
+    /**
+     * Returns the best results of a discipline and level.
+     *
+     * @param activityType The discipline.
+     * @param level        The membership level.
+     * @param count        How many results to return, from 0 up to the capacity of the board.
+     * @return Up to count results, best time first.
+     */
+    public synchronized List<TrainingResults> getTop(ActivityType activityType, MembershipLevel level, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("The number of results cannot be negative.");
+        }
+        if (count > capacity) {
+            throw new IllegalArgumentException("The leaderboard keeps at most " + capacity + " results per discipline.");
+        }
+        List<TrainingResults> board = boards.get(activityType).get(level);
+        return new ArrayList<>(board.subList(0, Math.min(count, board.size())));
+    }
+
+    /**
+     * @return How many results are kept per discipline and level.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // ---------------------------
+    // Helpers
+    // ---------------------------
+
+    private List<TrainingResults> boardFor(TrainingResults result) {
+        if (result.getActivityType() == null) {
+            return null;
+        }
+        return boards.get(result.getActivityType()).get(levelOf(result));
+    }
+
+    /**
+     * @return The level stored with the result, or the member's membership level for results stored without one.
+     *         The member repository keeps that level in line with the member's age.
+     */
+    private static MembershipLevel levelOf(TrainingResults result) {
+        if (result.getLevel() != null) {
+            return result.getLevel();
+        }
+        return result.getMember().getMembershipType().getLevel();
+    }
+
+    private static int indexOfSame(List<TrainingResults> board, TrainingResults result) {
+        for (int i = 0; i < board.size(); i++) {
+            if (board.get(i) == result) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int insertionPoint(List<TrainingResults> board, TrainingResults result) {
+        int low = 0;
+        int high = board.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (BEST_TIME_FIRST.compare(board.get(middle), result) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,441 @@
+package swimclub.utilities;
+
+import swimclub.models.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32;
+
+/**
+ * MappedResultReader streams training and competition results from their .dat files through a memory-mapped file.
+ * Records are parsed directly from the mapped bytes, so no String is created for a line or its numeric and enum fields,
+ * and results are produced one at a time so a large history can be scanned without loading it all onto the heap.
+ * The file is mapped in windows, so files larger than the address space of a single buffer are supported.
+ *
+ * Record formats (one per line):
+ *   training:    memberId;level;activityType;time;date
+ *   competition: memberId;event;activityType;placement;time;date;level
+ *
+ * The checksum trailer written by {@link DurableFile} is verified when the stream reaches it; a mismatch or a
+ * missing trailer ends the stream with an {@link UncheckedIOException} wrapping a {@link DurableFile.CorruptFileException},
+ * after the file has been copied to [file].corrupt.
+ * The returned streams hold the file open and must be closed, e.g. with try-with-resources.
+ */
+public class MappedResultReader<T> {
+    static final int DEFAULT_WINDOW_SIZE = 32 * 1024 * 1024; // Bytes mapped at a time
+
+    private static final MembershipLevel[] LEVELS = MembershipLevel.values();
+    private static final ActivityType[] ACTIVITIES = ActivityType.values();
+    private static final byte[][] LEVEL_NAMES = enumNames(LEVELS);
+    private static final byte[][] ACTIVITY_NAMES = enumNames(ACTIVITIES);
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final int windowSize;
+    private final RecordParser<T> parser;
+    private final String filePath;
+
+    private MappedByteBuffer window;  // The currently mapped part of the file
+    private long windowStart;         // File position of the first byte in the window
+    private int position;             // Read position inside the window
+
+    private final CRC32 crc = new CRC32(); // Checksum of the bytes read so far, compared with the trailer
+    private long checkedUpTo;              // File position up to which the bytes are in the checksum
+    private boolean trailerVerified;       // Set once the trailer has been read and matched
+
+    // Bounds of the line and field currently being parsed, as positions inside the window
+    private int lineEnd;
+    private int fieldStart;
+    private int fieldEnd;
+
+    /**
+     * Parses one record from the current line, using the field methods of the reader.
+     */
+    private interface RecordParser<T> {
+        /**
+         * @return The parsed record, or null if the record should be skipped (e.g. unknown member).
+         */
+        T parse(MappedResultReader<T> reader);
+    }
+
+    private MappedResultReader(Path path, int windowSize, RecordParser<T> parser) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.windowSize = windowSize;
+        this.parser = parser;
+        this.filePath = path.toString();
+        mapWindow(0);
+    }
+
+    // ---------------------------
+    // Streams
+    // ---------------------------
+
+    /**
+     * Streams the training results of a file. Results whose member cannot be found are skipped.
+     *
+     * @param path         Path to the training results file.
+     * @param memberLookup Finds a member by ID, e.g. memberRepository::findById.
+     * @return A lazy stream of training results that must be closed after use.
+     * @throws IOException If the file cannot be opened.
+     */
+    public static Stream<TrainingResults> streamTrainingResults(Path path, IntFunction<Member> memberLookup) throws IOException {
+        return streamTrainingResults(path, memberLookup, DEFAULT_WINDOW_SIZE);
+    }
+
+    static Stream<TrainingResults> streamTrainingResults(Path path, IntFunction<Member> memberLookup, int windowSize) throws IOException {
+        return stream(path, windowSize, reader -> {
+            Member member = memberLookup.apply(reader.intField());
+            MembershipLevel level = LEVELS[reader.enumField(LEVEL_NAMES)];
+            ActivityType activityType = ACTIVITIES[reader.enumField(ACTIVITY_NAMES)];
+            double time = reader.doubleField();
+            String date = reader.stringField();
+            return member != null ? new TrainingResults(member, level, activityType, time, date) : null;
+        });
+    }
+
+    /**
+     * Streams the competition results of a file. Results whose member cannot be found are skipped.
+     *
+     * @param path         Path to the competition results file.
+     * @param memberLookup Finds a member by ID, e.g. memberRepository::findById.
+     * @return A lazy stream of competition results that must be closed after use.
+     * @throws IOException If the file cannot be opened.
+     */
+    public static Stream<CompetitionResults> streamCompetitionResults(Path path, IntFunction<Member> memberLookup) throws IOException {
+        return streamCompetitionResults(path, memberLookup, DEFAULT_WINDOW_SIZE);
+    }
+
+    static Stream<CompetitionResults> streamCompetitionResults(Path path, IntFunction<Member> memberLookup, int windowSize) throws IOException {
+        return stream(path, windowSize, reader -> {
+            Member member = memberLookup.apply(reader.intField());
+            String event = reader.stringField();
+            ActivityType activityType = ACTIVITIES[reader.enumField(ACTIVITY_NAMES)];
+            int placement = reader.intField();
+            double time = reader.doubleField();
+            String date = reader.stringField();
+            MembershipLevel level = LEVELS[reader.enumField(LEVEL_NAMES)];
+            return member != null ? new CompetitionResults(member, level, event, placement, time, date, activityType) : null;
+        });
+    }
+
+    private static <T> Stream<T> stream(Path path, int windowSize, RecordParser<T> parser) throws IOException {
+        if (!Files.exists(path)) {
+            return Stream.empty();
+        }
+        MappedResultReader<T> reader = new MappedResultReader<>(path, windowSize, parser);
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                T record = reader.next();
+                if (record == null) {
+                    return false;
+                }
+                action.accept(record);
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(reader::close);
+    }
+
+    // ---------------------------
+    // Line Handling
+    // ---------------------------
+
+    /**
+     * @return The next parsed record, or null at the end of the file.
+     */
+    private T next() {
+        while (nextLine()) {
+            int lineStart = position;
+            try {
+                fieldEnd = lineStart - 1; // The first field starts at the beginning of the line
+                T record = parser.parse(this);
+                if (record != null) {
+                    return record;
+                }
+            } catch (RuntimeException e) {
+                System.err.println("Skipping invalid result in " + filePath + " at byte " + (windowStart + lineStart) + ": " + e.getMessage());
+            } finally {
+                position = lineEnd + 1; // Continue after the line break
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the next non-empty line starting at the current position and sets lineEnd.
+     * Remaps the window when the line continues past the end of it.
+     *
+     * @return false at the end of the file.
+     */
+    private boolean nextLine() {
+        while (true) {
+            int limit = window.limit();
+            while (position < limit && isLineBreak(window.get(position))) {
+                position++; // Skip empty lines and the \n of \r\n
+            }
+            if (position >= limit) {
+                if (windowStart + limit >= fileSize) {
+                    if (fileSize > 0 && !trailerVerified) {
+                        throw corrupt("No checksum trailer in " + filePath + ", the file may be truncated.");
+                    }
+                    return false;
+                }
+                mapWindow(windowStart + position);
+                continue;
+            }
+
+            int end = position;
+            while (end < limit && !isLineBreak(window.get(end))) {
+                end++;
+            }
+            if (end == limit && windowStart + limit < fileSize) {
+                if (position == 0) {
+                    throw new UncheckedIOException(new IOException("Line longer than " + windowSize + " bytes in " + filePath));
+                }
+                mapWindow(windowStart + position); // The line is cut by the window, map again from its start
+                continue;
+            }
+            if (isChecksumTrailer(position, end)) {
+                verifyChecksum(position, end);
+                position = end;
+                continue;
+            }
+            lineEnd = end;
+            return true;
+        }
+    }
+
+    private boolean isChecksumTrailer(int start, int end) {
+        byte[] prefix = DurableFile.CHECKSUM_PREFIX.getBytes(StandardCharsets.US_ASCII);
+        if (end - start < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (window.get(start + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void verifyChecksum(int trailerStart, int trailerEnd) {
+        updateChecksum(windowStart + trailerStart);
+        byte[] trailer = new byte[trailerEnd - trailerStart];
+        window.get(trailerStart, trailer);
+        if (!new String(trailer, StandardCharsets.US_ASCII).equals(DurableFile.checksumLine(crc.getValue()))) {
+            throw corrupt("Checksum mismatch in " + filePath + ", the file may be damaged.");
+        }
+        trailerVerified = true;
+    }
+
+    /**
+     * Copies the damaged file to [file].corrupt, like {@link DurableFile#newVerifiedReader}, so the results that
+     * could not be loaded survive the next save.
+     *
+     * @return The exception that ends the stream.
+     */
+    private UncheckedIOException corrupt(String message) {
+        DurableFile.CorruptFileException e = new DurableFile.CorruptFileException(message);
+        try {
+            DurableFile.quarantine(Path.of(filePath));
+        } catch (IOException copyError) {
+            e.addSuppressed(copyError);
+        }
+        return new UncheckedIOException(e);
+    }
+
+    /**
+     * Adds the bytes from the last checked position up to the given file position to the checksum.
+     * The bytes must still be inside the current window.
+     */
+    private void updateChecksum(long filePosition) {
+        ByteBuffer bytes = window.duplicate();
+        bytes.limit((int) (filePosition - windowStart));
+        bytes.position((int) (checkedUpTo - windowStart));
+        crc.update(bytes);
+        checkedUpTo = filePosition;
+    }
+
+    private static boolean isLineBreak(byte b) {
+        return b == '\n' || b == '\r';
+    }
+
+    private void mapWindow(long start) {
+        if (window != null) {
+            updateChecksum(start); // The bytes before the new window are not mapped anymore afterwards
+        }
+        try {
+            long size = Math.min(windowSize, fileSize - start);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+            windowStart = start;
+            position = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Error closing " + filePath + ": " + e.getMessage());
+        }
+    }
+
+    // ---------------------------
+    // Field Parsing
+    // ---------------------------
+
+    /**
+     * Moves to the next semicolon-separated field of the current line.
+     */
+    private void nextField() {
+        if (fieldEnd >= lineEnd) {
+            throw new IllegalArgumentException("missing field");
+        }
+        fieldStart = fieldEnd + 1;
+        int end = fieldStart;
+        while (end < lineEnd && window.get(end) != ';') {
+            end++;
+        }
+        fieldEnd = end;
+    }
+
+    private int intField() {
+        nextField();
+        int i = fieldStart;
+        boolean negative = i < fieldEnd && window.get(i) == '-';
+        if (negative) {
+            i++;
+        }
+        if (i >= fieldEnd) {
+            throw new IllegalArgumentException("empty number");
+        }
+        long value = 0;
+        for (; i < fieldEnd; i++) {
+            int digit = window.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IllegalArgumentException("invalid number '" + fieldText() + "'");
+            }
+            value = value * 10 + digit;
+            if (value > Integer.MAX_VALUE + 1L) {
+                throw new IllegalArgumentException("number out of range '" + fieldText() + "'");
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("number out of range '" + fieldText() + "'");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parses plain decimals such as 19.0 or 61.25 without creating a String.
+     * The digits are read into an exact long and divided once by an exact power of ten, which gives the same
+     * correctly rounded result as Double.parseDouble. Anything else (exponents, very long values) falls back to it.
+     */
+    private double doubleField() {
+        nextField();
+        long digits = 0;
+        int digitCount = 0;
+        int decimals = -1; // -1 until the decimal point is seen
+        int i = fieldStart;
+        boolean negative = i < fieldEnd && window.get(i) == '-';
+        if (negative) {
+            i++;
+        }
+        for (; i < fieldEnd; i++) {
+            byte b = window.get(i);
+            if (b == '.' && decimals < 0) {
+                decimals = 0;
+            } else if (b >= '0' && b <= '9' && digitCount < 15) {
+                digits = digits * 10 + (b - '0');
+                digitCount++;
+                if (decimals >= 0) {
+                    decimals++;
+                }
+            } else {
+                return Double.parseDouble(fieldText()); // Not a plain short decimal
+            }
+        }
+        if (digitCount == 0) {
+            throw new IllegalArgumentException("empty number");
+        }
+        double value = decimals > 0 ? digits / POWERS_OF_TEN[decimals] : digits;
+        return negative ? -value : value;
+    }
+
+    /**
+     * Matches the field against enum names without case sensitivity.
+     *
+     * @return The ordinal of the matching constant.
+     */
+    private int enumField(byte[][] names) {
+        nextField();
+        int start = fieldStart;
+        int end = fieldEnd;
+        while (start < end && window.get(start) == ' ') {
+            start++;
+        }
+        while (end > start && window.get(end - 1) == ' ') {
+            end--;
+        }
+        int length = end - start;
+        for (int ordinal = 0; ordinal < names.length; ordinal++) {
+            byte[] name = names[ordinal];
+            if (name.length != length) {
+                continue;
+            }
+            int i = 0;
+            while (i < length && toUpperAscii(window.get(start + i)) == name[i]) {
+                i++;
+            }
+            if (i == length) {
+                return ordinal;
+            }
+        }
+        throw new IllegalArgumentException("unknown value '" + fieldText() + "'");
+    }
+
+    private static byte toUpperAscii(byte b) {
+        return (b >= 'a' && b <= 'z') ? (byte) (b - ('a' - 'A')) : b;
+    }
+
+    private String stringField() {
+        nextField();
+        return fieldText();
+    }
+
+    private String fieldText() {
+        byte[] bytes = new byte[fieldEnd - fieldStart];
+        window.get(fieldStart, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[][] enumNames(Enum<?>[] values) {
+        byte[][] names = new byte[values.length][];
+        for (Enum<?> value : values) {
+            names[value.ordinal()] = value.name().getBytes(StandardCharsets.US_ASCII);
+        }
+        return names;
+    }
+}
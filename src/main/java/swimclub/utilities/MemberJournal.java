@@ -0,0 +1,226 @@
+package swimclub.utilities;
+
+import swimclub.models.Member;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MemberJournal is an append-only log of member mutations.
+ * Instead of rewriting the whole member file on every change, each save or delete is appended
+ * to the journal as a single line. The journal is folded back into the member file when it is compacted.
+ *
+ * Record format (one per line):
+ *   PUT;[member line in the members.dat format]
+ *   DEL;[member id]
+ *
+ * The journal file is kept open once written to, and every append is forced to disk according to
+ * the fsync policy of {@link DurableFile}, so a saved member survives a crash like the other data files.
+ */
+public class MemberJournal {
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 1000; // Records before the journal is compacted
+
+    private static final String PUT = "PUT";
+    private static final String DELETE = "DEL";
+
+    private final FileHandler fileHandler;
+    private final String journalFilePath;
+    private final int compactionThreshold;
+    private int recordCount; // Records currently in the journal file
+    private FileChannel channel; // Opened on the first append and kept open
+
+    /**
+     * Constructor for MemberJournal using the default compaction threshold.
+     *
+     * @param fileHandler     The file handler used to format, parse and save members.
+     * @param journalFilePath Path to the journal file.
+     */
+    public MemberJournal(FileHandler fileHandler, String journalFilePath) {
+        this(fileHandler, journalFilePath, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Constructor for MemberJournal.
+     *
+     * @param fileHandler         The file handler used to format, parse and save members.
+     * @param journalFilePath     Path to the journal file.
+     * @param compactionThreshold Number of records after which the journal should be compacted.
+     */
+    public MemberJournal(FileHandler fileHandler, String journalFilePath, int compactionThreshold) {
+        this.fileHandler = fileHandler;
+        this.journalFilePath = journalFilePath;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    // ---------------------------
+    // Writing Records
+    // ---------------------------
+
+    /**
+     * Appends a save (insert or update) of a member to the journal.
+     *
+     * @param member The member that was saved.
+     */
+    public void recordSave(Member member) {
+        append(List.of(PUT + ";" + fileHandler.formatMember(member)));
+    }
+
+    /**
+     * Appends saves of several members to the journal in one write, e.g. after a bulk import.
+     *
+     * @param members The members that were saved.
+     */
+    public void recordSaves(List<Member> members) {
+        List<String> records = new ArrayList<>(members.size());
+        for (Member member : members) {
+            records.add(PUT + ";" + fileHandler.formatMember(member));
+        }
+        append(records);
+    }
+
+    /**
+     * Appends the deletion of a member to the journal.
+     *
+     * @param memberId The ID of the deleted member.
+     */
+    public void recordDelete(int memberId) {
+        append(List.of(DELETE + ";" + memberId));
+    }
+
+    /**
+     * Appends records in one write and forces them to disk once, however many there are.
+     */
+    private void append(List<String> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        StringBuilder content = new StringBuilder();
+        for (String record : records) {
+            content.append(record).append(System.lineSeparator());
+        }
+        try {
+            FileChannel journalChannel = openChannel();
+            ByteBuffer buffer = ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                journalChannel.write(buffer);
+            }
+            DurableFile.force(journalChannel);
+            recordCount += records.size();
+        } catch (IOException e) {
+            System.err.println("Error writing member journal: " + e.getMessage());
+        }
+    }
+
+    private FileChannel openChannel() throws IOException {
+        if (channel == null || !channel.isOpen()) {
+            channel = FileChannel.open(Path.of(journalFilePath),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        return channel;
+    }
+
+    // ---------------------------
+    // Replay and Compaction
+    // ---------------------------
+
+    /**
+     * Applies the journal on top of a member snapshot loaded from the member file.
+     * Replaying is idempotent, so a journal that survived a crash during compaction can safely be replayed again.
+     *
+     * @param snapshot Members loaded from the member file.
+     * @return A new list with all journal records applied, in member file order.
+     */
+    public List<Member> replay(List<Member> snapshot) {
+        Map<Integer, Member> membersById = new LinkedHashMap<>();
+        for (Member member : snapshot) {
+            membersById.put(member.getMemberId(), member);
+        }
+
+        recordCount = 0;
+        File journalFile = new File(journalFilePath);
+        if (!journalFile.exists()) {
+            return new ArrayList<>(membersById.values()); // Nothing to replay
+        }
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(journalFile))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                recordCount++;
+                applyRecord(line, membersById);
+            }
+        } catch (IOException e) {
+            System.err.println("Error replaying member journal: " + e.getMessage());
+        }
+        return new ArrayList<>(membersById.values());
+    }
+
+    private void applyRecord(String line, Map<Integer, Member> membersById) {
+        int separator = line.indexOf(';');
+        if (separator < 0) {
+            System.err.println("Skipping invalid journal record: " + line);
+            return;
+        }
+        String operation = line.substring(0, separator);
+        String payload = line.substring(separator + 1);
+
+        if (operation.equals(PUT)) {
+            Member member = fileHandler.parseMember(payload);
+            if (member != null) {
+                membersById.put(member.getMemberId(), member); // Replaces an existing member in place
+            }
+        } else if (operation.equals(DELETE)) {
+            try {
+                membersById.remove(Integer.parseInt(payload.trim()));
+            } catch (NumberFormatException e) {
+                System.err.println("Skipping invalid journal record: " + line);
+            }
+        } else {
+            System.err.println("Skipping unknown journal record: " + line);
+        }
+    }
+
+    /**
+     * @return true if enough records have been appended that the journal should be compacted.
+     */
+    public boolean needsCompaction() {
+        return recordCount >= compactionThreshold;
+    }
+
+    /**
+     * @return true if the journal contains records that are not yet in the member file.
+     */
+    public boolean hasRecords() {
+        return recordCount > 0;
+    }
+
+    /**
+     * Writes the given members to the member file and truncates the journal.
+     * The journal is only truncated once the member file has been written successfully.
+     *
+     * @param members The complete, current list of members.
+     */
+    public void compact(List<Member> members) {
+        if (!fileHandler.saveMembers(members)) {
+            System.err.println("Member journal not compacted, members.dat could not be written.");
+            return;
+        }
+        try {
+            openChannel().truncate(0);
+            DurableFile.force(channel);
+            recordCount = 0;
+        } catch (IOException e) {
+            System.err.println("Error truncating member journal: " + e.getMessage());
+        }
+    }
+}
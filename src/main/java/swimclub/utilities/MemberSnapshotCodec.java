@@ -0,0 +1,213 @@
+package swimclub.utilities;
+
+import swimclub.models.*;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * MemberSnapshotCodec reads and writes members in a compact, versioned binary format.
+ * Loading a snapshot avoids splitting text lines, parsing numbers and looking up enums by name,
+ * and skips validation since every member was validated before it was written.
+ *
+ * File layout (big-endian):
+ *   header: int magic, short version, int member count
+ *   member: int id, int age, int zipcode, int phone number,
+ *           byte level, byte category, byte status, byte activity, byte payment status (enum ordinals),
+ *           name, email, city, street, region, team name (unsigned short length + UTF-8 bytes each)
+ *   trailer: int CRC32 of all bytes before it
+ *
+ * Enums are stored by ordinal, so reordering an enum requires a new VERSION. The snapshot is only a faster copy of
+ * the member file, so a snapshot whose checksum does not match is rejected and the member file is loaded instead.
+ */
+public class MemberSnapshotCodec {
+    public static final int MAGIC = 0x53574D53; // "SWMS"
+    public static final short VERSION = 2; // Version 2 added the checksum trailer
+
+    private static final int HEADER_SIZE = 4 + 2 + 4;
+    private static final int CHECKSUM_SIZE = 4;
+    private static final int MIN_RECORD_SIZE = 4 * 4 + 5 + 6 * 2; // Fixed fields plus six empty strings
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+    private static final int MAX_STRING_BYTES = 0xFFFF; // Largest length an unsigned short prefix can hold
+
+    private static final MembershipLevel[] LEVELS = MembershipLevel.values();
+    private static final MembershipCategory[] CATEGORIES = MembershipCategory.values();
+    private static final MembershipStatus[] STATUSES = MembershipStatus.values();
+    private static final ActivityType[] ACTIVITIES = ActivityType.values();
+    private static final PaymentStatus[] PAYMENT_STATUSES = PaymentStatus.values();
+
+    private MemberSnapshotCodec() {
+        // Utility class, not meant to be instantiated
+    }
+
+    // ---------------------------
+    // Writing
+    // ---------------------------
+
+    /**
+     * Writes members to a snapshot file, atomically replacing any existing file.
+     *
+     * @param members The members to write.
+     * @param path    Path to the snapshot file.
+     * @throws IOException If the file cannot be written or a text field is too long for the format.
+     */
+    public static void write(List<Member> members, Path path) throws IOException {
+        DurableFile.replace(path, channel -> writeTo(members, channel));
+    }
+
+    private static void writeTo(List<Member> members, FileChannel channel) throws IOException {
+        CRC32 crc = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+        buffer.putInt(MAGIC).putShort(VERSION).putInt(members.size());
+
+        for (Member member : members) {
+            byte[][] strings = {
+                    utf8(member.getName()), utf8(member.getEmail()), utf8(member.getCity()),
+                    utf8(member.getStreet()), utf8(member.getRegion()), utf8(member.getTeamName())
+            };
+            int recordSize = MIN_RECORD_SIZE;
+            for (byte[] string : strings) {
+                recordSize += string.length;
+            }
+            if (recordSize > buffer.remaining()) {
+                drain(channel, buffer, crc);
+                if (recordSize > buffer.capacity()) {
+                    buffer = ByteBuffer.allocateDirect(recordSize); // Oversized record, only happens with very long text fields
+                }
+            }
+
+            buffer.putInt(member.getMemberId())
+                    .putInt(member.getAge())
+                    .putInt(member.getZipcode())
+                    .putInt(member.getPhoneNumber())
+                    .put((byte) member.getMembershipType().getLevel().ordinal())
+                    .put((byte) member.getMembershipType().getCategory().ordinal())
+                    .put((byte) member.getMembershipStatus().ordinal())
+                    .put((byte) member.getActivityType().ordinal())
+                    .put((byte) member.getPaymentStatus().ordinal());
+            for (byte[] string : strings) {
+                buffer.putShort((short) string.length).put(string);
+            }
+        }
+        drain(channel, buffer, crc);
+        buffer.putInt((int) crc.getValue());
+        drain(channel, buffer, null);
+    }
+
+    private static byte[] utf8(String value) throws IOException {
+        byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_BYTES) {
+            throw new IOException("Text field too long for member snapshot: " + bytes.length + " bytes");
+        }
+        return bytes;
+    }
+
+    /**
+     * Writes the buffered bytes to the channel and adds them to the checksum, unless crc is null.
+     */
+    private static void drain(FileChannel channel, ByteBuffer buffer, CRC32 crc) throws IOException {
+        buffer.flip();
+        if (crc != null) {
+            crc.update(buffer.duplicate());
+        }
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // ---------------------------
+    // Reading
+    // ---------------------------
+
+    /**
+     * Reads all members from a snapshot file.
+     *
+     * @param path Path to the snapshot file.
+     * @return The members in the order they were written.
+     * @throws DurableFile.CorruptFileException If the checksum does not match the content.
+     * @throws IOException If the file cannot be read, is not a member snapshot or is truncated.
+     */
+    public static List<Member> read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE + CHECKSUM_SIZE) {
+                throw new IOException("Member snapshot is too small to contain a header: " + path);
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Member snapshot is larger than 2 GB: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int contentSize = (int) size - CHECKSUM_SIZE;
+
+            int magic = buffer.getInt();
+            short version = buffer.getShort();
+            if (magic != MAGIC) {
+                throw new IOException("Not a member snapshot: " + path);
+            }
+            if (version != VERSION) {
+                throw new IOException("Unsupported member snapshot version " + version + ": " + path);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().position(0).limit(contentSize));
+            if ((int) crc.getValue() != buffer.getInt(contentSize)) {
+                throw new DurableFile.CorruptFileException("Checksum mismatch in member snapshot " + path + ", the file may be damaged.");
+            }
+            buffer.limit(contentSize); // Records must not run into the trailer
+
+            int count = buffer.getInt();
+            if (count < 0 || count > (contentSize - HEADER_SIZE) / MIN_RECORD_SIZE) {
+                throw new IOException("Member snapshot has an invalid member count " + count + ": " + path);
+            }
+            List<Member> members = new ArrayList<>(count);
+            byte[] scratch = new byte[256]; // Reused for decoding strings, grows when a longer string is read
+            try {
+                for (int i = 0; i < count; i++) {
+                    int id = buffer.getInt();
+                    int age = buffer.getInt();
+                    int zipcode = buffer.getInt();
+                    int phoneNumber = buffer.getInt();
+                    MembershipLevel level = LEVELS[buffer.get()];
+                    MembershipCategory category = CATEGORIES[buffer.get()];
+                    MembershipStatus status = STATUSES[buffer.get()];
+                    ActivityType activity = ACTIVITIES[buffer.get()];
+                    PaymentStatus paymentStatus = PAYMENT_STATUSES[buffer.get()];
+
+                    String[] strings = new String[6];
+                    for (int s = 0; s < strings.length; s++) {
+                        int length = Short.toUnsignedInt(buffer.getShort());
+                        if (length > scratch.length) {
+                            scratch = new byte[Math.max(length, scratch.length * 2)];
+                        }
+                        buffer.get(scratch, 0, length);
+                        strings[s] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+                    }
+
+                    MembershipType membershipType = new MembershipType(category, level);
+                    if (level == MembershipLevel.JUNIOR) {
+                        members.add(new JuniorMember(String.valueOf(id), strings[0], strings[1], strings[2], strings[3],
+                                strings[4], zipcode, membershipType, status, activity, paymentStatus, age, phoneNumber, strings[5]));
+                    } else {
+                        members.add(new SeniorMember(String.valueOf(id), strings[0], strings[1], strings[2], strings[3],
+                                strings[4], zipcode, membershipType, status, activity, paymentStatus, age, phoneNumber, strings[5]));
+                    }
+                }
+            } catch (BufferUnderflowException | ArrayIndexOutOfBoundsException e) {
+                throw new IOException("Member snapshot is truncated or corrupt: " + path, e);
+            }
+            if (buffer.position() != contentSize) {
+                throw new IOException("Member snapshot has data after the last member: " + path);
+            }
+            return members;
+        }
+    }
+}
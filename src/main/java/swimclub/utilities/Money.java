@@ -0,0 +1,130 @@
+package swimclub.utilities;
+
+/**
+ * Money holds amounts of DKK as a primitive long number of øre (cents), so sums of payments and fees are exact
+ * for any number of members and adding them up allocates nothing.
+ *
+ * The methods convert between cents and the decimal text used in the data files ("1600", "1600.0", "1600.00"),
+ * without going through double, and do the little arithmetic fees need. Amounts are only turned into double
+ * at the edges, for the console and older callers.
+ */
+public class Money {
+    public static final long CENTS_PER_KRONE = 100;
+
+    private Money() {
+        // Utility class, not meant to be instantiated
+    }
+
+    // ---------------------------
+    // Conversion
+    // ---------------------------
+
+    /**
+     * Parses a decimal amount, e.g. "1600", "1600.0" or "-12.50". Digits past the second decimal are rounded
+     * half up, so amounts written as doubles, e.g. "1333.3333333333333", are read as the nearest cent.
+     *
+     * @param text The amount in DKK.
+     * @return The amount in cents.
+     * @throws NumberFormatException If the text is not a decimal number or does not fit in a long.
+     */
+    public static long parse(String text) {
+        int length = text.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            i++;
+        }
+
+        long cents = 0;
+        int decimals = -1; // Digits read after the point, -1 before the point
+        boolean roundUp = false;
+        boolean digits = false;
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '.' && decimals < 0) {
+                decimals = 0;
+            } else if (c >= '0' && c <= '9') {
+                digits = true;
+                if (decimals < 2) {
+                    cents = Math.addExact(Math.multiplyExact(cents, 10), c - '0');
+                    if (decimals >= 0) {
+                        decimals++;
+                    }
+                } else if (decimals == 2) {
+                    roundUp = c >= '5'; // Only the third decimal decides the rounding
+                    decimals++;
+                }
+            } else {
+                throw new NumberFormatException("Invalid amount: \"" + text + "\"");
+            }
+        }
+        if (!digits) {
+            throw new NumberFormatException("Invalid amount: \"" + text + "\"");
+        }
+        for (int missing = Math.max(decimals, 0); missing < 2; missing++) {
+            cents = Math.multiplyExact(cents, 10); // "1600" and "1600.5" still need their cents
+        }
+        if (roundUp) {
+            cents = Math.addExact(cents, 1);
+        }
+        return negative ? -cents : cents;
+    }
+
+    /**
+     * Formats an amount with two decimals, e.g. 160000 as "1600.00".
+     *
+     * @param cents The amount in cents.
+     * @return The amount in DKK.
+     */
+    public static String format(long cents) {
+        long whole = Math.abs(cents / CENTS_PER_KRONE);
+        long fraction = Math.abs(cents % CENTS_PER_KRONE);
+        return (cents < 0 ? "-" : "") + whole + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+
+    /**
+     * Converts an amount given as a double, e.g. typed in on the console, rounding to the nearest cent.
+     *
+     * @param amount The amount in DKK.
+     * @return The amount in cents.
+     */
+    public static long ofDouble(double amount) {
+        return Math.round(amount * CENTS_PER_KRONE);
+    }
+
+    /**
+     * @param cents The amount in cents.
+     * @return The amount in DKK as a double, for display and older callers.
+     */
+    public static double toDouble(long cents) {
+        return cents / (double) CENTS_PER_KRONE;
+    }
+
+    // ---------------------------
+    // Arithmetic
+    // ---------------------------
+
+    /**
+     * Calculates a percentage of an amount, rounded half up to the cent, e.g. the 75% senior discount rate.
+     *
+     * @param cents   The amount in cents.
+     * @param percent The percentage.
+     * @return The percentage of the amount in cents.
+     */
+    public static long percentOf(long cents, int percent) {
+        return Math.floorDiv(Math.multiplyExact(cents, percent) + 50, 100);
+    }
+
+    /**
+     * Multiplies an amount by a count, e.g. a fee by the number of members paying it.
+     *
+     * @param cents The amount in cents.
+     * @param count The count.
+     * @return The total in cents.
+     * @throws ArithmeticException If the total does not fit in a long.
+     */
+    public static long times(long cents, long count) {
+        return Math.multiplyExact(cents, count);
+    }
+}
@@ -0,0 +1,127 @@
+package swimclub.utilities;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * SequenceAllocator hands out increasing IDs for one kind of record, such as members, payments or coaches.
+ * Allocation takes constant time instead of scanning the records for the highest ID, and is safe when several
+ * threads register records at once. Bulk inserts can reserve a block of consecutive IDs in one step.
+ *
+ * The repositories seed the sequence with the IDs they load, so it never hands out an ID that is already in use.
+ * A sequence with a file also makes sure IDs of records that were deleted again are not reused after a restart.
+ * Instead of the last ID it stores a high-water mark {@link #BLOCK_SIZE} IDs ahead, and only writes the file
+ * again when the IDs up to the mark are used up, so most allocations don't touch the disk. After a restart the
+ * sequence continues after the mark, skipping the IDs that were not handed out yet; a lost write is repaired by
+ * the seeding on the next startup, as long as the records themselves were saved.
+ */
+public class SequenceAllocator {
+    static final int BLOCK_SIZE = 1000; // IDs reserved in the file ahead of the last handed out ID
+
+    private final String filePath;    // Null keeps the sequence in memory only
+    private final String description; // What the IDs are for, used in error messages
+    private int lastId;               // The highest ID handed out or seen in the data, 0 for none
+    private int reservedUpTo;         // The high-water mark stored in the file, 0 without a file
+
+    /**
+     * Creates a sequence that is kept in memory only and starts again from the loaded data on every startup.
+     */
+    public SequenceAllocator() {
+        this.filePath = null;
+        this.description = "IDs";
+    }
+
+    /**
+     * Creates a sequence that is persisted to a file and continues after the high-water mark stored there.
+     *
+     * @param filePath    The file that stores the high-water mark.
+     * @param description What the IDs are for, e.g. "member IDs", used in error messages.
+     */
+    public SequenceAllocator(String filePath, String description) {
+        this.filePath = filePath;
+        this.description = description;
+        this.reservedUpTo = loadReservedUpTo();
+        this.lastId = reservedUpTo;
+    }
+
+    // ===========================
+    // Allocation
+    // ===========================
+
+    /**
+     * Hands out the next ID.
+     *
+     * @return An ID that has not been handed out or seen before.
+     */
+    public synchronized int next() {
+        return reserve(1);
+    }
+
+    /**
+     * Reserves a block of consecutive IDs, e.g. for a bulk import.
+     *
+     * @param count The number of IDs to reserve.
+     * @return The first ID of the block; the block runs up to (first + count - 1).
+     * @throws IllegalArgumentException If the count is not positive.
+     * @throws IllegalStateException    If the sequence would run past the highest possible ID.
+     */
+    public synchronized int reserve(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Count must be positive: " + count);
+        }
+        if (lastId > Integer.MAX_VALUE - count) {
+            throw new IllegalStateException("No more " + description + " available after " + lastId + ".");
+        }
+        int first = lastId + 1;
+        lastId += count;
+        if (filePath != null && lastId > reservedUpTo) {
+            reservedUpTo = (int) Math.min((long) lastId + BLOCK_SIZE, Integer.MAX_VALUE);
+            saveReservedUpTo();
+        }
+        return first;
+    }
+
+    /**
+     * Records an ID that is in use, so it is never handed out. Called for every loaded or saved record.
+     * Not persisted: the records are seen again on the next startup.
+     *
+     * @param usedId The ID in use.
+     */
+    public synchronized void advancePast(int usedId) {
+        if (usedId > lastId) {
+            lastId = usedId;
+        }
+    }
+
+    /**
+     * @return The ID the next call to {@link #next()} hands out, without allocating it.
+     */
+    public synchronized int peek() {
+        return lastId + 1;
+    }
+
+    // ===========================
+    // File Handling
+    // ===========================
+
+    /**
+     * @return The high-water mark stored in the file, or 0 if there is no file or it cannot be read.
+     */
+    private int loadReservedUpTo() {
+        try (BufferedReader reader = DurableFile.newVerifiedReader(filePath)) {
+            String line = reader.readLine();
+            return line == null ? 0 : Integer.parseInt(line.trim());
+        } catch (FileNotFoundException e) {
+            return 0; // First start, the sequence is seeded from the data
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Error loading " + description + " from " + filePath + ": " + e.getMessage());
+            return 0;
+        }
+    }
+
+    private void saveReservedUpTo() {
+        DurableFile.writeLines(filePath, List.of(String.valueOf(reservedUpTo)), description);
+    }
+}
@@ -0,0 +1,105 @@
+package swimclub.utilities;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * StartupLoader runs the data file loads at startup on a bounded thread pool.
+ * Each load is registered with the loads it depends on, so independent files (e.g. members and staff)
+ * are read at the same time while dependent files (e.g. payments, which need the members) wait for them.
+ * The time each load takes is recorded and can be printed once everything is loaded.
+ */
+public class StartupLoader {
+    private final ExecutorService executor;
+    private final List<CompletableFuture<?>> loads = new ArrayList<>();
+    private final Map<String, Long> loadTimes = new LinkedHashMap<>(); // Load name -> milliseconds, in registration order
+    private final long startTime = System.nanoTime();
+
+    /**
+     * Constructor for StartupLoader.
+     *
+     * @param threads The maximum number of files loaded at the same time.
+     */
+    public StartupLoader(int threads) {
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "startup-loader");
+            thread.setDaemon(true); // Never keep the program alive if a load hangs
+            return thread;
+        });
+    }
+
+    /**
+     * Registers a load that produces a value, e.g. a repository that reads its file in the constructor.
+     *
+     * @param name         Name used in the load timings.
+     * @param loader       The load to run.
+     * @param dependencies Loads that must finish before this one starts.
+     * @return A future holding the loaded value.
+     */
+    public <T> CompletableFuture<T> load(String name, Supplier<T> loader, CompletableFuture<?>... dependencies) {
+        synchronized (loadTimes) {
+            loadTimes.put(name, null); // Reserve the slot so timings print in registration order
+        }
+        CompletableFuture<T> load = CompletableFuture.allOf(dependencies)
+                .thenApplyAsync(ignored -> timed(name, loader), executor);
+        loads.add(load);
+        return load;
+    }
+
+    private <T> T timed(String name, Supplier<T> loader) {
+        long start = System.nanoTime();
+        T result = loader.get();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        synchronized (loadTimes) {
+            loadTimes.put(name, elapsedMillis);
+        }
+        return result;
+    }
+
+    /**
+     * Waits for all registered loads to finish and shuts the thread pool down.
+     *
+     * @throws RuntimeException The first exception thrown by a load.
+     */
+    public void awaitAll() {
+        try {
+            CompletableFuture.allOf(loads.toArray(CompletableFuture<?>[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause; // Rethrow the load's own exception instead of the wrapper
+            }
+            throw e;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Prints how long each load took and the total wall-clock time of the startup.
+     */
+    public void printLoadTimes() {
+        long totalMillis = (System.nanoTime() - startTime) / 1_000_000;
+        synchronized (loadTimes) {
+            System.out.println("--- Startup Load Times ---");
+            for (Map.Entry<String, Long> entry : loadTimes.entrySet()) {
+                String time = entry.getValue() != null ? entry.getValue() + " ms" : "not finished";
+                System.out.println(entry.getKey() + ": " + time);
+            }
+            System.out.println("Total: " + totalMillis + " ms");
+        }
+    }
+
+    /**
+     * @return The default pool size: one thread per core, capped at four since there are only a handful of files.
+     */
+    public static int defaultThreads() {
+        return Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    }
+}
@@ -0,0 +1,536 @@
+package swimclub.utilities;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * TrigramIndex is an inverted index from three-letter sequences (trigrams) to the IDs of the objects whose text
+ * fields contain them, used for partial and typo-tolerant search (e.g. members by name, email or street).
+ *
+ * Text is lowercased and split into words. Every word is indexed with two start markers in front of it, so
+ * "jensen" gives the trigrams "^^j", "^je", "jen", "ens", "nse", "sen". A query word of three letters or more
+ * matches any word containing it, a shorter query word matches words starting with it.
+ * Objects containing every trigram of the query are checked against their text and ranked by how well they match
+ * (whole word, start of a word, anywhere in a word). When that leaves room, objects missing no more of the query
+ * trigrams than one typo would explain are added after them, looking at a bounded number of candidates.
+ *
+ * Trigrams are coded as 18-bit numbers, so the posting lists sit in a plain array without hashing or boxing.
+ * Letters outside a-z, digits and the Nordic letters share codes; that only adds candidates, which the check
+ * against the text removes again.
+ *
+ * Like {@link BitmapIndex}, the owning repository calls add, remove, update and rebuild when its objects change.
+ * The index keeps the text it indexed for every ID, so an object whose fields were changed in place is still
+ * re-indexed correctly. The methods are synchronized, so searches may run while the repository is being changed.
+ *
+ * @param <V> The type of the indexed objects.
+ */
+public class TrigramIndex<V> {
+    public static final int DEFAULT_LIMIT = 25; // Results returned by a search unless a limit is given
+
+    private static final int CODE_BITS = 6;                // Bits per letter in a trigram code
+    private static final int START = 0;                    // Code of the start marker in front of every word
+    private static final double FUZZY_THRESHOLD = 0.5;     // Share of the query trigrams a typo match must contain
+    private static final int FUZZY_MISSING_TRIGRAMS = 3;   // One typo changes up to three trigrams
+    private static final int MAX_NEAR_CANDIDATES = 8192;   // IDs looked at per search when collecting near matches
+
+    // Scores of a query word, summed over the words of the query
+    private static final int WORD_MATCH = 3;
+    private static final int PREFIX_MATCH = 2;
+    private static final int SUBSTRING_MATCH = 1;
+
+    private final Postings[] postings = new Postings[1 << (3 * CODE_BITS)]; // Trigram code -> sorted IDs
+    private final ToIntFunction<V> idExtractor;
+    private final Function<V, List<String>> fieldsExtractor; // The searchable text of an object
+    private final IntFunction<V> lookup;                     // Finds the object of a matching ID
+    private String[] texts = new String[0];                   // Indexed words per ID, separated by spaces
+
+    /**
+     * Constructor for TrigramIndex.
+     *
+     * @param idExtractor     Function that returns the ID of an object, e.g. Member::getMemberId. IDs must not be negative.
+     * @param fieldsExtractor Function that returns the text fields to search, null fields are skipped.
+     * @param lookup          Function that finds an object by ID, or returns null if it no longer exists.
+     */
+    public TrigramIndex(ToIntFunction<V> idExtractor, Function<V, List<String>> fieldsExtractor, IntFunction<V> lookup) {
+        this.idExtractor = idExtractor;
+        this.fieldsExtractor = fieldsExtractor;
+        this.lookup = lookup;
+    }
+
+    // ---------------------------
+    // Maintenance
+    // ---------------------------
+
+    /**
+     * Indexes the text fields of an object, replacing what was indexed for its ID before.
+     *
+     * @param object The object to index.
+     */
+    public synchronized void add(V object) {
+        int id = idExtractor.applyAsInt(object);
+        String text = textOf(object);
+        if (id < texts.length && text.equals(texts[id])) {
+            return; // Unchanged
+        }
+        removeId(id);
+        if (id >= texts.length) {
+            texts = Arrays.copyOf(texts, Math.max(id + 1, texts.length * 2));
+        }
+        texts[id] = text;
+        forEachTrigram(text, trigram -> {
+            if (postings[trigram] == null) {
+                postings[trigram] = new Postings(4);
+            }
+            postings[trigram].add(id);
+        });
+    }
+
+    /**
+     * Removes an object from the index.
+     *
+     * @param object The object to remove.
+     */
+    public synchronized void remove(V object) {
+        removeId(idExtractor.applyAsInt(object));
+    }
+
+    /**
+     * Re-indexes an object after its text fields have changed.
+     *
+     * @param object The object, already carrying its new text.
+     */
+    public synchronized void update(V object) {
+        add(object);
+    }
+
+    /**
+     * Clears the index and indexes all given objects.
+     *
+     * @param objects The objects to index.
+     */
+    public synchronized void rebuild(Collection<? extends V> objects) {
+        Arrays.fill(postings, null);
+        texts = new String[0];
+
+        // First pass: store the texts and count the trigrams, so every posting list is allocated once
+        int[] sizes = new int[postings.length];
+        int[] ids = new int[objects.size()];
+        int count = 0;
+        for (V object : objects) {
+            int id = idExtractor.applyAsInt(object);
+            String text = textOf(object);
+            if (id >= texts.length) {
+                texts = Arrays.copyOf(texts, Math.max(id + 1, texts.length * 2));
+            }
+            if (texts[id] == null) {
+                ids[count++] = id;
+            }
+            texts[id] = text; // Of two objects with the same ID the last one wins, like add
+            forEachTrigram(text, trigram -> sizes[trigram]++);
+        }
+        for (int trigram = 0; trigram < postings.length; trigram++) {
+            if (sizes[trigram] > 0) {
+                postings[trigram] = new Postings(sizes[trigram]);
+            }
+        }
+
+        // Second pass: fill the lists in ID order, so every ID is appended
+        Arrays.sort(ids, 0, count);
+        for (int i = 0; i < count; i++) {
+            int id = ids[i];
+            forEachTrigram(texts[id], trigram -> postings[trigram].append(id));
+        }
+        for (int trigram = 0; trigram < postings.length; trigram++) {
+            if (postings[trigram] != null && postings[trigram].size == 0) {
+                postings[trigram] = null; // Only counted for a text that was replaced
+            }
+        }
+    }
+
+    private void removeId(int id) {
+        if (id >= texts.length || texts[id] == null) {
+            return;
+        }
+        forEachTrigram(texts[id], trigram -> {
+            Postings ids = postings[trigram];
+            if (ids != null && ids.remove(id) && ids.size == 0) {
+                postings[trigram] = null;
+            }
+        });
+        texts[id] = null;
+    }
+
+    // ---------------------------
+    // Searching
+    // ---------------------------
+
+    /**
+     * Searches the text fields for every word of the query, best matches first.
+     * Objects containing all query words come first, ranked by whole word over start of a word over anywhere,
+     * ties ordered by ID; then objects that only nearly match, in ID order.
+     *
+     * @param query The words to search for.
+     * @param limit The maximum number of results.
+     * @return The matching objects.
+     */
+    public synchronized List<V> search(String query, int limit) {
+        String[] words = words(query);
+        if (words.length == 0 || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        List<Scored> matches = exactMatches(words, limit);
+        List<V> results = new ArrayList<>(Math.min(limit, matches.size()));
+        addObjects(matches, results, limit);
+
+        // Near matches for the rest: objects sharing most of the trigrams, e.g. with a letter swapped or missing
+        if (results.size() < limit) {
+            Set<Integer> matchedIds = new HashSet<>();
+            for (Scored match : matches) {
+                matchedIds.add(match.id);
+            }
+            addObjects(nearMatches(words, matchedIds, limit - results.size()), results, limit);
+        }
+        return results;
+    }
+
+    /**
+     * Finds the objects containing every query word, walking the shortest posting list of the query trigrams.
+     * The IDs come in increasing order and ties are ranked by ID, so the walk stops as soon as the limit is
+     * filled with best possible matches.
+     */
+    private List<Scored> exactMatches(String[] words, int limit) {
+        int[] trigrams = queryTrigrams(words);
+        Postings[] lists = new Postings[trigrams.length];
+        for (int i = 0; i < trigrams.length; i++) {
+            lists[i] = postings[trigrams[i]];
+            if (lists[i] == null) {
+                return new ArrayList<>(); // A trigram nobody has
+            }
+        }
+        Arrays.sort(lists, Comparator.comparingInt(ids -> ids.size)); // Walk the shortest list, look up in the others
+
+        List<Scored> matches = new ArrayList<>();
+        int bestScore = WORD_MATCH * words.length;
+        int bestMatches = 0;
+        int[] cursors = new int[lists.length]; // Lower bound per list, the walked IDs only increase
+        Postings shortest = lists[0];
+        for (int i = 0; i < shortest.size && bestMatches < limit; i++) {
+            int id = shortest.ids[i];
+            boolean inAll = true;
+            for (int j = 1; j < lists.length && inAll; j++) {
+                cursors[j] = lists[j].seek(cursors[j], id);
+                inAll = lists[j].has(cursors[j], id);
+            }
+            int score = inAll ? score(words, texts[id]) : 0;
+            if (score > 0) {
+                matches.add(new Scored(id, score));
+                if (score == bestScore) {
+                    bestMatches++;
+                }
+            }
+        }
+        matches.sort(Scored.BEST_FIRST);
+        return matches;
+    }
+
+    /**
+     * Finds objects missing at most one typo's worth of the query trigrams, and sharing at least
+     * {@link #FUZZY_THRESHOLD} of them, in ID order.
+     * An object missing at most m trigrams must be in at least one of the m + 1 rarest posting lists, so only those
+     * lists are merged, and each ID found there is looked up in the other lists. The merge runs in ID order and
+     * stops when the limit is filled or after {@link #MAX_NEAR_CANDIDATES} IDs. Near matches are suggestions, so
+     * a query whose rarest trigrams are still common (e.g. digits of an email) may miss some of them, but never
+     * spends more than a bounded walk on them.
+     */
+    private List<Scored> nearMatches(String[] words, Set<Integer> exclude, int limit) {
+        Set<Integer> distinct = new HashSet<>();
+        for (String word : words) {
+            forEachTrigram(word, distinct::add); // Include the start trigrams, a typo rarely hits the first letter
+            distinct.remove(code(word.charAt(0))); // Except the first letter alone, too common to count
+        }
+        int required = Math.max(2, Math.max((int) Math.ceil(distinct.size() * FUZZY_THRESHOLD),
+                distinct.size() - FUZZY_MISSING_TRIGRAMS));
+        if (distinct.size() < required) {
+            return List.of(); // Too short to tell a typo from a different word
+        }
+        Postings[] lists = new Postings[distinct.size()];
+        int index = 0;
+        for (int trigram : distinct) {
+            lists[index++] = postings[trigram] != null ? postings[trigram] : Postings.EMPTY;
+        }
+        Arrays.sort(lists, Comparator.comparingInt(ids -> ids.size));
+        int rareLists = lists.length - required + 1;
+
+        List<Scored> matches = new ArrayList<>();
+        int[] cursors = new int[lists.length];
+        for (int candidates = 0; matches.size() < limit && candidates < MAX_NEAR_CANDIDATES; candidates++) {
+            // Next ID in the rare lists, and how many of them contain it
+            int id = Integer.MAX_VALUE;
+            for (int j = 0; j < rareLists; j++) {
+                if (cursors[j] < lists[j].size) {
+                    id = Math.min(id, lists[j].ids[cursors[j]]);
+                }
+            }
+            if (id == Integer.MAX_VALUE) {
+                break; // All rare lists walked
+            }
+            int hits = 0;
+            for (int j = 0; j < rareLists; j++) {
+                if (cursors[j] < lists[j].size && lists[j].ids[cursors[j]] == id) {
+                    hits++;
+                    cursors[j]++;
+                }
+            }
+            // Complete the count from the common lists
+            for (int j = rareLists; j < lists.length && hits + (lists.length - j) >= required; j++) {
+                cursors[j] = lists[j].seek(cursors[j], id);
+                if (lists[j].has(cursors[j], id)) {
+                    hits++;
+                }
+            }
+            if (hits >= required && !exclude.contains(id)) {
+                matches.add(new Scored(id, hits));
+            }
+        }
+        return matches;
+    }
+
+    private void addObjects(List<Scored> matches, List<V> results, int limit) {
+        for (int i = 0; i < matches.size() && results.size() < limit; i++) {
+            V object = lookup.apply(matches.get(i).id); // Only the returned matches are looked up
+            if (object != null) {
+                results.add(object);
+            }
+        }
+    }
+
+    /**
+     * Scores how well the indexed text of an object matches the query words.
+     *
+     * @return The summed score of the query words, or 0 if any query word is missing.
+     */
+    private static int score(String[] queryWords, String text) {
+        int total = 0;
+        for (String queryWord : queryWords) {
+            int best = 0;
+            for (int at = text.indexOf(queryWord); at >= 0 && best < WORD_MATCH; at = text.indexOf(queryWord, at + 1)) {
+                int end = at + queryWord.length();
+                boolean startsWord = at == 0 || text.charAt(at - 1) == ' ';
+                boolean endsWord = end == text.length() || text.charAt(end) == ' ';
+                if (startsWord) {
+                    best = Math.max(best, endsWord ? WORD_MATCH : PREFIX_MATCH);
+                } else if (queryWord.length() >= 3) {
+                    best = Math.max(best, SUBSTRING_MATCH);
+                }
+            }
+            if (best == 0) {
+                return 0;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    // ---------------------------
+    // Trigrams
+    // ---------------------------
+
+    /**
+     * Splits text into lowercase words of letters and digits.
+     */
+    static String[] words(String text) {
+        StringBuilder normalized = new StringBuilder(text.length());
+        appendWords(text, normalized);
+        return normalized.isEmpty() ? new String[0] : normalized.toString().split(" ");
+    }
+
+    /**
+     * @return The words of all text fields of an object, lowercase and separated by single spaces.
+     */
+    private String textOf(V object) {
+        StringBuilder text = new StringBuilder(64);
+        for (String field : fieldsExtractor.apply(object)) {
+            if (field != null) {
+                appendWords(field, text);
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Appends the lowercase words of letters and digits in a field, each preceded by a space unless it comes first.
+     */
+    private static void appendWords(String field, StringBuilder text) {
+        boolean inWord = false;
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (!inWord && !text.isEmpty()) {
+                    text.append(' ');
+                }
+                text.append(Character.toLowerCase(c));
+                inWord = true;
+            } else {
+                inWord = false;
+            }
+        }
+    }
+
+    /**
+     * @return The distinct trigrams every matching object must contain: the inner trigrams of long query words
+     * (they may match anywhere in a word) and the start trigram of short ones (they must start a word).
+     */
+    private static int[] queryTrigrams(String[] words) {
+        Set<Integer> trigrams = new HashSet<>();
+        for (String word : words) {
+            if (word.length() >= 3) {
+                for (int i = 0; i + 3 <= word.length(); i++) {
+                    trigrams.add(trigram(code(word.charAt(i)), code(word.charAt(i + 1)), code(word.charAt(i + 2))));
+                }
+            } else if (word.length() == 2) {
+                trigrams.add(trigram(START, code(word.charAt(0)), code(word.charAt(1))));
+            } else {
+                trigrams.add(trigram(START, START, code(word.charAt(0))));
+            }
+        }
+        return trigrams.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Calls the action with every trigram of the words in a text, each word with two start markers in front of it.
+     * A trigram occurring twice is passed twice.
+     */
+    private static void forEachTrigram(String text, IntConsumer action) {
+        int first = START;
+        int second = START;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ' ') {
+                first = START;
+                second = START;
+                continue;
+            }
+            int third = code(c);
+            action.accept(trigram(first, second, third));
+            first = second;
+            second = third;
+        }
+    }
+
+    private static int trigram(int first, int second, int third) {
+        return (first << (2 * CODE_BITS)) | (second << CODE_BITS) | third;
+    }
+
+    /**
+     * @return The code of a lowercase letter or digit, between 1 and 63.
+     */
+    private static int code(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return 1 + (c - 'a');
+        }
+        if (c >= '0' && c <= '9') {
+            return 27 + (c - '0');
+        }
+        return switch (c) {
+            case 'æ' -> 37;
+            case 'ø' -> 38;
+            case 'å' -> 39;
+            case 'ä' -> 40;
+            case 'ö' -> 41;
+            case 'ü' -> 42;
+            case 'é' -> 43;
+            default -> 44 + c % 20; // Other letters share the remaining codes
+        };
+    }
+
+    // ---------------------------
+    // Helper Classes
+    // ---------------------------
+
+    /**
+     * A sorted list of IDs. IDs are usually handed out in increasing order, so adding is mostly an append.
+     */
+    private static class Postings {
+        static final Postings EMPTY = new Postings(0); // Stands in for a trigram nobody has, never added to
+
+        private int[] ids;
+        private int size;
+
+        Postings(int capacity) {
+            this.ids = new int[Math.max(capacity, 1)];
+        }
+
+        /**
+         * Adds an ID that is at least as large as every ID in the list, into the space reserved by the constructor.
+         */
+        void append(int id) {
+            if (size == 0 || ids[size - 1] != id) { // A trigram occurring twice in a text is listed once
+                ids[size++] = id;
+            }
+        }
+
+        /**
+         * Finds the first position at or after from holding an ID of at least id, galloping ahead from the
+         * previous position, so walking a list in increasing order costs little per step.
+         */
+        int seek(int from, int id) {
+            int step = 1;
+            int low = from;
+            int high = from;
+            while (high < size && ids[high] < id) {
+                low = high + 1;
+                high = from + step;
+                step <<= 1;
+            }
+            int index = Arrays.binarySearch(ids, low, Math.min(high + 1, size), id);
+            return index >= 0 ? index : -index - 1;
+        }
+
+        boolean has(int position, int id) {
+            return position < size && ids[position] == id;
+        }
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                int index = Arrays.binarySearch(ids, 0, size, id);
+                if (index >= 0) {
+                    return; // Already indexed, e.g. a trigram occurring twice in the text
+                }
+                insert(-index - 1, id);
+                return;
+            }
+            insert(size, id);
+        }
+
+        private void insert(int index, int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+
+        boolean remove(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+
+    /**
+     * The ID of a match with its score.
+     */
+    private record Scored(int id, int score) {
+        static final Comparator<Scored> BEST_FIRST =
+                Comparator.comparingInt((Scored scored) -> -scored.score).thenComparingInt(Scored::id);
+    }
+}
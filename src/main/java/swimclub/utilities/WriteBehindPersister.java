@@ -0,0 +1,105 @@
+package swimclub.utilities;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WriteBehindPersister moves file writes off the caller's thread.
+ * A mutation marks its file dirty together with a write of the file's new content, and a background thread
+ * writes the file once the flush window has passed. Marks for the same file that arrive within the window
+ * replace each other, so a burst of mutations ends in a single write of the latest content.
+ *
+ * Writes must capture their own snapshot of the data (e.g. the formatted lines), since they run later
+ * on another thread while the repositories keep changing.
+ */
+public class WriteBehindPersister {
+    public static final long DEFAULT_FLUSH_WINDOW_MILLIS = 200;
+
+    private final ScheduledExecutorService scheduler;
+    private final long flushWindowMillis;
+    private final Map<String, Runnable> pendingWrites = new LinkedHashMap<>(); // File path -> latest write, guarded by this
+    private final Object flushLock = new Object(); // Ensures one flush at a time, so writes to a file never overlap
+    private boolean flushScheduled; // Guarded by this
+    private boolean shutDown;       // Guarded by this
+
+    /**
+     * Constructor for WriteBehindPersister.
+     *
+     * @param flushWindowMillis How long to wait after the first mutation before writing, collecting further mutations.
+     */
+    public WriteBehindPersister(long flushWindowMillis) {
+        this.flushWindowMillis = flushWindowMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "write-behind");
+            thread.setDaemon(true); // Shutdown drains pending writes explicitly, the thread must not keep the program alive
+            return thread;
+        });
+    }
+
+    /**
+     * Marks a file dirty. The write replaces any write for the same file that has not run yet.
+     * After shutdown the write runs immediately on the caller's thread.
+     *
+     * @param filePath The file the write replaces.
+     * @param write    Writes the complete new content of the file.
+     */
+    public void markDirty(String filePath, Runnable write) {
+        synchronized (this) {
+            if (!shutDown) {
+                pendingWrites.put(filePath, write);
+                if (!flushScheduled) {
+                    flushScheduled = true;
+                    scheduler.schedule(this::flush, flushWindowMillis, TimeUnit.MILLISECONDS);
+                }
+                return;
+            }
+        }
+        synchronized (flushLock) {
+            write.run();
+        }
+    }
+
+    /**
+     * Writes all dirty files now and returns once they are written.
+     * Callers that need their changes on disk (e.g. before reading the file back) call this as a durability barrier.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            Map<String, Runnable> writes;
+            synchronized (this) {
+                writes = new LinkedHashMap<>(pendingWrites);
+                pendingWrites.clear();
+                flushScheduled = false;
+            }
+            for (Map.Entry<String, Runnable> write : writes.entrySet()) {
+                try {
+                    write.getValue().run();
+                } catch (RuntimeException e) {
+                    System.err.println("Error writing " + write.getKey() + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * @return true if there are files waiting to be written.
+     */
+    public synchronized boolean hasPendingWrites() {
+        return !pendingWrites.isEmpty();
+    }
+
+    /**
+     * Writes all dirty files and stops the background thread. Later marks are written synchronously.
+     * Called from the shutdown hook in Main, so no change is lost when the program exits.
+     */
+    public void shutdown() {
+        synchronized (this) {
+            shutDown = true;
+        }
+        scheduler.shutdown(); // Not shutdownNow(), interrupting a running flush could abort a write halfway
+        flush();              // Waits for a running flush, then writes whatever is still pending
+    }
+}
@@ -0,0 +1,67 @@
+package swimclub;
+
+import swimclub.models.*;
+import swimclub.utilities.FileHandler;
+
+import java.nio.file.Path;
+
+/**
+ * Shared setup for tests that work with the club's data files or members.
+ * The data files live in a temporary directory of the test, under the same names as in src/main/resources.
+ */
+public final class ClubFixture {
+    private ClubFixture() {
+    }
+
+    /**
+     * @param directory The temporary directory of the test.
+     * @param fileName  The name of a file in it.
+     * @return The path of the file as a string, the way the repositories take it.
+     */
+    public static String path(Path directory, String fileName) {
+        return directory.resolve(fileName).toString();
+    }
+
+    /**
+     * Creates a FileHandler with all data files in the given directory. The files are not created.
+     *
+     * @param directory The temporary directory of the test.
+     * @return The file handler.
+     */
+    public static FileHandler createFileHandler(Path directory) {
+        return new FileHandler(
+                path(directory, "members.dat"), path(directory, "payments.dat"), path(directory, "reminders.dat"),
+                path(directory, "paymentRates.dat"), path(directory, "teams.dat"), path(directory, "competitionResults.dat"),
+                path(directory, "staff.dat"), path(directory, "trainingResults.dat")
+        );
+    }
+
+    /**
+     * Creates an active, 30 year old senior competitive swimmer with a pending payment and no team.
+     *
+     * @param id   The member ID.
+     * @param name The name, also used for the email address.
+     * @return The member.
+     */
+    public static Member createMember(int id, String name) {
+        return new SeniorMember(String.valueOf(id), name, name.toLowerCase() + "@example.com", "City", "Street", "Region",
+                1234, new MembershipType(MembershipCategory.COMPETITIVE, MembershipLevel.SENIOR),
+                MembershipStatus.ACTIVE, ActivityType.CRAWL, PaymentStatus.PENDING, 30, 12345678, "No team");
+    }
+
+    /**
+     * Creates an exercise member named "Member" + id, with the membership level that fits the age.
+     *
+     * @param id            The member ID.
+     * @param age           The age; 18 and under gives a junior membership, like MemberRepository assigns.
+     * @param status        The membership status.
+     * @param paymentStatus The payment status.
+     * @return The member.
+     */
+    public static Member createMember(int id, int age, MembershipStatus status, PaymentStatus paymentStatus) {
+        MembershipLevel level = age > 18 ? MembershipLevel.SENIOR : MembershipLevel.JUNIOR;
+        return new SeniorMember(String.valueOf(id), "Member" + id, "member" + id + "@example.com", "City", "Street",
+                "Region", 1234, new MembershipType(MembershipCategory.EXERCISE, level),
+                status, ActivityType.CRAWL, paymentStatus, age, 12345678, "No team");
+    }
+}
@@ -0,0 +1,46 @@
+package swimclub.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import swimclub.models.*;
+import swimclub.repositories.MemberRepository;
+import swimclub.repositories.PaymentRepository;
+import swimclub.services.PaymentService;
+import swimclub.utilities.FileHandler;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static swimclub.ClubFixture.*;
+
+class PaymentControllerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void registerPayment_KeepsTheMemberPendingWhileABillIsOpen() {
+        FileHandler fileHandler = createFileHandler(tempDir);
+        MemberRepository memberRepository = new MemberRepository(fileHandler);
+        Member member = createMember(1, 30, MembershipStatus.ACTIVE, PaymentStatus.PENDING);
+        memberRepository.save(member);
+        PaymentRepository paymentRepository = new PaymentRepository(path(tempDir, "reminders.dat"));
+        paymentRepository.saveAll(List.of(
+                Payment.ofCents(1, PaymentStatus.PENDING, member, LocalDate.of(2025, 1, 1), 160000),
+                Payment.ofCents(2, PaymentStatus.PENDING, member, LocalDate.of(2026, 1, 1), 160000)));
+        PaymentController controller = new PaymentController(new PaymentService(paymentRepository, fileHandler),
+                memberRepository, fileHandler, path(tempDir, "payments.dat"), path(tempDir, "paymentRates.dat"), null);
+
+        controller.registerPayment(1, 1600);
+        assertEquals(PaymentStatus.COMPLETE, paymentRepository.findById(1).getPaymentStatus(), "The oldest bill is paid.");
+        assertEquals(PaymentStatus.PENDING, memberRepository.findById(1).getPaymentStatus(), "The 2026 bill is still open.");
+        assertEquals(PaymentStatus.PENDING, new MemberRepository(fileHandler).findById(1).getPaymentStatus());
+
+        controller.registerPayment(1, 1600);
+        assertEquals(PaymentStatus.COMPLETE, memberRepository.findById(1).getPaymentStatus());
+        assertEquals(PaymentStatus.COMPLETE, new MemberRepository(fileHandler).findById(1).getPaymentStatus(),
+                "The status is saved to the member file.");
+    }
+}
@@ -0,0 +1,77 @@
+package swimclub.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeeScheduleTest {
+
+    private static Member createMember(int age, MembershipStatus status, MembershipCategory category) {
+        MembershipLevel level = age < 18 ? MembershipLevel.JUNIOR : MembershipLevel.SENIOR;
+        return new SeniorMember("1", "Member", "member@example.com", "City", "Street", "Region", 1234,
+                new MembershipType(category, level), status, ActivityType.CRAWL, PaymentStatus.COMPLETE, age,
+                12345678, "No team");
+    }
+
+    @Test
+    void defaults_MatchTheFormerFees() {
+        FeeSchedule.Period fees = FeeSchedule.parse(List.of("Junior Rate: 1000.0", "Senior Rate: 1600.0")).current();
+
+        assertEquals(100000, fees.feeCents(createMember(17, MembershipStatus.ACTIVE, MembershipCategory.EXERCISE)));
+        assertEquals(160000, fees.feeCents(createMember(18, MembershipStatus.ACTIVE, MembershipCategory.COMPETITIVE)));
+        assertEquals(120000, fees.feeCents(createMember(60, MembershipStatus.ACTIVE, MembershipCategory.EXERCISE)));
+        assertEquals(50000, fees.feeCents(createMember(30, MembershipStatus.PASSIVE, MembershipCategory.EXERCISE)));
+        assertEquals(120000, fees.feeCents(createMember(150, MembershipStatus.ACTIVE, MembershipCategory.EXERCISE)),
+                "Ages past the table share the fee of the oldest age.");
+        assertEquals(-1, FeeSchedule.groupOf(createMember(30, null, MembershipCategory.EXERCISE)));
+    }
+
+    @Test
+    void parse_CompilesRulesAndEffectiveDates() {
+        FeeSchedule schedule = FeeSchedule.parse(List.of(
+                "# Fee rules",
+                "Junior Rate: 800.00",
+                "Senior Rate: 1500.00",
+                "Passive Fee: 300",
+                "Junior Age Limit: 16",
+                "Senior Discount Age: 65",
+                "Senior Discount: 50",
+                "Surcharge COMPETITIVE: 200.00",
+                "From 2026-01-01 Senior Rate: 1800.00",
+                "From 2027-01-01 Surcharge COMPETITIVE: 0",
+                "Unknown Rule: 1",
+                "Senior Rate: lots",
+                "From 2026-13-01 Junior Rate: 1"));
+        assertEquals(List.of(LocalDate.of(2026, 1, 1), LocalDate.of(2027, 1, 1)), schedule.getEffectiveDates());
+
+        Member competitiveSenior = createMember(30, MembershipStatus.ACTIVE, MembershipCategory.COMPETITIVE);
+        FeeSchedule.Period fees2025 = schedule.periodAt(LocalDate.of(2025, 6, 1));
+        assertEquals(80000, fees2025.feeCents(createMember(15, MembershipStatus.ACTIVE, MembershipCategory.EXERCISE)));
+        assertEquals(150000, fees2025.feeCents(createMember(16, MembershipStatus.ACTIVE, MembershipCategory.EXERCISE)));
+        assertEquals(170000, fees2025.feeCents(competitiveSenior), "Senior rate plus the competitive surcharge.");
+        assertEquals(75000, fees2025.feeCents(createMember(65, MembershipStatus.ACTIVE, MembershipCategory.EXERCISE)));
+        assertEquals(30000, fees2025.feeCents(createMember(30, MembershipStatus.PASSIVE, MembershipCategory.COMPETITIVE)));
+
+        assertEquals(200000, schedule.periodAt(LocalDate.of(2026, 1, 1)).feeCents(competitiveSenior));
+        assertEquals(180000, schedule.periodAt(LocalDate.of(2027, 3, 1)).feeCents(competitiveSenior),
+                "A period keeps the rules of the periods before it.");
+        assertEquals(80000, schedule.periodAt(LocalDate.of(2027, 3, 1)).getJuniorRateCents());
+    }
+
+    @Test
+    void withRule_ReplacesTheRuleAndKeepsTheOthers() {
+        FeeSchedule schedule = FeeSchedule.parse(List.of("Junior Rate: 1000.0", "Senior Rate: 1600.0",
+                "Family Discount: 10", "From 2030-01-01 Junior Rate: 1200.00"));
+
+        FeeSchedule changed = schedule.withRule("Junior Rate", "1100.00").withRule("Passive Fee", "400.00");
+        assertEquals(List.of("Junior Rate: 1100.00", "Senior Rate: 1600.0", "Family Discount: 10",
+                "From 2030-01-01 Junior Rate: 1200.00", "Passive Fee: 400.00"), changed.getLines());
+        assertEquals(110000, changed.periodAt(LocalDate.of(2025, 1, 1)).getJuniorRateCents());
+        assertEquals(120000, changed.periodAt(LocalDate.of(2030, 1, 1)).getJuniorRateCents());
+        assertEquals(100000, schedule.current().getJuniorRateCents(), "A schedule never changes.");
+        assertEquals(90, changed.current().withFamilyDiscount(100));
+    }
+}
@@ -0,0 +1,26 @@
+package swimclub.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static swimclub.ClubFixture.*;
+
+class PaymentTest {
+
+    @Test
+    void amounts_AreRejectedWhenTheyRoundToZeroCents() {
+        Member member = createMember(1, "Alice");
+        assertThrows(IllegalArgumentException.class,
+                () -> new Payment(1, PaymentStatus.COMPLETE, member, LocalDate.of(2025, 1, 1), 0.004));
+
+        Payment payment = new Payment(1, PaymentStatus.COMPLETE, member, LocalDate.of(2025, 1, 1), 1600);
+        assertThrows(IllegalArgumentException.class, () -> payment.setAmountPerYear(0.004));
+        assertThrows(IllegalArgumentException.class, () -> payment.setAmountPerYear(-5));
+        assertEquals(160000, payment.getAmountCents(), "A rejected amount leaves the payment unchanged.");
+
+        payment.setAmountPerYear(0.005);
+        assertEquals(1, payment.getAmountCents(), "Half a cent rounds up to a valid amount.");
+    }
+}
@@ -0,0 +1,208 @@
+package swimclub.repositories;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import swimclub.models.*;
+import swimclub.utilities.DurableFile;
+import swimclub.utilities.FileHandler;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static swimclub.ClubFixture.*;
+
+class MemberRepositoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private FileHandler fileHandler;
+    private Path memberFile;
+    private Path journalFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        memberFile = tempDir.resolve("members.dat");
+        journalFile = tempDir.resolve("members.dat.journal");
+        Files.createFile(memberFile);
+
+        fileHandler = createFileHandler(tempDir);
+    }
+
+    @Test
+    void journalMode_AppendsInsteadOfRewritingMemberFile() throws IOException {
+        MemberRepository repository = new MemberRepository(fileHandler, true);
+
+        repository.save(createMember(1, "Alice"));
+        repository.save(createMember(2, "Bob"));
+
+        assertEquals(0, Files.size(memberFile), "members.dat should not be rewritten in journal mode.");
+        assertEquals(2, Files.readAllLines(journalFile).size(), "Each save should append one journal record.");
+    }
+
+    @Test
+    void journalMode_ReplaysJournalOnStartup() {
+        MemberRepository repository = new MemberRepository(fileHandler, true);
+        repository.save(createMember(1, "Alice"));
+        repository.save(createMember(2, "Bob"));
+        repository.delete(repository.findById(1));
+
+        Member bob = repository.findById(2);
+        bob.setName("Robert");
+        repository.update(bob);
+
+        MemberRepository restarted = new MemberRepository(fileHandler, true);
+        List<Member> members = restarted.findAll();
+
+        assertEquals(1, members.size());
+        assertNull(restarted.findById(1));
+        assertEquals("Robert", restarted.findById(2).getName());
+    }
+
+    @Test
+    void compactJournal_WritesMemberFileAndEmptiesJournal() throws IOException {
+        MemberRepository repository = new MemberRepository(fileHandler, true);
+        repository.save(createMember(1, "Alice"));
+
+        repository.compactJournal();
+
+        List<String> lines = Files.readAllLines(memberFile);
+        assertEquals(2, lines.size(), "One member line plus the checksum trailer.");
+        assertTrue(lines.get(1).startsWith(DurableFile.CHECKSUM_PREFIX));
+        assertEquals(0, new File(journalFile.toString()).length());
+        assertNotNull(new MemberRepository(fileHandler, false).findById(1), "Compacted member file should load without the journal.");
+    }
+
+    @Test
+    void findById_StaysConsistentWithSaveDeleteAndReload() {
+        MemberRepository repository = new MemberRepository(fileHandler);
+        Member alice = createMember(1, "Alice");
+        repository.save(createMember(2, "Bob"));
+        repository.save(alice);
+
+        assertEquals("Alice", repository.findById(1).getName());
+
+        repository.delete(repository.findById(1));
+        assertNull(repository.findById(1));
+
+        repository.reloadMembers();
+        assertNull(repository.findById(1));
+        assertEquals("Bob", repository.findById(2).getName());
+    }
+
+    @Test
+    void updateAndReload_LeaveEarlierSnapshotsUnchanged() throws IOException {
+        MemberRepository repository = new MemberRepository(fileHandler);
+        Member alice = createMember(1, "Alice");
+        repository.save(alice);
+        MemberSnapshot beforeUpdate = repository.getSnapshot();
+
+        Member changes = createMember(1, "Alicia");
+        changes.setCity("Aarhus");
+        changes.setMembershipStatus(MembershipStatus.PASSIVE);
+        repository.update(changes);
+        changes.setCity("Odense"); // Not stored until the next update
+
+        Member updated = repository.findById(1);
+        assertNotSame(changes, updated, "Update should store a copy.");
+        assertEquals("Alicia", updated.getName());
+        assertEquals("Aarhus", updated.getCity());
+        assertEquals(MembershipStatus.PASSIVE, updated.getMembershipStatus());
+        assertSame(alice, beforeUpdate.findById(1));
+        assertEquals("Alice", alice.getName(), "The earlier snapshot keeps the old details.");
+        assertEquals(MembershipStatus.ACTIVE, alice.getMembershipStatus());
+        MemberSnapshot beforeReload = repository.getSnapshot();
+
+        List<String> lines;
+        try (BufferedReader reader = DurableFile.newVerifiedReader(memberFile.toString())) {
+            lines = reader.lines().map(line -> line.replace("Alicia", "Ali")).collect(Collectors.toList());
+        }
+        DurableFile.writeLines(memberFile.toString(), lines, "members"); // Edited outside the repository
+        repository.reloadMembers();
+
+        assertEquals("Ali", repository.findById(1).getName());
+        assertEquals("Alicia", beforeReload.findById(1).getName(), "Reload should not change the earlier snapshot.");
+    }
+
+    @Test
+    void query_CombinesFacetsAndFollowsUpdatesAndDeletes() {
+        MemberRepository repository = new MemberRepository(fileHandler);
+        Member alice = createMember(1, "Alice");
+        Member bob = createMember(2, "Bob");
+        bob.setActivityType(ActivityType.BUTTERFLY);
+        Member carl = createMember(3, "Carl");
+        carl.setMembershipStatus(MembershipStatus.PASSIVE);
+        repository.save(alice);
+        repository.save(bob);
+        repository.save(carl);
+
+        List<Member> pendingCrawlers = repository.query()
+                .withMembershipStatus(MembershipStatus.ACTIVE)
+                .withLevel(MembershipLevel.SENIOR)
+                .withCategory(MembershipCategory.COMPETITIVE)
+                .withActivityType(ActivityType.CRAWL)
+                .withPaymentStatus(PaymentStatus.PENDING)
+                .list();
+        assertEquals(List.of(alice), pendingCrawlers);
+        assertEquals(2, repository.query().withActivityType(ActivityType.CRAWL, ActivityType.BUTTERFLY)
+                .withMembershipStatus(MembershipStatus.ACTIVE).count());
+
+        alice.setPaymentStatus(PaymentStatus.COMPLETE);
+        repository.update(alice);
+        assertEquals(List.of(1), repository.findByPaymentStatus(PaymentStatus.COMPLETE).stream().map(Member::getMemberId).toList());
+
+        repository.delete(bob);
+        assertEquals(List.of(carl), repository.findByPaymentStatus(PaymentStatus.PENDING));
+    }
+
+    @Test
+    void findAll_ReturnsSnapshotThatLaterWritesDoNotChange() {
+        MemberRepository repository = new MemberRepository(fileHandler);
+        repository.save(createMember(2, "Bob"));
+        repository.save(createMember(1, "Alice"));
+        MemberSnapshot before = repository.getSnapshot();
+        List<Member> members = repository.findAll();
+
+        repository.save(createMember(3, "Carl"));
+        repository.delete(repository.findById(1));
+
+        assertEquals(List.of(1, 2), members.stream().map(Member::getMemberId).toList(), "Snapshots are ordered by ID and never change.");
+        assertThrows(UnsupportedOperationException.class, () -> members.add(createMember(4, "Dana")));
+        assertNotNull(before.findById(1));
+        assertEquals(List.of(2, 3), repository.findAll().stream().map(Member::getMemberId).toList());
+        assertTrue(repository.getSnapshot().getVersion() > before.getVersion());
+        assertEquals(4, repository.getNextMemberId());
+    }
+
+    @Test
+    void findAll_CanBeIteratedWhileAnotherThreadWrites() throws InterruptedException {
+        MemberRepository repository = new MemberRepository(fileHandler, true);
+        Thread writer = new Thread(() -> {
+            for (int id = 1; id <= 500; id++) {
+                repository.save(createMember(id, "Member" + id));
+                if (id % 3 == 0) {
+                    repository.delete(repository.findById(id - 1));
+                }
+            }
+        });
+        writer.start();
+
+        while (writer.isAlive()) {
+            List<Member> members = repository.findAll();
+            int previousId = 0;
+            for (Member member : members) { // Would throw ConcurrentModificationException on a live list
+                assertTrue(member.getMemberId() > previousId);
+                previousId = member.getMemberId();
+            }
+        }
+        writer.join();
+        assertEquals(500 - 500 / 3, repository.findAll().size());
+    }
+}
@@ -0,0 +1,60 @@
+package swimclub.repositories;
+
+import org.junit.jupiter.api.Test;
+import swimclub.models.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static swimclub.ClubFixture.*;
+
+class MemberSnapshotTest {
+
+    private List<Integer> ids(MemberSnapshot snapshot) {
+        return snapshot.getMembers().stream().map(Member::getMemberId).toList();
+    }
+
+    @Test
+    void withMember_FindsSparseIdsAndLeavesOlderVersionsUnchanged() {
+        MemberSnapshot first = MemberSnapshot.of(1, List.of(createMember(3, "Member3"), createMember(1, "Member1")));
+        MemberSnapshot second = first.withMember(createMember(1_000_000, "Member1000000"));
+        Member replacement = createMember(3, "Member3");
+        MemberSnapshot third = second.withMember(replacement);
+
+        assertEquals(List.of(1, 3), ids(first));
+        assertNull(first.findById(1_000_000));
+        assertEquals(List.of(1, 3, 1_000_000), ids(second));
+        assertEquals(1_000_000, second.getHighestId());
+        assertSame(replacement, third.findById(3));
+        assertNotSame(replacement, second.findById(3));
+        assertEquals(3, third.size());
+        assertNull(third.findById(2));
+        assertNull(third.findById(-1));
+    }
+
+    @Test
+    void withoutMember_RemovesTheMemberAndRecomputesTheHighestId() {
+        MemberSnapshot snapshot = MemberSnapshot.EMPTY.withMembers(
+                List.of(createMember(5, "Member5"), createMember(40, "Member40"), createMember(2000, "Member2000")));
+
+        MemberSnapshot removed = snapshot.withoutMember(2000);
+
+        assertEquals(List.of(5, 40), ids(removed));
+        assertEquals(40, removed.getHighestId());
+        assertEquals(2, removed.size());
+        assertNotNull(snapshot.findById(2000));
+        assertSame(removed, removed.withoutMember(7), "Removing a missing member should not create a new version.");
+        assertEquals(0, removed.withoutMember(5).withoutMember(40).getHighestId());
+    }
+
+    @Test
+    void of_KeepsTheLastOfEqualIds() {
+        Member first = createMember(7, "Member7");
+        Member last = createMember(7, "Member7");
+
+        MemberSnapshot snapshot = MemberSnapshot.of(1, List.of(first, last));
+
+        assertEquals(1, snapshot.size());
+        assertSame(last, snapshot.findById(7));
+    }
+}
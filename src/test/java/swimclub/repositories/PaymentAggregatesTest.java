@@ -0,0 +1,81 @@
+package swimclub.repositories;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import swimclub.models.*;
+import swimclub.services.PaymentService;
+import swimclub.utilities.FileHandler;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static swimclub.ClubFixture.*;
+
+class PaymentAggregatesTest {
+
+    @TempDir
+    Path tempDir;
+
+    private FileHandler fileHandler;
+    private MemberRepository memberRepository;
+    private PaymentService paymentService;
+
+    @BeforeEach
+    void setUp() {
+        fileHandler = createFileHandler(tempDir);
+        memberRepository = new MemberRepository(fileHandler);
+        paymentService = new PaymentService(new PaymentRepository(path(tempDir, "reminders.dat")), fileHandler);
+    }
+
+    @Test
+    void counts_FollowSaveUpdateAndDelete() {
+        memberRepository.save(createMember(1, 12, MembershipStatus.ACTIVE, PaymentStatus.COMPLETE));
+        memberRepository.save(createMember(2, 30, MembershipStatus.ACTIVE, PaymentStatus.PENDING));
+        memberRepository.save(createMember(3, 70, MembershipStatus.PASSIVE, PaymentStatus.COMPLETE));
+        PaymentAggregates aggregates = memberRepository.getPaymentAggregates();
+        FeeSchedule.Period fees = FeeSchedule.defaults().current();
+
+        assertEquals(2, aggregates.count(PaymentStatus.COMPLETE));
+        assertEquals(1, aggregates.count(PaymentStatus.PENDING));
+        assertEquals(100000 + 50000, aggregates.totalCents(PaymentStatus.COMPLETE, fees), "A junior and a passive member.");
+
+        Member senior = memberRepository.findById(2);
+        senior.setPaymentStatus(PaymentStatus.COMPLETE);
+        senior.setAge(65);
+        memberRepository.update(senior);
+        assertEquals(3, aggregates.count(PaymentStatus.COMPLETE));
+        assertEquals(0, aggregates.count(PaymentStatus.PENDING));
+        assertEquals(100000 + 50000 + 120000, aggregates.totalCents(PaymentStatus.COMPLETE, fees), "Now with a discounted senior.");
+
+        memberRepository.delete(memberRepository.findById(1));
+        assertEquals(50000 + 120000, aggregates.totalCents(PaymentStatus.COMPLETE, fees));
+
+        fileHandler.saveMembers(List.of(createMember(4, 30, MembershipStatus.ACTIVE, PaymentStatus.PENDING)));
+        memberRepository.reloadMembers();
+        assertEquals(0, aggregates.count(PaymentStatus.COMPLETE), "Reloading rebuilds the counts.");
+        assertEquals(160000, aggregates.totalCents(PaymentStatus.PENDING, fees));
+    }
+
+    @Test
+    void paymentSummary_UsesTheCurrentRates() {
+        memberRepository.save(createMember(1, 12, MembershipStatus.ACTIVE, PaymentStatus.COMPLETE));
+        memberRepository.save(createMember(2, 30, MembershipStatus.ACTIVE, PaymentStatus.COMPLETE));
+        memberRepository.save(createMember(3, 70, MembershipStatus.ACTIVE, PaymentStatus.COMPLETE));
+        memberRepository.save(createMember(4, 30, MembershipStatus.PASSIVE, PaymentStatus.COMPLETE));
+        memberRepository.save(createMember(5, 30, MembershipStatus.ACTIVE, PaymentStatus.PENDING));
+
+        double expected = 0;
+        for (Member member : paymentService.getMembersPaidList(memberRepository)) {
+            expected += paymentService.calculateMembershipFee(member);
+        }
+        assertEquals(1000 + 1600 + 1200 + 500, expected, "Default rates: 1000 junior, 1600 senior.");
+        assertEquals("Total Members Paid: 4\nTotal Members Pending: 1\nTotal Payments Collected: 4300.00 DKK",
+                paymentService.getPaymentSummary(memberRepository));
+
+        paymentService.setSeniorRate(2000);
+        assertTrue(paymentService.getPaymentSummary(memberRepository)
+                .endsWith("Total Payments Collected: 5000.00 DKK"));
+    }
+}
@@ -0,0 +1,107 @@
+package swimclub.repositories;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import swimclub.models.*;
+import swimclub.utilities.DurableFile;
+import swimclub.utilities.FileHandler;
+import swimclub.utilities.WriteBehindPersister;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static swimclub.ClubFixture.*;
+
+class PaymentRepositoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private MemberRepository memberRepository;
+    private PaymentRepository paymentRepository;
+
+    @BeforeEach
+    void setUp() {
+        FileHandler fileHandler = createFileHandler(tempDir);
+        memberRepository = new MemberRepository(fileHandler);
+        for (int id = 1; id <= 2; id++) {
+            memberRepository.save(createMember(id, 30, MembershipStatus.ACTIVE, PaymentStatus.PENDING));
+        }
+        paymentRepository = new PaymentRepository(path(tempDir, "reminders.dat"));
+    }
+
+    private Payment payment(int paymentId, int memberId, double amount) {
+        return new Payment(paymentId, PaymentStatus.COMPLETE, memberRepository.findById(memberId),
+                LocalDate.of(2024, 1, 1), amount);
+    }
+
+    @Test
+    void save_IndexesByIdAndMemberAndIgnoresDuplicates() {
+        Payment first = payment(1, 1, 1600);
+        Payment second = payment(2, 2, 1000);
+        Payment third = payment(3, 1, 500);
+        paymentRepository.save(first);
+        paymentRepository.save(second);
+        paymentRepository.save(third);
+        paymentRepository.save(payment(1, 2, 999)); // Duplicate payment ID
+
+        assertEquals(List.of(first, third), paymentRepository.findPaymentsByMemberId(1));
+        assertEquals(List.of(second), paymentRepository.findPaymentsByMemberId(2));
+        assertTrue(paymentRepository.findPaymentsByMemberId(3).isEmpty());
+        assertSame(first, paymentRepository.findById(1));
+        assertNull(paymentRepository.findById(4));
+        assertEquals(3, paymentRepository.findAll().size());
+        assertEquals(4, paymentRepository.getNextPaymentId());
+    }
+
+    @Test
+    void loadPayments_SkipsDuplicateIds() {
+        DurableFile.writeLines(path(tempDir, "payments.dat"), List.of(
+                "1;1;1600.0;2024-01-01;COMPLETE",
+                "2;2;1000.0;2024-01-02;PENDING",
+                "1;2;999.0;2024-01-03;COMPLETE"), "payments");
+
+        paymentRepository.loadPayments(path(tempDir, "payments.dat"), memberRepository);
+
+        assertEquals(2, paymentRepository.findAll().size());
+        assertEquals(1600.0, paymentRepository.findById(1).getAmountPerYear());
+        assertEquals(1, paymentRepository.findPaymentsByMemberId(2).size());
+        assertEquals(PaymentStatus.PENDING, memberRepository.findById(2).getPaymentStatus());
+    }
+
+    @Test
+    void saveReminder_WriteBehindWritesTheLatestRemindersOfConcurrentChanges() throws InterruptedException {
+        WriteBehindPersister writeBehind = new WriteBehindPersister(10);
+        paymentRepository.setWriteBehind(writeBehind);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int memberId = t + 1;
+            threads.add(new Thread(() -> {
+                for (int day = 1; day <= 50; day++) {
+                    paymentRepository.saveReminder(new Reminder(memberId, LocalDate.of(2025, 1, 1).plusDays(day), "Reminder " + day));
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        writeBehind.flush();
+        writeBehind.shutdown();
+
+        assertEquals(200, new PaymentRepository(path(tempDir, "reminders.dat")).getReminders().size(),
+                "No write of an older snapshot replaced the latest one.");
+    }
+
+    @Test
+    void saveReminder_ReturnsTheReplacedReminder() {
+        LocalDate dueDate = LocalDate.of(2025, 1, 31);
+        assertNull(paymentRepository.saveReminder(new Reminder(1, dueDate, "First")));
+        assertEquals("First", paymentRepository.saveReminder(new Reminder(1, dueDate, "Second")).getMessage());
+        assertEquals("Second", paymentRepository.findReminder(1, dueDate).getMessage());
+    }
+}
@@ -0,0 +1,51 @@
+package swimclub.repositories;
+
+import org.junit.jupiter.api.Test;
+import swimclub.models.Reminder;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReminderStoreTest {
+
+    private static final LocalDate JANUARY = LocalDate.of(2025, 1, 31);
+    private static final LocalDate FEBRUARY = LocalDate.of(2025, 2, 28);
+
+    @Test
+    void put_KeepsOneReminderPerMemberAndDueDate() {
+        ReminderStore store = new ReminderStore();
+        Reminder first = new Reminder(1, JANUARY, "Payment due");
+        Reminder second = new Reminder(1, FEBRUARY, "Next payment due");
+        Reminder other = new Reminder(2, JANUARY, "Payment due");
+        assertNull(store.put(first));
+        store.put(second);
+        store.put(other);
+
+        Reminder overdue = new Reminder(1, JANUARY, "Overdue");
+        assertSame(first, store.put(overdue), "The reminder with the same due date is replaced.");
+        assertEquals(3, store.size());
+        assertSame(overdue, store.find(1, JANUARY));
+        assertEquals(List.of(second, overdue), store.findByMember(1));
+        assertEquals(List.of(overdue, second, other), store.findAll(), "A replaced reminder keeps its place.");
+    }
+
+    @Test
+    void remove_ByKeyAndByMessage() {
+        ReminderStore store = new ReminderStore();
+        store.put(new Reminder(1, JANUARY, "Payment due"));
+        store.put(new Reminder(1, FEBRUARY, "Next payment due"));
+        store.put(new Reminder(-1, JANUARY, "Negative IDs do not collide with other keys"));
+
+        assertNotNull(store.remove(1, JANUARY));
+        assertNull(store.remove(1, JANUARY));
+        assertNull(store.removeByMessage(1, "Payment due"));
+        assertNotNull(store.removeByMessage(1, "Next payment due"));
+        assertTrue(store.findByMember(1).isEmpty());
+        assertNotNull(store.find(-1, JANUARY));
+
+        store.clear();
+        assertEquals(0, store.size());
+    }
+}
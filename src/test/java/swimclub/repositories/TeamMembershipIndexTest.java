@@ -0,0 +1,105 @@
+package swimclub.repositories;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import swimclub.models.*;
+import swimclub.utilities.FileHandler;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static swimclub.ClubFixture.*;
+
+class TeamMembershipIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    private FileHandler fileHandler;
+    private MemberRepository memberRepository;
+    private TeamRepository teamRepository;
+    private Team sharks;
+    private Team dolphins;
+
+    @BeforeEach
+    void setUp() {
+        fileHandler = createFileHandler(tempDir);
+        memberRepository = new MemberRepository(fileHandler);
+        for (int id = 1; id <= 3; id++) {
+            memberRepository.save(createMember(id, "Member" + id));
+        }
+        teamRepository = new TeamRepository(fileHandler);
+        sharks = new Team("Sharks", TeamType.SENIOR_COMPETITIVE, null);
+        dolphins = new Team("Dolphins", TeamType.SENIOR_COMPETITIVE, null);
+        teamRepository.addTeam(sharks);
+        teamRepository.addTeam(dolphins);
+        memberRepository.setTeamMemberships(teamRepository.getMemberships());
+    }
+
+    @Test
+    void assign_KeepsTeamListAndTeamNameInLine() {
+        Member member = memberRepository.findById(1);
+        teamRepository.addMemberToTeam(sharks, member);
+
+        assertSame(sharks, teamRepository.findTeamOfMember(1));
+        assertTrue(sharks.hasMember(member));
+        assertEquals("Sharks", member.getTeamName());
+        assertThrows(IllegalArgumentException.class, () -> teamRepository.addMemberToTeam(dolphins, member),
+                "A member can only be on one team.");
+        assertThrows(IllegalArgumentException.class, () -> teamRepository.removeMemberFromTeam(dolphins, member));
+
+        teamRepository.removeMemberFromTeam(sharks, member);
+        assertNull(teamRepository.findTeamOfMember(1));
+        assertEquals(0, sharks.getMemberCount());
+        assertEquals(TeamMembershipIndex.NO_TEAM, member.getTeamName());
+    }
+
+    @Test
+    void deleteMemberAndTeam_TakeMembersOffTheirTeam() {
+        teamRepository.addMemberToTeam(sharks, memberRepository.findById(1));
+        teamRepository.addMemberToTeam(sharks, memberRepository.findById(2));
+
+        memberRepository.delete(memberRepository.findById(1));
+        assertEquals(List.of(memberRepository.findById(2)), sharks.getMembers());
+
+        teamRepository.removeTeam("Sharks");
+        assertNull(teamRepository.findTeamOfMember(2));
+        assertEquals(TeamMembershipIndex.NO_TEAM, memberRepository.findById(2).getTeamName());
+    }
+
+    @Test
+    void update_MovesTheTeamToTheUpdatedMember() {
+        teamRepository.addMemberToTeam(sharks, memberRepository.findById(1));
+
+        Member changes = createMember(1, "Renamed");
+        changes.setTeamName("Dolphins");
+        memberRepository.update(changes);
+
+        Member updated = memberRepository.findById(1);
+        assertEquals(List.of(updated), sharks.getMembers());
+        assertEquals("Sharks", updated.getTeamName(), "The memberships decide the team, not the update.");
+        assertSame(sharks, teamRepository.findTeamOfMember(1));
+    }
+
+    @Test
+    void reloadMembers_ReconcilesWithTheTeamLists() {
+        Member first = memberRepository.findById(1);
+        Member third = memberRepository.findById(3);
+        teamRepository.addMemberToTeam(dolphins, first);
+        teamRepository.addMemberToTeam(dolphins, third);
+
+        // The member file names a team the team lists don't have and lacks member 3
+        Member stale = createMember(1, "Member1");
+        stale.setTeamName("Sharks");
+        fileHandler.saveMembers(List.of(stale, createMember(2, "Member2")));
+        memberRepository.reloadMembers();
+
+        Member reloaded = memberRepository.findById(1);
+        assertEquals("Dolphins", reloaded.getTeamName(), "The memberships decide the team, not the member file.");
+        assertEquals(List.of(reloaded), dolphins.getMembers(), "The team holds the reloaded member, members that are gone are taken off.");
+        assertNull(teamRepository.findTeamOfMember(3));
+        assertFalse(sharks.hasMember(reloaded));
+    }
+}
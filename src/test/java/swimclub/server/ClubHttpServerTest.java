@@ -0,0 +1,143 @@
+package swimclub.server;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import swimclub.controllers.*;
+import swimclub.models.*;
+import swimclub.repositories.*;
+import swimclub.services.*;
+import swimclub.utilities.DurableFile;
+import swimclub.utilities.FileHandler;
+import swimclub.utilities.PasswordUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static swimclub.ClubFixture.*;
+
+class ClubHttpServerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ClubHttpServer server;
+    private MemberRepository memberRepository;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        String usersFile = path(tempDir, "users.dat");
+        DurableFile.writeLines(usersFile, List.of(userLine("admin", Role.ADMIN), userLine("coach", Role.COACH)), "users");
+        DurableFile.writeLines(path(tempDir, "paymentRates.dat"), List.of("Junior Rate: 1000.0", "Senior Rate: 1600.0"), "paymentRates");
+
+        FileHandler fileHandler = createFileHandler(tempDir);
+        memberRepository = new MemberRepository(fileHandler);
+        PaymentRepository paymentRepository = new PaymentRepository(path(tempDir, "reminders.dat"));
+        TeamRepository teamRepository = new TeamRepository(fileHandler);
+        CompetitionResultRepository competitionResultRepository = new CompetitionResultRepository(fileHandler, path(tempDir, "competitionResults.dat"));
+        TrainingResultsRepository trainingResultsRepository = new TrainingResultsRepository(fileHandler, path(tempDir, "trainingResults.dat"), memberRepository);
+        AuthRepository authRepository = new AuthRepository(usersFile);
+
+        AdminController adminController = new AdminController(new AuthService(authRepository), new UserRepository(usersFile));
+        server = new ClubHttpServer(
+                new MemberController(new MemberService(memberRepository), memberRepository),
+                new PaymentController(new PaymentService(paymentRepository, fileHandler), memberRepository, fileHandler,
+                        path(tempDir, "payments.dat"), path(tempDir, "paymentRates.dat"), adminController),
+                new TeamController(new TeamService(teamRepository)),
+                new CompetitionResultController(new CompetitionResultService(competitionResultRepository)),
+                new TrainingResultsController(new TrainingResultsService(trainingResultsRepository), trainingResultsRepository),
+                memberRepository, authRepository);
+        server.start(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    private static String userLine(String username, Role role) {
+        String salt = PasswordUtils.generateSalt();
+        return username + ";" + PasswordUtils.hashPassword("secret1", salt) + ";" + salt + ";" + role;
+    }
+
+    private HttpRequest.Builder request(String user, String path) {
+        String credentials = Base64.getEncoder().encodeToString((user + ":secret1").getBytes(StandardCharsets.UTF_8));
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+                .header("Authorization", "Basic " + credentials);
+    }
+
+    private HttpRequest post(String user, String path, String form) {
+        return request(user, path)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String memberForm(int index) {
+        return "name=Test+Swimmer&email=swimmer" + index + "%40example.com&city=Valby&street=Vej+1&region=Hovedstaden"
+                + "&zipcode=2500&membershipType=Senior+Competitive&membershipStatus=ACTIVE&activityType=CRAWL"
+                + "&paymentStatus=PENDING&age=30&phoneNumber=" + (20_000_000 + index);
+    }
+
+    @Test
+    void requests_RequireLoginAndRole() throws Exception {
+        HttpResponse<String> anonymous = send(HttpRequest.newBuilder(
+                URI.create("http://localhost:" + server.getPort() + "/members")).build());
+        assertEquals(401, anonymous.statusCode());
+        assertTrue(anonymous.headers().firstValue("WWW-Authenticate").isPresent());
+
+        assertEquals(200, send(request("coach", "/members").build()).statusCode());
+        assertEquals(403, send(post("coach", "/members", memberForm(1))).statusCode(), "Coaches may not register members.");
+        assertEquals(400, send(request("admin", "/members?level=MASTER").build()).statusCode());
+        assertEquals(404, send(request("admin", "/members/99").build()).statusCode());
+    }
+
+    @Test
+    void registerMemberAndTrainingResult_AreVisibleToOtherUsers() throws Exception {
+        HttpResponse<String> registered = send(post("admin", "/members", memberForm(1)));
+        assertEquals(201, registered.statusCode(), registered.body());
+        Member member = memberRepository.findAll().get(0);
+
+        HttpResponse<String> result = send(post("coach", "/results/training",
+                "memberId=" + member.getMemberId() + "&activityType=CRAWL&time=61.5&date=01-02-2024"));
+        assertEquals(201, result.statusCode(), result.body());
+
+        HttpResponse<String> top = send(request("admin", "/results/training/top?activityType=CRAWL&level=SENIOR&count=3").build());
+        assertEquals(200, top.statusCode());
+        assertTrue(top.body().contains("\"time\":61.5"), top.body());
+        assertEquals(400, send(request("admin", "/results/training/top?activityType=CRAWL&level=SENIOR&count=-1").build()).statusCode());
+    }
+
+    @Test
+    void concurrentRegistrations_AllGetDistinctIds() throws Exception {
+        int requests = 100;
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 1; i <= requests; i++) {
+            responses.add(client.sendAsync(post("admin", "/members", memberForm(i)), HttpResponse.BodyHandlers.ofString()));
+        }
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            assertEquals(201, response.join().statusCode(), response.join().body());
+        }
+
+        List<Member> members = memberRepository.findAll();
+        assertEquals(requests, members.size());
+        assertEquals(requests, members.stream().map(Member::getMemberId).distinct().count(),
+                "Writes under the member lock should never hand out the same ID twice.");
+    }
+}
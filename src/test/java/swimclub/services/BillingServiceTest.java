@@ -0,0 +1,103 @@
+package swimclub.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import swimclub.models.*;
+import swimclub.repositories.MemberRepository;
+import swimclub.repositories.PaymentRepository;
+import swimclub.utilities.DurableFile;
+import swimclub.utilities.FileHandler;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static swimclub.ClubFixture.*;
+
+class BillingServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private FileHandler fileHandler;
+    private MemberRepository memberRepository;
+    private PaymentRepository paymentRepository;
+    private PaymentService paymentService;
+    private BillingService billingService;
+
+    @BeforeEach
+    void setUp() {
+        fileHandler = createFileHandler(tempDir);
+        memberRepository = new MemberRepository(fileHandler);
+        memberRepository.save(createMember(1, 12, MembershipStatus.ACTIVE, PaymentStatus.COMPLETE));
+        memberRepository.save(createMember(2, 30, MembershipStatus.ACTIVE, PaymentStatus.COMPLETE));
+        memberRepository.save(createMember(3, 70, MembershipStatus.ACTIVE, PaymentStatus.COMPLETE));
+        memberRepository.save(createMember(4, 40, MembershipStatus.PASSIVE, PaymentStatus.COMPLETE));
+        paymentRepository = new PaymentRepository(path(tempDir, "reminders.dat"));
+        paymentService = new PaymentService(paymentRepository, fileHandler);
+        billingService = new BillingService(paymentService, paymentRepository, memberRepository, fileHandler, path(tempDir, "payments.dat"));
+    }
+
+    @Test
+    void runBillingCycle_BillsActiveAndPassiveMembersOnce() {
+        BillingService.BillingReport report = billingService.runBillingCycle(LocalDate.of(2025, 1, 1));
+
+        assertEquals(4, report.bills().size());
+        assertEquals(0, report.notBillable());
+        assertEquals((1000 + 1600 + 1200 + 500) * 100L, report.totalCents(), "Default rates: 1000 junior, 1600 senior.");
+        assertEquals(List.of(1, 2, 3, 4), report.bills().stream().map(bill -> bill.getMember().getMemberId()).toList());
+        assertEquals(4, report.bills().stream().map(Payment::getPaymentId).distinct().count(), "Every bill gets its own ID.");
+        assertEquals(PaymentStatus.PENDING, paymentRepository.findPaymentsByMemberId(3).get(0).getPaymentStatus());
+        assertEquals(4, memberRepository.findByPaymentStatus(PaymentStatus.PENDING).size());
+
+        assertEquals(4, fileHandler.loadPayments(path(tempDir, "payments.dat"), memberRepository).size(), "Bills are persisted.");
+
+        BillingService.BillingReport again = billingService.runBillingCycle(LocalDate.of(2025, 6, 1));
+        assertTrue(again.bills().isEmpty(), "A season is billed once.");
+        assertEquals(4, again.alreadyBilled());
+
+        assertEquals(4, billingService.runBillingCycle(LocalDate.of(2026, 1, 1)).bills().size());
+        assertEquals(8, paymentRepository.findAll().size());
+    }
+
+    @Test
+    void runBillingCycle_UsesTheRulesInEffectOnTheBillingDate() {
+        DurableFile.writeLines(path(tempDir, "paymentRates.dat"), List.of(
+                "Junior Rate: 1000.00",
+                "Senior Rate: 1600.00",
+                "Family Discount: 10",
+                "From 2026-01-01 Senior Rate: 2000.00"), "payment rates");
+        paymentService.updatePaymentRatesFromFile();
+
+        // All members live at the same address, so everyone after member 1 gets the family discount
+        assertEquals((1000 + 1440 + 1080 + 450) * 100L, billingService.runBillingCycle(LocalDate.of(2025, 1, 1)).totalCents());
+        assertEquals((1000 + 1800 + 1350 + 450) * 100L, billingService.runBillingCycle(LocalDate.of(2026, 1, 1)).totalCents(),
+                "The senior rate changes in 2026.");
+    }
+
+    @Test
+    void registerPayment_SettlesTheBillSoTheSeasonIsNotBilledAgain() {
+        billingService.runBillingCycle(LocalDate.of(2025, 1, 1));
+
+        paymentService.registerPayment(2, 1600, memberRepository, fileHandler, path(tempDir, "payments.dat"));
+
+        List<Payment> payments = paymentRepository.findPaymentsByMemberId(2);
+        assertEquals(1, payments.size(), "The bill is paid, no second payment is recorded.");
+        assertEquals(PaymentStatus.COMPLETE, payments.get(0).getPaymentStatus());
+        assertEquals(LocalDate.of(2025, 1, 1), payments.get(0).getPaymentDate(), "The bill keeps its season.");
+        assertEquals(PaymentStatus.COMPLETE, memberRepository.findById(2).getPaymentStatus());
+        assertEquals(PaymentStatus.COMPLETE,
+                fileHandler.loadPayments(path(tempDir, "payments.dat"), memberRepository).stream()
+                        .filter(payment -> payment.getMember().getMemberId() == 2).findFirst().orElseThrow().getPaymentStatus());
+
+        BillingService.BillingReport again = billingService.runBillingCycle(LocalDate.of(2025, 6, 1));
+        assertTrue(again.bills().isEmpty(), "Paid bills count as billed.");
+        assertEquals(4, again.alreadyBilled());
+
+        paymentService.registerPayment(3, 999, memberRepository, fileHandler, path(tempDir, "payments.dat"));
+        assertEquals(2, paymentRepository.findPaymentsByMemberId(3).size(), "A different amount is recorded as its own payment.");
+        assertEquals(PaymentStatus.PENDING, memberRepository.findById(3).getPaymentStatus(), "The bill is still open.");
+    }
+}
@@ -0,0 +1,108 @@
+package swimclub.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import swimclub.models.*;
+import swimclub.repositories.MemberRepository;
+import swimclub.repositories.TeamMembershipIndex;
+import swimclub.utilities.FileHandler;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static swimclub.ClubFixture.*;
+
+class MemberImportServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private FileHandler fileHandler;
+    private MemberRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        fileHandler = createFileHandler(tempDir);
+        repository = new MemberRepository(fileHandler);
+    }
+
+    private static String row(String name, int age, String phoneNumber) {
+        return name + ";" + name.toLowerCase() + "@example.com;Valby;Vej 1;Hovedstaden;2500;" + age + ";" + phoneNumber
+                + ";Senior Competitive;ACTIVE;CRAWL;PENDING";
+    }
+
+    @Test
+    void importMembers_ImportsValidRowsAndReportsInvalidOnes() throws IOException {
+        repository.save(new SeniorMember("1", "Existing", "existing@example.com", "Valby", "Vej 1", "Hovedstaden", 2500,
+                new MembershipType(MembershipCategory.COMPETITIVE, MembershipLevel.SENIOR), MembershipStatus.ACTIVE,
+                ActivityType.CRAWL, PaymentStatus.PENDING, 40, 20000000, "No team"));
+        String roster = String.join("\n",
+                "name;email;city;street;region;zipcode;age;phoneNumber;membershipType;membershipStatus;activityType;paymentStatus",
+                row("Anna", 30, "20000001"),
+                row("Bent", 30, "123"),            // Phone number too short
+                "",
+                row("Carl", 12, "20000003"),       // Junior by age
+                "Dorte;dorte@example.com;Valby",   // Too few fields
+                row("Erik", 45, "20000005"));
+
+        MemberImportService service = new MemberImportService(repository, 2); // Several batches
+        MemberImportService.ImportReport report = service.importMembers(new StringReader(roster));
+
+        assertEquals(List.of("Anna", "Carl", "Erik"), report.imported().stream().map(Member::getName).toList());
+        assertEquals(List.of(2, 3, 4), report.imported().stream().map(Member::getMemberId).toList(),
+                "Imported members get new IDs after the existing ones, in file order.");
+        assertEquals(List.of(3, 6), report.errors().stream().map(MemberImportService.RowError::lineNumber).toList());
+        assertEquals(MembershipLevel.JUNIOR, repository.findById(3).getMembershipType().getLevel());
+        assertEquals(4, repository.findAll().size());
+
+        // The batch was written to the member file
+        assertEquals(4, new MemberRepository(fileHandler).findAll().size());
+    }
+
+    @Test
+    void importMembers_AcceptsCommaSeparatedRows() throws IOException {
+        String roster = row("Anna", 30, "20000001").replace(';', ',') + "\n" + row("Bent", 30, "20000002").replace(';', ',');
+
+        MemberImportService.ImportReport report = new MemberImportService(repository).importMembers(new StringReader(roster));
+
+        assertFalse(report.hasErrors(), report.errors().toString());
+        assertEquals(2, repository.findAll().size());
+        assertEquals(List.of(repository.findById(1)), repository.search("anna"));
+    }
+
+    @Test
+    void importMembers_IgnoresTheTeamColumn() throws IOException {
+        String roster = row("Anna", 30, "20000001") + ";Sharks";
+
+        MemberImportService.ImportReport report = new MemberImportService(repository).importMembers(new StringReader(roster));
+
+        assertFalse(report.hasErrors(), report.errors().toString());
+        assertEquals(TeamMembershipIndex.NO_TEAM, repository.findById(1).getTeamName(),
+                "Teams are assigned through the team memberships, not by the import.");
+    }
+
+    @Test
+    void importMembers_KeepsBatchesSavedBeforeTheInputFails() {
+        String roster = row("Anna", 30, "20000001") + "\n" + row("Bent", 30, "20000002") + "\n" + row("Carl", 30, "20000003");
+        BufferedReader failing = new BufferedReader(new StringReader(roster)) {
+            private int lines;
+
+            @Override
+            public String readLine() throws IOException {
+                if (++lines > 2) {
+                    throw new IOException("Connection lost");
+                }
+                return super.readLine();
+            }
+        };
+
+        assertThrows(IOException.class, () -> new MemberImportService(repository, 2).importMembers(failing));
+        assertEquals(List.of("Anna", "Bent"), repository.findAll().stream().map(Member::getName).toList(),
+                "The first batch was saved before the third line was read.");
+    }
+}
@@ -146,7 +146,7 @@ class PaymentServiceTest {
         memberRepository.save(member2);
 
         // Act
-        String summary = paymentService.getPaymentSummary(memberRepository.findAll());
+        String summary = paymentService.getPaymentSummary(memberRepository);
 
         // Assert
         assertTrue(summary.contains("Total Members Paid: 1"), "Summary should indicate 1 member has paid.");
@@ -0,0 +1,95 @@
+package swimclub.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import swimclub.models.*;
+import swimclub.repositories.MemberRepository;
+import swimclub.repositories.PaymentRepository;
+import swimclub.utilities.DurableFile;
+import swimclub.utilities.FileHandler;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static swimclub.ClubFixture.*;
+
+class ReminderServiceTest {
+
+    private static final LocalDate BILLING_DATE = LocalDate.of(2025, 1, 1);
+    private static final LocalDate DUE_DATE = BILLING_DATE.plusDays(ReminderService.PAYMENT_TERM_DAYS);
+
+    @TempDir
+    Path tempDir;
+
+    private FileHandler fileHandler;
+    private MemberRepository memberRepository;
+    private PaymentRepository paymentRepository;
+    private PaymentService paymentService;
+    private ReminderService reminderService;
+
+    @BeforeEach
+    void setUp() {
+        fileHandler = createFileHandler(tempDir);
+        memberRepository = new MemberRepository(fileHandler);
+        for (int id = 1; id <= 3; id++) {
+            memberRepository.save(createMember(id, 30, MembershipStatus.ACTIVE, PaymentStatus.COMPLETE));
+        }
+        paymentRepository = new PaymentRepository(path(tempDir, "reminders.dat"));
+        paymentService = new PaymentService(paymentRepository, fileHandler);
+        reminderService = new ReminderService(paymentService, paymentRepository, memberRepository);
+    }
+
+    @Test
+    void generateReminders_OneReminderPerBillUntilOverdue() {
+        new BillingService(paymentService, paymentRepository, memberRepository, fileHandler, path(tempDir, "payments.dat"))
+                .runBillingCycle(BILLING_DATE);
+        paymentService.registerPayment(3, 1600, memberRepository, fileHandler, path(tempDir, "payments.dat")); // Member 3 paid
+
+        List<Reminder> created = reminderService.generateReminders(BILLING_DATE.plusDays(1));
+        assertEquals(List.of(1, 2), created.stream().map(Reminder::getMemberId).toList());
+        assertEquals("Payment of 1600.00 DKK is due " + DUE_DATE, paymentRepository.findReminder(1, DUE_DATE).getMessage());
+        assertTrue(reminderService.generateReminders(BILLING_DATE.plusDays(2)).isEmpty(), "Nothing changes until the due date.");
+
+        assertEquals(2, reminderService.generateReminders(DUE_DATE.plusDays(1)).size());
+        assertTrue(paymentRepository.findReminder(2, DUE_DATE).getMessage().startsWith("Overdue"));
+        assertEquals(2, paymentRepository.getReminders().size(), "The overdue reminder replaces the first one.");
+
+        PaymentRepository reloaded = new PaymentRepository(path(tempDir, "reminders.dat"));
+        assertEquals(paymentRepository.findReminder(1, DUE_DATE).getMessage(), reloaded.findReminder(1, DUE_DATE).getMessage());
+    }
+
+    @Test
+    void generateReminders_PendingMemberWithoutBill() {
+        Member member = memberRepository.findById(2);
+        member.setPaymentStatus(PaymentStatus.PENDING);
+        memberRepository.update(member);
+
+        List<Reminder> created = reminderService.generateReminders(BILLING_DATE);
+        assertEquals(1, created.size());
+        assertEquals(BILLING_DATE, created.get(0).getDueDate());
+        assertTrue(reminderService.generateReminders(BILLING_DATE.plusDays(1)).isEmpty(), "A member is reminded once.");
+    }
+
+    @Test
+    void loadReminders_ReadsRemindersWithoutDueDate() {
+        DurableFile.writeLines(path(tempDir, "reminders.dat"), List.of(
+                "Reminder for Member ID: 4: Payment reminder for Martin",
+                "5;2025-01-31;Payment of 1600.0 DKK; late"), "reminders");
+
+        PaymentRepository loaded = new PaymentRepository(path(tempDir, "reminders.dat"));
+        assertEquals("Payment reminder for Martin", loaded.findRemindersByMemberId(4).get(0).getMessage());
+        assertEquals("Payment of 1600.0 DKK; late", loaded.findReminder(5, LocalDate.of(2025, 1, 31)).getMessage());
+        assertTrue(loaded.removeReminder(4, "Payment reminder for Martin"));
+        assertEquals(1, loaded.getReminders().size());
+    }
+
+    @Test
+    void setPaymentReminder_ReportsReplacingTodaysReminder() {
+        assertFalse(paymentService.setPaymentReminder(1, "Please pay"));
+        assertTrue(paymentService.setPaymentReminder(1, "Please pay soon"), "One reminder per member and day.");
+        assertEquals("Please pay soon", paymentRepository.findReminder(1, LocalDate.now()).getMessage());
+    }
+}
@@ -0,0 +1,64 @@
+package swimclub.utilities;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import swimclub.models.*;
+import swimclub.repositories.MemberRepository;
+import swimclub.repositories.StaffRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static swimclub.ClubFixture.*;
+
+class ClubDataGeneratorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void generate_WritesFilesThatLoadWithMatchingIds() throws IOException {
+        new ClubDataGenerator(7).generate(tempDir, 1000);
+        FileHandler fileHandler = createFileHandler(tempDir);
+
+        MemberRepository memberRepository = new MemberRepository(fileHandler);
+        assertEquals(1000, memberRepository.findAll().size(), "Every generated member should pass parsing and validation.");
+
+        List<Payment> payments = fileHandler.loadPayments(path(tempDir, "payments.dat"), memberRepository);
+        assertEquals(1000, payments.size());
+        for (Payment payment : payments) {
+            assertEquals(payment.getMember().getPaymentStatus(), payment.getPaymentStatus());
+        }
+
+        List<Team> teams = fileHandler.loadTeams(memberRepository.findAll(), new StaffRepository(fileHandler));
+        int teamMembers = 0;
+        for (Team team : teams) {
+            assertNotNull(team.getTeamCoach(), "Every team's coach should be in staff.dat.");
+            for (Member member : team.getMembers()) {
+                assertEquals(team.getTeamName(), member.getTeamName());
+                teamMembers++;
+            }
+        }
+        List<TrainingResults> trainingResults = fileHandler.loadTrainingResults(path(tempDir, "trainingResults.dat"), memberRepository);
+        assertEquals(teamMembers, trainingResults.size(), "Every competitive member is on a team and has a training result.");
+        assertFalse(fileHandler.loadCompetitionResults(path(tempDir, "competitionResults.dat"), memberRepository).isEmpty());
+    }
+
+    @Test
+    void generate_IsDeterministicPerSeed() throws IOException {
+        Path first = tempDir.resolve("first");
+        Path second = tempDir.resolve("second");
+        Path otherSeed = tempDir.resolve("otherSeed");
+        new ClubDataGenerator(7).generate(first, 300);
+        new ClubDataGenerator(7).generate(second, 300);
+        new ClubDataGenerator(8).generate(otherSeed, 300);
+
+        for (String file : List.of("members.dat", "payments.dat", "teams.dat", "staff.dat", "trainingResults.dat", "competitionResults.dat")) {
+            assertArrayEquals(Files.readAllBytes(first.resolve(file)), Files.readAllBytes(second.resolve(file)), file);
+        }
+        assertFalse(Files.readString(first.resolve("members.dat")).equals(Files.readString(otherSeed.resolve("members.dat"))));
+    }
+}
@@ -0,0 +1,80 @@
+package swimclub.utilities;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DurableFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void writeLines_ReplacesFileWithChecksumTrailerAndLeavesNoTempFiles() throws IOException {
+        Path file = tempDir.resolve("teams.dat");
+        Files.writeString(file, "old content\n");
+
+        assertTrue(DurableFile.writeLines(file.toString(), List.of("Team A;JUNIOR;1;1,2", "Team B;SENIOR;null;"), "teams"));
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(2).startsWith(DurableFile.CHECKSUM_PREFIX));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(List.of(file), files.collect(Collectors.toList()), "The temp file should be moved into place.");
+        }
+    }
+
+    @Test
+    void newVerifiedReader_ReturnsContentWithoutTrailer() throws IOException {
+        Path file = tempDir.resolve("staff.dat");
+        DurableFile.writeLines(file.toString(), List.of("line 1", "line 2"), "coaches");
+
+        try (BufferedReader reader = DurableFile.newVerifiedReader(file.toString())) {
+            assertEquals(List.of("line 1", "line 2"), reader.lines().collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void newVerifiedReader_RejectsDamagedFilesAndKeepsACopy() throws IOException {
+        Path file = tempDir.resolve("members.dat");
+        DurableFile.writeLines(file.toString(), List.of("1;Alice", "2;Bob"), "members");
+        Files.writeString(file, Files.readString(file).replace("Bob", "Bib"));
+
+        assertThrows(DurableFile.CorruptFileException.class, () -> DurableFile.newVerifiedReader(file.toString()));
+        assertTrue(Files.readString(tempDir.resolve("members.dat.corrupt")).contains("Bib"),
+                "The damaged file should be kept so the next save cannot destroy it.");
+    }
+
+    @Test
+    void newVerifiedReader_RejectsFilesWithoutTrailerUntilMigrated() throws IOException {
+        Path file = tempDir.resolve("payments.dat");
+        Files.writeString(file, "1;1;1000.0;2024-01-01;COMPLETE\n");
+
+        assertThrows(DurableFile.CorruptFileException.class, () -> DurableFile.newVerifiedReader(file.toString()));
+
+        assertTrue(DurableFile.migrateLegacyFile(file));
+        assertFalse(DurableFile.migrateLegacyFile(file), "A file with a trailer should not be migrated again.");
+        try (BufferedReader reader = DurableFile.newVerifiedReader(file.toString())) {
+            assertEquals(List.of("1;1;1000.0;2024-01-01;COMPLETE"), reader.lines().collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void newVerifiedReader_ReadsEmptyFilesAsNoLines() throws IOException {
+        Path file = tempDir.resolve("reminders.dat");
+        Files.createFile(file);
+
+        try (BufferedReader reader = DurableFile.newVerifiedReader(file.toString())) {
+            assertNull(reader.readLine());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package swimclub.utilities;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import swimclub.repositories.PaymentRepository;
+import swimclub.services.PaymentService;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static swimclub.ClubFixture.*;
+
+class FileChangeWatcherTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void paymentRates_AreReloadedWhenTheFileChanges() throws Exception {
+        DurableFile.writeLines(path(tempDir, "paymentRates.dat"), List.of("Junior Rate: 1000.00", "Senior Rate: 1600.00"), "payment rates");
+        FileHandler fileHandler = createFileHandler(tempDir);
+        PaymentService paymentService = new PaymentService(new PaymentRepository(path(tempDir, "reminders.dat")), fileHandler);
+        Semaphore reloads = new Semaphore(0);
+        FileChangeWatcher watcher = new FileChangeWatcher(Path.of(path(tempDir, "paymentRates.dat")), () -> {
+            paymentService.updatePaymentRatesFromFile();
+            reloads.release();
+        });
+        watcher.start();
+        try {
+            DurableFile.writeLines(path(tempDir, "other.dat"), List.of("Senior Rate: 1.00"), "other");
+            DurableFile.writeLines(path(tempDir, "paymentRates.dat"), List.of("Junior Rate: 1000.00", "Senior Rate: 1800.00"), "payment rates");
+
+            assertTrue(reloads.tryAcquire(10, TimeUnit.SECONDS), "The change is picked up without a restart.");
+            assertEquals(1800, paymentService.getPaymentRates()[1]);
+            assertFalse(reloads.tryAcquire(FileChangeWatcher.SETTLE_MILLIS * 3, TimeUnit.MILLISECONDS),
+                    "One write causes one reload, other files cause none.");
+        } finally {
+            watcher.stop();
+        }
+        assertThrows(IllegalStateException.class, () -> {
+            watcher.start();
+            watcher.start();
+        });
+        watcher.stop();
+    }
+
+    @Test
+    void paymentRates_HandEditsAreReloadedAndInvalidEditsKeepTheCurrentRates() throws Exception {
+        Path ratesFile = tempDir.resolve("paymentRates.dat");
+        DurableFile.writeLines(ratesFile.toString(), List.of("Junior Rate: 1000.00", "Senior Rate: 1600.00"), "payment rates");
+        PaymentService paymentService = new PaymentService(new PaymentRepository(path(tempDir, "reminders.dat")), createFileHandler(tempDir));
+        Semaphore reloads = new Semaphore(0);
+        FileChangeWatcher watcher = new FileChangeWatcher(ratesFile, () -> {
+            paymentService.updatePaymentRatesFromFile();
+            reloads.release();
+        });
+        watcher.start();
+        try {
+            // Edited in a text editor: the checksum trailer written by the program is now stale
+            String content = Files.readString(ratesFile);
+            Files.writeString(ratesFile, content.replace("Senior Rate: 1600.00", "Senior Rate: 1900.00"));
+            assertTrue(reloads.tryAcquire(10, TimeUnit.SECONDS));
+            assertEquals(1900, paymentService.getPaymentRates()[1], "A hand edit is used, not rejected as damaged.");
+            assertFalse(Files.exists(Path.of(ratesFile + ".corrupt")));
+
+            Files.writeString(ratesFile, "Junior Rate: 1000.00\nSenior Rate: lots\n");
+            assertTrue(reloads.tryAcquire(10, TimeUnit.SECONDS));
+            assertEquals(1900, paymentService.getPaymentRates()[1], "An invalid edit keeps the current rates.");
+        } finally {
+            watcher.stop();
+        }
+    }
+}
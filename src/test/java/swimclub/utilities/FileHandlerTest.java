@@ -0,0 +1,49 @@
+package swimclub.utilities;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import swimclub.models.*;
+import swimclub.repositories.MemberRepository;
+import swimclub.repositories.StaffRepository;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static swimclub.ClubFixture.*;
+
+class FileHandlerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void loadTeams_ResolvesWholeRosterAndSkipsUnknownIds() throws IOException {
+        new ClubDataGenerator(7).generate(tempDir, 1000);
+        FileHandler fileHandler = createFileHandler(tempDir);
+        MemberRepository memberRepository = new MemberRepository(fileHandler);
+        StaffRepository staffRepository = new StaffRepository(fileHandler);
+        int coachId = staffRepository.findAll().get(0).getCoachId();
+
+        String allMemberIds = IntStream.rangeClosed(1, 1000).mapToObj(String::valueOf).collect(Collectors.joining(","));
+        DurableFile.writeLines(path(tempDir, "teams.dat"), List.of(
+                "Everyone;SENIOR_COMPETITIVE;" + coachId + ";" + allMemberIds + ",1,5000,abc", // Duplicate, unknown and invalid IDs
+                "Ghosts;JUNIOR_COMPETITIVE;9999;5001,5002"), "teams");
+
+        for (List<Team> teams : List.of(fileHandler.loadTeams(memberRepository::findById, staffRepository),
+                fileHandler.loadTeams(memberRepository.findAll(), staffRepository))) {
+            assertEquals(2, teams.size());
+            Team everyone = teams.get(0);
+            assertEquals(1000, everyone.getMembers().size(), "Each member is added once, unknown IDs are skipped.");
+            assertSame(memberRepository.findById(1000), everyone.getMembers().get(999));
+            assertNotNull(everyone.getTeamCoach());
+
+            Team ghosts = teams.get(1);
+            assertNull(ghosts.getTeamCoach());
+            assertTrue(ghosts.getMembers().isEmpty());
+        }
+    }
+}
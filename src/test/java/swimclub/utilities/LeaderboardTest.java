@@ -0,0 +1,88 @@
+package swimclub.utilities;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import swimclub.models.*;
+import swimclub.repositories.MemberRepository;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static swimclub.ClubFixture.*;
+
+class LeaderboardTest {
+
+    @TempDir
+    Path tempDir;
+
+    private TrainingResults result(int memberId, MembershipLevel level, ActivityType activityType, double time) {
+        Member member = new SeniorMember(String.valueOf(memberId), "Member " + memberId, "m@example.com", "City", "Street", "Region",
+                1234, new MembershipType(MembershipCategory.COMPETITIVE, level), MembershipStatus.ACTIVE,
+                activityType, PaymentStatus.COMPLETE, level == MembershipLevel.JUNIOR ? 15 : 30, 12345678, "No team");
+        return new TrainingResults(member, level, activityType, time, "2024-01-01");
+    }
+
+    @Test
+    void getTop_KeepsOnlyTheBestResultsPerDisciplineAndLevel() {
+        Leaderboard leaderboard = new Leaderboard(3);
+        leaderboard.offer(result(1, MembershipLevel.SENIOR, ActivityType.CRAWL, 60.0));
+        leaderboard.offer(result(2, MembershipLevel.SENIOR, ActivityType.CRAWL, 55.0));
+        leaderboard.offer(result(3, MembershipLevel.SENIOR, ActivityType.CRAWL, 70.0));
+        leaderboard.offer(result(4, MembershipLevel.SENIOR, ActivityType.CRAWL, 50.0));
+        leaderboard.offer(result(5, MembershipLevel.JUNIOR, ActivityType.CRAWL, 40.0));
+        leaderboard.offer(result(6, MembershipLevel.SENIOR, ActivityType.BUTTERFLY, 45.0));
+
+        List<Double> times = new ArrayList<>();
+        for (TrainingResults result : leaderboard.getTop(ActivityType.CRAWL, MembershipLevel.SENIOR, 3)) {
+            times.add(result.getTime());
+        }
+        assertEquals(List.of(50.0, 55.0, 60.0), times);
+        assertEquals(1, leaderboard.getTop(ActivityType.CRAWL, MembershipLevel.JUNIOR, 3).size());
+        assertTrue(leaderboard.getTop(ActivityType.BACKCRAWL, MembershipLevel.SENIOR, 3).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> leaderboard.getTop(ActivityType.CRAWL, MembershipLevel.SENIOR, 4));
+        assertThrows(IllegalArgumentException.class, () -> leaderboard.getTop(ActivityType.CRAWL, MembershipLevel.SENIOR, -1));
+    }
+
+    @Test
+    void offer_MovesAnImprovedResultAndAsksForRebuildWhenOneGetsWorse() {
+        Leaderboard leaderboard = new Leaderboard(2);
+        TrainingResults first = result(1, MembershipLevel.SENIOR, ActivityType.CRAWL, 50.0);
+        TrainingResults second = result(2, MembershipLevel.SENIOR, ActivityType.CRAWL, 60.0);
+        TrainingResults third = result(3, MembershipLevel.SENIOR, ActivityType.CRAWL, 70.0);
+        List<TrainingResults> all = List.of(first, second, third);
+        leaderboard.rebuild(all);
+
+        third.setTime(40.0);
+        assertTrue(leaderboard.offer(third));
+        assertEquals(List.of(third, first), leaderboard.getTop(ActivityType.CRAWL, MembershipLevel.SENIOR, 2));
+
+        first.setTime(80.0);
+        assertFalse(leaderboard.offer(first), "The second place is now held by a result that is not on the board.");
+        leaderboard.rebuild(all);
+        assertEquals(List.of(third, second), leaderboard.getTop(ActivityType.CRAWL, MembershipLevel.SENIOR, 2));
+    }
+
+    @Test
+    void offer_PutsResultsWithoutALevelOnTheBoardOfTheMembersLevel() {
+        MemberRepository memberRepository = new MemberRepository(createFileHandler(tempDir));
+        Member eighteen = createMember(1, "Eighteen");
+        eighteen.setAge(18); // Still a senior membership until the repository corrects it
+        Member nineteen = createMember(2, "Nineteen");
+        nineteen.setAge(19);
+        memberRepository.save(eighteen);
+        memberRepository.save(nineteen);
+
+        Leaderboard leaderboard = new Leaderboard(3);
+        TrainingResults juniorResult = new TrainingResults(eighteen, null, ActivityType.CRAWL, 50.0, "2024-01-01");
+        TrainingResults seniorResult = new TrainingResults(nineteen, null, ActivityType.CRAWL, 55.0, "2024-01-01");
+
+        leaderboard.offer(juniorResult);
+        leaderboard.offer(seniorResult);
+
+        assertEquals(List.of(juniorResult), leaderboard.getTop(ActivityType.CRAWL, MembershipLevel.JUNIOR, 3),
+                "Members are juniors up to and including 18, like the member repository decides.");
+        assertEquals(List.of(seniorResult), leaderboard.getTop(ActivityType.CRAWL, MembershipLevel.SENIOR, 3));
+    }
+}
@@ -0,0 +1,118 @@
+package swimclub.utilities;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import swimclub.models.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedResultReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final Member member = new SeniorMember("1", "Alice", "alice@example.com", "City", "Street", "Region",
+            1234, new MembershipType(MembershipCategory.COMPETITIVE, MembershipLevel.SENIOR),
+            MembershipStatus.ACTIVE, ActivityType.CRAWL, PaymentStatus.PENDING, 30, 12345678, "No team");
+
+    private Member findMember(int id) {
+        return id == 1 ? member : null;
+    }
+
+    /**
+     * Adds the checksum trailer DurableFile writes, keeping the line breaks of the content as they are.
+     */
+    private static String withTrailer(String content) {
+        CRC32 crc = new CRC32();
+        crc.update(content.getBytes(StandardCharsets.UTF_8));
+        return content + DurableFile.checksumLine(crc.getValue()) + "\n";
+    }
+
+    @Test
+    void streamTrainingResults_ParsesRecordsAcrossWindowBoundaries() throws IOException {
+        Path file = tempDir.resolve("trainingResults.dat");
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            content.append("1;SENIOR;BUTTERFLY;").append(i).append(".25;08-12-2024\r\n");
+        }
+        Files.writeString(file, withTrailer(content.toString()));
+
+        List<TrainingResults> results;
+        try (Stream<TrainingResults> stream = MappedResultReader.streamTrainingResults(file, this::findMember, 64)) {
+            results = stream.collect(Collectors.toList());
+        }
+
+        assertEquals(100, results.size());
+        assertEquals(ActivityType.BUTTERFLY, results.get(99).getActivityType());
+        assertEquals(99.25, results.get(99).getTime());
+        assertEquals("08-12-2024", results.get(99).getDate());
+    }
+
+    @Test
+    void streamTrainingResults_SkipsInvalidLinesAndUnknownMembers() throws IOException {
+        Path file = tempDir.resolve("trainingResults.dat");
+        Files.writeString(file, withTrailer("1;SENIOR;CRAWL;19.0;08-12-2024\n"
+                + "1;SENIOR;DOGPADDLE;19.0;08-12-2024\n"
+                + "\n"
+                + "2;SENIOR;CRAWL;20.0;08-12-2024\n"
+                + "1;junior;backcrawl;1e1;09-12-2024\n"));
+
+        List<TrainingResults> results;
+        try (Stream<TrainingResults> stream = MappedResultReader.streamTrainingResults(file, this::findMember)) {
+            results = stream.collect(Collectors.toList());
+        }
+
+        assertEquals(2, results.size());
+        assertEquals(MembershipLevel.JUNIOR, results.get(1).getLevel());
+        assertEquals(10.0, results.get(1).getTime());
+    }
+
+    @Test
+    void competitionResults_LoadWhatSaveWrites() {
+        String filePath = tempDir.resolve("competitionResults.dat").toString();
+        FileHandler fileHandler = new FileHandler(tempDir.resolve("members.dat").toString(), null, null, null,
+                null, filePath, null, null);
+        CompetitionResults result = new CompetitionResults(member, MembershipLevel.SENIOR, "Nationals", 2, 61.37,
+                "01-06-2024", ActivityType.CRAWL);
+
+        fileHandler.saveCompetitionResults(List.of(result), filePath);
+        List<CompetitionResults> loaded;
+        try (Stream<CompetitionResults> stream = MappedResultReader.streamCompetitionResults(Path.of(filePath), this::findMember)) {
+            loaded = stream.collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+
+        assertEquals(1, loaded.size());
+        assertEquals("Nationals", loaded.get(0).getEvent());
+        assertEquals(2, loaded.get(0).getPlacement());
+        assertEquals(61.37, loaded.get(0).getTime());
+        assertEquals("01-06-2024", loaded.get(0).getDate());
+    }
+
+    @Test
+    void streamTrainingResults_FailsOnDamagedOrTruncatedFiles() throws IOException {
+        Path damaged = tempDir.resolve("damaged.dat");
+        Files.writeString(damaged, withTrailer("1;SENIOR;CRAWL;19.0;08-12-2024\n").replace("19.0", "18.0"));
+        Path truncated = tempDir.resolve("truncated.dat");
+        Files.writeString(truncated, "1;SENIOR;CRAWL;19.0;08-12-2024\n");
+
+        for (Path file : List.of(damaged, truncated)) {
+            try (Stream<TrainingResults> stream = MappedResultReader.streamTrainingResults(file, this::findMember)) {
+                UncheckedIOException e = assertThrows(UncheckedIOException.class, () -> stream.collect(Collectors.toList()));
+                assertInstanceOf(DurableFile.CorruptFileException.class, e.getCause());
+            }
+            assertEquals(Files.readString(file), Files.readString(Path.of(file + ".corrupt")), "The damaged file is quarantined");
+        }
+    }
+}
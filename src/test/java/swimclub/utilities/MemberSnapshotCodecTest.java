@@ -0,0 +1,92 @@
+package swimclub.utilities;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import swimclub.models.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static swimclub.ClubFixture.*;
+
+class MemberSnapshotCodecTest {
+
+    @TempDir
+    Path tempDir;
+
+    private FileHandler fileHandler;
+    private Path memberFile;
+    private Path snapshotFile;
+
+    @BeforeEach
+    void setUp() {
+        memberFile = tempDir.resolve("members.dat");
+        snapshotFile = tempDir.resolve("members.snapshot");
+
+        fileHandler = createFileHandler(tempDir);
+    }
+
+    private List<Member> createMembers() {
+        return List.of(
+                new JuniorMember("1", "Åse Ørsted", "aase@example.com", "København", "Nørregade 1", "Hovedstaden",
+                        1050, new MembershipType(MembershipCategory.EXERCISE, MembershipLevel.JUNIOR),
+                        MembershipStatus.PASSIVE, ActivityType.BUTTERFLY, PaymentStatus.COMPLETE, 15, 12345678, "Team A"),
+                new SeniorMember("2", "Bob", "bob@example.com", "Odense", "Street 2", "Syddanmark",
+                        5000, new MembershipType(MembershipCategory.COMPETITIVE, MembershipLevel.SENIOR),
+                        MembershipStatus.ACTIVE, ActivityType.BACKCRAWL, PaymentStatus.FAILED, 45, 87654321, "No team")
+        );
+    }
+
+    @Test
+    void writeAndRead_PreservesAllFields() throws IOException {
+        List<Member> members = createMembers();
+
+        MemberSnapshotCodec.write(members, snapshotFile);
+        List<Member> loaded = MemberSnapshotCodec.read(snapshotFile);
+
+        assertEquals(members.size(), loaded.size());
+        for (int i = 0; i < members.size(); i++) {
+            assertEquals(fileHandler.formatMember(members.get(i)), fileHandler.formatMember(loaded.get(i)));
+            assertEquals(members.get(i).getClass(), loaded.get(i).getClass());
+        }
+    }
+
+    @Test
+    void read_RejectsFilesThatAreNotSnapshots() throws IOException {
+        Files.writeString(snapshotFile, "1;Alice;alice@example.com;City;Street;Region;1234;30;12345678;SENIOR COMPETITIVE");
+
+        assertThrows(IOException.class, () -> MemberSnapshotCodec.read(snapshotFile));
+    }
+
+    @Test
+    void loadMembers_FallsBackToTheMemberFileWhenTheSnapshotIsDamaged() throws IOException {
+        fileHandler.setMemberSnapshotPath(snapshotFile.toString());
+        fileHandler.saveMembers(createMembers());
+        byte[] bytes = Files.readAllBytes(snapshotFile);
+        int nameOffset = new String(bytes, StandardCharsets.ISO_8859_1).indexOf("Bob");
+        bytes[nameOffset] = 'R'; // Bob becomes Rob, the snapshot stays well-formed
+        Files.write(snapshotFile, bytes);
+
+        assertThrows(DurableFile.CorruptFileException.class, () -> MemberSnapshotCodec.read(snapshotFile));
+        List<Member> loaded = fileHandler.loadMembers();
+
+        assertEquals("Bob", loaded.get(1).getName(), "The member file is loaded instead of the damaged snapshot");
+    }
+
+    @Test
+    void convert_RoundTripsBetweenTextAndSnapshot() throws IOException {
+        fileHandler.saveMembers(createMembers());
+        List<String> originalLines = Files.readAllLines(memberFile);
+
+        assertTrue(fileHandler.convertMembersToSnapshot(snapshotFile.toString()));
+        Files.delete(memberFile);
+        assertTrue(fileHandler.convertSnapshotToMembers(snapshotFile.toString()));
+
+        assertEquals(originalLines, Files.readAllLines(memberFile));
+    }
+}
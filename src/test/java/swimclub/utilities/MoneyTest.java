@@ -0,0 +1,50 @@
+package swimclub.utilities;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void parse_ReadsAmountsAsWrittenByOlderVersions() {
+        assertEquals(160000, Money.parse("1600"));
+        assertEquals(160000, Money.parse("1600.0"));
+        assertEquals(160000, Money.parse("1600.00"));
+        assertEquals(120050, Money.parse("1200.5"));
+        assertEquals(133333, Money.parse("1333.3333333333333"));
+        assertEquals(133334, Money.parse("1333.335"), "The third decimal rounds half up.");
+        assertEquals(-1250, Money.parse("-12.50"));
+        assertEquals(50, Money.parse(".5"));
+
+        for (String invalid : new String[]{"", "-", ".", "12a", "1.2.3", "1e3"}) {
+            assertThrows(NumberFormatException.class, () -> Money.parse(invalid), invalid);
+        }
+        assertThrows(ArithmeticException.class, () -> Money.parse("999999999999999999999"));
+    }
+
+    @Test
+    void format_RoundTripsThroughParse() {
+        assertEquals("1600.00", Money.format(160000));
+        assertEquals("0.05", Money.format(5));
+        assertEquals("-12.50", Money.format(-1250));
+        for (long cents : new long[]{0, 1, 99, 100, 123456789, -7}) {
+            assertEquals(cents, Money.parse(Money.format(cents)));
+        }
+    }
+
+    @Test
+    void arithmetic_IsExact() {
+        assertEquals(120000, Money.percentOf(160000, 75));
+        assertEquals(100, Money.percentOf(133, 75), "99.75 cents round half up to 100.");
+        assertEquals(10, Money.ofDouble(0.1));
+
+        long total = 0;
+        for (int i = 0; i < 1_000_000; i++) {
+            total += Money.ofDouble(0.1); // Adding 0.1 as a double a million times drifts away from 100000
+        }
+        assertEquals(100_000_00, total);
+        assertEquals(1_000_000L * 160000, Money.times(160000, 1_000_000));
+        assertThrows(ArithmeticException.class, () -> Money.times(Long.MAX_VALUE, 2));
+    }
+}
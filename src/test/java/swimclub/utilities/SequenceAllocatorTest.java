@@ -0,0 +1,87 @@
+package swimclub.utilities;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SequenceAllocatorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void next_ContinuesAfterUsedIdsAndReservedBlocks() {
+        SequenceAllocator sequence = new SequenceAllocator();
+        assertEquals(1, sequence.peek());
+
+        sequence.advancePast(7);
+        sequence.advancePast(3); // Lower IDs don't move the sequence back
+        assertEquals(8, sequence.next());
+
+        assertEquals(9, sequence.reserve(100));
+        assertEquals(109, sequence.next(), "The next ID comes after the reserved block.");
+        assertThrows(IllegalArgumentException.class, () -> sequence.reserve(0));
+    }
+
+    @Test
+    void persistedSequence_DoesNotReuseIdsAfterRestart() {
+        String file = tempDir.resolve("members.dat.seq").toString();
+        SequenceAllocator first = new SequenceAllocator(file, "member IDs");
+        first.advancePast(10); // Seeded from the loaded data
+        assertEquals(11, first.next());
+        assertEquals(12, first.next());
+
+        // The members 11 and 12 were deleted again, the data on the next startup only goes up to 10
+        SequenceAllocator restarted = new SequenceAllocator(file, "member IDs");
+        restarted.advancePast(10);
+        assertEquals(11 + SequenceAllocator.BLOCK_SIZE + 1, restarted.next(), "Continues after the stored high-water mark.");
+    }
+
+    @Test
+    void persistedSequence_WritesTheFileOncePerBlock() throws IOException {
+        Path file = tempDir.resolve("payments.dat.seq");
+        SequenceAllocator sequence = new SequenceAllocator(file.toString(), "payment IDs");
+        assertEquals(1, sequence.next());
+        FileTime written = Files.getLastModifiedTime(file);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(0));
+
+        for (int i = 2; i <= SequenceAllocator.BLOCK_SIZE + 1; i++) {
+            assertEquals(i, sequence.next());
+        }
+        assertEquals(FileTime.fromMillis(0), Files.getLastModifiedTime(file), "IDs within the block don't rewrite the file.");
+
+        assertEquals(SequenceAllocator.BLOCK_SIZE + 2, sequence.next());
+        assertTrue(Files.getLastModifiedTime(file).compareTo(written) >= 0, "The next block is stored.");
+    }
+
+    @Test
+    void next_HandsOutDistinctIdsToConcurrentThreads() throws InterruptedException {
+        SequenceAllocator sequence = new SequenceAllocator();
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    ids.add(sequence.next());
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(8000, ids.size());
+        assertEquals(8001, sequence.peek());
+    }
+}
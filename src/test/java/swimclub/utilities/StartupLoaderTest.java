@@ -0,0 +1,77 @@
+package swimclub.utilities;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupLoaderTest {
+
+    @Test
+    void load_StartsADependentLoadOnlyAfterItsPrerequisite() throws InterruptedException {
+        StartupLoader loader = new StartupLoader(2);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean prerequisiteDone = new AtomicBoolean();
+        AtomicBoolean dependentSawPrerequisite = new AtomicBoolean();
+
+        CompletableFuture<String> members = loader.load("members", () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            prerequisiteDone.set(true);
+            return "members";
+        });
+        CompletableFuture<String> payments = loader.load("payments", () -> {
+            dependentSawPrerequisite.set(prerequisiteDone.get());
+            return "payments";
+        }, members);
+
+        Thread.sleep(50); // A free pool thread is available, but the dependent load must still wait
+        assertFalse(payments.isDone(), "Payments should not load before members are loaded.");
+        release.countDown();
+        loader.awaitAll();
+
+        assertTrue(dependentSawPrerequisite.get(), "Payments should start after members have finished.");
+        assertEquals("payments", payments.join());
+    }
+
+    @Test
+    void printLoadTimes_ListsLoadsInRegistrationOrderWithTotal() {
+        StartupLoader loader = new StartupLoader(2);
+        CompletableFuture<Integer> members = loader.load("members", () -> 1);
+        loader.load("payments", () -> 2, members);
+        loader.load("staff", () -> 3);
+        loader.awaitAll();
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(output));
+        try {
+            loader.printLoadTimes();
+        } finally {
+            System.setOut(originalOut);
+        }
+
+        String report = output.toString();
+        assertTrue(report.matches("(?s).*members: \\d+ ms.*payments: \\d+ ms.*staff: \\d+ ms.*Total: \\d+ ms.*"), report);
+    }
+
+    @Test
+    void awaitAll_RethrowsTheExceptionOfAFailedLoad() {
+        StartupLoader loader = new StartupLoader(1);
+        loader.load("members", () -> {
+            throw new IllegalStateException("members.dat unreadable");
+        });
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, loader::awaitAll);
+        assertEquals("members.dat unreadable", e.getMessage());
+    }
+}
@@ -0,0 +1,72 @@
+package swimclub.utilities;
+
+import org.junit.jupiter.api.Test;
+import swimclub.models.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+
+    private final Map<Integer, Member> members = new HashMap<>();
+    private final TrigramIndex<Member> index = new TrigramIndex<>(Member::getMemberId,
+            member -> List.of(member.getName(), member.getEmail(), member.getStreet()), members::get);
+
+    private Member add(int id, String name, String street) {
+        Member member = new SeniorMember(String.valueOf(id), name, name.toLowerCase().replace(' ', '.') + "@example.com",
+                "City", street, "Region", 1234, new MembershipType(MembershipCategory.EXERCISE, MembershipLevel.SENIOR),
+                MembershipStatus.ACTIVE, ActivityType.CRAWL, PaymentStatus.COMPLETE, 30, 12345678, "No team");
+        members.put(id, member);
+        index.add(member);
+        return member;
+    }
+
+    private List<Integer> ids(List<Member> results) {
+        return results.stream().map(Member::getMemberId).toList();
+    }
+
+    @Test
+    void search_FindsPrefixesAndSubstringsRankedByMatchQuality() {
+        add(1, "Anna Jensen", "Vesterbrogade 1");
+        add(2, "Johanna Nielsen", "Strandvejen 5");
+        add(3, "Annabel Hansen", "Vesterbrogade 9");
+
+        assertEquals(List.of(1, 3, 2), ids(index.search("anna", 10)), "Whole word, then start of a word, then anywhere.");
+        assertEquals(List.of(1, 3), ids(index.search("An vesterbro", 10)), "Short words match the start of a word.");
+        assertEquals(List.of(2), ids(index.search("johanna.nielsen@example", 10)));
+        assertEquals(List.of(1), ids(index.search("anna", 1)));
+        assertTrue(index.search("  ", 10).isEmpty());
+    }
+
+    @Test
+    void search_FindsNamesWithTyposAfterExactMatches() {
+        add(1, "Rasmus Sørensen", "Nørrebrogade 3");
+        add(2, "Magnus Sorensen", "Amagerbrogade 7");
+
+        assertEquals(List.of(1), ids(index.search("sørensn", 10)), "A missing letter should still find the member.");
+        assertEquals(List.of(2, 1), ids(index.search("sorensen", 10)), "The exact match ranks before the near match.");
+        assertTrue(index.search("xyzzy", 10).isEmpty());
+    }
+
+    @Test
+    void updateAndRemove_FollowChangesMadeInPlace() {
+        Member anna = add(1, "Anna Jensen", "Vesterbrogade 1");
+        add(2, "Emil Larsen", "Strandvejen 5");
+
+        anna.setName("Anna Olsen"); // Changed in place, the index still knows the old text
+        anna.setEmail("anna.olsen@example.com");
+        index.update(anna);
+        assertTrue(index.search("jensen", 10).isEmpty());
+        assertEquals(List.of(1), ids(index.search("olsen", 10)));
+
+        index.remove(anna);
+        members.remove(1);
+        assertTrue(index.search("anna", 10).isEmpty());
+
+        index.rebuild(members.values());
+        assertEquals(List.of(2), ids(index.search("lars", 10)));
+    }
+}
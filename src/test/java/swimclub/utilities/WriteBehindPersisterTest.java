@@ -0,0 +1,62 @@
+package swimclub.utilities;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteBehindPersisterTest {
+
+    @Test
+    void flush_WritesOnlyTheLatestContentPerFile() {
+        WriteBehindPersister persister = new WriteBehindPersister(60_000); // Long window, only flush() writes
+        List<String> written = new ArrayList<>();
+
+        persister.markDirty("teams.dat", () -> written.add("teams v1"));
+        persister.markDirty("teams.dat", () -> written.add("teams v2"));
+        persister.markDirty("staff.dat", () -> written.add("staff v1"));
+        assertTrue(written.isEmpty(), "Nothing should be written before the window has passed.");
+
+        persister.flush();
+
+        assertEquals(List.of("teams v2", "staff v1"), written);
+        assertFalse(persister.hasPendingWrites());
+        persister.shutdown();
+    }
+
+    @Test
+    void backgroundWriter_FlushesAfterTheWindow() throws InterruptedException {
+        WriteBehindPersister persister = new WriteBehindPersister(10);
+        List<String> written = new ArrayList<>();
+
+        persister.markDirty("teams.dat", () -> {
+            synchronized (written) {
+                written.add("teams");
+            }
+        });
+
+        for (int i = 0; i < 100 && persister.hasPendingWrites(); i++) {
+            Thread.sleep(10);
+        }
+        persister.flush(); // Waits for a flush that is still running
+        synchronized (written) {
+            assertEquals(List.of("teams"), written);
+        }
+        persister.shutdown();
+    }
+
+    @Test
+    void shutdown_DrainsPendingWritesAndWritesLaterOnesDirectly() {
+        WriteBehindPersister persister = new WriteBehindPersister(60_000);
+        List<String> written = new ArrayList<>();
+
+        persister.markDirty("reminders.dat", () -> written.add("pending"));
+        persister.shutdown();
+        assertEquals(List.of("pending"), written);
+
+        persister.markDirty("reminders.dat", () -> written.add("after shutdown"));
+        assertEquals(List.of("pending", "after shutdown"), written);
+    }
+}